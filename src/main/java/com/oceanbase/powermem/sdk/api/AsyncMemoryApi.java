@@ -3,11 +3,31 @@ package com.oceanbase.powermem.sdk.api;
 /**
  * Public interface for asynchronous memory operations.
  *
- * <p>Expected to be the Java counterpart of Python {@code AsyncMemory}. In Java this is typically
- * expressed as {@code CompletableFuture}-based methods or reactive streams.</p>
+ * <p>Java counterpart of Python {@code AsyncMemory}: every operation returns a {@code CompletableFuture}.
+ * Cancelling a returned future (or letting it time out) interrupts the running operation.</p>
  *
  * <p>Python reference: {@code src/powermem/core/async_memory.py}</p>
  */
 public interface AsyncMemoryApi {
-}
 
+    java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.AddMemoryResponse> addAsync(
+            com.oceanbase.powermem.sdk.model.AddMemoryRequest request);
+
+    java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.SearchMemoriesResponse> searchAsync(
+            com.oceanbase.powermem.sdk.model.SearchMemoriesRequest request);
+
+    java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.UpdateMemoryResponse> updateAsync(
+            com.oceanbase.powermem.sdk.model.UpdateMemoryRequest request);
+
+    java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.GetMemoryResponse> getAsync(
+            com.oceanbase.powermem.sdk.model.GetMemoryRequest request);
+
+    java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.DeleteMemoryResponse> deleteAsync(
+            String memoryId, String userId, String agentId);
+
+    java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.GetAllMemoriesResponse> getAllAsync(
+            com.oceanbase.powermem.sdk.model.GetAllMemoriesRequest request);
+
+    java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.DeleteAllMemoriesResponse> deleteAllAsync(
+            com.oceanbase.powermem.sdk.model.DeleteAllMemoriesRequest request);
+}
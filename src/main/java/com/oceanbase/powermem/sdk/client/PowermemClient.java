@@ -17,7 +17,8 @@ public class PowermemClient {
     public PowermemClient(com.oceanbase.powermem.sdk.config.MemoryConfig config) {
         this.config = config == null ? new com.oceanbase.powermem.sdk.config.MemoryConfig() : config;
         this.memory = new com.oceanbase.powermem.sdk.core.Memory(this.config);
-        this.asyncMemory = new com.oceanbase.powermem.sdk.core.AsyncMemory(this.config);
+        // share stores and connection pools with the synchronous facade
+        this.asyncMemory = new com.oceanbase.powermem.sdk.core.AsyncMemory(this.memory, this.config.getAsync(), null);
     }
 
     public static PowermemClientBuilder builder() {
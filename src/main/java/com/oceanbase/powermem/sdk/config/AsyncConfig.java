@@ -0,0 +1,71 @@
+package com.oceanbase.powermem.sdk.config;
+
+/**
+ * Execution settings for {@link com.oceanbase.powermem.sdk.core.AsyncMemory}.
+ *
+ * <p>No direct Python equivalent; Python {@code AsyncMemory} runs on the asyncio event loop.</p>
+ */
+public class AsyncConfig {
+    /**
+     * Use one virtual thread per operation when the runtime supports it (JDK 21+).
+     */
+    private boolean virtualThreads = true;
+    /**
+     * Platform thread pool size when virtual threads are off or unavailable (0 = 2 x CPUs, at least 4).
+     */
+    private int threadPoolSize = 0;
+    /**
+     * Max operations submitted but not yet finished; further submissions wait for a slot.
+     */
+    private int maxInFlight = 256;
+    /**
+     * How long a submission waits for an in-flight slot before it is rejected (0 = reject immediately).
+     */
+    private long acquireTimeoutMillis = 30000;
+    /**
+     * Default per-operation timeout (0 = none). A timed-out operation is interrupted.
+     */
+    private long operationTimeoutMillis = 0;
+
+    public AsyncConfig() {}
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int getThreadPoolSize() {
+        return threadPoolSize;
+    }
+
+    public void setThreadPoolSize(int threadPoolSize) {
+        this.threadPoolSize = threadPoolSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public long getAcquireTimeoutMillis() {
+        return acquireTimeoutMillis;
+    }
+
+    public void setAcquireTimeoutMillis(long acquireTimeoutMillis) {
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    public long getOperationTimeoutMillis() {
+        return operationTimeoutMillis;
+    }
+
+    public void setOperationTimeoutMillis(long operationTimeoutMillis) {
+        this.operationTimeoutMillis = operationTimeoutMillis;
+    }
+}
@@ -112,32 +112,67 @@ public final class ConfigLoader {
 
         VectorStoreConfig vector = config.getVectorStore();
         setIfPresent(values, vector::setProvider, "DATABASE_PROVIDER", "vector_store.provider");
+        String provider = vector.getProvider();
         setIfPresent(values, vector::setDatabasePath, "SQLITE_PATH", "vector_store.database_path");
         setIfPresent(values, v -> vector.setEnableWal(parseBoolean(v)), "SQLITE_ENABLE_WAL");
         setIfPresent(values, v -> vector.setTimeoutSeconds(parseInt(v)), "SQLITE_TIMEOUT");
-        setIfPresent(values, vector::setHost, "OCEANBASE_HOST", "POSTGRES_HOST", "vector_store.host");
-        setIfPresent(values, v -> vector.setPort(parseInt(v)), "OCEANBASE_PORT", "POSTGRES_PORT", "vector_store.port");
-        setIfPresent(values, vector::setUser, "OCEANBASE_USER", "POSTGRES_USER", "vector_store.user");
-        setIfPresent(values, vector::setPassword, "OCEANBASE_PASSWORD", "POSTGRES_PASSWORD", "vector_store.password");
-        setIfPresent(values, vector::setDatabase, "OCEANBASE_DATABASE", "POSTGRES_DATABASE", "vector_store.database");
-        setIfPresent(values, vector::setCollectionName, "OCEANBASE_COLLECTION", "POSTGRES_COLLECTION", "vector_store.collection_name");
-        setIfPresent(values, v -> vector.setEmbeddingModelDims(parseInt(v)), "OCEANBASE_EMBEDDING_MODEL_DIMS", "EMBEDDING_DIMS");
-        setIfPresent(values, vector::setIndexType, "OCEANBASE_INDEX_TYPE");
-        setIfPresent(values, vector::setMetricType, "OCEANBASE_VECTOR_METRIC_TYPE", "OCEANBASE_METRIC_TYPE");
-        setIfPresent(values, v -> vector.setHybridSearch(parseBoolean(v)), "OCEANBASE_HYBRID_SEARCH");
+        setIfPresent(values, v -> vector.setHnswEnabled(parseBoolean(v)),
+                providerFirst(provider, "", "SQLITE_HNSW_ENABLED", "LOCAL_HNSW_ENABLED"));
+        setIfPresent(values, v -> vector.setKeywordSearch(parseBoolean(v)), "SQLITE_KEYWORD_SEARCH");
+        setIfPresent(values, v -> vector.setHnswM(parseInt(v)),
+                providerFirst(provider, "", "SQLITE_HNSW_M", "POSTGRES_HNSW_M", "LOCAL_HNSW_M"));
+        setIfPresent(values, v -> vector.setHnswEfConstruction(parseInt(v)),
+                providerFirst(provider, "", "SQLITE_HNSW_EF_CONSTRUCTION", "POSTGRES_HNSW_EF_CONSTRUCTION", "LOCAL_HNSW_EF_CONSTRUCTION"));
+        setIfPresent(values, v -> vector.setHnswEfSearch(parseInt(v)),
+                providerFirst(provider, "", "SQLITE_HNSW_EF_SEARCH", "POSTGRES_HNSW_EF_SEARCH", "LOCAL_HNSW_EF_SEARCH"));
+        setIfPresent(values, vector::setLocalDataDir, "LOCAL_DATA_DIR", "vector_store.local_data_dir");
+        setIfPresent(values, v -> vector.setLocalCompactionMinDeleted(parseInt(v)), "LOCAL_COMPACTION_MIN_DELETED");
+        setIfPresent(values, vector::setHost, providerFirst(provider, "", "OCEANBASE_HOST", "POSTGRES_HOST", "vector_store.host"));
+        setIfPresent(values, v -> vector.setPort(parseInt(v)), providerFirst(provider, "", "OCEANBASE_PORT", "POSTGRES_PORT", "vector_store.port"));
+        setIfPresent(values, vector::setUser, providerFirst(provider, "", "OCEANBASE_USER", "POSTGRES_USER", "vector_store.user"));
+        setIfPresent(values, vector::setPassword, providerFirst(provider, "", "OCEANBASE_PASSWORD", "POSTGRES_PASSWORD", "vector_store.password"));
+        setIfPresent(values, vector::setDatabase, providerFirst(provider, "", "OCEANBASE_DATABASE", "POSTGRES_DATABASE", "vector_store.database"));
+        setIfPresent(values, vector::setCollectionName,
+                providerFirst(provider, "", "OCEANBASE_COLLECTION", "POSTGRES_COLLECTION", "vector_store.collection_name"));
+        setIfPresent(values, v -> vector.setEmbeddingModelDims(parseInt(v)),
+                providerFirst(provider, "", "OCEANBASE_EMBEDDING_MODEL_DIMS", "POSTGRES_EMBEDDING_MODEL_DIMS", "EMBEDDING_DIMS"));
+        setIfPresent(values, vector::setIndexType, providerFirst(provider, "", "OCEANBASE_INDEX_TYPE", "POSTGRES_INDEX_TYPE"));
+        setIfPresent(values, vector::setMetricType,
+                providerFirst(provider, "", "OCEANBASE_VECTOR_METRIC_TYPE", "OCEANBASE_METRIC_TYPE", "POSTGRES_VECTOR_METRIC_TYPE"));
+        setIfPresent(values, v -> vector.setHybridSearch(parseBoolean(v)),
+                providerFirst(provider, "", "OCEANBASE_HYBRID_SEARCH", "POSTGRES_HYBRID_SEARCH"));
         setIfPresent(values, vector::setFulltextParser, "OCEANBASE_FULLTEXT_PARSER");
         setIfPresent(values, v -> vector.setVectorWeight(parseDouble(v)), "OCEANBASE_VECTOR_WEIGHT");
         setIfPresent(values, v -> vector.setFtsWeight(parseDouble(v)), "OCEANBASE_FTS_WEIGHT");
         setIfPresent(values, vector::setFusionMethod, "OCEANBASE_FUSION_METHOD");
         setIfPresent(values, v -> vector.setRrfK(parseInt(v)), "OCEANBASE_RRF_K");
+        setIfPresent(values, v -> vector.setAnnExactScanThreshold(parseInt(v)), "OCEANBASE_ANN_EXACT_SCAN_THRESHOLD");
+        setIfPresent(values, v -> vector.setAnnMaxOverfetch(parseInt(v)), "OCEANBASE_ANN_MAX_OVERFETCH");
+        setIfPresent(values, v -> vector.setAnnStatsTtlSeconds(parseInt(v)), "OCEANBASE_ANN_STATS_TTL_SECONDS");
         setIfPresent(values, vector::setPrimaryField, "OCEANBASE_PRIMARY_FIELD");
         setIfPresent(values, vector::setVectorField, "OCEANBASE_VECTOR_FIELD");
         setIfPresent(values, vector::setTextField, "OCEANBASE_TEXT_FIELD");
         setIfPresent(values, vector::setMetadataField, "OCEANBASE_METADATA_FIELD");
         setIfPresent(values, vector::setVectorIndexName, "OCEANBASE_VIDX_NAME");
-        setIfPresent(values, vector::setSslmode, "DATABASE_SSLMODE");
+        setIfPresent(values, vector::setSslmode, "DATABASE_SSLMODE", "POSTGRES_SSLMODE");
+        setIfPresent(values, v -> vector.setIvfLists(parseInt(v)), "POSTGRES_IVF_LISTS");
+        setIfPresent(values, v -> vector.setIvfProbes(parseInt(v)), "POSTGRES_IVF_PROBES");
+        setIfPresent(values, vector::setTextSearchConfig, "POSTGRES_TEXT_SEARCH_CONFIG");
         setIfPresent(values, v -> vector.setPoolSize(parseInt(v)), "DATABASE_POOL_SIZE");
         setIfPresent(values, v -> vector.setMaxOverflow(parseInt(v)), "DATABASE_MAX_OVERFLOW");
+        setIfPresent(values, v -> vector.setPoolTimeoutSeconds(parseInt(v)), "DATABASE_POOL_TIMEOUT");
+        setIfPresent(values, v -> vector.setPoolIdleTimeoutSeconds(parseInt(v)), "DATABASE_POOL_IDLE_TIMEOUT");
+        setIfPresent(values, v -> vector.setQueryThreads(parseInt(v)), "DATABASE_QUERY_THREADS");
+        setIfPresent(values, v -> vector.setQueryQueueCapacity(parseInt(v)), "DATABASE_QUERY_QUEUE_CAPACITY");
+        setIfPresent(values, v -> vector.setHybridVectorTimeoutMillis(parseInt(v)), "OCEANBASE_HYBRID_VECTOR_TIMEOUT_MS");
+        setIfPresent(values, v -> vector.setHybridFtsTimeoutMillis(parseInt(v)), "OCEANBASE_HYBRID_FTS_TIMEOUT_MS");
+        setIfPresent(values, v -> vector.setAccessFlushIntervalMillis(parseInt(v)), "DATABASE_ACCESS_FLUSH_INTERVAL_MS");
+        setIfPresent(values, v -> vector.setAccessFlushMaxPending(parseInt(v)), "DATABASE_ACCESS_FLUSH_MAX_PENDING");
+        setIfPresent(values, v -> vector.setDeleteChunkSize(parseInt(v)), "DATABASE_DELETE_CHUNK_SIZE");
+        setIfPresent(values, v -> vector.setPromotedMetadataKeys(java.util.Arrays.asList(v.split(","))),
+                "DATABASE_PROMOTED_METADATA_KEYS");
+        setIfPresent(values, vector::setVectorQuantization, "DATABASE_VECTOR_QUANTIZATION", "vector_store.vector_quantization");
+        setIfPresent(values, v -> vector.setQuantizationOversample(parseInt(v)), "DATABASE_QUANTIZATION_OVERSAMPLE");
 
         // Graph store (optional). Mirrors Python graph_store.enable/provider and uses OceanBase by default.
         GraphStoreConfig graph = config.getGraphStore();
@@ -150,6 +185,10 @@ public final class ConfigLoader {
         setIfPresent(values, graph::setPassword, "GRAPH_STORE_PASSWORD", "OCEANBASE_PASSWORD");
         setIfPresent(values, graph::setDatabase, "GRAPH_STORE_DATABASE", "OCEANBASE_DATABASE");
         setIfPresent(values, v -> graph.setTimeoutSeconds(parseInt(v)), "GRAPH_STORE_TIMEOUT");
+        setIfPresent(values, v -> graph.setPoolSize(parseInt(v)), "GRAPH_STORE_POOL_SIZE", "DATABASE_POOL_SIZE");
+        setIfPresent(values, v -> graph.setMaxOverflow(parseInt(v)), "GRAPH_STORE_MAX_OVERFLOW", "DATABASE_MAX_OVERFLOW");
+        setIfPresent(values, v -> graph.setPoolTimeoutSeconds(parseInt(v)), "GRAPH_STORE_POOL_TIMEOUT", "DATABASE_POOL_TIMEOUT");
+        setIfPresent(values, v -> graph.setPoolIdleTimeoutSeconds(parseInt(v)), "GRAPH_STORE_POOL_IDLE_TIMEOUT", "DATABASE_POOL_IDLE_TIMEOUT");
         // Python parity options
         setIfPresent(values, graph::setEntitiesTable, "GRAPH_STORE_ENTITIES_TABLE", "GRAPH_STORE_TABLE_ENTITIES");
         setIfPresent(values, graph::setRelationshipsTable, "GRAPH_STORE_RELATIONSHIPS_TABLE", "GRAPH_STORE_TABLE_RELATIONSHIPS");
@@ -161,6 +200,11 @@ public final class ConfigLoader {
         setIfPresent(values, v -> graph.setMaxHops(parseInt(v)), "GRAPH_STORE_MAX_HOPS");
         setIfPresent(values, v -> graph.setSearchLimit(parseInt(v)), "GRAPH_STORE_SEARCH_LIMIT");
         setIfPresent(values, v -> graph.setBm25TopN(parseInt(v)), "GRAPH_STORE_BM25_TOP_N");
+        setIfPresent(values, v -> graph.setRecursiveTraversal(parseBoolean(v)), "GRAPH_STORE_RECURSIVE_TRAVERSAL",
+                "graph_store.recursive_traversal");
+        setIfPresent(values, v -> graph.setEntityCacheMaxBytes(parseLong(v)), "GRAPH_STORE_ENTITY_CACHE_MAX_BYTES",
+                "graph_store.entity_cache_max_bytes");
+        setIfPresent(values, graph::setSnapshotPath, "GRAPH_STORE_SNAPSHOT_PATH", "graph_store.snapshot_path");
         setIfPresent(values, graph::setCustomPrompt, "GRAPH_STORE_CUSTOM_PROMPT", "graph_store.custom_prompt");
         setIfPresent(values, graph::setCustomExtractRelationsPrompt, "GRAPH_STORE_CUSTOM_EXTRACT_RELATIONS_PROMPT");
         setIfPresent(values, graph::setCustomDeleteRelationsPrompt, "GRAPH_STORE_CUSTOM_DELETE_RELATIONS_PROMPT");
@@ -200,6 +244,13 @@ public final class ConfigLoader {
         setIfPresent(values, embedder::setModel, "EMBEDDING_MODEL");
         setIfPresent(values, v -> embedder.setEmbeddingDims(parseInt(v)), "EMBEDDING_DIMS");
         setIfPresent(values, embedder::setBaseUrl, "QWEN_EMBEDDING_BASE_URL", "OPEN_EMBEDDING_BASE_URL");
+        setIfPresent(values, v -> embedder.setBatchSize(parseInt(v)), "EMBEDDING_BATCH_SIZE");
+        setIfPresent(values, v -> embedder.setCacheEnabled(parseBoolean(v)), "EMBEDDING_CACHE_ENABLED");
+        setIfPresent(values, v -> embedder.setCacheMaxEntries(parseInt(v)), "EMBEDDING_CACHE_MAX_ENTRIES");
+        setIfPresent(values, embedder::setCachePath, "EMBEDDING_CACHE_PATH");
+        setIfPresent(values, v -> embedder.setCoalesceEnabled(parseBoolean(v)), "EMBEDDING_COALESCE_ENABLED");
+        setIfPresent(values, v -> embedder.setCoalesceMaxWaitMillis(parseInt(v)), "EMBEDDING_COALESCE_MAX_WAIT_MS");
+        setIfPresent(values, v -> embedder.setCoalesceMaxBatchSize(parseInt(v)), "EMBEDDING_COALESCE_MAX_BATCH_SIZE");
 
         // Sub stores (optional): route by metadata/filters to different store/embedder.
         // Python reference: Memory._init_sub_stores + SubStorageAdapter routing.
@@ -233,6 +284,7 @@ public final class ConfigLoader {
         setIfPresent(values, v -> intelligence.setWorkingThreshold(parseDouble(v)), "INTELLIGENT_MEMORY_WORKING_THRESHOLD");
         setIfPresent(values, v -> intelligence.setShortTermThreshold(parseDouble(v)), "INTELLIGENT_MEMORY_SHORT_TERM_THRESHOLD");
         setIfPresent(values, v -> intelligence.setLongTermThreshold(parseDouble(v)), "INTELLIGENT_MEMORY_LONG_TERM_THRESHOLD");
+        setIfPresent(values, v -> intelligence.setFactParallelism(parseInt(v)), "INTELLIGENT_MEMORY_FACT_PARALLELISM");
         setIfPresent(values, v -> intelligence.setDecayEnabled(parseBoolean(v)), "MEMORY_DECAY_ENABLED");
         setIfPresent(values, intelligence::setDecayAlgorithm, "MEMORY_DECAY_ALGORITHM");
         setIfPresent(values, v -> intelligence.setDecayBaseRetention(parseDouble(v)), "MEMORY_DECAY_BASE_RETENTION");
@@ -255,6 +307,13 @@ public final class ConfigLoader {
         setIfPresent(values, v -> telemetry.setBatchSize(parseInt(v)), "TELEMETRY_BATCH_SIZE");
         setIfPresent(values, v -> telemetry.setFlushIntervalSeconds(parseInt(v)), "TELEMETRY_FLUSH_INTERVAL");
 
+        AsyncConfig async = config.getAsync();
+        setIfPresent(values, v -> async.setVirtualThreads(parseBoolean(v)), "ASYNC_VIRTUAL_THREADS");
+        setIfPresent(values, v -> async.setThreadPoolSize(parseInt(v)), "ASYNC_THREAD_POOL_SIZE");
+        setIfPresent(values, v -> async.setMaxInFlight(parseInt(v)), "ASYNC_MAX_IN_FLIGHT");
+        setIfPresent(values, v -> async.setAcquireTimeoutMillis(parseInt(v)), "ASYNC_ACQUIRE_TIMEOUT_MS");
+        setIfPresent(values, v -> async.setOperationTimeoutMillis(parseInt(v)), "ASYNC_OPERATION_TIMEOUT_MS");
+
         AuditConfig audit = config.getAudit();
         setIfPresent(values, v -> audit.setEnabled(parseBoolean(v)), "AUDIT_ENABLED");
         setIfPresent(values, audit::setLogFile, "AUDIT_LOG_FILE");
@@ -419,16 +478,22 @@ public final class ConfigLoader {
         if (values == null || vs == null) return;
         String p = "SUB_STORE_" + idx + "_";
         setIfPresent(values, vs::setProvider, p + "DATABASE_PROVIDER");
+        String provider = vs.getProvider();
         setIfPresent(values, vs::setDatabasePath, p + "SQLITE_PATH");
         setIfPresent(values, v -> vs.setEnableWal(parseBoolean(v)), p + "SQLITE_ENABLE_WAL");
         setIfPresent(values, v -> vs.setTimeoutSeconds(parseInt(v)), p + "SQLITE_TIMEOUT", p + "OCEANBASE_TIMEOUT_SECONDS");
-
-        setIfPresent(values, vs::setHost, p + "OCEANBASE_HOST", p + "POSTGRES_HOST");
-        setIfPresent(values, v -> vs.setPort(parseInt(v)), p + "OCEANBASE_PORT", p + "POSTGRES_PORT");
-        setIfPresent(values, vs::setUser, p + "OCEANBASE_USER", p + "POSTGRES_USER");
-        setIfPresent(values, vs::setPassword, p + "OCEANBASE_PASSWORD", p + "POSTGRES_PASSWORD");
-        setIfPresent(values, vs::setDatabase, p + "OCEANBASE_DATABASE", p + "POSTGRES_DATABASE");
-        setIfPresent(values, vs::setCollectionName, p + "OCEANBASE_COLLECTION", p + "POSTGRES_COLLECTION", p + "COLLECTION", p + "NAME");
+        setIfPresent(values, v -> vs.setHnswEnabled(parseBoolean(v)),
+                providerFirst(provider, p, p + "SQLITE_HNSW_ENABLED", p + "LOCAL_HNSW_ENABLED"));
+        setIfPresent(values, v -> vs.setKeywordSearch(parseBoolean(v)), p + "SQLITE_KEYWORD_SEARCH");
+        setIfPresent(values, vs::setLocalDataDir, p + "LOCAL_DATA_DIR");
+
+        setIfPresent(values, vs::setHost, providerFirst(provider, p, p + "OCEANBASE_HOST", p + "POSTGRES_HOST"));
+        setIfPresent(values, v -> vs.setPort(parseInt(v)), providerFirst(provider, p, p + "OCEANBASE_PORT", p + "POSTGRES_PORT"));
+        setIfPresent(values, vs::setUser, providerFirst(provider, p, p + "OCEANBASE_USER", p + "POSTGRES_USER"));
+        setIfPresent(values, vs::setPassword, providerFirst(provider, p, p + "OCEANBASE_PASSWORD", p + "POSTGRES_PASSWORD"));
+        setIfPresent(values, vs::setDatabase, providerFirst(provider, p, p + "OCEANBASE_DATABASE", p + "POSTGRES_DATABASE"));
+        setIfPresent(values, vs::setCollectionName,
+                providerFirst(provider, p, p + "OCEANBASE_COLLECTION", p + "POSTGRES_COLLECTION", p + "COLLECTION", p + "NAME"));
 
         setIfPresent(values, v -> vs.setEmbeddingModelDims(parseInt(v)), p + "OCEANBASE_EMBEDDING_MODEL_DIMS", p + "EMBEDDING_DIMS", p + "EMBEDDING_MODEL_DIMS");
         setIfPresent(values, vs::setIndexType, p + "OCEANBASE_INDEX_TYPE");
@@ -508,6 +573,50 @@ public final class ConfigLoader {
         return o == null ? null : o.toString();
     }
 
+    /**
+     * Move the keys of the selected provider ({@code prefix + "OCEANBASE_"}, {@code "POSTGRES_"}, {@code "SQLITE_"}
+     * or {@code "LOCAL_"}) ahead of the others. {@link #setIfPresent} takes the first key that is set, and a .env
+     * commonly carries several provider blocks side by side (see .env.example), so a fixed order would let one
+     * provider's values shadow the selected one's.
+     */
+    private static String[] providerFirst(String provider, String prefix, String... keys) {
+        String own = providerKeyPrefix(provider);
+        if (own == null) {
+            return keys;
+        }
+        String first = prefix + own;
+        String[] out = new String[keys.length];
+        int n = 0;
+        for (String key : keys) {
+            if (key.startsWith(first)) out[n++] = key;
+        }
+        for (String key : keys) {
+            if (!key.startsWith(first)) out[n++] = key;
+        }
+        return out;
+    }
+
+    private static String providerKeyPrefix(String provider) {
+        if (provider == null || provider.isBlank()) {
+            return "SQLITE_";
+        }
+        switch (provider.trim().toLowerCase(java.util.Locale.ROOT)) {
+            case "sqlite":
+                return "SQLITE_";
+            case "oceanbase":
+            case "ob":
+                return "OCEANBASE_";
+            case "pgvector":
+            case "postgres":
+            case "postgresql":
+                return "POSTGRES_";
+            case "local":
+                return "LOCAL_";
+            default:
+                return null;
+        }
+    }
+
     private static void setIfPresent(Map<String, ?> values, java.util.function.Consumer<String> setter, String... keys) {
         for (String key : keys) {
             Object raw = values.get(key);
@@ -526,6 +635,14 @@ public final class ConfigLoader {
         }
     }
 
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (Exception ex) {
+            return 0L;
+        }
+    }
+
     private static double parseDouble(String value) {
         try {
             return Double.parseDouble(value.trim());
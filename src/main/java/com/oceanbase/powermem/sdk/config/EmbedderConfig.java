@@ -11,6 +11,30 @@ public class EmbedderConfig {
     private String model = "text-embedding-v4";
     private int embeddingDims = 1536;
     private String baseUrl = "https://dashscope.aliyuncs.com/api/v1";
+    /**
+     * Max texts per {@code embedBatch} request (DashScope text-embedding-v3/v4 accept at most 10).
+     */
+    private int batchSize = 10;
+    /**
+     * Cache vectors of provider-backed embedders (see {@code CachingEmbedder}). Off by default: the in-memory tier
+     * holds up to {@link #cacheMaxEntries} vectors per embedder, about {@code 4 * embeddingDims} bytes each
+     * (~60 MB at 10000 x 1536 dims), and sub-stores and the graph store each build their own embedder.
+     */
+    private boolean cacheEnabled = false;
+    private int cacheMaxEntries = 10000;
+    /**
+     * SQLite file for the persistent cache tier; null/blank keeps the cache in memory only.
+     */
+    private String cachePath;
+    /**
+     * Coalesce concurrent single-text requests into provider batches (see {@code CoalescingEmbedder}).
+     */
+    private boolean coalesceEnabled = false;
+    private long coalesceMaxWaitMillis = 5;
+    /**
+     * Texts per coalesced request; 0 uses {@link #batchSize}.
+     */
+    private int coalesceMaxBatchSize = 0;
 
     public EmbedderConfig() {}
 
@@ -21,6 +45,13 @@ public class EmbedderConfig {
         c.setModel(this.model);
         c.setEmbeddingDims(this.embeddingDims);
         c.setBaseUrl(this.baseUrl);
+        c.setBatchSize(this.batchSize);
+        c.setCacheEnabled(this.cacheEnabled);
+        c.setCacheMaxEntries(this.cacheMaxEntries);
+        c.setCachePath(this.cachePath);
+        c.setCoalesceEnabled(this.coalesceEnabled);
+        c.setCoalesceMaxWaitMillis(this.coalesceMaxWaitMillis);
+        c.setCoalesceMaxBatchSize(this.coalesceMaxBatchSize);
         return c;
     }
 
@@ -90,5 +121,60 @@ public class EmbedderConfig {
     public void setBaseUrl(String baseUrl) {
         this.baseUrl = baseUrl;
     }
-}
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    public void setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public void setCacheMaxEntries(int cacheMaxEntries) {
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    public String getCachePath() {
+        return cachePath;
+    }
+
+    public void setCachePath(String cachePath) {
+        this.cachePath = cachePath;
+    }
+
+    public boolean isCoalesceEnabled() {
+        return coalesceEnabled;
+    }
+
+    public void setCoalesceEnabled(boolean coalesceEnabled) {
+        this.coalesceEnabled = coalesceEnabled;
+    }
+
+    public long getCoalesceMaxWaitMillis() {
+        return coalesceMaxWaitMillis;
+    }
+
+    public void setCoalesceMaxWaitMillis(long coalesceMaxWaitMillis) {
+        this.coalesceMaxWaitMillis = coalesceMaxWaitMillis;
+    }
+
+    public int getCoalesceMaxBatchSize() {
+        return coalesceMaxBatchSize;
+    }
+
+    public void setCoalesceMaxBatchSize(int coalesceMaxBatchSize) {
+        this.coalesceMaxBatchSize = coalesceMaxBatchSize;
+    }
+}
@@ -28,6 +28,12 @@ public class GraphStoreConfig {
     private int maxHops = 3;
     private int searchLimit = 100;
     private int bm25TopN = 15;
+    // Multi-hop search as one WITH RECURSIVE statement (falls back to per-hop queries if unsupported).
+    private boolean recursiveTraversal = true;
+    // In-process entity vector cache for entity resolution (total bytes across scopes; 0 disables).
+    private long entityCacheMaxBytes = 0L;
+    // provider=memory: JSON snapshot file loaded on start and written on close (null keeps the graph in memory only).
+    private String snapshotPath;
 
     // Prompts customization (Python: custom_prompt or custom_*_prompt)
     private String customPrompt;
@@ -48,6 +54,12 @@ public class GraphStoreConfig {
 
     private int timeoutSeconds = 10;
 
+    // JDBC connection pool
+    private int poolSize = 10;
+    private int maxOverflow = 20;
+    private int poolTimeoutSeconds = 30;
+    private int poolIdleTimeoutSeconds = 600;
+
     public GraphStoreConfig() {}
 
     public boolean isEnabled() {
@@ -186,6 +198,30 @@ public class GraphStoreConfig {
         this.bm25TopN = bm25TopN;
     }
 
+    public boolean isRecursiveTraversal() {
+        return recursiveTraversal;
+    }
+
+    public void setRecursiveTraversal(boolean recursiveTraversal) {
+        this.recursiveTraversal = recursiveTraversal;
+    }
+
+    public String getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    public void setSnapshotPath(String snapshotPath) {
+        this.snapshotPath = snapshotPath;
+    }
+
+    public long getEntityCacheMaxBytes() {
+        return entityCacheMaxBytes;
+    }
+
+    public void setEntityCacheMaxBytes(long entityCacheMaxBytes) {
+        this.entityCacheMaxBytes = entityCacheMaxBytes;
+    }
+
     public String getCustomPrompt() {
         return customPrompt;
     }
@@ -239,5 +275,36 @@ public class GraphStoreConfig {
     public void setTimeoutSeconds(int timeoutSeconds) {
         this.timeoutSeconds = timeoutSeconds;
     }
-}
 
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getMaxOverflow() {
+        return maxOverflow;
+    }
+
+    public void setMaxOverflow(int maxOverflow) {
+        this.maxOverflow = maxOverflow;
+    }
+
+    public int getPoolTimeoutSeconds() {
+        return poolTimeoutSeconds;
+    }
+
+    public void setPoolTimeoutSeconds(int poolTimeoutSeconds) {
+        this.poolTimeoutSeconds = poolTimeoutSeconds;
+    }
+
+    public int getPoolIdleTimeoutSeconds() {
+        return poolIdleTimeoutSeconds;
+    }
+
+    public void setPoolIdleTimeoutSeconds(int poolIdleTimeoutSeconds) {
+        this.poolIdleTimeoutSeconds = poolIdleTimeoutSeconds;
+    }
+}
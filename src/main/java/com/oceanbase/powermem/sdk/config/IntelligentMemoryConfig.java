@@ -20,6 +20,11 @@ public class IntelligentMemoryConfig {
     private double decayForgettingRate = 0.1;
     private double decayReinforcementFactor = 0.3;
 
+    /**
+     * Concurrent per-fact similarity searches during infer add (1 = sequential).
+     */
+    private int factParallelism = 4;
+
     public IntelligentMemoryConfig() {}
 
     public boolean isEnabled() {
@@ -117,5 +122,12 @@ public class IntelligentMemoryConfig {
     public void setDecayReinforcementFactor(double decayReinforcementFactor) {
         this.decayReinforcementFactor = decayReinforcementFactor;
     }
-}
 
+    public int getFactParallelism() {
+        return factParallelism;
+    }
+
+    public void setFactParallelism(int factParallelism) {
+        this.factParallelism = factParallelism;
+    }
+}
@@ -19,6 +19,7 @@ public class MemoryConfig {
     private TelemetryConfig telemetry = new TelemetryConfig();
     private AuditConfig audit = new AuditConfig();
     private LoggingConfig logging = new LoggingConfig();
+    private AsyncConfig async = new AsyncConfig();
     private String version = "v1.1";
     private String customFactExtractionPrompt;
     private String customUpdateMemoryPrompt;
@@ -91,6 +92,14 @@ public class MemoryConfig {
         this.telemetry = telemetry;
     }
 
+    public AsyncConfig getAsync() {
+        return async;
+    }
+
+    public void setAsync(AsyncConfig async) {
+        this.async = async;
+    }
+
     public AuditConfig getAudit() {
         return audit;
     }
@@ -194,6 +203,11 @@ public class MemoryConfig {
             return this;
         }
 
+        public Builder async(AsyncConfig async) {
+            config.setAsync(async);
+            return this;
+        }
+
         public Builder audit(AuditConfig audit) {
             config.setAudit(audit);
             return this;
@@ -12,6 +12,18 @@ public class VectorStoreConfig {
     private String databasePath = "./data/powermem_dev.db";
     private boolean enableWal = true;
     private int timeoutSeconds = 30;
+    // SQLite: optional in-process HNSW index persisted next to the database file
+    private boolean hnswEnabled = false;
+    private int hnswM = 16;
+    private int hnswEfConstruction = 200;
+    private int hnswEfSearch = 64;
+    // SQLite: optional in-process BM25 index over memory text, fused with vector results (fusionMethod/rrfK/weights)
+    private boolean keywordSearch = false;
+
+    // Local (embedded, no database): one directory per collection under localDataDir; compaction runs once
+    // dead vector slots reach localCompactionMinDeleted and outnumber live ones. Also uses the HNSW settings above.
+    private String localDataDir = "./data/powermem_local";
+    private int localCompactionMinDeleted = 1024;
 
     // OceanBase / Postgres shared
     private String host = "127.0.0.1";
@@ -32,6 +44,11 @@ public class VectorStoreConfig {
     private double ftsWeight = 0.5;
     private String fusionMethod = "rrf"; // rrf | weighted
     private int rrfK = 60;
+    // Filtered ANN (OceanBase): exact scan when a filter matches at most this many rows, otherwise ANN with
+    // over-fetch of up to annMaxOverfetch x topK; filter row counts are cached for annStatsTtlSeconds
+    private int annExactScanThreshold = 2000;
+    private int annMaxOverfetch = 16;
+    private int annStatsTtlSeconds = 60;
     private String textField = "document";
     private String vectorField = "embedding";
     private String metadataField = "metadata";
@@ -40,8 +57,37 @@ public class VectorStoreConfig {
 
     // Postgres-specific
     private String sslmode = "prefer";
+    // pgvector: IVFFlat lists (index build) / probes (per query), text search configuration for tsvector
+    private int ivfLists = 100;
+    private int ivfProbes = 10;
+    private String textSearchConfig = "simple";
+
+    // JDBC connection pool (all JDBC-backed stores)
     private int poolSize = 10;
     private int maxOverflow = 20;
+    private int poolTimeoutSeconds = 30;
+    private int poolIdleTimeoutSeconds = 600;
+
+    // Store query executor (OceanBase hybrid search branches) and per-branch deadlines (<= 0: no deadline)
+    private int queryThreads = 8;
+    private int queryQueueCapacity = 64;
+    private int hybridVectorTimeoutMillis = 10000;
+    private int hybridFtsTimeoutMillis = 5000;
+
+    // Write-behind last_accessed_at updates (<= 0 interval: flush each search's touches synchronously)
+    private long accessFlushIntervalMillis = 1000;
+    private int accessFlushMaxPending = 1024;
+
+    // deleteAll: rows archived to history and deleted per transaction
+    private int deleteChunkSize = 1000;
+
+    // metadata keys materialized as generated, indexed columns (meta_<key>) and used by filters
+    private java.util.List<String> promotedMetadataKeys = new java.util.ArrayList<>();
+
+    // SQLite / local: "int8" stores a scalar-quantized copy of each vector; brute-force search scores the codes and
+    // re-ranks the best topK x quantizationOversample candidates with the exact vectors ("none": exact scan only)
+    private String vectorQuantization = "none";
+    private int quantizationOversample = 4;
 
     public VectorStoreConfig() {}
 
@@ -52,6 +98,13 @@ public class VectorStoreConfig {
         c.setDatabasePath(this.databasePath);
         c.setEnableWal(this.enableWal);
         c.setTimeoutSeconds(this.timeoutSeconds);
+        c.setHnswEnabled(this.hnswEnabled);
+        c.setHnswM(this.hnswM);
+        c.setHnswEfConstruction(this.hnswEfConstruction);
+        c.setHnswEfSearch(this.hnswEfSearch);
+        c.setKeywordSearch(this.keywordSearch);
+        c.setLocalDataDir(this.localDataDir);
+        c.setLocalCompactionMinDeleted(this.localCompactionMinDeleted);
 
         c.setHost(this.host);
         c.setPort(this.port);
@@ -69,6 +122,9 @@ public class VectorStoreConfig {
         c.setFtsWeight(this.ftsWeight);
         c.setFusionMethod(this.fusionMethod);
         c.setRrfK(this.rrfK);
+        c.setAnnExactScanThreshold(this.annExactScanThreshold);
+        c.setAnnMaxOverfetch(this.annMaxOverfetch);
+        c.setAnnStatsTtlSeconds(this.annStatsTtlSeconds);
         c.setTextField(this.textField);
         c.setVectorField(this.vectorField);
         c.setMetadataField(this.metadataField);
@@ -76,8 +132,23 @@ public class VectorStoreConfig {
         c.setVectorIndexName(this.vectorIndexName);
 
         c.setSslmode(this.sslmode);
+        c.setIvfLists(this.ivfLists);
+        c.setIvfProbes(this.ivfProbes);
+        c.setTextSearchConfig(this.textSearchConfig);
         c.setPoolSize(this.poolSize);
         c.setMaxOverflow(this.maxOverflow);
+        c.setPoolTimeoutSeconds(this.poolTimeoutSeconds);
+        c.setPoolIdleTimeoutSeconds(this.poolIdleTimeoutSeconds);
+        c.setQueryThreads(this.queryThreads);
+        c.setQueryQueueCapacity(this.queryQueueCapacity);
+        c.setHybridVectorTimeoutMillis(this.hybridVectorTimeoutMillis);
+        c.setHybridFtsTimeoutMillis(this.hybridFtsTimeoutMillis);
+        c.setAccessFlushIntervalMillis(this.accessFlushIntervalMillis);
+        c.setAccessFlushMaxPending(this.accessFlushMaxPending);
+        c.setDeleteChunkSize(this.deleteChunkSize);
+        c.setPromotedMetadataKeys(this.promotedMetadataKeys);
+        c.setVectorQuantization(this.vectorQuantization);
+        c.setQuantizationOversample(this.quantizationOversample);
         return c;
     }
 
@@ -120,6 +191,62 @@ public class VectorStoreConfig {
         this.timeoutSeconds = timeoutSeconds;
     }
 
+    public boolean isKeywordSearch() {
+        return keywordSearch;
+    }
+
+    public void setKeywordSearch(boolean keywordSearch) {
+        this.keywordSearch = keywordSearch;
+    }
+
+    public boolean isHnswEnabled() {
+        return hnswEnabled;
+    }
+
+    public void setHnswEnabled(boolean hnswEnabled) {
+        this.hnswEnabled = hnswEnabled;
+    }
+
+    public int getHnswM() {
+        return hnswM;
+    }
+
+    public void setHnswM(int hnswM) {
+        this.hnswM = hnswM;
+    }
+
+    public int getHnswEfConstruction() {
+        return hnswEfConstruction;
+    }
+
+    public void setHnswEfConstruction(int hnswEfConstruction) {
+        this.hnswEfConstruction = hnswEfConstruction;
+    }
+
+    public int getHnswEfSearch() {
+        return hnswEfSearch;
+    }
+
+    public void setHnswEfSearch(int hnswEfSearch) {
+        this.hnswEfSearch = hnswEfSearch;
+    }
+
+    public String getLocalDataDir() {
+        return localDataDir;
+    }
+
+    public void setLocalDataDir(String localDataDir) {
+        this.localDataDir = localDataDir;
+    }
+
+    public int getLocalCompactionMinDeleted() {
+        return localCompactionMinDeleted;
+    }
+
+    public void setLocalCompactionMinDeleted(int localCompactionMinDeleted) {
+        this.localCompactionMinDeleted = localCompactionMinDeleted;
+    }
+
     public String getHost() {
         return host;
     }
@@ -240,6 +367,30 @@ public class VectorStoreConfig {
         this.rrfK = rrfK;
     }
 
+    public int getAnnExactScanThreshold() {
+        return annExactScanThreshold;
+    }
+
+    public void setAnnExactScanThreshold(int annExactScanThreshold) {
+        this.annExactScanThreshold = annExactScanThreshold;
+    }
+
+    public int getAnnMaxOverfetch() {
+        return annMaxOverfetch;
+    }
+
+    public void setAnnMaxOverfetch(int annMaxOverfetch) {
+        this.annMaxOverfetch = annMaxOverfetch;
+    }
+
+    public int getAnnStatsTtlSeconds() {
+        return annStatsTtlSeconds;
+    }
+
+    public void setAnnStatsTtlSeconds(int annStatsTtlSeconds) {
+        this.annStatsTtlSeconds = annStatsTtlSeconds;
+    }
+
     public String getTextField() {
         return textField;
     }
@@ -288,6 +439,30 @@ public class VectorStoreConfig {
         this.sslmode = sslmode;
     }
 
+    public int getIvfLists() {
+        return ivfLists;
+    }
+
+    public void setIvfLists(int ivfLists) {
+        this.ivfLists = ivfLists;
+    }
+
+    public int getIvfProbes() {
+        return ivfProbes;
+    }
+
+    public void setIvfProbes(int ivfProbes) {
+        this.ivfProbes = ivfProbes;
+    }
+
+    public String getTextSearchConfig() {
+        return textSearchConfig;
+    }
+
+    public void setTextSearchConfig(String textSearchConfig) {
+        this.textSearchConfig = textSearchConfig;
+    }
+
     public int getPoolSize() {
         return poolSize;
     }
@@ -303,5 +478,102 @@ public class VectorStoreConfig {
     public void setMaxOverflow(int maxOverflow) {
         this.maxOverflow = maxOverflow;
     }
-}
 
+    public int getPoolTimeoutSeconds() {
+        return poolTimeoutSeconds;
+    }
+
+    public void setPoolTimeoutSeconds(int poolTimeoutSeconds) {
+        this.poolTimeoutSeconds = poolTimeoutSeconds;
+    }
+
+    public int getPoolIdleTimeoutSeconds() {
+        return poolIdleTimeoutSeconds;
+    }
+
+    public void setPoolIdleTimeoutSeconds(int poolIdleTimeoutSeconds) {
+        this.poolIdleTimeoutSeconds = poolIdleTimeoutSeconds;
+    }
+
+    public int getQueryThreads() {
+        return queryThreads;
+    }
+
+    public void setQueryThreads(int queryThreads) {
+        this.queryThreads = queryThreads;
+    }
+
+    public int getQueryQueueCapacity() {
+        return queryQueueCapacity;
+    }
+
+    public void setQueryQueueCapacity(int queryQueueCapacity) {
+        this.queryQueueCapacity = queryQueueCapacity;
+    }
+
+    public int getHybridVectorTimeoutMillis() {
+        return hybridVectorTimeoutMillis;
+    }
+
+    public void setHybridVectorTimeoutMillis(int hybridVectorTimeoutMillis) {
+        this.hybridVectorTimeoutMillis = hybridVectorTimeoutMillis;
+    }
+
+    public int getHybridFtsTimeoutMillis() {
+        return hybridFtsTimeoutMillis;
+    }
+
+    public void setHybridFtsTimeoutMillis(int hybridFtsTimeoutMillis) {
+        this.hybridFtsTimeoutMillis = hybridFtsTimeoutMillis;
+    }
+
+    public long getAccessFlushIntervalMillis() {
+        return accessFlushIntervalMillis;
+    }
+
+    public void setAccessFlushIntervalMillis(long accessFlushIntervalMillis) {
+        this.accessFlushIntervalMillis = accessFlushIntervalMillis;
+    }
+
+    public int getAccessFlushMaxPending() {
+        return accessFlushMaxPending;
+    }
+
+    public void setAccessFlushMaxPending(int accessFlushMaxPending) {
+        this.accessFlushMaxPending = accessFlushMaxPending;
+    }
+
+    public int getDeleteChunkSize() {
+        return deleteChunkSize;
+    }
+
+    public void setDeleteChunkSize(int deleteChunkSize) {
+        this.deleteChunkSize = deleteChunkSize;
+    }
+
+    public java.util.List<String> getPromotedMetadataKeys() {
+        return promotedMetadataKeys;
+    }
+
+    public void setPromotedMetadataKeys(java.util.List<String> promotedMetadataKeys) {
+        this.promotedMetadataKeys = promotedMetadataKeys == null
+                ? new java.util.ArrayList<>()
+                : new java.util.ArrayList<>(promotedMetadataKeys);
+    }
+
+    public String getVectorQuantization() {
+        return vectorQuantization;
+    }
+
+    public void setVectorQuantization(String vectorQuantization) {
+        this.vectorQuantization = vectorQuantization;
+    }
+
+    public int getQuantizationOversample() {
+        return quantizationOversample;
+    }
+
+    public void setQuantizationOversample(int quantizationOversample) {
+        this.quantizationOversample = quantizationOversample;
+    }
+}
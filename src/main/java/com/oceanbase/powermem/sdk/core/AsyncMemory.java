@@ -3,21 +3,72 @@ package com.oceanbase.powermem.sdk.core;
 /**
  * Asynchronous PowerMem memory manager (pure Java core migration target).
  *
- * <p>Intended Java counterpart of Python {@code AsyncMemory}. In Java, async APIs typically expose
- * {@code CompletableFuture} or reactive types; the internal implementation may still share most of the
- * same orchestration code as {@link Memory}.</p>
+ * <p>Intended Java counterpart of Python {@code AsyncMemory}. The {@code *Async} methods run the
+ * {@link Memory} orchestration on a dedicated executor and return {@code CompletableFuture}s: virtual
+ * threads on JDK 21+ (see {@link com.oceanbase.powermem.sdk.config.AsyncConfig#isVirtualThreads()}), a
+ * bounded daemon platform pool otherwise, or a caller-supplied executor.</p>
+ *
+ * <ul>
+ *   <li>Backpressure: at most {@code maxInFlight} operations are unfinished at a time; a submission waits
+ *   up to {@code acquireTimeoutMillis} for a slot and otherwise fails with
+ *   {@link java.util.concurrent.RejectedExecutionException}.</li>
+ *   <li>Cancellation and timeouts: cancelling a returned future, or completing it through
+ *   {@code orTimeout}/the configured {@code operationTimeoutMillis}, interrupts the running operation
+ *   (or drops it if it has not started).</li>
+ * </ul>
+ *
+ * <p>The {@link MemoryBase} methods stay synchronous and run on the caller thread.</p>
  *
  * <p>Python reference: {@code src/powermem/core/async_memory.py}</p>
  */
-public class AsyncMemory implements MemoryBase {
+public class AsyncMemory implements MemoryBase, com.oceanbase.powermem.sdk.api.AsyncMemoryApi, AutoCloseable {
+    private static final java.util.logging.Logger LOG = java.util.logging.Logger.getLogger(AsyncMemory.class.getName());
+    private static final java.util.concurrent.atomic.AtomicInteger THREAD_SEQ = new java.util.concurrent.atomic.AtomicInteger();
+
     private final Memory delegate;
+    private final java.util.concurrent.ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final java.util.concurrent.Semaphore inFlight;
+    private final int maxInFlight;
+    private final long acquireTimeoutMillis;
+    private final long operationTimeoutMillis;
+    private volatile boolean closed;
 
     public AsyncMemory() {
         this(new com.oceanbase.powermem.sdk.config.MemoryConfig());
     }
 
     public AsyncMemory(com.oceanbase.powermem.sdk.config.MemoryConfig config) {
-        this.delegate = new Memory(config);
+        this(config, null);
+    }
+
+    /**
+     * @param executor executor for async operations; null to create (and own) one from {@code config.async}
+     */
+    public AsyncMemory(com.oceanbase.powermem.sdk.config.MemoryConfig config, java.util.concurrent.ExecutorService executor) {
+        this(new Memory(config), config == null ? null : config.getAsync(), executor);
+    }
+
+    /**
+     * Wrap an existing {@link Memory} (shares its stores and connection pools).
+     *
+     * @param delegate synchronous memory
+     * @param asyncConfig execution settings; null for defaults
+     * @param executor executor for async operations; null to create (and own) one from {@code asyncConfig}
+     */
+    public AsyncMemory(Memory delegate,
+                       com.oceanbase.powermem.sdk.config.AsyncConfig asyncConfig,
+                       java.util.concurrent.ExecutorService executor) {
+        com.oceanbase.powermem.sdk.util.Preconditions.requireNonNull(delegate, "delegate Memory is required");
+        com.oceanbase.powermem.sdk.config.AsyncConfig cfg =
+                asyncConfig == null ? new com.oceanbase.powermem.sdk.config.AsyncConfig() : asyncConfig;
+        this.delegate = delegate;
+        this.maxInFlight = cfg.getMaxInFlight() <= 0 ? 256 : cfg.getMaxInFlight();
+        this.inFlight = new java.util.concurrent.Semaphore(this.maxInFlight);
+        this.acquireTimeoutMillis = Math.max(0L, cfg.getAcquireTimeoutMillis());
+        this.operationTimeoutMillis = Math.max(0L, cfg.getOperationTimeoutMillis());
+        this.ownsExecutor = executor == null;
+        this.executor = executor == null ? createExecutor(cfg) : executor;
     }
 
     @Override
@@ -55,5 +106,178 @@ public class AsyncMemory implements MemoryBase {
             com.oceanbase.powermem.sdk.model.DeleteAllMemoriesRequest request) {
         return delegate.deleteAll(request);
     }
-}
 
+    @Override
+    public java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.AddMemoryResponse> addAsync(
+            com.oceanbase.powermem.sdk.model.AddMemoryRequest request) {
+        return submit(() -> delegate.add(request));
+    }
+
+    public java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.AddMemoryBatchResponse> addBatchAsync(
+            java.util.List<com.oceanbase.powermem.sdk.model.AddMemoryRequest> requests) {
+        return submit(() -> delegate.addBatch(requests));
+    }
+
+    @Override
+    public java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.SearchMemoriesResponse> searchAsync(
+            com.oceanbase.powermem.sdk.model.SearchMemoriesRequest request) {
+        return submit(() -> delegate.search(request));
+    }
+
+    @Override
+    public java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.UpdateMemoryResponse> updateAsync(
+            com.oceanbase.powermem.sdk.model.UpdateMemoryRequest request) {
+        return submit(() -> delegate.update(request));
+    }
+
+    @Override
+    public java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.GetMemoryResponse> getAsync(
+            com.oceanbase.powermem.sdk.model.GetMemoryRequest request) {
+        return submit(() -> delegate.get(request));
+    }
+
+    @Override
+    public java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.DeleteMemoryResponse> deleteAsync(
+            String memoryId, String userId, String agentId) {
+        return submit(() -> delegate.delete(memoryId, userId, agentId));
+    }
+
+    @Override
+    public java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.GetAllMemoriesResponse> getAllAsync(
+            com.oceanbase.powermem.sdk.model.GetAllMemoriesRequest request) {
+        return submit(() -> delegate.getAll(request));
+    }
+
+    @Override
+    public java.util.concurrent.CompletableFuture<com.oceanbase.powermem.sdk.model.DeleteAllMemoriesResponse> deleteAllAsync(
+            com.oceanbase.powermem.sdk.model.DeleteAllMemoriesRequest request) {
+        return submit(() -> delegate.deleteAll(request));
+    }
+
+    /**
+     * Operations submitted but not yet finished.
+     */
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    public Memory getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Stop accepting operations, shut down the executor if it was created here (waiting briefly for running
+     * operations), then close the delegate {@link Memory}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (ownsExecutor) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(30, java.util.concurrent.TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException ex) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        delegate.close();
+    }
+
+    private <T> java.util.concurrent.CompletableFuture<T> submit(java.util.function.Supplier<T> op) {
+        java.util.concurrent.CompletableFuture<T> result = new java.util.concurrent.CompletableFuture<>();
+        if (closed) {
+            result.completeExceptionally(new java.util.concurrent.RejectedExecutionException("AsyncMemory is closed"));
+            return result;
+        }
+        try {
+            if (!inFlight.tryAcquire(acquireTimeoutMillis, java.util.concurrent.TimeUnit.MILLISECONDS)) {
+                result.completeExceptionally(new java.util.concurrent.RejectedExecutionException(
+                        "AsyncMemory has " + maxInFlight + " operations in flight"));
+                return result;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(ex);
+            return result;
+        }
+
+        // "claimed" decides who releases the slot: the task (once it starts) or the canceller (if it never did).
+        java.util.concurrent.atomic.AtomicBoolean claimed = new java.util.concurrent.atomic.AtomicBoolean();
+        java.util.concurrent.atomic.AtomicBoolean finished = new java.util.concurrent.atomic.AtomicBoolean();
+        java.util.concurrent.Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return;
+                }
+                T value = null;
+                Throwable error = null;
+                try {
+                    if (!result.isDone()) {
+                        value = op.get();
+                    }
+                } catch (Throwable t) {
+                    error = t;
+                } finally {
+                    // free the slot before completing, so a caller that observed completion can submit again
+                    finished.set(true);
+                    inFlight.release();
+                }
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        } catch (java.util.concurrent.RejectedExecutionException ex) {
+            inFlight.release();
+            result.completeExceptionally(ex);
+            return result;
+        }
+
+        // Cancellation / timeout (including orTimeout applied by the caller) stops the operation.
+        result.whenComplete((v, err) -> {
+            if (finished.get()) {
+                return;
+            }
+            if (claimed.compareAndSet(false, true)) {
+                inFlight.release();
+                task.cancel(false);
+            } else {
+                task.cancel(true);
+            }
+        });
+        if (operationTimeoutMillis > 0) {
+            result.orTimeout(operationTimeoutMillis, java.util.concurrent.TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+
+    private static java.util.concurrent.ExecutorService createExecutor(com.oceanbase.powermem.sdk.config.AsyncConfig cfg) {
+        if (cfg.isVirtualThreads()) {
+            try {
+                // JDK 21+: Executors.newVirtualThreadPerTaskExecutor() (looked up reflectively; we target Java 11).
+                Object ex = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                return (java.util.concurrent.ExecutorService) ex;
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                LOG.fine("Virtual threads unavailable; using a platform thread pool");
+            }
+        }
+        int size = cfg.getThreadPoolSize() > 0
+                ? cfg.getThreadPoolSize()
+                : Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        java.util.concurrent.ThreadPoolExecutor pool = new java.util.concurrent.ThreadPoolExecutor(
+                size, size, 60L, java.util.concurrent.TimeUnit.SECONDS,
+                new java.util.concurrent.LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "powermem-async-" + THREAD_SEQ.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
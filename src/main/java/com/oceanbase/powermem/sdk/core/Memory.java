@@ -9,7 +9,7 @@ package com.oceanbase.powermem.sdk.core;
  *
  * <p>Python reference: {@code src/powermem/core/memory.py}</p>
  */
-public class Memory implements MemoryBase {
+public class Memory implements MemoryBase, AutoCloseable {
     private final com.oceanbase.powermem.sdk.config.MemoryConfig config;
     private final com.oceanbase.powermem.sdk.storage.base.VectorStore vectorStore;
     private final com.oceanbase.powermem.sdk.storage.base.GraphStore graphStore;
@@ -19,6 +19,8 @@ public class Memory implements MemoryBase {
     private final com.oceanbase.powermem.sdk.storage.adapter.StorageAdapter storage;
     private final com.oceanbase.powermem.sdk.intelligence.plugin.IntelligentMemoryPlugin plugin;
     private final com.oceanbase.powermem.sdk.integrations.rerank.Reranker reranker;
+    private final int factParallelism;
+    private volatile java.util.concurrent.ExecutorService factExecutor;
 
     public Memory() {
         this(com.oceanbase.powermem.sdk.config.ConfigLoader.fromEnvAndDotEnv());
@@ -33,6 +35,9 @@ public class Memory implements MemoryBase {
         this.intelligence = new com.oceanbase.powermem.sdk.intelligence.IntelligenceManager(this.config.getIntelligentMemory());
         this.plugin = new com.oceanbase.powermem.sdk.intelligence.plugin.EbbinghausIntelligencePlugin(this.config.getIntelligentMemory());
         this.reranker = com.oceanbase.powermem.sdk.integrations.rerank.RerankFactory.fromConfig(this.config.getReranker());
+        this.factParallelism = this.config.getIntelligentMemory() == null
+                ? 1
+                : Math.max(1, this.config.getIntelligentMemory().getFactParallelism());
         this.graphStore = com.oceanbase.powermem.sdk.storage.factory.GraphStoreFactory.fromConfig(
                 this.config.getGraphStore(), this.embedder, this.llm);
     }
@@ -195,6 +200,92 @@ public class Memory implements MemoryBase {
         return resp;
     }
 
+    /**
+     * Add many memories at once (bulk ingestion).
+     *
+     * <p>Non-infer requests are embedded with {@code embedBatch} in chunks of
+     * {@code embedder.batchSize} and written with one multi-row upsert per chunk. Requests with
+     * {@code infer=true} need the LLM per request and go through {@link #add} individually. A failure is
+     * reported on its item and does not abort the rest of the batch.</p>
+     *
+     * <p>No direct Python equivalent.</p>
+     *
+     * @param requests add requests
+     * @return one item per request, in input order
+     */
+    public com.oceanbase.powermem.sdk.model.AddMemoryBatchResponse addBatch(
+            java.util.List<com.oceanbase.powermem.sdk.model.AddMemoryRequest> requests) {
+        com.oceanbase.powermem.sdk.util.Preconditions.requireNonNull(requests, "requests is required");
+        java.util.List<com.oceanbase.powermem.sdk.model.AddMemoryBatchResponse.Item> items = new java.util.ArrayList<>();
+        java.util.List<com.oceanbase.powermem.sdk.storage.adapter.StorageAdapter.NewMemory> pending = new java.util.ArrayList<>();
+        java.util.List<Integer> pendingIndex = new java.util.ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            com.oceanbase.powermem.sdk.model.AddMemoryRequest request = requests.get(i);
+            com.oceanbase.powermem.sdk.model.AddMemoryBatchResponse.Item item =
+                    new com.oceanbase.powermem.sdk.model.AddMemoryBatchResponse.Item(i);
+            items.add(item);
+            if (request == null) {
+                item.setError("AddMemoryRequest is required");
+                continue;
+            }
+            try {
+                java.util.List<com.oceanbase.powermem.sdk.model.Message> msgs = request.getMessages();
+                if (request.isInfer() && msgs != null && !msgs.isEmpty()) {
+                    com.oceanbase.powermem.sdk.model.AddMemoryResponse resp = add(request);
+                    item.setResults(resp.getResults());
+                    item.setMemories(resp.getMemories());
+                    item.setRelations(resp.getRelations());
+                    continue;
+                }
+                java.util.Map<String, Object> graphResult = maybeAddToGraph(request);
+                item.setRelations(graphResult == null ? java.util.Collections.emptyMap() : graphResult);
+                String normalized = com.oceanbase.powermem.sdk.util.PowermemUtils.normalizeInput(request.getText(), msgs);
+                if (normalized.isBlank()) {
+                    continue;
+                }
+                java.util.Map<String, Object> extra = plugin != null && plugin.isEnabled()
+                        ? plugin.onAdd(normalized, request.getMetadata())
+                        : java.util.Collections.emptyMap();
+                pending.add(new com.oceanbase.powermem.sdk.storage.adapter.StorageAdapter.NewMemory(
+                        normalized,
+                        request.getUserId(),
+                        request.getAgentId(),
+                        request.getRunId(),
+                        request.getMetadata(),
+                        extra,
+                        request.getScope(),
+                        request.getMemoryType()));
+                pendingIndex.add(i);
+            } catch (RuntimeException ex) {
+                item.setError(errorMessage(ex));
+            }
+        }
+
+        int batchSize = config.getEmbedder() == null ? 0 : config.getEmbedder().getBatchSize();
+        java.util.List<com.oceanbase.powermem.sdk.storage.adapter.StorageAdapter.AddOutcome> outcomes =
+                storage.addMemories(pending, batchSize);
+        for (int j = 0; j < outcomes.size(); j++) {
+            int i = pendingIndex.get(j);
+            com.oceanbase.powermem.sdk.model.AddMemoryBatchResponse.Item item = items.get(i);
+            com.oceanbase.powermem.sdk.storage.adapter.StorageAdapter.AddOutcome outcome = outcomes.get(j);
+            if (outcome.getRecord() == null) {
+                item.setError(errorMessage(outcome.getError()));
+                continue;
+            }
+            item.setMemories(java.util.Collections.singletonList(outcome.getRecord()));
+            item.setResults(java.util.Collections.singletonList(
+                    toAddResultDto(outcome.getRecord(), "ADD", null, requests.get(i).getMetadata())));
+        }
+        return new com.oceanbase.powermem.sdk.model.AddMemoryBatchResponse(items);
+    }
+
+    private static String errorMessage(Throwable ex) {
+        if (ex == null) {
+            return "unknown error";
+        }
+        return ex.getMessage() == null || ex.getMessage().isBlank() ? ex.getClass().getSimpleName() : ex.getMessage();
+    }
+
     private com.oceanbase.powermem.sdk.model.AddMemoryResponse intelligentAdd(com.oceanbase.powermem.sdk.model.AddMemoryRequest request, String normalized) {
         // 1) extract facts
         String conversation = com.oceanbase.powermem.sdk.prompts.IntelligentMemoryPrompts.parseMessagesForFacts(request.getMessages());
@@ -222,22 +313,29 @@ public class Memory implements MemoryBase {
         }
 
         // 2) search similar memories for each fact (dedup by id)
-        java.util.Map<String, com.oceanbase.powermem.sdk.model.MemoryRecord> unique = new java.util.LinkedHashMap<>();
-        java.util.Map<String, float[]> factEmbeddings = new java.util.HashMap<>();
-        for (String fact : facts) {
-            // Sub-store parity: choose embedder based on request metadata.
-            float[] vec = storage.embed(fact, "search", request.getMetadata());
-            factEmbeddings.put(fact, vec);
+        // Sub-store parity: choose embedder based on request metadata; facts are embedded in batched requests.
+        int embedBatchSize = config.getEmbedder() == null ? 0 : config.getEmbedder().getBatchSize();
+        java.util.List<float[]> factVectors = storage.embedBatch(facts, "search", request.getMetadata(), embedBatchSize);
+        java.util.List<java.util.List<com.oceanbase.powermem.sdk.storage.base.OutputData>> factHits = mapParallel(facts.size(), i -> {
+            String fact = facts.get(i);
             int topK = 5;
             int candidateLimit = topK;
             if (reranker != null && fact != null && !fact.isBlank()) {
                 candidateLimit = Math.max(topK, topK * 3);
             }
             java.util.List<com.oceanbase.powermem.sdk.storage.base.OutputData> hits =
-                    storage.searchMemories(fact, vec, candidateLimit, request.getUserId(), request.getAgentId(), request.getRunId(), request.getFilters());
+                    storage.searchMemories(fact, factVectors.get(i), candidateLimit, request.getUserId(), request.getAgentId(), request.getRunId(), request.getFilters());
             if (reranker != null && hits != null && !hits.isEmpty() && fact != null && !fact.isBlank()) {
                 hits = applyRerank(fact, hits, topK);
             }
+            return hits;
+        });
+        // merge in fact order so the candidate set does not depend on search completion order
+        java.util.Map<String, com.oceanbase.powermem.sdk.model.MemoryRecord> unique = new java.util.LinkedHashMap<>();
+        for (java.util.List<com.oceanbase.powermem.sdk.storage.base.OutputData> hits : factHits) {
+            if (hits == null) {
+                continue;
+            }
             for (com.oceanbase.powermem.sdk.storage.base.OutputData d : hits) {
                 if (d == null || d.getRecord() == null || d.getRecord().getId() == null) {
                     continue;
@@ -287,6 +385,12 @@ public class Memory implements MemoryBase {
         actionCounts.put("DELETE", 0);
         actionCounts.put("NONE", 0);
 
+        // 4) collect all actions, then apply them as one batch (one lookup, batched embeddings, one
+        // transaction per store)
+        java.util.List<com.oceanbase.powermem.sdk.storage.adapter.StorageAdapter.MemoryAction> actions = new java.util.ArrayList<>();
+        java.util.List<String> events = new java.util.ArrayList<>();
+        java.util.List<String> texts = new java.util.ArrayList<>();
+        java.util.List<String> oldMemories = new java.util.ArrayList<>();
         for (Object a : (java.util.List<?>) memArr) {
             if (!(a instanceof java.util.Map)) {
                 continue;
@@ -304,60 +408,64 @@ public class Memory implements MemoryBase {
                 // empty text is only tolerable for NONE/DELETE (python side sometimes sends)
                 continue;
             }
+            com.oceanbase.powermem.sdk.storage.adapter.StorageAdapter.MemoryAction action;
             if ("ADD".equalsIgnoreCase(event)) {
                 java.util.Map<String, Object> extra = plugin != null && plugin.isEnabled()
                         ? plugin.onAdd(text, request.getMetadata())
                         : java.util.Collections.emptyMap();
-                com.oceanbase.powermem.sdk.model.MemoryRecord r = storage.addMemory(
-                        text,
-                        request.getUserId(),
-                        request.getAgentId(),
-                        request.getRunId(),
-                        request.getMetadata(),
-                        extra,
-                        request.getScope(),
-                        request.getMemoryType());
-                results.add(r);
-                resultDtos.add(toAddResultDto(r, "ADD", null, request.getMetadata()));
-                actionCounts.put("ADD", actionCounts.get("ADD") + 1);
+                action = com.oceanbase.powermem.sdk.storage.adapter.StorageAdapter.MemoryAction.add(text, extra);
             } else if ("UPDATE".equalsIgnoreCase(event)) {
-                String realId = tempToReal.getOrDefault(id, id);
-                // id hallucination guard: must exist
-                if (storage.getMemory(realId, request.getUserId(), request.getAgentId()) == null) {
-                    continue;
-                }
                 // Python parity: update event can also go through on_add to refresh intelligence fields
-                if (plugin != null && plugin.isEnabled()) {
-                    java.util.Map<String, Object> extra = plugin.onAdd(text, request.getMetadata());
-                    storage.updatePayloadFields(realId, request.getUserId(), request.getAgentId(), extra);
-                }
-                com.oceanbase.powermem.sdk.model.MemoryRecord r = storage.updateMemory(
-                        realId, text, request.getUserId(), request.getAgentId(), request.getMetadata());
-                if (r != null) {
-                    results.add(r);
-                    resultDtos.add(toAddResultDto(r, "UPDATE", oldMemory, request.getMetadata()));
-                    actionCounts.put("UPDATE", actionCounts.get("UPDATE") + 1);
-                }
+                java.util.Map<String, Object> extra = plugin != null && plugin.isEnabled()
+                        ? plugin.onAdd(text, request.getMetadata())
+                        : null;
+                action = com.oceanbase.powermem.sdk.storage.adapter.StorageAdapter.MemoryAction.update(
+                        tempToReal.getOrDefault(id, id), text, extra);
             } else if ("DELETE".equalsIgnoreCase(event)) {
-                String realId = tempToReal.getOrDefault(id, id);
-                com.oceanbase.powermem.sdk.model.MemoryRecord before = storage.getMemory(realId, request.getUserId(), request.getAgentId());
-                if (before == null) {
-                    continue;
-                }
-                storage.deleteMemory(realId, request.getUserId(), request.getAgentId());
+                action = com.oceanbase.powermem.sdk.storage.adapter.StorageAdapter.MemoryAction.delete(
+                        tempToReal.getOrDefault(id, id));
+            } else {
+                continue;
+            }
+            actions.add(action);
+            events.add(event);
+            texts.add(text);
+            oldMemories.add(oldMemory);
+        }
+
+        // id hallucination guard: UPDATE/DELETE of ids that do not exist come back as null and are skipped
+        int batchSize = config.getEmbedder() == null ? 0 : config.getEmbedder().getBatchSize();
+        java.util.List<com.oceanbase.powermem.sdk.model.MemoryRecord> applied = storage.applyActions(actions,
+                request.getUserId(),
+                request.getAgentId(),
+                request.getRunId(),
+                request.getMetadata(),
+                request.getScope(),
+                request.getMemoryType(),
+                batchSize);
+        for (int i = 0; i < actions.size(); i++) {
+            com.oceanbase.powermem.sdk.model.MemoryRecord r = applied.get(i);
+            if (r == null) {
+                continue;
+            }
+            String event = events.get(i);
+            if ("DELETE".equals(event)) {
                 // Python returns delete operations in results (so benchmark can verify).
                 com.oceanbase.powermem.sdk.model.AddMemoryResponse.Result del = new com.oceanbase.powermem.sdk.model.AddMemoryResponse.Result();
-                del.setId(realId);
-                del.setMemory(text);
+                del.setId(r.getId());
+                del.setMemory(texts.get(i));
                 del.setEvent("DELETE");
                 del.setUserId(request.getUserId());
                 del.setAgentId(request.getAgentId());
                 del.setRunId(request.getRunId());
                 del.setMetadata(request.getMetadata());
-                del.setCreatedAt(before.getCreatedAt() == null ? null : before.getCreatedAt().toString());
+                del.setCreatedAt(r.getCreatedAt() == null ? null : r.getCreatedAt().toString());
                 resultDtos.add(del);
-                actionCounts.put("DELETE", actionCounts.get("DELETE") + 1);
+            } else {
+                results.add(r);
+                resultDtos.add(toAddResultDto(r, event, "UPDATE".equals(event) ? oldMemories.get(i) : null, request.getMetadata()));
             }
+            actionCounts.put(event, actionCounts.get(event) + 1);
         }
         com.oceanbase.powermem.sdk.model.AddMemoryResponse resp = new com.oceanbase.powermem.sdk.model.AddMemoryResponse(results);
         resp.setResults(resultDtos);
@@ -368,6 +476,71 @@ public class Memory implements MemoryBase {
         return resp;
     }
 
+    /**
+     * Evaluate {@code task(0..n-1)} on the fact executor (at most {@code factParallelism} at a time) and
+     * return the results in index order. Runs on the caller thread when there is nothing to overlap.
+     */
+    private <T> java.util.List<T> mapParallel(int n, java.util.function.IntFunction<T> task) {
+        java.util.List<T> out = new java.util.ArrayList<>(n);
+        if (n <= 1 || factParallelism <= 1) {
+            for (int i = 0; i < n; i++) {
+                out.add(task.apply(i));
+            }
+            return out;
+        }
+        java.util.concurrent.ExecutorService executor = factExecutor();
+        java.util.List<java.util.concurrent.Future<T>> futures = new java.util.ArrayList<>(n);
+        try {
+            for (int i = 0; i < n; i++) {
+                final int idx = i;
+                futures.add(executor.submit(() -> task.apply(idx)));
+            }
+            for (java.util.concurrent.Future<T> f : futures) {
+                out.add(f.get());
+            }
+            return out;
+        } catch (java.util.concurrent.ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while searching similar memories", ex);
+        } finally {
+            for (java.util.concurrent.Future<T> f : futures) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    private java.util.concurrent.ExecutorService factExecutor() {
+        java.util.concurrent.ExecutorService ex = factExecutor;
+        if (ex == null) {
+            synchronized (this) {
+                ex = factExecutor;
+                if (ex == null) {
+                    java.util.concurrent.atomic.AtomicInteger seq = new java.util.concurrent.atomic.AtomicInteger();
+                    java.util.concurrent.ThreadPoolExecutor pool = new java.util.concurrent.ThreadPoolExecutor(
+                            factParallelism, factParallelism, 60L, java.util.concurrent.TimeUnit.SECONDS,
+                            new java.util.concurrent.LinkedBlockingQueue<>(),
+                            r -> {
+                                Thread t = new Thread(r, "powermem-facts-" + seq.incrementAndGet());
+                                t.setDaemon(true);
+                                return t;
+                            });
+                    pool.allowCoreThreadTimeOut(true);
+                    factExecutor = ex = pool;
+                }
+            }
+        }
+        return ex;
+    }
+
     private static com.oceanbase.powermem.sdk.model.AddMemoryResponse.Result toAddResultDto(
             com.oceanbase.powermem.sdk.model.MemoryRecord r,
             String event,
@@ -632,6 +805,25 @@ public class Memory implements MemoryBase {
         return new com.oceanbase.powermem.sdk.model.DeleteAllMemoriesResponse(deleted);
     }
 
+    /**
+     * Release resources: stops the fact-search threads, drains pending write-behind updates and closes pooled
+     * connections.
+     */
+    @Override
+    public void close() {
+        java.util.concurrent.ExecutorService ex = factExecutor;
+        if (ex != null) {
+            ex.shutdownNow();
+        }
+        try {
+            storage.close();
+        } finally {
+            if (graphStore != null) {
+                graphStore.close();
+            }
+        }
+    }
+
     private java.util.Map<String, Object> maybeAddToGraph(com.oceanbase.powermem.sdk.model.AddMemoryRequest request) {
         if (graphStore == null || config == null || config.getGraphStore() == null || !config.getGraphStore().isEnabled()) {
             return null;
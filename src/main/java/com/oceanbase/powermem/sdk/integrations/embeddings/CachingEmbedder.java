@@ -0,0 +1,370 @@
+package com.oceanbase.powermem.sdk.integrations.embeddings;
+
+/**
+ * {@link Embedder} decorator that caches vectors by (provider, model, dims, base URL, text type, text hash).
+ *
+ * <p>Two tiers: a bounded in-memory LRU, and an optional SQLite table (float32 BLOBs) that survives restarts
+ * and is shared by every process pointing at the same file. The text type follows {@link QwenEmbedder}:
+ * {@code "search"} embeds as a DashScope {@code query}, every other action as a {@code document}, so
+ * add/update of unchanged content share one entry while queries do not.</p>
+ *
+ * <p>{@code embedBatch} only sends the texts that miss both tiers (deduplicated) to the delegate, in one
+ * call. Returned arrays are copies; callers may modify them.</p>
+ *
+ * <p>No direct Python equivalent.</p>
+ */
+public class CachingEmbedder implements Embedder, AutoCloseable {
+    private static final java.util.logging.Logger LOG = java.util.logging.Logger.getLogger(CachingEmbedder.class.getName());
+
+    private final Embedder delegate;
+    private final String keyPrefix;
+    private final int maxEntries;
+    private final java.util.LinkedHashMap<String, float[]> lru;
+    private final com.oceanbase.powermem.sdk.storage.pool.PooledDataSource disk;
+
+    private final java.util.concurrent.atomic.LongAdder hits = new java.util.concurrent.atomic.LongAdder();
+    private final java.util.concurrent.atomic.LongAdder diskHits = new java.util.concurrent.atomic.LongAdder();
+    private final java.util.concurrent.atomic.LongAdder misses = new java.util.concurrent.atomic.LongAdder();
+    private final java.util.concurrent.atomic.LongAdder evictions = new java.util.concurrent.atomic.LongAdder();
+
+    public CachingEmbedder(Embedder delegate, com.oceanbase.powermem.sdk.config.EmbedderConfig config) {
+        this(delegate,
+                config == null ? null : config.getProvider(),
+                config == null ? null : config.getModel(),
+                config == null ? 0 : config.getEmbeddingDims(),
+                config == null ? null : config.getBaseUrl(),
+                config == null ? 10000 : config.getCacheMaxEntries(),
+                config == null ? null : config.getCachePath());
+    }
+
+    /**
+     * @param maxEntries in-memory entries (LRU eviction beyond this)
+     * @param cachePath SQLite file for the persistent tier; null/blank for memory only
+     */
+    public CachingEmbedder(Embedder delegate, String provider, String model, int dims, int maxEntries, String cachePath) {
+        this(delegate, provider, model, dims, null, maxEntries, cachePath);
+    }
+
+    /**
+     * @param baseUrl provider endpoint; part of the key, since two endpoints may serve different vectors under
+     *                the same model name
+     * @param maxEntries in-memory entries (LRU eviction beyond this)
+     * @param cachePath SQLite file for the persistent tier; null/blank for memory only
+     */
+    public CachingEmbedder(Embedder delegate, String provider, String model, int dims, String baseUrl, int maxEntries,
+                           String cachePath) {
+        com.oceanbase.powermem.sdk.util.Preconditions.requireNonNull(delegate, "delegate Embedder is required");
+        this.delegate = delegate;
+        this.keyPrefix = (provider == null ? "" : provider.toLowerCase()) + "|" + (model == null ? "" : model) + "|" + dims
+                + "|" + (baseUrl == null ? "" : baseUrl.trim()) + "|";
+        this.maxEntries = Math.max(1, maxEntries);
+        this.lru = new java.util.LinkedHashMap<String, float[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(java.util.Map.Entry<String, float[]> eldest) {
+                if (size() > CachingEmbedder.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.disk = cachePath == null || cachePath.isBlank() ? null : openDisk(cachePath);
+    }
+
+    @Override
+    public float[] embed(String text) {
+        return embed(text, null);
+    }
+
+    @Override
+    public float[] embed(String text, String memoryAction) {
+        java.util.List<float[]> out = embedBatch(java.util.Collections.singletonList(text == null ? "" : text), memoryAction);
+        return out.isEmpty() ? new float[0] : out.get(0);
+    }
+
+    @Override
+    public java.util.List<float[]> embedBatch(java.util.List<String> texts) {
+        return embedBatch(texts, null);
+    }
+
+    @Override
+    public java.util.List<float[]> embedBatch(java.util.List<String> texts, String memoryAction) {
+        if (texts == null || texts.isEmpty()) {
+            return new java.util.ArrayList<>();
+        }
+        String textType = textType(memoryAction);
+        float[][] out = new float[texts.size()][];
+        // key -> positions still missing (several positions may carry the same text)
+        java.util.Map<String, java.util.List<Integer>> missing = new java.util.LinkedHashMap<>();
+        synchronized (lru) {
+            for (int i = 0; i < texts.size(); i++) {
+                String key = key(textType, texts.get(i));
+                float[] v = lru.get(key);
+                if (v != null) {
+                    hits.increment();
+                    out[i] = v.clone();
+                } else {
+                    missing.computeIfAbsent(key, k -> new java.util.ArrayList<>()).add(i);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return java.util.Arrays.asList(out);
+        }
+
+        if (disk != null) {
+            java.util.Map<String, float[]> loaded = diskGet(missing.keySet());
+            for (java.util.Map.Entry<String, float[]> e : loaded.entrySet()) {
+                java.util.List<Integer> positions = missing.remove(e.getKey());
+                diskHits.add(positions.size());
+                for (int i : positions) {
+                    out[i] = e.getValue().clone();
+                }
+                remember(e.getKey(), e.getValue());
+            }
+            if (missing.isEmpty()) {
+                return java.util.Arrays.asList(out);
+            }
+        }
+
+        java.util.List<String> keys = new java.util.ArrayList<>(missing.keySet());
+        java.util.List<String> request = new java.util.ArrayList<>(keys.size());
+        for (String key : keys) {
+            String t = texts.get(missing.get(key).get(0));
+            request.add(t == null ? "" : t);
+        }
+        java.util.List<float[]> vectors = delegate.embedBatch(request, memoryAction);
+        if (vectors == null || vectors.size() != request.size()) {
+            // misaligned provider response: do not cache anything from it
+            throw new com.oceanbase.powermem.sdk.exception.ApiException("embedBatch returned "
+                    + (vectors == null ? 0 : vectors.size()) + " vectors for " + request.size() + " texts");
+        }
+        java.util.Map<String, float[]> fresh = new java.util.LinkedHashMap<>();
+        for (int j = 0; j < keys.size(); j++) {
+            float[] v = vectors.get(j) == null ? new float[0] : vectors.get(j);
+            java.util.List<Integer> positions = missing.get(keys.get(j));
+            misses.add(positions.size());
+            for (int i : positions) {
+                out[i] = v.clone();
+            }
+            if (v.length > 0) {
+                fresh.put(keys.get(j), v.clone());
+            }
+        }
+        for (java.util.Map.Entry<String, float[]> e : fresh.entrySet()) {
+            remember(e.getKey(), e.getValue());
+        }
+        if (disk != null && !fresh.isEmpty()) {
+            diskPut(fresh);
+        }
+        return java.util.Arrays.asList(out);
+    }
+
+    public Embedder getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Point-in-time cache metrics.
+     */
+    public CacheStats getStats() {
+        int size;
+        synchronized (lru) {
+            size = lru.size();
+        }
+        return new CacheStats(hits.sum(), diskHits.sum(), misses.sum(), evictions.sum(), size, maxEntries);
+    }
+
+    /**
+     * Drop the in-memory tier (the persistent tier is kept).
+     */
+    public void clear() {
+        synchronized (lru) {
+            lru.clear();
+        }
+    }
+
+    /**
+     * Close the persistent tier's connection pool and the delegate, if it holds resources. Idempotent.
+     */
+    @Override
+    public void close() {
+        try {
+            if (disk != null) {
+                disk.close();
+            }
+        } finally {
+            if (delegate instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) delegate).close();
+                } catch (Exception ignored) {
+                    // best-effort
+                }
+            }
+        }
+    }
+
+    private void remember(String key, float[] vector) {
+        synchronized (lru) {
+            lru.put(key, vector);
+        }
+    }
+
+    private String key(String textType, String text) {
+        return keyPrefix + textType + "|" + sha256Hex(text == null ? "" : text);
+    }
+
+    private static String textType(String memoryAction) {
+        return memoryAction != null && "search".equalsIgnoreCase(memoryAction) ? "query" : "document";
+    }
+
+    private static String sha256Hex(String s) {
+        try {
+            java.security.MessageDigest md = java.security.MessageDigest.getInstance("SHA-256");
+            byte[] digest = md.digest(s.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (java.security.NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 unavailable", ex);
+        }
+    }
+
+    private static com.oceanbase.powermem.sdk.storage.pool.PooledDataSource openDisk(String cachePath) {
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException ignored) {
+            // If dependency isn't on classpath, DriverManager.getConnection will fail.
+        }
+        try {
+            java.nio.file.Path parent = java.nio.file.Paths.get(cachePath).toAbsolutePath().getParent();
+            if (parent != null) {
+                java.nio.file.Files.createDirectories(parent);
+            }
+        } catch (Exception ignored) {
+            // best-effort
+        }
+        java.util.Properties props = new java.util.Properties();
+        props.setProperty("busy_timeout", "30000");
+        com.oceanbase.powermem.sdk.storage.pool.PooledDataSource ds = new com.oceanbase.powermem.sdk.storage.pool.PooledDataSource(
+                "jdbc:sqlite:" + cachePath, props, 2, 2, 60_000L, 30_000L);
+        try (java.sql.Connection c = ds.getConnection(); java.sql.Statement st = c.createStatement()) {
+            st.execute("PRAGMA journal_mode=WAL");
+            st.execute("CREATE TABLE IF NOT EXISTS embedding_cache ("
+                    + "cache_key TEXT PRIMARY KEY, vector BLOB NOT NULL, created_at INTEGER NOT NULL)");
+            return ds;
+        } catch (Exception ex) {
+            ds.close();
+            LOG.warning("Embedding cache file unavailable, using memory only: " + ex.getMessage());
+            return null;
+        }
+    }
+
+    private java.util.Map<String, float[]> diskGet(java.util.Collection<String> keys) {
+        java.util.Map<String, float[]> out = new java.util.HashMap<>();
+        java.util.List<String> all = new java.util.ArrayList<>(keys);
+        for (int from = 0; from < all.size(); from += 500) {
+            java.util.List<String> chunk = all.subList(from, Math.min(all.size(), from + 500));
+            StringBuilder sql = new StringBuilder("SELECT cache_key, vector FROM embedding_cache WHERE cache_key IN (");
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+            try (java.sql.Connection c = disk.getConnection();
+                 java.sql.PreparedStatement ps = c.prepareStatement(sql.toString())) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setString(i + 1, chunk.get(i));
+                }
+                try (java.sql.ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        float[] v = com.oceanbase.powermem.sdk.util.VectorCodec.fromFloat32LE(rs.getBytes("vector"));
+                        if (v != null && v.length > 0) {
+                            out.put(rs.getString("cache_key"), v);
+                        }
+                    }
+                }
+            } catch (Exception ignored) {
+                // best-effort: a cache read failure is a miss
+            }
+        }
+        return out;
+    }
+
+    private void diskPut(java.util.Map<String, float[]> entries) {
+        long now = System.currentTimeMillis();
+        try (java.sql.Connection c = disk.getConnection();
+             java.sql.PreparedStatement ps = c.prepareStatement(
+                     "INSERT OR REPLACE INTO embedding_cache (cache_key, vector, created_at) VALUES (?, ?, ?)")) {
+            c.setAutoCommit(false);
+            for (java.util.Map.Entry<String, float[]> e : entries.entrySet()) {
+                ps.setString(1, e.getKey());
+                ps.setBytes(2, com.oceanbase.powermem.sdk.util.VectorCodec.toFloat32LE(e.getValue()));
+                ps.setLong(3, now);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            c.commit();
+        } catch (Exception ignored) {
+            // best-effort
+        }
+    }
+
+    /**
+     * Cache counters since creation. {@code hits} are in-memory hits, {@code diskHits} persistent-tier hits,
+     * {@code misses} texts sent to the provider.
+     */
+    public static final class CacheStats {
+        private final long hits;
+        private final long diskHits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        private final int maxEntries;
+
+        CacheStats(long hits, long diskHits, long misses, long evictions, int size, int maxEntries) {
+            this.hits = hits;
+            this.diskHits = diskHits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.maxEntries = maxEntries;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getDiskHits() {
+            return diskHits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public double getHitRate() {
+            long total = hits + diskHits + misses;
+            return total == 0 ? 0.0 : (double) (hits + diskHits) / total;
+        }
+
+        @Override
+        public String toString() {
+            return "CacheStats{hits=" + hits + ", diskHits=" + diskHits + ", misses=" + misses
+                    + ", evictions=" + evictions + ", size=" + size + "/" + maxEntries + "}";
+        }
+    }
+}
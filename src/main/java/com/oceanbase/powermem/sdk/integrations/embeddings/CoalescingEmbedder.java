@@ -0,0 +1,173 @@
+package com.oceanbase.powermem.sdk.integrations.embeddings;
+
+/**
+ * {@link Embedder} decorator that coalesces concurrent single-text requests into provider batches.
+ *
+ * <p>A single-text call joins the open batch for its {@code memoryAction} (or opens one). The thread that
+ * opened the batch waits up to {@code maxWaitMillis} for more texts, or until the batch holds
+ * {@code maxBatchSize} texts, then sends it with one {@code embedBatch} call and hands every caller its own
+ * vector. No background threads are involved: the first caller of each batch does the request.</p>
+ *
+ * <p>Multi-text {@code embedBatch} calls are already batched and go straight to the delegate.</p>
+ *
+ * <p>No direct Python equivalent.</p>
+ */
+public class CoalescingEmbedder implements Embedder {
+    private final Embedder delegate;
+    private final long maxWaitNanos;
+    private final int maxBatchSize;
+    private final java.util.Map<String, Batch> open = new java.util.HashMap<>();
+
+    private final java.util.concurrent.atomic.LongAdder coalescedRequests = new java.util.concurrent.atomic.LongAdder();
+    private final java.util.concurrent.atomic.LongAdder batchCalls = new java.util.concurrent.atomic.LongAdder();
+
+    /**
+     * @param maxWaitMillis how long the first text of a batch waits for others
+     * @param maxBatchSize texts per provider request
+     */
+    public CoalescingEmbedder(Embedder delegate, long maxWaitMillis, int maxBatchSize) {
+        com.oceanbase.powermem.sdk.util.Preconditions.requireNonNull(delegate, "delegate Embedder is required");
+        this.delegate = delegate;
+        this.maxWaitNanos = java.util.concurrent.TimeUnit.MILLISECONDS.toNanos(Math.max(0L, maxWaitMillis));
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    @Override
+    public float[] embed(String text) {
+        return embed(text, null);
+    }
+
+    @Override
+    public float[] embed(String text, String memoryAction) {
+        return coalesce(text == null ? "" : text, memoryAction);
+    }
+
+    @Override
+    public java.util.List<float[]> embedBatch(java.util.List<String> texts) {
+        return embedBatch(texts, null);
+    }
+
+    @Override
+    public java.util.List<float[]> embedBatch(java.util.List<String> texts, String memoryAction) {
+        if (texts != null && texts.size() == 1) {
+            java.util.List<float[]> out = new java.util.ArrayList<>(1);
+            out.add(coalesce(texts.get(0) == null ? "" : texts.get(0), memoryAction));
+            return out;
+        }
+        return delegate.embedBatch(texts, memoryAction);
+    }
+
+    public Embedder getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Single-text requests received so far.
+     */
+    public long getCoalescedRequests() {
+        return coalescedRequests.sum();
+    }
+
+    /**
+     * Provider requests issued for them.
+     */
+    public long getBatchCalls() {
+        return batchCalls.sum();
+    }
+
+    private float[] coalesce(String text, String memoryAction) {
+        coalescedRequests.increment();
+        if (maxWaitNanos == 0L || maxBatchSize == 1) {
+            batchCalls.increment();
+            return single(delegate.embedBatch(java.util.Collections.singletonList(text), memoryAction));
+        }
+        String groupKey = memoryAction == null ? "" : memoryAction.toLowerCase();
+        Batch batch;
+        int slot;
+        boolean leader;
+        synchronized (open) {
+            batch = open.get(groupKey);
+            leader = batch == null;
+            if (leader) {
+                batch = new Batch(memoryAction);
+                open.put(groupKey, batch);
+            }
+            slot = batch.texts.size();
+            batch.texts.add(text);
+            if (batch.texts.size() >= maxBatchSize) {
+                // sealed: later texts start a new batch
+                open.remove(groupKey);
+                batch.full.countDown();
+            }
+        }
+        if (leader) {
+            boolean interrupted = false;
+            try {
+                batch.full.await(maxWaitNanos, java.util.concurrent.TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                // still send the batch: other callers are waiting on it
+                interrupted = true;
+            }
+            synchronized (open) {
+                if (open.get(groupKey) == batch) {
+                    open.remove(groupKey);
+                }
+            }
+            run(batch);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return await(batch, slot);
+    }
+
+    private void run(Batch batch) {
+        // sealed above: no more texts can be added
+        java.util.List<String> texts;
+        synchronized (open) {
+            texts = new java.util.ArrayList<>(batch.texts);
+        }
+        batchCalls.increment();
+        try {
+            java.util.List<float[]> vectors = delegate.embedBatch(texts, batch.memoryAction);
+            if (vectors == null || vectors.size() != texts.size()) {
+                throw new com.oceanbase.powermem.sdk.exception.ApiException("embedBatch returned "
+                        + (vectors == null ? 0 : vectors.size()) + " vectors for " + texts.size() + " texts");
+            }
+            batch.result.complete(vectors);
+        } catch (Throwable t) {
+            batch.result.completeExceptionally(t);
+        }
+    }
+
+    private static float[] await(Batch batch, int slot) {
+        try {
+            return batch.result.join().get(slot);
+        } catch (java.util.concurrent.CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static float[] single(java.util.List<float[]> vectors) {
+        return vectors == null || vectors.isEmpty() ? new float[0] : vectors.get(0);
+    }
+
+    private static final class Batch {
+        final String memoryAction;
+        final java.util.List<String> texts = new java.util.ArrayList<>();
+        final java.util.concurrent.CountDownLatch full = new java.util.concurrent.CountDownLatch(1);
+        final java.util.concurrent.CompletableFuture<java.util.List<float[]>> result =
+                new java.util.concurrent.CompletableFuture<>();
+
+        Batch(String memoryAction) {
+            this.memoryAction = memoryAction;
+        }
+    }
+}
@@ -21,12 +21,27 @@ public final class EmbedderFactory {
             return new MockEmbedder();
         }
         if ("openai".equalsIgnoreCase(provider)) {
-            return new OpenAiEmbedder(config);
+            return decorate(new OpenAiEmbedder(config), config);
         }
         if ("qwen".equalsIgnoreCase(provider)) {
-            return new QwenEmbedder(config);
+            return decorate(new QwenEmbedder(config), config);
         }
         return new MockEmbedder();
     }
+
+    /**
+     * Cache in front of the coalescer, so cache hits never wait for a batch to fill.
+     */
+    private static Embedder decorate(Embedder embedder, com.oceanbase.powermem.sdk.config.EmbedderConfig config) {
+        Embedder out = embedder;
+        if (config.isCoalesceEnabled()) {
+            int maxBatch = config.getCoalesceMaxBatchSize() > 0 ? config.getCoalesceMaxBatchSize() : config.getBatchSize();
+            out = new CoalescingEmbedder(out, config.getCoalesceMaxWaitMillis(), maxBatch <= 0 ? 10 : maxBatch);
+        }
+        if (config.isCacheEnabled()) {
+            out = new CachingEmbedder(out, config);
+        }
+        return out;
+    }
 }
 
@@ -0,0 +1,108 @@
+package com.oceanbase.powermem.sdk.model;
+
+/**
+ * Response DTO for batch add: one item per input request, in input order.
+ *
+ * <p>No direct Python equivalent; each item mirrors the {@code {"results":[...]}} shape of
+ * {@link AddMemoryResponse} plus an {@code error} when that request could not be stored.</p>
+ */
+public class AddMemoryBatchResponse {
+    public static final class Item {
+        @com.fasterxml.jackson.annotation.JsonProperty("index")
+        private int index;
+        @com.fasterxml.jackson.annotation.JsonProperty("results")
+        private java.util.List<AddMemoryResponse.Result> results = new java.util.ArrayList<>();
+        @com.fasterxml.jackson.annotation.JsonProperty("relations")
+        @com.fasterxml.jackson.annotation.JsonInclude(com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL)
+        private Object relations;
+        @com.fasterxml.jackson.annotation.JsonProperty("error")
+        @com.fasterxml.jackson.annotation.JsonInclude(com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL)
+        private String error;
+        @com.fasterxml.jackson.annotation.JsonIgnore
+        private java.util.List<MemoryRecord> memories = new java.util.ArrayList<>();
+
+        public Item() {}
+
+        public Item(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public java.util.List<AddMemoryResponse.Result> getResults() {
+            return results;
+        }
+
+        public void setResults(java.util.List<AddMemoryResponse.Result> results) {
+            this.results = results == null ? new java.util.ArrayList<>() : results;
+        }
+
+        public Object getRelations() {
+            return relations;
+        }
+
+        public void setRelations(Object relations) {
+            this.relations = relations;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+
+        public java.util.List<MemoryRecord> getMemories() {
+            return memories;
+        }
+
+        public void setMemories(java.util.List<MemoryRecord> memories) {
+            this.memories = memories == null ? new java.util.ArrayList<>() : memories;
+        }
+
+        @com.fasterxml.jackson.annotation.JsonIgnore
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    @com.fasterxml.jackson.annotation.JsonProperty("items")
+    private java.util.List<Item> items = new java.util.ArrayList<>();
+
+    public AddMemoryBatchResponse() {}
+
+    public AddMemoryBatchResponse(java.util.List<Item> items) {
+        setItems(items);
+    }
+
+    public java.util.List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(java.util.List<Item> items) {
+        this.items = items == null ? new java.util.ArrayList<>() : items;
+    }
+
+    @com.fasterxml.jackson.annotation.JsonProperty("success_count")
+    public int getSuccessCount() {
+        int n = 0;
+        for (Item item : items) {
+            if (item != null && item.isSuccess()) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @com.fasterxml.jackson.annotation.JsonProperty("error_count")
+    public int getErrorCount() {
+        return items.size() - getSuccessCount();
+    }
+}
@@ -8,7 +8,7 @@ package com.oceanbase.powermem.sdk.storage.adapter;
  *
  * <p>Python reference: {@code src/powermem/storage/adapter.py}</p>
  */
-public class StorageAdapter {
+public class StorageAdapter implements AutoCloseable {
     protected final com.oceanbase.powermem.sdk.storage.base.VectorStore vectorStore;
     protected final com.oceanbase.powermem.sdk.integrations.embeddings.Embedder embedder;
     private final com.oceanbase.powermem.sdk.util.SnowflakeIdGenerator idGenerator = com.oceanbase.powermem.sdk.util.SnowflakeIdGenerator.defaultGenerator();
@@ -28,6 +28,53 @@ public class StorageAdapter {
         return embedder.embed(text, memoryAction);
     }
 
+    /**
+     * Embed several texts with the same routing context, in requests of at most 10 texts.
+     *
+     * @see #embedBatch(java.util.List, String, java.util.Map, int)
+     */
+    public java.util.List<float[]> embedBatch(java.util.List<String> texts,
+                                              String memoryAction,
+                                              java.util.Map<String, Object> filtersOrMetadata) {
+        return embedBatch(texts, memoryAction, filtersOrMetadata, 0);
+    }
+
+    /**
+     * Embed several texts with the same routing context, one {@code embedBatch} request per chunk of
+     * {@code embedBatchSize} texts (providers cap the batch, e.g. DashScope at 10; {@code <= 0} uses 10).
+     *
+     * <p>A chunk whose request fails or returns a misaligned batch falls back to one {@link #embed} call per
+     * text.</p>
+     */
+    public java.util.List<float[]> embedBatch(java.util.List<String> texts,
+                                              String memoryAction,
+                                              java.util.Map<String, Object> filtersOrMetadata,
+                                              int embedBatchSize) {
+        if (texts == null || texts.isEmpty()) {
+            return java.util.Collections.emptyList();
+        }
+        int chunkSize = embedBatchSize <= 0 ? 10 : embedBatchSize;
+        com.oceanbase.powermem.sdk.integrations.embeddings.Embedder emb = embedderFor(filtersOrMetadata);
+        java.util.List<float[]> out = new java.util.ArrayList<>(texts.size());
+        for (int from = 0; from < texts.size(); from += chunkSize) {
+            java.util.List<String> chunk = texts.subList(from, Math.min(texts.size(), from + chunkSize));
+            java.util.List<float[]> vectors;
+            try {
+                vectors = emb.embedBatch(chunk, memoryAction);
+            } catch (RuntimeException ex) {
+                vectors = null;
+            }
+            if (vectors != null && vectors.size() == chunk.size()) {
+                out.addAll(vectors);
+                continue;
+            }
+            for (String t : chunk) {
+                out.add(embed(t, memoryAction, filtersOrMetadata));
+            }
+        }
+        return out;
+    }
+
     public com.oceanbase.powermem.sdk.model.MemoryRecord addMemory(String content,
                                                          String userId,
                                                          String agentId,
@@ -53,6 +100,269 @@ public class StorageAdapter {
                                                                    java.util.Map<String, Object> attributes,
                                                                    String scope,
                                                                    String memoryType) {
+        com.oceanbase.powermem.sdk.model.MemoryRecord record =
+                newRecord(content, userId, agentId, runId, metadata, attributes, scope, memoryType);
+        float[] vec = embedder.embed(content, "add");
+        vectorStore.upsert(record, vec);
+        return record;
+    }
+
+    /**
+     * Add many memories (non-infer path): texts are embedded with {@code embedBatch} in chunks of
+     * {@code embedBatchSize}, and each chunk is written with one {@code VectorStore.upsertBatch} call per
+     * target store.
+     *
+     * <p>A failing embed chunk fails only its items. A failing store batch is retried record by record so a
+     * single bad record does not fail the rest of the chunk.</p>
+     *
+     * @return outcomes aligned with {@code items}
+     */
+    public java.util.List<AddOutcome> addMemories(java.util.List<NewMemory> items, int embedBatchSize) {
+        java.util.List<AddOutcome> outcomes = new java.util.ArrayList<>();
+        if (items == null || items.isEmpty()) {
+            return outcomes;
+        }
+        int chunkSize = embedBatchSize <= 0 ? 10 : embedBatchSize;
+        com.oceanbase.powermem.sdk.model.MemoryRecord[] records = new com.oceanbase.powermem.sdk.model.MemoryRecord[items.size()];
+        // Group by target store, keeping input order inside each group.
+        java.util.Map<com.oceanbase.powermem.sdk.storage.base.VectorStore, java.util.List<Integer>> groups = new java.util.LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            AddOutcome outcome = new AddOutcome();
+            outcomes.add(outcome);
+            NewMemory m = items.get(i);
+            try {
+                if (m == null) {
+                    throw new com.oceanbase.powermem.sdk.exception.ApiException("Cannot store empty content");
+                }
+                records[i] = newRecord(m.content, m.userId, m.agentId, m.runId, m.metadata, m.attributes, m.scope, m.memoryType);
+                groups.computeIfAbsent(storeFor(m.metadata), k -> new java.util.ArrayList<>()).add(i);
+            } catch (RuntimeException ex) {
+                outcome.error = ex;
+            }
+        }
+
+        for (java.util.List<Integer> group : groups.values()) {
+            java.util.Map<String, Object> routing = items.get(group.get(0)).metadata;
+            com.oceanbase.powermem.sdk.storage.base.VectorStore store = storeFor(routing);
+            com.oceanbase.powermem.sdk.integrations.embeddings.Embedder emb = embedderFor(routing);
+            for (int from = 0; from < group.size(); from += chunkSize) {
+                java.util.List<Integer> chunk = group.subList(from, Math.min(group.size(), from + chunkSize));
+                java.util.List<String> texts = new java.util.ArrayList<>(chunk.size());
+                java.util.List<com.oceanbase.powermem.sdk.model.MemoryRecord> batch = new java.util.ArrayList<>(chunk.size());
+                for (int i : chunk) {
+                    texts.add(records[i].getContent());
+                    batch.add(records[i]);
+                }
+                java.util.List<float[]> vectors;
+                try {
+                    vectors = emb.embedBatch(texts, "add");
+                    if (vectors == null || vectors.size() != texts.size()) {
+                        throw new com.oceanbase.powermem.sdk.exception.ApiException("embedBatch returned "
+                                + (vectors == null ? 0 : vectors.size()) + " vectors for " + texts.size() + " texts");
+                    }
+                } catch (RuntimeException ex) {
+                    for (int i : chunk) {
+                        outcomes.get(i).error = ex;
+                    }
+                    continue;
+                }
+                try {
+                    store.upsertBatch(batch, vectors);
+                    for (int i : chunk) {
+                        outcomes.get(i).record = records[i];
+                    }
+                } catch (RuntimeException batchEx) {
+                    for (int j = 0; j < chunk.size(); j++) {
+                        int i = chunk.get(j);
+                        try {
+                            store.upsert(records[i], vectors.get(j));
+                            outcomes.get(i).record = records[i];
+                        } catch (RuntimeException ex) {
+                            outcomes.get(i).error = ex;
+                        }
+                    }
+                }
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Apply the ADD/UPDATE/DELETE actions of one memory-update decision as a batch: UPDATE/DELETE targets are
+     * resolved with one multi-id lookup per store, ADD/UPDATE texts are embedded with one {@code embedBatch}
+     * call per embedder and action (in chunks of {@code embedBatchSize}), and each store receives one
+     * {@code VectorStore.applyBatch} transaction.
+     *
+     * <p>UPDATE/DELETE ids that do not exist in the given scope (or were deleted earlier in the same list)
+     * are skipped. Plugin fields of an UPDATE are merged into the payload before the content changes.</p>
+     *
+     * @return records aligned with {@code actions}: the added or updated record, the record as it was before a
+     * DELETE, or null for a skipped action
+     */
+    public java.util.List<com.oceanbase.powermem.sdk.model.MemoryRecord> applyActions(java.util.List<MemoryAction> actions,
+                                                                                     String userId,
+                                                                                     String agentId,
+                                                                                     String runId,
+                                                                                     java.util.Map<String, Object> metadata,
+                                                                                     String scope,
+                                                                                     String memoryType,
+                                                                                     int embedBatchSize) {
+        if (actions == null || actions.isEmpty()) {
+            return new java.util.ArrayList<>();
+        }
+        java.util.List<com.oceanbase.powermem.sdk.model.MemoryRecord> out =
+                new java.util.ArrayList<>(java.util.Collections.nCopies(actions.size(), null));
+
+        // 1) one lookup for every UPDATE/DELETE target
+        java.util.Set<String> targetIds = new java.util.LinkedHashSet<>();
+        for (MemoryAction a : actions) {
+            if (a != null && !MemoryAction.ADD.equals(a.event) && a.memoryId != null && !a.memoryId.isBlank()) {
+                targetIds.add(a.memoryId);
+            }
+        }
+        java.util.Map<String, StoredMemory> located = targetIds.isEmpty()
+                ? java.util.Collections.emptyMap()
+                : locateMemories(targetIds, userId, agentId);
+
+        // 2) build the new/updated records; a repeated UPDATE of one id reuses its pending write
+        java.util.List<PendingWrite> upserts = new java.util.ArrayList<>();
+        java.util.Map<String, PendingWrite> updatesById = new java.util.HashMap<>();
+        java.util.Map<com.oceanbase.powermem.sdk.storage.base.VectorStore, java.util.List<String>> deletes =
+                new java.util.LinkedHashMap<>();
+        java.util.Set<String> deleted = new java.util.HashSet<>();
+        for (int i = 0; i < actions.size(); i++) {
+            MemoryAction a = actions.get(i);
+            if (a == null) {
+                continue;
+            }
+            if (MemoryAction.ADD.equals(a.event)) {
+                com.oceanbase.powermem.sdk.model.MemoryRecord record =
+                        newRecord(a.text, userId, agentId, runId, metadata, a.attributes, scope, memoryType);
+                upserts.add(new PendingWrite(record, storeFor(metadata), embedderFor(metadata), "add"));
+                out.set(i, record);
+                continue;
+            }
+            StoredMemory hit = a.memoryId == null ? null : located.get(a.memoryId);
+            if (hit == null || deleted.contains(a.memoryId)) {
+                continue;
+            }
+            com.oceanbase.powermem.sdk.model.MemoryRecord existing = hit.record;
+            if (MemoryAction.DELETE.equals(a.event)) {
+                deleted.add(a.memoryId);
+                deletes.computeIfAbsent(hit.store, k -> new java.util.ArrayList<>()).add(existing.getId());
+                out.set(i, existing);
+                continue;
+            }
+            if (a.attributes != null && !a.attributes.isEmpty()) {
+                mergePayloadFields(existing, a.attributes);
+            }
+            if (a.text != null && !a.text.isBlank()) {
+                existing.setContent(a.text);
+                existing.setHash(com.oceanbase.powermem.sdk.util.PowermemUtils.md5Hex(a.text));
+            }
+            if (metadata != null) {
+                existing.setMetadata(metadata);
+            }
+            existing.setUpdatedAt(java.time.Instant.now());
+            if (!updatesById.containsKey(a.memoryId)) {
+                java.util.Map<String, Object> ctx = metadata == null ? existing.getMetadata() : metadata;
+                PendingWrite w = new PendingWrite(existing, hit.store, embedderFor(ctx), "update");
+                updatesById.put(a.memoryId, w);
+                upserts.add(w);
+            }
+            out.set(i, existing);
+        }
+
+        // 3) embed per (embedder, action) in chunks
+        int chunkSize = embedBatchSize <= 0 ? 10 : embedBatchSize;
+        java.util.Map<com.oceanbase.powermem.sdk.integrations.embeddings.Embedder,
+                java.util.Map<String, java.util.List<PendingWrite>>> toEmbed = new java.util.LinkedHashMap<>();
+        for (PendingWrite w : upserts) {
+            toEmbed.computeIfAbsent(w.embedder, k -> new java.util.LinkedHashMap<>())
+                    .computeIfAbsent(w.embedAction, k -> new java.util.ArrayList<>())
+                    .add(w);
+        }
+        for (java.util.Map.Entry<com.oceanbase.powermem.sdk.integrations.embeddings.Embedder,
+                java.util.Map<String, java.util.List<PendingWrite>>> byEmbedder : toEmbed.entrySet()) {
+            com.oceanbase.powermem.sdk.integrations.embeddings.Embedder emb = byEmbedder.getKey();
+            for (java.util.Map.Entry<String, java.util.List<PendingWrite>> byAction : byEmbedder.getValue().entrySet()) {
+                java.util.List<PendingWrite> group = byAction.getValue();
+                for (int from = 0; from < group.size(); from += chunkSize) {
+                    java.util.List<PendingWrite> chunk = group.subList(from, Math.min(group.size(), from + chunkSize));
+                    java.util.List<String> texts = new java.util.ArrayList<>(chunk.size());
+                    for (PendingWrite w : chunk) {
+                        texts.add(w.record.getContent() == null ? "" : w.record.getContent());
+                    }
+                    java.util.List<float[]> vectors = emb.embedBatch(texts, byAction.getKey());
+                    for (int j = 0; j < chunk.size(); j++) {
+                        chunk.get(j).vector = vectors != null && vectors.size() == texts.size()
+                                ? vectors.get(j)
+                                : emb.embed(texts.get(j), byAction.getKey());
+                    }
+                }
+            }
+        }
+
+        // 4) one transaction per store
+        java.util.Map<com.oceanbase.powermem.sdk.storage.base.VectorStore, java.util.List<PendingWrite>> byStore =
+                new java.util.LinkedHashMap<>();
+        for (PendingWrite w : upserts) {
+            byStore.computeIfAbsent(w.store, k -> new java.util.ArrayList<>()).add(w);
+        }
+        for (com.oceanbase.powermem.sdk.storage.base.VectorStore store : deletes.keySet()) {
+            byStore.computeIfAbsent(store, k -> new java.util.ArrayList<>());
+        }
+        for (java.util.Map.Entry<com.oceanbase.powermem.sdk.storage.base.VectorStore, java.util.List<PendingWrite>> e : byStore.entrySet()) {
+            java.util.List<com.oceanbase.powermem.sdk.model.MemoryRecord> records = new java.util.ArrayList<>(e.getValue().size());
+            java.util.List<float[]> vectors = new java.util.ArrayList<>(e.getValue().size());
+            for (PendingWrite w : e.getValue()) {
+                records.add(w.record);
+                vectors.add(w.vector);
+            }
+            e.getKey().applyBatch(records, vectors, deletes.getOrDefault(e.getKey(), java.util.Collections.emptyList()));
+        }
+        return out;
+    }
+
+    /**
+     * Find the stores holding these ids (one {@code getBatch} per store). Default: the main store only.
+     */
+    protected java.util.Map<String, StoredMemory> locateMemories(java.util.Collection<String> memoryIds,
+                                                                 String userId,
+                                                                 String agentId) {
+        java.util.Map<String, StoredMemory> out = new java.util.LinkedHashMap<>();
+        for (java.util.Map.Entry<String, com.oceanbase.powermem.sdk.model.MemoryRecord> e
+                : vectorStore.getBatch(memoryIds, userId, agentId).entrySet()) {
+            out.put(e.getKey(), new StoredMemory(vectorStore, e.getValue()));
+        }
+        return out;
+    }
+
+    /**
+     * Vector store that a new memory with this metadata is written to (sub-store routing hook).
+     */
+    protected com.oceanbase.powermem.sdk.storage.base.VectorStore storeFor(java.util.Map<String, Object> metadata) {
+        return vectorStore;
+    }
+
+    /**
+     * Embedder used for memories written to {@link #storeFor(java.util.Map)}.
+     */
+    protected com.oceanbase.powermem.sdk.integrations.embeddings.Embedder embedderFor(java.util.Map<String, Object> metadata) {
+        return embedder;
+    }
+
+    /**
+     * Build a new record (fresh id, timestamps, hash) without embedding or storing it.
+     */
+    protected com.oceanbase.powermem.sdk.model.MemoryRecord newRecord(String content,
+                                                                      String userId,
+                                                                      String agentId,
+                                                                      String runId,
+                                                                      java.util.Map<String, Object> metadata,
+                                                                      java.util.Map<String, Object> attributes,
+                                                                      String scope,
+                                                                      String memoryType) {
         if (content == null || content.isBlank()) {
             throw new com.oceanbase.powermem.sdk.exception.ApiException("Cannot store empty content");
         }
@@ -88,8 +398,6 @@ public class StorageAdapter {
         record.setUpdatedAt(now);
         record.setLastAccessedAt(now);
 
-        float[] vec = embedder.embed(content, "add");
-        vectorStore.upsert(record, vec);
         return record;
     }
 
@@ -103,7 +411,7 @@ public class StorageAdapter {
     }
 
     /**
-     * Search memories with optional query text (for OceanBase hybrid search).
+     * Search memories with optional query text (hybrid search on OceanBase, pgvector and SQLite with keyword search).
      *
      * <p>Python parity: OceanBase supports hybrid (vector + full-text) search when query text is present.</p>
      */
@@ -118,6 +426,14 @@ public class StorageAdapter {
             return ((com.oceanbase.powermem.sdk.storage.oceanbase.OceanBaseVectorStore) vectorStore)
                     .searchHybrid(queryText, queryEmbedding, limit, userId, agentId, runId, filters);
         }
+        if (vectorStore instanceof com.oceanbase.powermem.sdk.storage.pgvector.PGVectorStore) {
+            return ((com.oceanbase.powermem.sdk.storage.pgvector.PGVectorStore) vectorStore)
+                    .searchHybrid(queryText, queryEmbedding, limit, userId, agentId, runId, filters);
+        }
+        if (vectorStore instanceof com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore) {
+            return ((com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore) vectorStore)
+                    .searchHybrid(queryText, queryEmbedding, limit, userId, agentId, runId, filters);
+        }
         return vectorStore.search(queryEmbedding, limit, userId, agentId, runId, filters);
     }
 
@@ -166,10 +482,26 @@ public class StorageAdapter {
             ((com.oceanbase.powermem.sdk.storage.oceanbase.OceanBaseVectorStore) vectorStore).updatePayloadFields(memoryId, fieldUpdates);
             return;
         }
+        if (vectorStore instanceof com.oceanbase.powermem.sdk.storage.pgvector.PGVectorStore) {
+            ((com.oceanbase.powermem.sdk.storage.pgvector.PGVectorStore) vectorStore).updatePayloadFields(memoryId, fieldUpdates);
+            return;
+        }
+        if (vectorStore instanceof com.oceanbase.powermem.sdk.storage.local.LocalVectorStore) {
+            ((com.oceanbase.powermem.sdk.storage.local.LocalVectorStore) vectorStore).updatePayloadFields(memoryId, fieldUpdates);
+            return;
+        }
         com.oceanbase.powermem.sdk.model.MemoryRecord existing = vectorStore.get(memoryId, userId, agentId);
         if (existing == null) {
             return;
         }
+        mergePayloadFields(existing, fieldUpdates);
+        existing.setUpdatedAt(java.time.Instant.now());
+        float[] vec = embedder.embed(existing.getContent() == null ? "" : existing.getContent(), "update");
+        vectorStore.upsert(existing, vec);
+    }
+
+    private static void mergePayloadFields(com.oceanbase.powermem.sdk.model.MemoryRecord existing,
+                                           java.util.Map<String, Object> fieldUpdates) {
         if (existing.getAttributes() == null) {
             existing.setAttributes(new java.util.HashMap<>());
         }
@@ -182,14 +514,11 @@ public class StorageAdapter {
                 java.util.Map<String, Object> m = (java.util.Map<String, Object>) e.getValue();
                 existing.setMetadata(m);
             } else if ("updated_at".equals(e.getKey()) || "created_at".equals(e.getKey())) {
-                // ignore - timestamps handled below / never override created_at
+                // ignore - timestamps handled by the caller / never override created_at
             } else {
                 existing.getAttributes().put(e.getKey(), e.getValue());
             }
         }
-        existing.setUpdatedAt(java.time.Instant.now());
-        float[] vec = embedder.embed(existing.getContent() == null ? "" : existing.getContent(), "update");
-        vectorStore.upsert(existing, vec);
     }
 
     public boolean deleteMemory(String memoryId, String userId, String agentId) {
@@ -207,5 +536,146 @@ public class StorageAdapter {
     public int clearMemories(String userId, String agentId, String runId) {
         return vectorStore.deleteAll(userId, agentId, runId);
     }
-}
 
+    /**
+     * Close the underlying vector store(s), flushing any write-behind state, and the embedder(s) that hold
+     * resources (e.g. the SQLite pool of a {@link com.oceanbase.powermem.sdk.integrations.embeddings.CachingEmbedder}).
+     */
+    @Override
+    public void close() {
+        try {
+            vectorStore.close();
+        } finally {
+            closeEmbedder(embedder);
+        }
+    }
+
+    protected static void closeEmbedder(com.oceanbase.powermem.sdk.integrations.embeddings.Embedder e) {
+        if (e instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) e).close();
+            } catch (Exception ignored) {
+                // best-effort
+            }
+        }
+    }
+
+    /**
+     * One memory for {@link #addMemories(java.util.List, int)}.
+     */
+    public static final class NewMemory {
+        final String content;
+        final String userId;
+        final String agentId;
+        final String runId;
+        final java.util.Map<String, Object> metadata;
+        final java.util.Map<String, Object> attributes;
+        final String scope;
+        final String memoryType;
+
+        public NewMemory(String content,
+                         String userId,
+                         String agentId,
+                         String runId,
+                         java.util.Map<String, Object> metadata,
+                         java.util.Map<String, Object> attributes,
+                         String scope,
+                         String memoryType) {
+            this.content = content;
+            this.userId = userId;
+            this.agentId = agentId;
+            this.runId = runId;
+            this.metadata = metadata;
+            this.attributes = attributes;
+            this.scope = scope;
+            this.memoryType = memoryType;
+        }
+    }
+
+    /**
+     * Result of one {@link NewMemory}: the stored record, or the error that prevented storing it.
+     */
+    public static final class AddOutcome {
+        private com.oceanbase.powermem.sdk.model.MemoryRecord record;
+        private RuntimeException error;
+
+        public com.oceanbase.powermem.sdk.model.MemoryRecord getRecord() {
+            return record;
+        }
+
+        public RuntimeException getError() {
+            return error;
+        }
+    }
+
+    /**
+     * One action of a memory-update decision, for {@link #applyActions}.
+     */
+    public static final class MemoryAction {
+        static final String ADD = "ADD";
+        static final String UPDATE = "UPDATE";
+        static final String DELETE = "DELETE";
+
+        final String event;
+        final String memoryId;
+        final String text;
+        final java.util.Map<String, Object> attributes;
+
+        private MemoryAction(String event, String memoryId, String text, java.util.Map<String, Object> attributes) {
+            this.event = event;
+            this.memoryId = memoryId;
+            this.text = text;
+            this.attributes = attributes;
+        }
+
+        /**
+         * @param attributes extra payload fields (e.g. intelligence plugin output)
+         */
+        public static MemoryAction add(String text, java.util.Map<String, Object> attributes) {
+            return new MemoryAction(ADD, null, text, attributes);
+        }
+
+        /**
+         * @param attributes payload fields merged into the existing record before its content changes
+         */
+        public static MemoryAction update(String memoryId, String text, java.util.Map<String, Object> attributes) {
+            return new MemoryAction(UPDATE, memoryId, text, attributes);
+        }
+
+        public static MemoryAction delete(String memoryId) {
+            return new MemoryAction(DELETE, memoryId, null, null);
+        }
+    }
+
+    /**
+     * A record together with the store it was read from.
+     */
+    protected static final class StoredMemory {
+        final com.oceanbase.powermem.sdk.storage.base.VectorStore store;
+        final com.oceanbase.powermem.sdk.model.MemoryRecord record;
+
+        StoredMemory(com.oceanbase.powermem.sdk.storage.base.VectorStore store,
+                     com.oceanbase.powermem.sdk.model.MemoryRecord record) {
+            this.store = store;
+            this.record = record;
+        }
+    }
+
+    private static final class PendingWrite {
+        final com.oceanbase.powermem.sdk.model.MemoryRecord record;
+        final com.oceanbase.powermem.sdk.storage.base.VectorStore store;
+        final com.oceanbase.powermem.sdk.integrations.embeddings.Embedder embedder;
+        final String embedAction;
+        float[] vector;
+
+        PendingWrite(com.oceanbase.powermem.sdk.model.MemoryRecord record,
+                     com.oceanbase.powermem.sdk.storage.base.VectorStore store,
+                     com.oceanbase.powermem.sdk.integrations.embeddings.Embedder embedder,
+                     String embedAction) {
+            this.record = record;
+            this.store = store;
+            this.embedder = embedder;
+            this.embedAction = embedAction;
+        }
+    }
+}
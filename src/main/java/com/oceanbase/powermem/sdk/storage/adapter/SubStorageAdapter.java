@@ -160,46 +160,25 @@ public class SubStorageAdapter extends StorageAdapter {
         com.oceanbase.powermem.sdk.storage.base.VectorStore target = s.vectorStore;
         com.oceanbase.powermem.sdk.integrations.embeddings.Embedder emb = s.embedder == null ? this.embedder : s.embedder;
 
-        if (content == null || content.isBlank()) {
-            throw new com.oceanbase.powermem.sdk.exception.ApiException("Cannot store empty content");
-        }
-        java.time.Instant now = java.time.Instant.now();
-        com.oceanbase.powermem.sdk.model.MemoryRecord record = new com.oceanbase.powermem.sdk.model.MemoryRecord();
-        record.setId(com.oceanbase.powermem.sdk.util.SnowflakeIdGenerator.defaultGenerator().nextId());
-        record.setContent(content);
-        record.setUserId(userId);
-        record.setAgentId(agentId);
-        record.setRunId(runId);
-        // Python parity: promote "category" (and potentially other simple fields) to top-level payload
-        java.util.Map<String, Object> safeMeta = metadata == null ? new java.util.HashMap<>() : new java.util.HashMap<>(metadata);
-        Object category = safeMeta.get("category");
-        if (category != null && !String.valueOf(category).isBlank()) {
-            record.setCategory(String.valueOf(category));
-            safeMeta.remove("category");
-        }
-        record.setMetadata(safeMeta);
-        java.util.Map<String, Object> attrs = attributes == null ? null : new java.util.HashMap<>(attributes);
-        if (memoryType != null && !memoryType.isBlank()) {
-            if (attrs == null) {
-                attrs = new java.util.HashMap<>();
-            }
-            // Python parity: memory_type can be forced by API param
-            attrs.put("memory_type", memoryType);
-        }
-        record.setAttributes(attrs);
-        if (scope != null && !scope.isBlank()) {
-            record.setScope(scope);
-        }
-        record.setHash(com.oceanbase.powermem.sdk.util.PowermemUtils.md5Hex(content));
-        record.setCreatedAt(now);
-        record.setUpdatedAt(now);
-        record.setLastAccessedAt(now);
-
+        com.oceanbase.powermem.sdk.model.MemoryRecord record =
+                newRecord(content, userId, agentId, runId, metadata, attributes, scope, memoryType);
         float[] vec = emb.embed(content, "add");
         target.upsert(record, vec);
         return record;
     }
 
+    @Override
+    protected com.oceanbase.powermem.sdk.storage.base.VectorStore storeFor(java.util.Map<String, Object> metadata) {
+        SubStore s = routeToStore(metadata);
+        return s == null ? super.storeFor(metadata) : s.vectorStore;
+    }
+
+    @Override
+    protected com.oceanbase.powermem.sdk.integrations.embeddings.Embedder embedderFor(java.util.Map<String, Object> metadata) {
+        SubStore s = routeToStore(metadata);
+        return s == null || s.embedder == null ? super.embedderFor(metadata) : s.embedder;
+    }
+
     @Override
     public java.util.List<com.oceanbase.powermem.sdk.storage.base.OutputData> searchMemories(String queryText,
                                                                                            float[] queryEmbedding,
@@ -214,6 +193,14 @@ public class SubStorageAdapter extends StorageAdapter {
             return ((com.oceanbase.powermem.sdk.storage.oceanbase.OceanBaseVectorStore) target)
                     .searchHybrid(queryText, queryEmbedding, limit, userId, agentId, runId, filters);
         }
+        if (target instanceof com.oceanbase.powermem.sdk.storage.pgvector.PGVectorStore) {
+            return ((com.oceanbase.powermem.sdk.storage.pgvector.PGVectorStore) target)
+                    .searchHybrid(queryText, queryEmbedding, limit, userId, agentId, runId, filters);
+        }
+        if (target instanceof com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore) {
+            return ((com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore) target)
+                    .searchHybrid(queryText, queryEmbedding, limit, userId, agentId, runId, filters);
+        }
         return target.search(queryEmbedding, limit, userId, agentId, runId, filters);
     }
 
@@ -240,7 +227,7 @@ public class SubStorageAdapter extends StorageAdapter {
                                                                      String agentId,
                                                                      java.util.Map<String, Object> metadata) {
         // Find which store contains this memory (Python behavior).
-        StoreHit hit = findStore(memoryId, userId, agentId);
+        StoredMemory hit = findStore(memoryId, userId, agentId);
         if (hit == null || hit.record == null || hit.store == null) {
             return null;
         }
@@ -284,7 +271,7 @@ public class SubStorageAdapter extends StorageAdapter {
             return;
         }
         // Find the store containing the memory.
-        StoreHit hit = findStore(memoryId, userId, agentId);
+        StoredMemory hit = findStore(memoryId, userId, agentId);
         if (hit == null || hit.store == null) {
             return;
         }
@@ -297,6 +284,14 @@ public class SubStorageAdapter extends StorageAdapter {
             ((com.oceanbase.powermem.sdk.storage.oceanbase.OceanBaseVectorStore) store).updatePayloadFields(memoryId, fieldUpdates);
             return;
         }
+        if (store instanceof com.oceanbase.powermem.sdk.storage.pgvector.PGVectorStore) {
+            ((com.oceanbase.powermem.sdk.storage.pgvector.PGVectorStore) store).updatePayloadFields(memoryId, fieldUpdates);
+            return;
+        }
+        if (store instanceof com.oceanbase.powermem.sdk.storage.local.LocalVectorStore) {
+            ((com.oceanbase.powermem.sdk.storage.local.LocalVectorStore) store).updatePayloadFields(memoryId, fieldUpdates);
+            return;
+        }
         // Fallback: delegate to base implementation (may do get+upsert on main store).
         super.updatePayloadFields(memoryId, userId, agentId, fieldUpdates);
     }
@@ -309,29 +304,63 @@ public class SubStorageAdapter extends StorageAdapter {
         return this.embedder;
     }
 
-    private StoreHit findStore(String memoryId, String userId, String agentId) {
+    private StoredMemory findStore(String memoryId, String userId, String agentId) {
         com.oceanbase.powermem.sdk.model.MemoryRecord r = this.vectorStore.get(memoryId, userId, agentId);
         if (r != null) {
-            return new StoreHit(this.vectorStore, r);
+            return new StoredMemory(this.vectorStore, r);
         }
         for (SubStore s : subStores) {
             if (s == null || s.vectorStore == null) continue;
             r = s.vectorStore.get(memoryId, userId, agentId);
             if (r != null) {
-                return new StoreHit(s.vectorStore, r);
+                return new StoredMemory(s.vectorStore, r);
             }
         }
         return null;
     }
 
-    private static final class StoreHit {
-        final com.oceanbase.powermem.sdk.storage.base.VectorStore store;
-        final com.oceanbase.powermem.sdk.model.MemoryRecord record;
-        StoreHit(com.oceanbase.powermem.sdk.storage.base.VectorStore store,
-                 com.oceanbase.powermem.sdk.model.MemoryRecord record) {
-            this.store = store;
-            this.record = record;
+    /**
+     * Main store first, then each sub store for the ids not found yet (Python behavior of get/update/delete).
+     */
+    @Override
+    protected java.util.Map<String, StoredMemory> locateMemories(java.util.Collection<String> memoryIds,
+                                                                 String userId,
+                                                                 String agentId) {
+        java.util.Map<String, StoredMemory> out = super.locateMemories(memoryIds, userId, agentId);
+        java.util.List<String> remaining = new java.util.ArrayList<>();
+        for (String id : memoryIds) {
+            if (!out.containsKey(id)) {
+                remaining.add(id);
+            }
+        }
+        for (SubStore s : subStores) {
+            if (remaining.isEmpty()) {
+                break;
+            }
+            if (s == null || s.vectorStore == null) continue;
+            java.util.Map<String, com.oceanbase.powermem.sdk.model.MemoryRecord> found =
+                    s.vectorStore.getBatch(remaining, userId, agentId);
+            for (java.util.Map.Entry<String, com.oceanbase.powermem.sdk.model.MemoryRecord> e : found.entrySet()) {
+                out.put(e.getKey(), new StoredMemory(s.vectorStore, e.getValue()));
+            }
+            remaining.removeAll(found.keySet());
+        }
+        return out;
+    }
+
+    @Override
+    public void close() {
+        for (SubStore s : subStores) {
+            try {
+                s.vectorStore.close();
+            } catch (Exception ignored) {
+                // best-effort: keep closing the remaining stores
+            }
+            if (s.embedder != embedder) {
+                closeEmbedder(s.embedder);
+            }
         }
+        super.close();
     }
 
     private static final class SubStore {
@@ -0,0 +1,183 @@
+package com.oceanbase.powermem.sdk.storage.base;
+
+import java.lang.ref.WeakReference;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind tracker for {@code last_accessed_at} touches on the search path.
+ *
+ * <p>Touches are coalesced in memory (latest timestamp per memory id) and handed to a store-specific
+ * {@link Flusher} as one batch, either on a timer, when {@code maxPending} ids accumulate, or on
+ * {@link #close()}. Stores overlay {@link #pending(String)} on records they read so callers still see the
+ * newest value before it is flushed. With {@code flushIntervalMillis <= 0} every touch batch is flushed
+ * synchronously (still one statement batch per search instead of one round trip per result).</p>
+ *
+ * <p>No direct Python equivalent; Python updates {@code last_accessed_at} per result inline.</p>
+ */
+public class AccessTracker implements AutoCloseable {
+    private static final Logger LOG = Logger.getLogger(AccessTracker.class.getName());
+    private static final AtomicReference<ScheduledExecutorService> SCHEDULER = new AtomicReference<>();
+
+    /**
+     * Persists a batch of coalesced touches (memory id -> latest access time).
+     */
+    @FunctionalInterface
+    public interface Flusher {
+        void flush(Map<String, Instant> touches) throws Exception;
+    }
+
+    private final Flusher flusher;
+    private final int maxPending;
+    private final long flushIntervalMillis;
+    private final ConcurrentHashMap<String, Instant> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ScheduledFuture<?> timer;
+    private volatile boolean closed;
+
+    public AccessTracker(Flusher flusher, int maxPending, long flushIntervalMillis) {
+        this.flusher = flusher;
+        this.maxPending = maxPending <= 0 ? 1024 : maxPending;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.timer = flushIntervalMillis > 0 ? schedulePeriodicFlush(this, flushIntervalMillis) : null;
+    }
+
+    /**
+     * Record that the given memories were accessed at {@code at}.
+     */
+    public void touch(Collection<String> memoryIds, Instant at) {
+        if (memoryIds == null || memoryIds.isEmpty() || at == null) {
+            return;
+        }
+        for (String id : memoryIds) {
+            if (id == null || id.isBlank()) {
+                continue;
+            }
+            pending.merge(id, at, (a, b) -> a.isAfter(b) ? a : b);
+        }
+        if (closed || flushIntervalMillis <= 0) {
+            flush();
+        } else if (pending.size() >= maxPending && flushQueued.compareAndSet(false, true)) {
+            scheduler().execute(() -> {
+                flushQueued.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    /**
+     * Latest not-yet-flushed access time for {@code memoryId}, or null.
+     */
+    public Instant pending(String memoryId) {
+        return memoryId == null ? null : pending.get(memoryId);
+    }
+
+    /**
+     * Return whichever of {@code stored} and the pending touch for {@code memoryId} is newer.
+     */
+    public Instant overlay(String memoryId, Instant stored) {
+        Instant p = pending(memoryId);
+        if (p == null) {
+            return stored;
+        }
+        return stored == null || p.isAfter(stored) ? p : stored;
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Flush all pending touches synchronously. Entries touched again while flushing stay pending.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Map<String, Instant> batch = new HashMap<>(pending);
+            try {
+                flusher.flush(batch);
+            } catch (Exception ex) {
+                // best-effort (same as the previous inline updates): drop the batch rather than retry forever
+                LOG.log(Level.FINE, "Access tracker flush failed; dropping " + batch.size() + " touches: " + ex.getMessage(), ex);
+            }
+            for (Map.Entry<String, Instant> e : batch.entrySet()) {
+                pending.remove(e.getKey(), e.getValue());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Stop the timer and drain pending touches.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        flush();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception ex) {
+            LOG.log(Level.FINE, "Access tracker flush failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static ScheduledFuture<?> schedulePeriodicFlush(AccessTracker tracker, long intervalMillis) {
+        // Weak reference: a store that is dropped without close() must not be kept alive by its timer.
+        WeakReference<AccessTracker> ref = new WeakReference<>(tracker);
+        AtomicReference<ScheduledFuture<?>> self = new AtomicReference<>();
+        ScheduledFuture<?> f = scheduler().scheduleWithFixedDelay(() -> {
+            AccessTracker t = ref.get();
+            if (t == null) {
+                ScheduledFuture<?> s = self.get();
+                if (s != null) {
+                    s.cancel(false);
+                }
+                return;
+            }
+            t.flushQuietly();
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        self.set(f);
+        return f;
+    }
+
+    private static ScheduledExecutorService scheduler() {
+        ScheduledExecutorService s = SCHEDULER.get();
+        if (s != null) {
+            return s;
+        }
+        ScheduledThreadPoolExecutor created = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "powermem-access-tracker");
+            t.setDaemon(true);
+            return t;
+        });
+        created.setRemoveOnCancelPolicy(true);
+        if (SCHEDULER.compareAndSet(null, created)) {
+            return created;
+        }
+        created.shutdown();
+        return SCHEDULER.get();
+    }
+}
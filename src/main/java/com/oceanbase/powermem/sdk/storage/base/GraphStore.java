@@ -6,7 +6,7 @@ package com.oceanbase.powermem.sdk.storage.base;
  * <p>Python reference: {@code src/powermem/storage/graph/*} and {@code src/powermem/storage/factory.py}
  * (GraphStoreFactory).</p>
  */
-public interface GraphStore {
+public interface GraphStore extends AutoCloseable {
     /**
      * Add raw text data to graph store (entity/relation extraction + upsert).
      *
@@ -41,5 +41,12 @@ public interface GraphStore {
      * Reset graph store state.
      */
     void reset();
+
+    /**
+     * Release store resources (pooled connections). Default: no-op.
+     */
+    @Override
+    default void close() {
+    }
 }
 
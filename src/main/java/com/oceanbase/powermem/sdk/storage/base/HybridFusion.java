@@ -0,0 +1,185 @@
+package com.oceanbase.powermem.sdk.storage.base;
+
+/**
+ * Fusion of vector and full-text result lists for hybrid search (RRF or weighted scores). Each fused record gets
+ * a {@code _fusion_info} attribute describing how its score was computed.
+ *
+ * <p>Python reference: {@code src/powermem/storage/oceanbase/oceanbase.py} (hybrid search fusion).</p>
+ */
+public final class HybridFusion {
+    private HybridFusion() {}
+
+    /**
+     * Reciprocal rank fusion: each list contributes {@code weight / (k + rank)} per result.
+     */
+    public static java.util.List<OutputData> rrf(
+            java.util.List<OutputData> vectorResults,
+            java.util.List<OutputData> ftsResults,
+            int limit,
+            int k,
+            double vectorWeight,
+            double ftsWeight) {
+        int safeK = k <= 0 ? 60 : k;
+        double vw = vectorWeight <= 0 ? 0.5 : vectorWeight;
+        double tw = ftsWeight <= 0 ? 0.5 : ftsWeight;
+        java.util.Map<String, ScoreEntry> map = new java.util.HashMap<>();
+
+        java.util.List<OutputData> vr = vectorResults == null ? java.util.Collections.<OutputData>emptyList() : vectorResults;
+        java.util.List<OutputData> tr = ftsResults == null ? java.util.Collections.<OutputData>emptyList() : ftsResults;
+
+        int rank = 1;
+        for (OutputData r : vr) {
+            if (r == null || r.getRecord() == null || r.getRecord().getId() == null) continue;
+            String id = r.getRecord().getId();
+            ScoreEntry e = map.computeIfAbsent(id, x -> new ScoreEntry(r));
+            e.rrf += vw * (1.0 / (safeK + rank));
+            if (e.vectorRank == null) {
+                e.vectorRank = rank;
+                e.vectorScore = r.getScore();
+            }
+            rank++;
+        }
+        rank = 1;
+        for (OutputData r : tr) {
+            if (r == null || r.getRecord() == null || r.getRecord().getId() == null) continue;
+            String id = r.getRecord().getId();
+            ScoreEntry e = map.computeIfAbsent(id, x -> new ScoreEntry(r));
+            e.rrf += tw * (1.0 / (safeK + rank));
+            if (e.ftsRank == null) {
+                e.ftsRank = rank;
+                e.ftsScore = r.getScore();
+            }
+            rank++;
+        }
+
+        java.util.List<OutputData> out = new java.util.ArrayList<>();
+        for (java.util.Map.Entry<String, ScoreEntry> e : map.entrySet()) {
+            OutputData d = e.getValue().data;
+            attachFusionInfo(d.getRecord(), buildFusionInfo("rrf", vw, tw, safeK, e.getValue().vectorRank, e.getValue().ftsRank,
+                    e.getValue().vectorScore, e.getValue().ftsScore, e.getValue().rrf, null, null));
+            out.add(new OutputData(d.getRecord(), e.getValue().rrf));
+        }
+        out.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        if (out.size() > limit) {
+            out = new java.util.ArrayList<>(out.subList(0, limit));
+        }
+        return out;
+    }
+
+    /**
+     * Weighted sum of min-max normalized vector and full-text scores.
+     */
+    public static java.util.List<OutputData> weighted(
+            java.util.List<OutputData> vectorResults,
+            java.util.List<OutputData> ftsResults,
+            int limit,
+            double vectorWeight,
+            double ftsWeight) {
+        double vw = vectorWeight <= 0 ? 0.5 : vectorWeight;
+        double tw = ftsWeight <= 0 ? 0.5 : ftsWeight;
+        java.util.Map<String, WeightedEntry> map = new java.util.HashMap<>();
+
+        java.util.List<OutputData> vr = vectorResults == null ? java.util.Collections.<OutputData>emptyList() : vectorResults;
+        java.util.List<OutputData> tr = ftsResults == null ? java.util.Collections.<OutputData>emptyList() : ftsResults;
+
+        for (OutputData r : vr) {
+            if (r == null || r.getRecord() == null || r.getRecord().getId() == null) continue;
+            String id = r.getRecord().getId();
+            WeightedEntry e = map.computeIfAbsent(id, x -> new WeightedEntry(r));
+            e.vectorScore = r.getScore();
+        }
+        for (OutputData r : tr) {
+            if (r == null || r.getRecord() == null || r.getRecord().getId() == null) continue;
+            String id = r.getRecord().getId();
+            WeightedEntry e = map.computeIfAbsent(id, x -> new WeightedEntry(r));
+            e.ftsScore = r.getScore();
+        }
+
+        // Normalize to 0..1 for stability (Python weighted fusion assumes normalized scores).
+        double vMin = Double.POSITIVE_INFINITY, vMax = Double.NEGATIVE_INFINITY;
+        double tMin = Double.POSITIVE_INFINITY, tMax = Double.NEGATIVE_INFINITY;
+        for (WeightedEntry e : map.values()) {
+            vMin = Math.min(vMin, e.vectorScore);
+            vMax = Math.max(vMax, e.vectorScore);
+            tMin = Math.min(tMin, e.ftsScore);
+            tMax = Math.max(tMax, e.ftsScore);
+        }
+        double vRange = (vMax > vMin) ? (vMax - vMin) : 0.0;
+        double tRange = (tMax > tMin) ? (tMax - tMin) : 0.0;
+
+        java.util.List<OutputData> out = new java.util.ArrayList<>();
+        for (WeightedEntry e : map.values()) {
+            double vNorm = vRange > 0 ? (e.vectorScore - vMin) / vRange : (map.size() > 0 ? 1.0 : 0.0);
+            double tNorm = tRange > 0 ? (e.ftsScore - tMin) / tRange : (map.size() > 0 ? 1.0 : 0.0);
+            double score = vw * vNorm + tw * tNorm;
+            attachFusionInfo(e.data.getRecord(), buildFusionInfo("weighted", vw, tw, null, null, null,
+                    e.vectorScore, e.ftsScore, score, vNorm, tNorm));
+            out.add(new OutputData(e.data.getRecord(), score));
+        }
+        out.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        if (out.size() > limit) {
+            out = new java.util.ArrayList<>(out.subList(0, limit));
+        }
+        return out;
+    }
+
+    private static final class ScoreEntry {
+        final OutputData data;
+        double rrf;
+        Integer vectorRank;
+        Integer ftsRank;
+        Double vectorScore;
+        Double ftsScore;
+        ScoreEntry(OutputData data) {
+            this.data = data;
+        }
+    }
+
+    private static final class WeightedEntry {
+        final OutputData data;
+        double vectorScore;
+        double ftsScore;
+        WeightedEntry(OutputData data) {
+            this.data = data;
+        }
+    }
+
+    private static void attachFusionInfo(com.oceanbase.powermem.sdk.model.MemoryRecord r, java.util.Map<String, Object> info) {
+        if (r == null || info == null || info.isEmpty()) {
+            return;
+        }
+        java.util.Map<String, Object> attrs = r.getAttributes();
+        if (attrs == null) {
+            attrs = new java.util.HashMap<>();
+            r.setAttributes(attrs);
+        }
+        attrs.put("_fusion_info", info);
+    }
+
+    private static java.util.Map<String, Object> buildFusionInfo(
+            String method,
+            double vectorWeight,
+            double ftsWeight,
+            Integer rrfK,
+            Integer vectorRank,
+            Integer ftsRank,
+            Double vectorScore,
+            Double ftsScore,
+            Double fusionScore,
+            Double vectorScoreNorm,
+            Double ftsScoreNorm) {
+        java.util.Map<String, Object> m = new java.util.HashMap<>();
+        m.put("fusion_method", method);
+        m.put("vector_weight", vectorWeight);
+        m.put("fts_weight", ftsWeight);
+        if (rrfK != null) m.put("rrf_k", rrfK);
+        if (vectorRank != null) m.put("vector_rank", vectorRank);
+        if (ftsRank != null) m.put("fts_rank", ftsRank);
+        if (vectorScore != null) m.put("vector_score", vectorScore);
+        if (ftsScore != null) m.put("fts_score", ftsScore);
+        if (vectorScoreNorm != null) m.put("vector_score_norm", vectorScoreNorm);
+        if (ftsScoreNorm != null) m.put("fts_score_norm", ftsScoreNorm);
+        if (fusionScore != null) m.put("fusion_score", fusionScore);
+        return m;
+    }
+}
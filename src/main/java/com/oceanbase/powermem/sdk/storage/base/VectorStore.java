@@ -3,12 +3,12 @@ package com.oceanbase.powermem.sdk.storage.base;
 /**
  * Vector store abstraction.
  *
- * <p>Implementations include OceanBase, pgvector/Postgres, and SQLite providers.</p>
+ * <p>Implementations include OceanBase, pgvector/Postgres, SQLite and the embedded local (file-based) providers.</p>
  *
  * <p>Python reference: {@code src/powermem/storage/base.py} (VectorStoreBase) and
  * {@code src/powermem/storage/factory.py}.</p>
  */
-public interface VectorStore {
+public interface VectorStore extends AutoCloseable {
     /**
      * Save or update a memory record plus its embedding vector.
      *
@@ -17,6 +17,54 @@ public interface VectorStore {
      */
     void upsert(com.oceanbase.powermem.sdk.model.MemoryRecord record, float[] embedding);
 
+    /**
+     * Save or update many records at once. Implementations should write all rows in one transaction, so
+     * either every record is stored or none is (the caller can then retry per record to isolate failures).
+     *
+     * <p>Default: one {@link #upsert} per record.</p>
+     *
+     * @param records memory records
+     * @param embeddings embedding vectors aligned with {@code records}
+     */
+    default void upsertBatch(java.util.List<com.oceanbase.powermem.sdk.model.MemoryRecord> records,
+                             java.util.List<float[]> embeddings) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        if (embeddings == null || embeddings.size() != records.size()) {
+            throw new com.oceanbase.powermem.sdk.exception.ApiException("embeddings must align with records");
+        }
+        for (int i = 0; i < records.size(); i++) {
+            upsert(records.get(i), embeddings.get(i));
+        }
+    }
+
+    /**
+     * Upsert records and delete ids in one call. Implementations should apply both in one transaction.
+     *
+     * <p>Deletes are applied after the upserts and are not scoped: callers resolve ids (and access scope)
+     * beforehand, e.g. with {@link #getBatch}. Default: {@link #upsertBatch}, then one {@link #delete} per id.</p>
+     *
+     * @param upserts records to save or update
+     * @param embeddings embedding vectors aligned with {@code upserts}
+     * @param deleteIds ids to delete
+     * @return number of deleted rows
+     */
+    default int applyBatch(java.util.List<com.oceanbase.powermem.sdk.model.MemoryRecord> upserts,
+                           java.util.List<float[]> embeddings,
+                           java.util.Collection<String> deleteIds) {
+        upsertBatch(upserts, embeddings);
+        int deleted = 0;
+        if (deleteIds != null) {
+            for (String id : deleteIds) {
+                if (delete(id, null, null)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
     /**
      * Retrieve a memory record by id, with optional access scope.
      *
@@ -27,6 +75,32 @@ public interface VectorStore {
      */
     com.oceanbase.powermem.sdk.model.MemoryRecord get(String memoryId, String userId, String agentId);
 
+    /**
+     * Retrieve several records by id with the same access scope as {@link #get}. Missing or out-of-scope ids
+     * are absent from the result.
+     *
+     * <p>Default: one {@link #get} per id.</p>
+     *
+     * @return records keyed by id, in request order
+     */
+    default java.util.Map<String, com.oceanbase.powermem.sdk.model.MemoryRecord> getBatch(
+            java.util.Collection<String> memoryIds, String userId, String agentId) {
+        java.util.Map<String, com.oceanbase.powermem.sdk.model.MemoryRecord> out = new java.util.LinkedHashMap<>();
+        if (memoryIds == null) {
+            return out;
+        }
+        for (String id : memoryIds) {
+            if (id == null || out.containsKey(id)) {
+                continue;
+            }
+            com.oceanbase.powermem.sdk.model.MemoryRecord r = get(id, userId, agentId);
+            if (r != null) {
+                out.put(id, r);
+            }
+        }
+        return out;
+    }
+
     /**
      * Delete a memory record by id, optionally scoped by user/agent.
      *
@@ -47,6 +121,23 @@ public interface VectorStore {
      */
     int deleteAll(String userId, String agentId, String runId);
 
+    /**
+     * {@link #deleteAll(String, String, String)} reporting progress. Stores that delete in chunks call
+     * {@code progress} with the running total after each committed chunk.
+     *
+     * <p>Default: one call with the final count.</p>
+     *
+     * @param progress optional progress callback (running deleted count)
+     * @return deleted count
+     */
+    default int deleteAll(String userId, String agentId, String runId, java.util.function.IntConsumer progress) {
+        int deleted = deleteAll(userId, agentId, runId);
+        if (progress != null) {
+            progress.accept(deleted);
+        }
+        return deleted;
+    }
+
     /**
      * List all memories with basic pagination.
      */
@@ -70,5 +161,12 @@ public interface VectorStore {
             String agentId,
             String runId,
             java.util.Map<String, Object> filters);
+
+    /**
+     * Release store resources (pooled connections, pending write-behind updates). Default: no-op.
+     */
+    @Override
+    default void close() {
+    }
 }
 
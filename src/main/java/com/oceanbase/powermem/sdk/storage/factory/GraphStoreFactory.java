@@ -27,9 +27,9 @@ public final class GraphStoreFactory {
         }
         String p = provider.trim().toLowerCase();
 
-        // Offline-friendly: in-memory implementation for tests and local experiments.
+        // In-process graph for tests and single-node deployments (optionally snapshotted to disk).
         if ("memory".equals(p) || "inmemory".equals(p) || "in-memory".equals(p) || "mock".equals(p)) {
-            return new com.oceanbase.powermem.sdk.storage.memory.InMemoryGraphStore();
+            return new com.oceanbase.powermem.sdk.storage.memory.InMemoryGraphStore(config);
         }
 
         // graph_store.llm/embedder override: if configured, create dedicated instances.
@@ -49,12 +49,14 @@ public final class GraphStoreFactory {
             }
         } catch (Exception ignored) {}
 
+        // a dedicated embedder belongs to the graph store, which closes it
+        boolean ownsEmbedder = effEmb != embedder;
         if ("oceanbase".equals(p)) {
-            return new com.oceanbase.powermem.sdk.storage.oceanbase.OceanBaseGraphStore(config, effEmb, effLlm);
+            return new com.oceanbase.powermem.sdk.storage.oceanbase.OceanBaseGraphStore(config, effEmb, effLlm, ownsEmbedder);
         }
 
         // Fallback: treat unknown as oceanbase (but likely not implemented).
-        return new com.oceanbase.powermem.sdk.storage.oceanbase.OceanBaseGraphStore(config, effEmb, effLlm);
+        return new com.oceanbase.powermem.sdk.storage.oceanbase.OceanBaseGraphStore(config, effEmb, effLlm, ownsEmbedder);
     }
 }
 
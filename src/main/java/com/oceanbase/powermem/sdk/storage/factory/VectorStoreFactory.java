@@ -12,17 +12,16 @@ public final class VectorStoreFactory {
     public static com.oceanbase.powermem.sdk.storage.base.VectorStore fromConfig(com.oceanbase.powermem.sdk.config.VectorStoreConfig config) {
         String provider = config == null ? null : config.getProvider();
         if (provider == null || provider.isBlank() || "sqlite".equalsIgnoreCase(provider)) {
-            String path = config == null ? null : config.getDatabasePath();
-            String table = config == null ? null : config.getCollectionName();
-            boolean wal = config != null && config.isEnableWal();
-            int timeout = config == null ? 30 : config.getTimeoutSeconds();
-            return new com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore(path, table, wal, timeout);
+            return new com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore(config);
         }
         if ("oceanbase".equalsIgnoreCase(provider) || "ob".equalsIgnoreCase(provider)) {
             return new com.oceanbase.powermem.sdk.storage.oceanbase.OceanBaseVectorStore(config);
         }
         if ("pgvector".equalsIgnoreCase(provider) || "postgres".equalsIgnoreCase(provider) || "postgresql".equalsIgnoreCase(provider)) {
-            return new com.oceanbase.powermem.sdk.storage.pgvector.PGVectorStore();
+            return new com.oceanbase.powermem.sdk.storage.pgvector.PGVectorStore(config);
+        }
+        if ("local".equalsIgnoreCase(provider)) {
+            return new com.oceanbase.powermem.sdk.storage.local.LocalVectorStore(config);
         }
         // Default to sqlite/in-memory for now.
         return new com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore();
@@ -0,0 +1,1336 @@
+package com.oceanbase.powermem.sdk.storage.local;
+
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.exception.ApiException;
+import com.oceanbase.powermem.sdk.json.JacksonJsonCodec;
+import com.oceanbase.powermem.sdk.json.JsonCodec;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.base.AccessTracker;
+import com.oceanbase.powermem.sdk.storage.base.OutputData;
+import com.oceanbase.powermem.sdk.storage.base.VectorStore;
+import com.oceanbase.powermem.sdk.util.HnswIndex;
+import com.oceanbase.powermem.sdk.util.ScalarQuantizer;
+import com.oceanbase.powermem.sdk.util.VectorMath;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Embedded vector store without a database, for edge deployments and tests.
+ *
+ * <p>Each collection is a directory under {@code localDataDir}. Vectors (L2-normalized, so cosine similarity is a
+ * dot product) live in append-only, memory-mapped float32 {@link VectorSegment} files; payloads and deletes are
+ * records in a {@link PayloadLog}. Opening a store maps the segments and replays the log's record headers, without
+ * reading vectors or parsing payload JSON (payloads are parsed on first access).</p>
+ *
+ * <p>Updates write a new slot and leave the old one dead; deletes are tombstones. Once dead slots outnumber live
+ * ones (or the log is mostly superseded records), a background compaction rewrites live data into a new file
+ * generation and switches to it atomically via the {@code CURRENT} file.</p>
+ *
+ * <p>Search is a blocked scan over the segments (parallel for large collections), or the in-process
+ * {@link HnswIndex} when {@code hnswEnabled} is set. Filters use the OceanBase JSON filter syntax
+ * (see {@link PayloadFilter}). Similarity is always cosine. With {@code vectorQuantization=int8} the scan scores
+ * in-heap {@link ScalarQuantizer} codes (a quarter of the float32 bytes) and re-ranks the best
+ * {@code topK * quantizationOversample} slots with the exact vectors; codes are rebuilt from the segments on
+ * open.</p>
+ *
+ * <p>A batch is applied under one lock but is not crash-atomic: after a crash, a batch that was being appended
+ * may be partially applied (the log's torn tail is dropped).</p>
+ *
+ * <p>No direct Python equivalent.</p>
+ */
+public class LocalVectorStore implements VectorStore {
+    private static final Logger LOG = Logger.getLogger(LocalVectorStore.class.getName());
+    private static final String DEFAULT_DATA_DIR = "./data/powermem_local";
+    private static final String CURRENT_FILE = "CURRENT";
+    private static final String HNSW_FILE = "hnsw.idx";
+    private static final Pattern GENERATION_FILE = Pattern.compile("gen-(\\d+)(?:-\\d+\\.seg|\\.log)");
+    private static final long SEGMENT_TARGET_BYTES = 64L << 20;
+    /** Rows per scan block; segment capacities are multiples of it. */
+    private static final int SCAN_BLOCK = 256;
+    private static final int PARALLEL_SCAN_MIN_ROWS = 16 * SCAN_BLOCK;
+    private static final long MIN_LOG_GARBAGE_FOR_COMPACTION = 1L << 20;
+    private static final int HNSW_MAX_ROUNDS = 3;
+    private static final ThreadLocal<float[]> SCAN_BUFFER = new ThreadLocal<>();
+    private static final ThreadLocal<double[]> SCORE_BUFFER = ThreadLocal.withInitial(() -> new double[SCAN_BLOCK]);
+
+    private final VectorStoreConfig config;
+    private final Path dir;
+    private final JsonCodec json = new JacksonJsonCodec();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AccessTracker accessTracker;
+    private final ExecutorService compactor;
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+    // serializes compactions, and close() against a compaction's unlocked copy
+    private final Object compactionLock = new Object();
+    private final int compactionMinDeleted;
+    private final HnswIndex hnswIndex;
+    private final int hnswEfSearch;
+    private final boolean quantized;
+    private final int quantizationOversample;
+
+    // guarded by lock
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final List<VectorSegment> segments = new ArrayList<>();
+    private Entry[] slots = new Entry[1024];
+    private PayloadLog log;
+    private int generation;
+    private int dims;
+    private int segmentCapacity;
+    private int nextSlot;
+    private long liveLogBytes;
+    private boolean closed;
+    // int8 codes by slot (quantized stores only)
+    private byte[] codes;
+
+    public LocalVectorStore() {
+        this(new VectorStoreConfig());
+    }
+
+    public LocalVectorStore(VectorStoreConfig config) {
+        this.config = config == null ? new VectorStoreConfig() : config;
+        String base = this.config.getLocalDataDir();
+        String collection = this.config.getCollectionName();
+        collection = collection == null || collection.isBlank() ? "memories" : collection.trim();
+        if (!collection.matches("[A-Za-z0-9_-]{1,64}")) {
+            throw new ApiException("Invalid local collection name: " + collection);
+        }
+        this.dir = Paths.get(base == null || base.isBlank() ? DEFAULT_DATA_DIR : base).resolve(collection);
+        this.compactionMinDeleted = Math.max(1, this.config.getLocalCompactionMinDeleted());
+        this.hnswEfSearch = this.config.getHnswEfSearch() <= 0 ? 64 : this.config.getHnswEfSearch();
+        String quantization = this.config.getVectorQuantization();
+        this.quantized = quantization != null && "int8".equalsIgnoreCase(quantization.trim());
+        this.quantizationOversample = Math.max(1, this.config.getQuantizationOversample());
+        this.compactor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "powermem-local-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            open();
+        } catch (IOException ex) {
+            compactor.shutdown();
+            throw new RuntimeException("Failed to open local vector store at " + dir + ": " + ex.getMessage(), ex);
+        }
+        this.hnswIndex = this.config.isHnswEnabled() ? openHnswIndex() : null;
+        this.accessTracker = new AccessTracker(this::flushLastAccessedAt,
+                this.config.getAccessFlushMaxPending(), this.config.getAccessFlushIntervalMillis());
+    }
+
+    // ---------------------------------------------------------------- files
+
+    private Path logPath(int gen) {
+        return dir.resolve("gen-" + gen + ".log");
+    }
+
+    private Path segmentPath(int gen, int index) {
+        return dir.resolve("gen-" + gen + "-" + index + ".seg");
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(dir);
+        Path current = dir.resolve(CURRENT_FILE);
+        generation = Files.exists(current)
+                ? Integer.parseInt(new String(Files.readAllBytes(current), StandardCharsets.UTF_8).trim())
+                : 0;
+        removeOtherGenerations();
+        for (int n = 0; Files.exists(segmentPath(generation, n)); n++) {
+            segments.add(VectorSegment.open(segmentPath(generation, n)));
+        }
+        if (!segments.isEmpty()) {
+            dims = segments.get(0).dims();
+            segmentCapacity = segments.get(0).capacity();
+        }
+        long mappedSlots = (long) segments.size() * segmentCapacity;
+        log = PayloadLog.open(logPath(generation), new PayloadLog.Visitor() {
+            @Override
+            public void accept(byte op, long id, int slot, long payloadOffset, int payloadLength) {
+                if (op == PayloadLog.OP_PUT) {
+                    if (slot >= 0 && slot < mappedSlots) {
+                        install(new Entry(id, slot, payloadOffset, payloadLength));
+                        nextSlot = Math.max(nextSlot, slot + 1);
+                    }
+                } else if (op == PayloadLog.OP_DELETE) {
+                    uninstall(id);
+                }
+            }
+
+            @Override
+            public void touch(long id, Instant lastAccessedAt) {
+                Entry e = entries.get(id);
+                if (e != null) {
+                    install(e.touched(lastAccessedAt));
+                }
+            }
+        });
+        if (quantized && dims > 0) {
+            float[] row = new float[dims];
+            for (int s = 0; s < nextSlot; s++) {
+                if (slots[s] != null) {
+                    segmentOf(s).read(s % segmentCapacity, 1, row);
+                    putCode(s, row);
+                }
+            }
+        }
+    }
+
+    /** Files of other generations are leftovers of a compaction that was interrupted or not yet cleaned up. */
+    private void removeOtherGenerations() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path f : files) {
+                Matcher m = GENERATION_FILE.matcher(f.getFileName().toString());
+                if (m.matches() && Integer.parseInt(m.group(1)) != generation) {
+                    Files.deleteIfExists(f);
+                }
+            }
+        } catch (Exception ignored) {
+            // best-effort
+        }
+    }
+
+    private void writeCurrent(int gen) throws IOException {
+        Path tmp = dir.resolve(CURRENT_FILE + ".tmp");
+        Files.write(tmp, Integer.toString(gen).getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, dir.resolve(CURRENT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load the HNSW index saved by the last clean {@link #close()} (the file is removed right away, so a crash
+     * forces a rebuild) and reconcile it with the live entries.
+     */
+    private HnswIndex openHnswIndex() {
+        Path file = dir.resolve(HNSW_FILE);
+        HnswIndex idx = HnswIndex.load(file, config.getHnswM(), config.getHnswEfConstruction());
+        try {
+            Files.deleteIfExists(file);
+        } catch (Exception ignored) {
+            // best-effort: reconciled below either way
+        }
+        if (idx == null) {
+            idx = new HnswIndex(config.getHnswM(), config.getHnswEfConstruction());
+        }
+        for (long id : idx.ids()) {
+            if (!entries.containsKey(id)) {
+                idx.remove(id);
+            }
+        }
+        for (Entry e : entries.values()) {
+            if (!idx.contains(e.id)) {
+                idx.add(e.id, readVector(e.slot));
+            }
+        }
+        return idx;
+    }
+
+    /**
+     * Drain pending {@code last_accessed_at} touches, stop compaction, persist the HNSW index and close files.
+     */
+    @Override
+    public void close() {
+        accessTracker.close();
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (compactionLock) {
+            closeFiles();
+        }
+    }
+
+    private void closeFiles() {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (hnswIndex != null) {
+                try {
+                    hnswIndex.save(dir.resolve(HNSW_FILE));
+                } catch (Exception ignored) {
+                    // best-effort: rebuilt from the segments on next open
+                }
+            }
+            for (VectorSegment s : segments) {
+                closeQuietly(s, true);
+            }
+            try {
+                log.force();
+            } catch (Exception ignored) {
+                // best-effort
+            }
+            closeQuietly(log, false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable c, boolean forceSegment) {
+        try {
+            if (forceSegment && c instanceof VectorSegment) {
+                ((VectorSegment) c).force();
+            }
+            c.close();
+        } catch (Exception ignored) {
+            // best-effort
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Local vector store is closed: " + dir);
+        }
+    }
+
+    // ---------------------------------------------------------------- entries
+
+    /** Map an entry to its id and slot; the slot of a replaced entry becomes dead. Caller holds the write lock. */
+    private void install(Entry e) {
+        Entry prev = entries.put(e.id, e);
+        if (prev != null) {
+            releaseSlot(prev);
+        }
+        if (e.slot >= slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(e.slot + 1, slots.length * 2));
+        }
+        slots[e.slot] = e;
+        liveLogBytes += e.logBytes();
+    }
+
+    private boolean uninstall(long id) {
+        Entry prev = entries.remove(id);
+        if (prev == null) {
+            return false;
+        }
+        releaseSlot(prev);
+        return true;
+    }
+
+    private void releaseSlot(Entry e) {
+        if (slots[e.slot] == e) {
+            slots[e.slot] = null;
+        }
+        liveLogBytes -= e.logBytes();
+    }
+
+    private Map<String, Object> payload(Entry e) {
+        Map<String, Object> p = e.payload;
+        if (p == null) {
+            try {
+                p = json.fromJsonToMap(new String(log.read(e.payloadOffset, e.payloadLength), StandardCharsets.UTF_8));
+            } catch (IOException ex) {
+                throw new RuntimeException("Local store read failed: " + ex.getMessage(), ex);
+            }
+            if (e.touchedAt != null) {
+                p = new HashMap<>(p);
+                p.put("last_accessed_at", e.touchedAt.toString());
+            }
+            e.payload = p;
+        }
+        return p;
+    }
+
+    private VectorSegment segmentOf(int slot) {
+        return segments.get(slot / segmentCapacity);
+    }
+
+    private float[] readVector(int slot) {
+        return segmentOf(slot).read(slot % segmentCapacity);
+    }
+
+    private int appendVector(float[] normalized) throws IOException {
+        int slot = nextSlot;
+        int index = slot / segmentCapacity;
+        while (segments.size() <= index) {
+            segments.add(VectorSegment.create(segmentPath(generation, segments.size()), dims, segmentCapacity));
+        }
+        segments.get(index).put(slot % segmentCapacity, normalized);
+        nextSlot++;
+        return slot;
+    }
+
+    /** Store the int8 code of a slot's (normalized) vector; no-op unless quantized. Caller holds the write lock. */
+    private void putCode(int slot, float[] normalized) {
+        if (!quantized) {
+            return;
+        }
+        int width = ScalarQuantizer.codeBytes(dims);
+        long needed = (long) (slot + 1) * width;
+        if (codes == null || codes.length < needed) {
+            long grown = Math.max(needed, codes == null ? (long) SCAN_BLOCK * width : (long) codes.length * 2);
+            codes = Arrays.copyOf(codes == null ? new byte[0] : codes, (int) Math.min(Integer.MAX_VALUE - 8, grown));
+        }
+        ScalarQuantizer.encodeInto(normalized, codes, slot * width);
+    }
+
+    private static long parseId(String memoryId) {
+        try {
+            return Long.parseLong(memoryId.trim());
+        } catch (Exception ex) {
+            throw new ApiException("Local store requires numeric memory ids: " + memoryId);
+        }
+    }
+
+    private static Long parseIdOrNull(String memoryId) {
+        if (memoryId == null || memoryId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(memoryId.trim());
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    // ---------------------------------------------------------------- writes
+
+    @Override
+    public void upsert(MemoryRecord record, float[] embedding) {
+        upsertBatch(Collections.singletonList(record), Collections.singletonList(embedding));
+    }
+
+    @Override
+    public void upsertBatch(List<MemoryRecord> records, List<float[]> embeddings) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        applyBatch(records, embeddings, Collections.emptyList());
+    }
+
+    @Override
+    public int applyBatch(List<MemoryRecord> upserts, List<float[]> embeddings, Collection<String> deleteIds) {
+        List<MemoryRecord> records = upserts == null ? Collections.<MemoryRecord>emptyList() : upserts;
+        if (embeddings == null ? !records.isEmpty() : embeddings.size() != records.size()) {
+            throw new ApiException("embeddings must align with records");
+        }
+        long[] ids = new long[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            MemoryRecord record = records.get(i);
+            if (record == null || record.getId() == null || record.getId().isBlank()) {
+                throw new ApiException("memory.id is required");
+            }
+            ids[i] = parseId(record.getId());
+            float[] v = embeddings.get(i);
+            if (v == null || v.length == 0) {
+                throw new ApiException("embedding is required");
+            }
+        }
+        int deleted = 0;
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            int expected = dims != 0 || records.isEmpty() ? dims : embeddings.get(0).length;
+            for (float[] v : embeddings == null ? Collections.<float[]>emptyList() : embeddings) {
+                if (v.length != expected) {
+                    throw new ApiException("embedding has " + v.length + " dimensions, store has " + expected);
+                }
+            }
+            if (dims == 0 && !records.isEmpty()) {
+                dims = embeddings.get(0).length;
+                long rows = Math.max(SCAN_BLOCK, SEGMENT_TARGET_BYTES / ((long) dims * Float.BYTES));
+                segmentCapacity = (int) Math.min(Integer.MAX_VALUE / dims, rows / SCAN_BLOCK * SCAN_BLOCK);
+            }
+            for (int i = 0; i < records.size(); i++) {
+                float[] v = normalize(embeddings.get(i));
+                int slot = appendVector(v);
+                putCode(slot, v);
+                byte[] payload = json.toJson(toPayload(records.get(i))).getBytes(StandardCharsets.UTF_8);
+                long offset = log.appendPut(ids[i], slot, payload);
+                install(new Entry(ids[i], slot, offset, payload.length));
+                if (hnswIndex != null && !hnswIndex.add(ids[i], v)) {
+                    hnswIndex.remove(ids[i]);
+                }
+            }
+            if (deleteIds != null) {
+                for (String memoryId : deleteIds) {
+                    Long id = parseIdOrNull(memoryId);
+                    if (id != null && deleteLocked(id)) {
+                        deleted++;
+                    }
+                }
+            }
+            compact = needsCompaction();
+        } catch (IOException ex) {
+            throw new RuntimeException("Local store upsert failed: " + ex.getMessage(), ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            scheduleCompaction();
+        }
+        return deleted;
+    }
+
+    private boolean deleteLocked(long id) throws IOException {
+        if (!entries.containsKey(id)) {
+            return false;
+        }
+        log.appendDelete(id);
+        uninstall(id);
+        if (hnswIndex != null) {
+            hnswIndex.remove(id);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean delete(String memoryId, String userId, String agentId) {
+        Long id = parseIdOrNull(memoryId);
+        if (id == null) {
+            return false;
+        }
+        boolean deleted;
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            Entry e = entries.get(id);
+            if (e == null || !inScope(payload(e), userId, agentId, null)) {
+                return false;
+            }
+            deleted = deleteLocked(id);
+            compact = needsCompaction();
+        } catch (IOException ex) {
+            throw new RuntimeException("Local store delete failed: " + ex.getMessage(), ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            scheduleCompaction();
+        }
+        return deleted;
+    }
+
+    @Override
+    public int deleteAll(String userId, String agentId, String runId) {
+        return deleteAll(userId, agentId, runId, null);
+    }
+
+    /**
+     * Tombstone matching entries in chunks of {@code deleteChunkSize}; searches can run between chunks.
+     */
+    @Override
+    public int deleteAll(String userId, String agentId, String runId, java.util.function.IntConsumer progress) {
+        int chunkSize = config.getDeleteChunkSize() <= 0 ? 1000 : config.getDeleteChunkSize();
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            for (Entry e : entries.values()) {
+                if (inScope(payload(e), userId, agentId, runId)) {
+                    ids.add(e.id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Collections.sort(ids);
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+            int n = 0;
+            lock.writeLock().lock();
+            try {
+                ensureOpen();
+                for (Long id : chunk) {
+                    if (deleteLocked(id)) {
+                        n++;
+                    }
+                }
+            } catch (IOException ex) {
+                throw new RuntimeException("Local store deleteAll failed: " + ex.getMessage(), ex);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            deleted += n;
+            if (n > 0 && progress != null) {
+                progress.accept(deleted);
+            }
+        }
+        if (deleted > 0 && needsCompactionSnapshot()) {
+            scheduleCompaction();
+        }
+        return deleted;
+    }
+
+    /**
+     * Merge {@code fieldUpdates} into the stored payload without touching the vector (the slot is reused).
+     */
+    public void updatePayloadFields(String memoryId, Map<String, Object> fieldUpdates) {
+        Long id = parseIdOrNull(memoryId);
+        if (id == null || fieldUpdates == null || fieldUpdates.isEmpty()) {
+            return;
+        }
+        Map<String, Object> updates = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> e : fieldUpdates.entrySet()) {
+            if (e.getKey() != null && !e.getKey().isBlank()) {
+                updates.put(e.getKey(), e.getValue());
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        updates.putIfAbsent("updated_at", Instant.now().toString());
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            Entry e = entries.get(id);
+            if (e == null) {
+                return;
+            }
+            Map<String, Object> payload = new HashMap<>(payload(e));
+            payload.putAll(updates);
+            rewritePayload(e, payload);
+            compact = needsCompaction();
+        } catch (IOException ex) {
+            throw new RuntimeException("Local store update failed: " + ex.getMessage(), ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            scheduleCompaction();
+        }
+    }
+
+    private void rewritePayload(Entry e, Map<String, Object> payload) throws IOException {
+        byte[] bytes = json.toJson(payload).getBytes(StandardCharsets.UTF_8);
+        long offset = log.appendPut(e.id, e.slot, bytes);
+        Entry updated = new Entry(e.id, e.slot, offset, bytes.length);
+        updated.payload = payload;
+        install(updated);
+    }
+
+    /**
+     * Log a small touch record per entry instead of rewriting its payload; the touch overrides the payload's
+     * {@code last_accessed_at} until the next payload write.
+     */
+    private void flushLastAccessedAt(Map<String, Instant> touches) throws Exception {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            for (Map.Entry<String, Instant> t : touches.entrySet()) {
+                Long id = parseIdOrNull(t.getKey());
+                Entry e = id == null ? null : entries.get(id);
+                if (e == null) {
+                    continue;
+                }
+                // Monotonic: never move last_accessed_at backwards.
+                Instant stored = e.touchedAt != null ? e.touchedAt : parseInstant(payload(e).get("last_accessed_at"));
+                if (stored != null && !stored.isBefore(t.getValue())) {
+                    continue;
+                }
+                log.appendTouch(e.id, t.getValue());
+                install(e.touched(t.getValue()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------- compaction
+
+    private boolean needsCompaction() {
+        int live = entries.size();
+        int dead = nextSlot - live;
+        long garbage = log.size() - liveLogBytes;
+        return (dead >= compactionMinDeleted && dead >= live)
+                || (garbage >= MIN_LOG_GARBAGE_FOR_COMPACTION && garbage > liveLogBytes);
+    }
+
+    private boolean needsCompactionSnapshot() {
+        lock.readLock().lock();
+        try {
+            return !closed && needsCompaction();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void scheduleCompaction() {
+        if (!compactionQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            compactor.execute(() -> {
+                try {
+                    compactionQueued.set(false);
+                    compact();
+                } catch (Exception ex) {
+                    LOG.log(Level.WARNING, "Local store compaction failed for " + dir + ": " + ex.getMessage(), ex);
+                }
+            });
+        } catch (java.util.concurrent.RejectedExecutionException ex) {
+            // closing
+            compactionQueued.set(false);
+        }
+    }
+
+    /**
+     * Rewrite live vectors and payloads into a new file generation, switch to it and delete the old files. Runs
+     * in the background when dead slots accumulate; callers may also invoke it directly.
+     *
+     * <p>The bulk copy runs without the store lock, from a snapshot of the slot table taken under the read lock
+     * (slots are never rewritten in place and the log is append-only). The write lock is only taken at the end to
+     * copy what changed meanwhile and to switch generations.</p>
+     */
+    public void compact() {
+        synchronized (compactionLock) {
+            Entry[] snapshot;
+            List<VectorSegment> snapshotSegments;
+            byte[] snapshotCodes;
+            NextGeneration next;
+            lock.readLock().lock();
+            try {
+                if (closed || dims == 0) {
+                    return;
+                }
+                snapshot = Arrays.copyOf(slots, nextSlot);
+                snapshotSegments = new ArrayList<>(segments);
+                snapshotCodes = codes;
+                next = new NextGeneration(generation + 1, entries.size());
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            Map<Long, Entry> copiedFrom = new HashMap<>();
+            try {
+                next.open();
+                for (Entry e : snapshot) {
+                    if (e != null) {
+                        next.copy(e, snapshotSegments, snapshotCodes);
+                        copiedFrom.put(e.id, e);
+                    }
+                }
+            } catch (IOException | RuntimeException ex) {
+                next.discard();
+                throw new RuntimeException("Local store compaction failed: " + ex.getMessage(), ex);
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (closed) {
+                    next.discard();
+                    return;
+                }
+                try {
+                    // catch up with the writes made during the copy
+                    for (Entry e : copiedFrom.values()) {
+                        if (!entries.containsKey(e.id)) {
+                            next.delete(e.id);
+                        }
+                    }
+                    for (Entry e : entries.values()) {
+                        Entry src = copiedFrom.get(e.id);
+                        if (src == e) {
+                            continue;
+                        }
+                        if (src != null && src.slot == e.slot && src.payloadOffset == e.payloadOffset) {
+                            next.touch(e);
+                        } else {
+                            next.copy(e, segments, codes);
+                        }
+                    }
+                    next.force();
+                    writeCurrent(next.gen);
+                } catch (IOException | RuntimeException ex) {
+                    next.discard();
+                    throw new RuntimeException("Local store compaction failed: " + ex.getMessage(), ex);
+                }
+
+                List<VectorSegment> oldSegments = new ArrayList<>(segments);
+                PayloadLog oldLog = log;
+                segments.clear();
+                segments.addAll(next.segments);
+                log = next.log;
+                entries.clear();
+                entries.putAll(next.entries);
+                slots = next.slots;
+                codes = next.codes;
+                nextSlot = next.nextSlot;
+                liveLogBytes = next.liveBytes;
+                generation = next.gen;
+                for (VectorSegment s : oldSegments) {
+                    closeQuietly(s, false);
+                    deleteQuietly(s.file());
+                }
+                closeQuietly(oldLog, false);
+                deleteQuietly(oldLog.file());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /** Files and slot table of the generation {@link #compact()} is writing. */
+    private final class NextGeneration {
+        final int gen;
+        final List<VectorSegment> segments = new ArrayList<>();
+        final Map<Long, Entry> entries = new HashMap<>();
+        final int codeWidth = ScalarQuantizer.codeBytes(dims);
+        final float[] row = new float[dims];
+        Entry[] slots;
+        byte[] codes;
+        PayloadLog log;
+        int nextSlot;
+        long liveBytes;
+
+        NextGeneration(int gen, int live) {
+            this.gen = gen;
+            this.slots = new Entry[Math.max(1024, live)];
+            this.codes = LocalVectorStore.this.codes == null ? null : new byte[Math.max(1, live) * codeWidth];
+        }
+
+        void open() throws IOException {
+            Files.deleteIfExists(logPath(gen));
+            log = PayloadLog.open(logPath(gen), (op, id, s, offset, length) -> { });
+        }
+
+        /** Append {@code e}'s vector, code, payload and touch, replacing any earlier copy of the same id. */
+        void copy(Entry e, List<VectorSegment> fromSegments, byte[] fromCodes) throws IOException {
+            fromSegments.get(e.slot / segmentCapacity).read(e.slot % segmentCapacity, 1, row);
+            int slot = nextSlot++;
+            int index = slot / segmentCapacity;
+            while (segments.size() <= index) {
+                segments.add(VectorSegment.create(segmentPath(gen, segments.size()), dims, segmentCapacity));
+            }
+            segments.get(index).put(slot % segmentCapacity, row);
+            if (codes != null) {
+                if ((long) (slot + 1) * codeWidth > codes.length) {
+                    codes = Arrays.copyOf(codes, Math.max((slot + 1) * codeWidth, codes.length * 2));
+                }
+                System.arraycopy(fromCodes, e.slot * codeWidth, codes, slot * codeWidth, codeWidth);
+            }
+            long offset = log.appendPut(e.id, slot, LocalVectorStore.this.log.read(e.payloadOffset, e.payloadLength));
+            if (e.touchedAt != null) {
+                log.appendTouch(e.id, e.touchedAt);
+            }
+            Entry moved = new Entry(e.id, slot, offset, e.payloadLength, e.touchedAt);
+            moved.payload = e.payload;
+            put(moved);
+        }
+
+        /** Carry over a touch logged after the snapshot; the vector and payload are already copied. */
+        void touch(Entry e) throws IOException {
+            Entry moved = entries.get(e.id);
+            log.appendTouch(e.id, e.touchedAt);
+            Entry touched = new Entry(e.id, moved.slot, moved.payloadOffset, moved.payloadLength, e.touchedAt);
+            touched.payload = e.payload;
+            put(touched);
+        }
+
+        void delete(long id) throws IOException {
+            Entry prev = entries.remove(id);
+            if (prev != null) {
+                log.appendDelete(id);
+                slots[prev.slot] = null;
+                liveBytes -= prev.logBytes();
+            }
+        }
+
+        private void put(Entry e) {
+            Entry prev = entries.put(e.id, e);
+            if (prev != null) {
+                if (slots[prev.slot] == prev) {
+                    slots[prev.slot] = null;
+                }
+                liveBytes -= prev.logBytes();
+            }
+            if (e.slot >= slots.length) {
+                slots = Arrays.copyOf(slots, Math.max(e.slot + 1, slots.length * 2));
+            }
+            slots[e.slot] = e;
+            liveBytes += e.logBytes();
+        }
+
+        void force() throws IOException {
+            for (VectorSegment s : segments) {
+                s.force();
+            }
+            log.force();
+        }
+
+        void discard() {
+            for (VectorSegment s : segments) {
+                closeQuietly(s, false);
+                deleteQuietly(s.file());
+            }
+            if (log != null) {
+                closeQuietly(log, false);
+                deleteQuietly(log.file());
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (Exception ignored) {
+            // best-effort: removed on next open
+        }
+    }
+
+    // ---------------------------------------------------------------- reads
+
+    @Override
+    public MemoryRecord get(String memoryId, String userId, String agentId) {
+        Long id = parseIdOrNull(memoryId);
+        if (id == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            Entry e = entries.get(id);
+            if (e == null) {
+                return null;
+            }
+            Map<String, Object> payload = payload(e);
+            return inScope(payload, userId, agentId, null) ? fromPayload(Long.toString(id), payload) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, MemoryRecord> getBatch(Collection<String> memoryIds, String userId, String agentId) {
+        Map<String, MemoryRecord> out = new LinkedHashMap<>();
+        if (memoryIds == null || memoryIds.isEmpty()) {
+            return out;
+        }
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            for (String memoryId : memoryIds) {
+                Long id = parseIdOrNull(memoryId);
+                Entry e = id == null || out.containsKey(memoryId) ? null : entries.get(id);
+                if (e == null) {
+                    continue;
+                }
+                Map<String, Object> payload = payload(e);
+                if (inScope(payload, userId, agentId, null)) {
+                    out.put(memoryId, fromPayload(Long.toString(id), payload));
+                }
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<MemoryRecord> list(String userId, String agentId, String runId, int offset, int limit) {
+        int safeOffset = Math.max(0, offset);
+        int safeLimit = limit <= 0 ? 100 : limit;
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            List<Entry> matching = new ArrayList<>();
+            for (Entry e : entries.values()) {
+                if (inScope(payload(e), userId, agentId, runId)) {
+                    matching.add(e);
+                }
+            }
+            matching.sort((a, b) -> Long.compare(b.id, a.id));
+            List<MemoryRecord> out = new ArrayList<>();
+            for (int i = safeOffset; i < matching.size() && out.size() < safeLimit; i++) {
+                Entry e = matching.get(i);
+                out.add(fromPayload(Long.toString(e.id), payload(e)));
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<OutputData> search(float[] queryEmbedding,
+                                   int topK,
+                                   String userId,
+                                   String agentId,
+                                   String runId,
+                                   Map<String, Object> filters) {
+        int k = topK <= 0 ? 5 : topK;
+        if (queryEmbedding == null || queryEmbedding.length == 0) {
+            return new ArrayList<>();
+        }
+        Map<String, Object> eff = new HashMap<>();
+        if (filters != null) {
+            eff.putAll(filters);
+        }
+        putScope(eff, "user_id", userId);
+        putScope(eff, "agent_id", agentId);
+        putScope(eff, "run_id", runId);
+        float[] q = normalize(queryEmbedding);
+
+        List<OutputData> out;
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            if (dims == 0 || q.length != dims) {
+                return new ArrayList<>();
+            }
+            out = hnswIndex == null ? null : searchHnsw(q, k, eff);
+            if (out == null) {
+                out = searchScan(q, k, eff);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // best-effort: last_accessed_at is written behind in batches (see AccessTracker)
+        Instant now = Instant.now();
+        List<String> touched = new ArrayList<>(out.size());
+        for (OutputData d : out) {
+            d.getRecord().setLastAccessedAt(now);
+            touched.add(d.getRecord().getId());
+        }
+        accessTracker.touch(touched, now);
+        return out;
+    }
+
+    /**
+     * Exact scan in blocks of {@value #SCAN_BLOCK} slots: each block is bulk-copied out of its segment and scored
+     * with a dot-product kernel; blocks run in parallel for large collections, each keeping its own top-k. A
+     * quantized store scores the int8 codes instead and re-ranks the candidates exactly.
+     */
+    private List<OutputData> searchScan(float[] q, int k, Map<String, Object> filters) {
+        int rows = nextSlot;
+        Entry[] owners = slots;
+        byte[] codeTable = codes;
+        int codeWidth = ScalarQuantizer.codeBytes(dims);
+        int want = codeTable == null ? k : (int) Math.min(Integer.MAX_VALUE, (long) k * quantizationOversample);
+        boolean filtered = !filters.isEmpty();
+        int blocks = (rows + SCAN_BLOCK - 1) / SCAN_BLOCK;
+        IntStream range = IntStream.range(0, blocks);
+        if (rows >= PARALLEL_SCAN_MIN_ROWS) {
+            range = range.parallel();
+        }
+        TopK top = range.collect(() -> new TopK(want), (acc, block) -> {
+            int from = block * SCAN_BLOCK;
+            int to = Math.min(rows, from + SCAN_BLOCK);
+            boolean any = false;
+            boolean[] keep = new boolean[to - from];
+            for (int s = from; s < to; s++) {
+                Entry e = owners[s];
+                if (e != null && (!filtered || PayloadFilter.matches(payload(e), filters))) {
+                    keep[s - from] = true;
+                    any = true;
+                }
+            }
+            if (!any) {
+                return;
+            }
+            if (codeTable != null) {
+                for (int i = 0; i < to - from; i++) {
+                    if (keep[i]) {
+                        acc.offer(owners[from + i], ScalarQuantizer.dot(q, codeTable, (from + i) * codeWidth));
+                    }
+                }
+                return;
+            }
+            float[] buf = scanBuffer(SCAN_BLOCK * dims);
+            // blocks never span segments: capacities are multiples of SCAN_BLOCK
+            segmentOf(from).read(from % segmentCapacity, to - from, buf);
+            double[] scores = SCORE_BUFFER.get();
+            VectorMath.dotBatch(q, buf, 0, to - from, scores);
+            for (int i = 0; i < to - from; i++) {
+                if (keep[i]) {
+                    acc.offer(owners[from + i], scores[i]);
+                }
+            }
+        }, TopK::merge);
+
+        List<Hit> hits = top.sorted();
+        if (codeTable != null) {
+            hits = rerank(hits, q, k);
+        }
+        List<OutputData> out = new ArrayList<>(hits.size());
+        for (Hit h : hits) {
+            out.add(new OutputData(fromPayload(Long.toString(h.entry.id), payload(h.entry)), h.score));
+        }
+        return out;
+    }
+
+    /** Re-score quantized candidates with the exact vectors and keep the best {@code k}. */
+    private List<Hit> rerank(List<Hit> candidates, float[] q, int k) {
+        TopK top = new TopK(k);
+        float[] row = new float[dims];
+        for (Hit h : candidates) {
+            segmentOf(h.entry.slot).read(h.entry.slot % segmentCapacity, 1, row);
+            top.offer(h.entry, VectorMath.dot(row, 0, q, dims));
+        }
+        return top.sorted();
+    }
+
+    /**
+     * ANN search through the HNSW index, widening the candidate list while filters reject too many hits.
+     *
+     * @return results, or null if the caller should fall back to an exact scan
+     */
+    private List<OutputData> searchHnsw(float[] q, int k, Map<String, Object> filters) {
+        int live = hnswIndex.size();
+        if (live == 0 || q.length != hnswIndex.dims()) {
+            return null;
+        }
+        int want = Math.min(live, Math.max(k, hnswEfSearch));
+        for (int round = 0; round < HNSW_MAX_ROUNDS; round++) {
+            List<HnswIndex.Neighbor> hits = hnswIndex.search(q, want, Math.max(want, hnswEfSearch));
+            List<OutputData> out = new ArrayList<>(k);
+            for (HnswIndex.Neighbor hit : hits) {
+                Entry e = entries.get(hit.getId());
+                if (e == null) {
+                    continue;
+                }
+                Map<String, Object> payload = payload(e);
+                if (!filters.isEmpty() && !PayloadFilter.matches(payload, filters)) {
+                    continue;
+                }
+                out.add(new OutputData(fromPayload(Long.toString(e.id), payload), hit.getScore()));
+                if (out.size() >= k) {
+                    break;
+                }
+            }
+            if (out.size() >= k || hits.size() >= live) {
+                return out;
+            }
+            if (want >= live) {
+                break;
+            }
+            want = (int) Math.min(live, (long) want * 4);
+        }
+        return null;
+    }
+
+    private static float[] scanBuffer(int size) {
+        float[] buf = SCAN_BUFFER.get();
+        if (buf == null || buf.length < size) {
+            buf = new float[size];
+            SCAN_BUFFER.set(buf);
+        }
+        return buf;
+    }
+
+    private static float[] normalize(float[] v) {
+        float[] unit = VectorMath.normalize(v);
+        return unit == null ? new float[v.length] : unit;
+    }
+
+    private static void putScope(Map<String, Object> filters, String key, String value) {
+        if (value != null && !value.isBlank()) {
+            filters.put(key, value);
+        }
+    }
+
+    private static boolean inScope(Map<String, Object> payload, String userId, String agentId, String runId) {
+        return scopeMatches(payload, "user_id", userId)
+                && scopeMatches(payload, "agent_id", agentId)
+                && scopeMatches(payload, "run_id", runId);
+    }
+
+    private static boolean scopeMatches(Map<String, Object> payload, String key, String value) {
+        return value == null || value.isBlank() || Objects.equals(value, asString(payload.get(key)));
+    }
+
+    // ---------------------------------------------------------------- payload
+
+    private Map<String, Object> toPayload(MemoryRecord r) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("data", r.getContent() == null ? "" : r.getContent());
+        payload.put("fulltext_content", r.getContent() == null ? "" : r.getContent());
+        payload.put("user_id", r.getUserId() == null ? "" : r.getUserId());
+        payload.put("agent_id", r.getAgentId() == null ? "" : r.getAgentId());
+        payload.put("run_id", r.getRunId() == null ? "" : r.getRunId());
+        payload.put("hash", r.getHash() == null ? "" : r.getHash());
+        payload.put("category", r.getCategory() == null ? "" : r.getCategory());
+        if (r.getScope() != null) {
+            payload.put("scope", r.getScope());
+        }
+        payload.put("created_at", r.getCreatedAt() == null ? null : r.getCreatedAt().toString());
+        payload.put("updated_at", r.getUpdatedAt() == null ? null : r.getUpdatedAt().toString());
+        payload.put("last_accessed_at", r.getLastAccessedAt() == null ? null : r.getLastAccessedAt().toString());
+        payload.put("metadata", r.getMetadata() == null ? Collections.emptyMap() : r.getMetadata());
+        if (r.getAttributes() != null) {
+            for (Map.Entry<String, Object> e : r.getAttributes().entrySet()) {
+                if (e.getKey() == null || e.getKey().isBlank()) continue;
+                String k = e.getKey();
+                if (payload.containsKey(k) || "metadata".equals(k)) continue;
+                payload.put(k, e.getValue());
+            }
+        }
+        return payload;
+    }
+
+    private MemoryRecord fromPayload(String id, Map<String, Object> payload) {
+        MemoryRecord r = new MemoryRecord();
+        r.setId(id);
+        if (payload == null) {
+            return r;
+        }
+        r.setContent(asString(payload.get("data")));
+        r.setUserId(asString(payload.get("user_id")));
+        r.setAgentId(asString(payload.get("agent_id")));
+        r.setRunId(asString(payload.get("run_id")));
+        r.setHash(asString(payload.get("hash")));
+        r.setCategory(asString(payload.get("category")));
+        r.setScope(asString(payload.get("scope")));
+        Object meta = payload.get("metadata");
+        Map<String, Object> safe = new HashMap<>();
+        if (meta instanceof Map) {
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) meta).entrySet()) {
+                if (e.getKey() == null) continue;
+                safe.put(String.valueOf(e.getKey()), e.getValue());
+            }
+        }
+        r.setMetadata(safe);
+        r.setCreatedAt(parseInstant(payload.get("created_at")));
+        r.setUpdatedAt(parseInstant(payload.get("updated_at")));
+        r.setLastAccessedAt(accessTracker == null
+                ? parseInstant(payload.get("last_accessed_at"))
+                : accessTracker.overlay(id, parseInstant(payload.get("last_accessed_at"))));
+
+        Set<String> reserved = new HashSet<>();
+        Collections.addAll(reserved,
+                "data", "fulltext_content", "user_id", "agent_id", "run_id", "hash", "category", "scope",
+                "created_at", "updated_at", "last_accessed_at", "metadata");
+        Map<String, Object> attrs = new HashMap<>();
+        for (Map.Entry<String, Object> e : payload.entrySet()) {
+            if (e.getKey() == null || reserved.contains(e.getKey())) continue;
+            attrs.put(e.getKey(), e.getValue());
+        }
+        r.setAttributes(attrs.isEmpty() ? null : attrs);
+        return r;
+    }
+
+    private static String asString(Object v) {
+        if (v == null) return null;
+        String s = String.valueOf(v);
+        return s.isBlank() ? null : s;
+    }
+
+    private static Instant parseInstant(Object v) {
+        if (!(v instanceof String)) return null;
+        String s = (String) v;
+        if (s.isBlank()) return null;
+        try {
+            return Instant.parse(s);
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    // ---------------------------------------------------------------- types
+
+    private static final class Entry {
+        final long id;
+        final int slot;
+        final long payloadOffset;
+        final int payloadLength;
+        // last_accessed_at from a touch record logged after the put, if any
+        final Instant touchedAt;
+        // parsed lazily from the log; entries are replaced (never mutated) on update
+        volatile Map<String, Object> payload;
+
+        Entry(long id, int slot, long payloadOffset, int payloadLength) {
+            this(id, slot, payloadOffset, payloadLength, null);
+        }
+
+        Entry(long id, int slot, long payloadOffset, int payloadLength, Instant touchedAt) {
+            this.id = id;
+            this.slot = slot;
+            this.payloadOffset = payloadOffset;
+            this.payloadLength = payloadLength;
+            this.touchedAt = touchedAt;
+        }
+
+        Entry touched(Instant at) {
+            Entry e = new Entry(id, slot, payloadOffset, payloadLength, at);
+            Map<String, Object> p = payload;
+            if (p != null) {
+                p = new HashMap<>(p);
+                p.put("last_accessed_at", at.toString());
+                e.payload = p;
+            }
+            return e;
+        }
+
+        /** Live log bytes: the put record plus the latest touch record. */
+        long logBytes() {
+            return PayloadLog.recordBytes(payloadLength) + (touchedAt == null ? 0 : PayloadLog.touchRecordBytes());
+        }
+    }
+
+    private static final class Hit {
+        final Entry entry;
+        final double score;
+
+        Hit(Entry entry, double score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+
+    /** Bounded min-heap of the best {@code k} hits. */
+    private static final class TopK {
+        private final int k;
+        private final PriorityQueue<Hit> heap = new PriorityQueue<>((a, b) -> Double.compare(a.score, b.score));
+
+        TopK(int k) {
+            this.k = k;
+        }
+
+        void offer(Entry e, double score) {
+            if (heap.size() < k) {
+                heap.add(new Hit(e, score));
+            } else if (score > heap.peek().score) {
+                heap.poll();
+                heap.add(new Hit(e, score));
+            }
+        }
+
+        void merge(TopK other) {
+            for (Hit h : other.heap) {
+                offer(h.entry, h.score);
+            }
+        }
+
+        List<Hit> sorted() {
+            List<Hit> out = new ArrayList<>(heap);
+            out.sort((a, b) -> Double.compare(b.score, a.score));
+            return out;
+        }
+    }
+}
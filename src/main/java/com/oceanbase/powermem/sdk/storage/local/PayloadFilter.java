@@ -0,0 +1,211 @@
+package com.oceanbase.powermem.sdk.storage.local;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory evaluation of the JSON-style filters the SQL stores translate to {@code WHERE} clauses.
+ *
+ * <p>Syntax and key resolution follow the OceanBase store: {@code {"field": value}}, lists as {@code IN},
+ * operator maps ({@code eq/ne/gt/gte/lt/lte/in/nin/like/ilike}, optionally {@code $}-prefixed) and
+ * {@code AND}/{@code OR} lists; {@code payload.x} and {@code metadata.x} address a level explicitly, the
+ * fixed record fields are read from the payload and any other key from metadata.</p>
+ *
+ * <p>No direct Python equivalent.</p>
+ */
+final class PayloadFilter {
+    private static final int LIKE_CACHE_MAX = 256;
+    private static final Map<String, Pattern> LIKE_CACHE = new ConcurrentHashMap<>();
+
+    private PayloadFilter() {}
+
+    static boolean matches(Map<String, Object> payload, Object filter) {
+        if (filter instanceof List) {
+            return all((List<?>) filter, payload);
+        }
+        if (!(filter instanceof Map)) {
+            return true;
+        }
+        Map<?, ?> m = (Map<?, ?>) filter;
+        if (m.containsKey("AND")) {
+            Object v = m.get("AND");
+            return all(v instanceof List ? (List<?>) v : Collections.singletonList(v), payload);
+        }
+        if (m.containsKey("OR")) {
+            Object v = m.get("OR");
+            List<?> list = v instanceof List ? (List<?>) v : Collections.singletonList(v);
+            if (list.isEmpty()) {
+                return true;
+            }
+            for (Object o : list) {
+                if (matches(payload, o)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (Map.Entry<?, ?> e : m.entrySet()) {
+            if (e.getKey() == null || String.valueOf(e.getKey()).isBlank()) continue;
+            if (!fieldMatches(payload, String.valueOf(e.getKey()).trim(), e.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean all(List<?> filters, Map<String, Object> payload) {
+        for (Object o : filters) {
+            if (!matches(payload, o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean fieldMatches(Map<String, Object> payload, String key, Object expected) {
+        Object actual = valueForKey(payload, key);
+        if (expected == null) {
+            return actual == null;
+        }
+        if (expected instanceof List) {
+            return in(actual, (List<?>) expected);
+        }
+        if (expected instanceof Map) {
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) expected).entrySet()) {
+                if (e.getKey() == null) continue;
+                String op = String.valueOf(e.getKey()).trim();
+                if (op.startsWith("$")) op = op.substring(1);
+                if (!opMatches(actual, op, e.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return opMatches(actual, "eq", expected);
+    }
+
+    private static boolean opMatches(Object actual, String op, Object v) {
+        switch (op) {
+            case "eq":
+                return actual != null && compare(actual, v) == 0;
+            case "ne":
+                // SQL semantics: a missing value never compares
+                return actual != null && compare(actual, v) != 0;
+            case "gt":
+                return actual != null && compare(actual, v) > 0;
+            case "gte":
+                return actual != null && compare(actual, v) >= 0;
+            case "lt":
+                return actual != null && compare(actual, v) < 0;
+            case "lte":
+                return actual != null && compare(actual, v) <= 0;
+            case "in":
+                return !(v instanceof List) || in(actual, (List<?>) v);
+            case "nin":
+                return !(v instanceof List) || (actual != null && !in(actual, (List<?>) v));
+            case "like":
+                return actual != null && v != null && like(String.valueOf(v), false).matcher(String.valueOf(actual)).matches();
+            case "ilike":
+                return actual != null && v != null && like(String.valueOf(v), true).matcher(String.valueOf(actual)).matches();
+            default:
+                // unknown operators are ignored, like the SQL stores
+                return true;
+        }
+    }
+
+    private static boolean in(Object actual, List<?> list) {
+        if (list.isEmpty()) {
+            return true;
+        }
+        if (actual == null) {
+            return false;
+        }
+        for (Object o : list) {
+            if (o != null && compare(actual, o) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Numbers compare numerically, everything else as strings. */
+    private static int compare(Object actual, Object expected) {
+        if (actual instanceof Number && expected instanceof Number) {
+            return Double.compare(((Number) actual).doubleValue(), ((Number) expected).doubleValue());
+        }
+        if (actual instanceof Number || expected instanceof Number) {
+            try {
+                return Double.compare(Double.parseDouble(String.valueOf(actual)), Double.parseDouble(String.valueOf(expected)));
+            } catch (NumberFormatException ignored) {
+                // fall through to string comparison
+            }
+        }
+        return String.valueOf(actual).compareTo(String.valueOf(expected));
+    }
+
+    private static Pattern like(String pattern, boolean ignoreCase) {
+        String cacheKey = (ignoreCase ? "i:" : "c:") + pattern;
+        Pattern cached = LIKE_CACHE.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        StringBuilder re = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '%' || c == '_') {
+                if (literal.length() > 0) {
+                    re.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                re.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            re.append(Pattern.quote(literal.toString()));
+        }
+        Pattern compiled = Pattern.compile(re.toString(), Pattern.DOTALL
+                | (ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0));
+        if (LIKE_CACHE.size() >= LIKE_CACHE_MAX) {
+            LIKE_CACHE.clear();
+        }
+        LIKE_CACHE.put(cacheKey, compiled);
+        return compiled;
+    }
+
+    static Object valueForKey(Map<String, Object> payload, String key) {
+        if (payload == null) {
+            return null;
+        }
+        if (key.startsWith("payload.")) {
+            return payload.get(key.substring("payload.".length()).trim());
+        }
+        if (key.startsWith("metadata.")) {
+            return metadataValue(payload, key.substring("metadata.".length()).trim());
+        }
+        switch (key) {
+            case "user_id":
+            case "agent_id":
+            case "run_id":
+            case "hash":
+            case "category":
+            case "scope":
+            case "created_at":
+            case "updated_at":
+                return payload.get(key);
+            default:
+                // Python behavior: any other key is a user metadata key
+                return metadataValue(payload, key);
+        }
+    }
+
+    private static Object metadataValue(Map<String, Object> payload, String key) {
+        Object meta = payload.get("metadata");
+        return meta instanceof Map ? ((Map<?, ?>) meta).get(key) : null;
+    }
+}
@@ -0,0 +1,195 @@
+package com.oceanbase.powermem.sdk.storage.local;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of payload writes and tombstones for {@link LocalVectorStore}.
+ *
+ * <p>Record layout: {@code int bodyLength, int crc32(body), body}, with body {@code byte op, long id,
+ * int slot, payload bytes}. A put maps the id to a vector slot and a payload; a delete is a tombstone; a touch
+ * carries only a new {@code last_accessed_at} ({@code long epochSecond, int nano}) for the id's current put. Replay
+ * stops at the first torn or corrupt record and truncates the file there, so a crash loses at most the
+ * records that were being appended.</p>
+ *
+ * <p>No direct Python equivalent.</p>
+ */
+final class PayloadLog implements AutoCloseable {
+    static final byte OP_PUT = 1;
+    static final byte OP_DELETE = 2;
+    static final byte OP_TOUCH = 3;
+    private static final int TOUCH_BYTES = 8 + 4;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int BODY_HEADER_BYTES = 1 + 8 + 4;
+
+    private final Path file;
+    private final FileChannel channel;
+    private long size;
+
+    interface Visitor {
+        void accept(byte op, long id, int slot, long payloadOffset, int payloadLength);
+
+        /** A touch record; its body is decoded here since the log cannot be read back during replay. */
+        default void touch(long id, Instant lastAccessedAt) {
+        }
+    }
+
+    private PayloadLog(Path file, FileChannel channel, long size) {
+        this.file = file;
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /**
+     * Open (or create) the log and replay its valid records in order.
+     */
+    static PayloadLog open(Path file, Visitor visitor) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long valid = replay(ch, visitor);
+            if (valid < ch.size()) {
+                ch.truncate(valid);
+            }
+            return new PayloadLog(file, ch, valid);
+        } catch (IOException | RuntimeException ex) {
+            ch.close();
+            throw ex;
+        }
+    }
+
+    private static long replay(FileChannel ch, Visitor visitor) throws IOException {
+        long end = ch.size();
+        long pos = 0L;
+        ch.position(0L);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(ch), 1 << 16));
+        CRC32 crc = new CRC32();
+        byte[] body = new byte[256];
+        while (pos + RECORD_HEADER_BYTES <= end) {
+            int length;
+            int checksum;
+            try {
+                length = in.readInt();
+                checksum = in.readInt();
+            } catch (EOFException ex) {
+                break;
+            }
+            if (length < BODY_HEADER_BYTES || pos + RECORD_HEADER_BYTES + length > end) {
+                break;
+            }
+            if (body.length < length) {
+                body = new byte[Math.max(length, body.length * 2)];
+            }
+            try {
+                in.readFully(body, 0, length);
+            } catch (EOFException ex) {
+                break;
+            }
+            crc.reset();
+            crc.update(body, 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            ByteBuffer b = ByteBuffer.wrap(body, 0, length);
+            byte op = b.get();
+            long id = b.getLong();
+            int slot = b.getInt();
+            if (op == OP_TOUCH) {
+                if (length - BODY_HEADER_BYTES == TOUCH_BYTES) {
+                    visitor.touch(id, Instant.ofEpochSecond(b.getLong(), b.getInt()));
+                }
+            } else {
+                long payloadOffset = pos + RECORD_HEADER_BYTES + BODY_HEADER_BYTES;
+                visitor.accept(op, id, slot, payloadOffset, length - BODY_HEADER_BYTES);
+            }
+            pos += RECORD_HEADER_BYTES + length;
+        }
+        return pos;
+    }
+
+    /**
+     * Append a put record.
+     *
+     * @return file offset of the payload bytes (for {@link #read})
+     */
+    long appendPut(long id, int slot, byte[] payload) throws IOException {
+        return append(OP_PUT, id, slot, payload);
+    }
+
+    void appendDelete(long id) throws IOException {
+        append(OP_DELETE, id, -1, new byte[0]);
+    }
+
+    void appendTouch(long id, Instant lastAccessedAt) throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(TOUCH_BYTES);
+        body.putLong(lastAccessedAt.getEpochSecond()).putInt(lastAccessedAt.getNano());
+        append(OP_TOUCH, id, -1, body.array());
+    }
+
+    private long append(byte op, long id, int slot, byte[] payload) throws IOException {
+        int length = BODY_HEADER_BYTES + payload.length;
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+        buf.putInt(length).putInt(0).put(op).putLong(id).putInt(slot).put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), RECORD_HEADER_BYTES, length);
+        buf.putInt(4, (int) crc.getValue());
+        buf.flip();
+        long start = size;
+        long pos = start;
+        while (buf.hasRemaining()) {
+            pos += channel.write(buf, pos);
+        }
+        size = pos;
+        return start + RECORD_HEADER_BYTES + BODY_HEADER_BYTES;
+    }
+
+    /** Positional read of a payload; safe for concurrent readers. */
+    byte[] read(long offset, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        long pos = offset;
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, pos);
+            if (n < 0) {
+                throw new EOFException("payload log truncated: " + file);
+            }
+            pos += n;
+        }
+        return buf.array();
+    }
+
+    /** Bytes a put record of {@code payloadLength} occupies in the log. */
+    static int recordBytes(int payloadLength) {
+        return RECORD_HEADER_BYTES + BODY_HEADER_BYTES + payloadLength;
+    }
+
+    /** Bytes a touch record occupies in the log. */
+    static int touchRecordBytes() {
+        return recordBytes(TOUCH_BYTES);
+    }
+
+    long size() {
+        return size;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,130 @@
+package com.oceanbase.powermem.sdk.storage.local;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped, fixed-capacity file of float32 vectors (little-endian, one row per slot).
+ *
+ * <p>Layout: a 16-byte header (magic, version, dims, capacity) followed by {@code capacity * dims} floats.
+ * Files are created at full size (sparse) and only ever appended to slot by slot; which slots are live is
+ * recorded in the payload log, so opening a segment is a single {@code mmap} without reading its rows.</p>
+ *
+ * <p>No direct Python equivalent.</p>
+ */
+final class VectorSegment implements AutoCloseable {
+    private static final int MAGIC = 0x504D5653; // "PMVS"
+    private static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    private final Path file;
+    private final int dims;
+    private final int capacity;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final FloatBuffer floats;
+
+    private VectorSegment(Path file, int dims, int capacity, FileChannel channel, MappedByteBuffer buffer) {
+        this.file = file;
+        this.dims = dims;
+        this.capacity = capacity;
+        this.channel = channel;
+        this.buffer = buffer;
+        ByteBuffer body = buffer.duplicate();
+        body.position(HEADER_BYTES);
+        this.floats = body.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+    }
+
+    static VectorSegment create(Path file, int dims, int capacity) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(dims, capacity));
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, dims).putInt(12, capacity);
+            return new VectorSegment(file, dims, capacity, ch, buf);
+        } catch (IOException | RuntimeException ex) {
+            ch.close();
+            throw ex;
+        }
+    }
+
+    static VectorSegment open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && ch.read(header, header.position()) > 0) {
+                // read the full header
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("not a vector segment: " + file);
+            }
+            int dims = header.getInt(8);
+            int capacity = header.getInt(12);
+            long size = fileSize(dims, capacity);
+            if (dims <= 0 || capacity <= 0 || ch.size() < size) {
+                throw new IOException("corrupt vector segment header: " + file);
+            }
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new VectorSegment(file, dims, capacity, ch, buf);
+        } catch (IOException | RuntimeException ex) {
+            ch.close();
+            throw ex;
+        }
+    }
+
+    private static long fileSize(int dims, int capacity) {
+        return HEADER_BYTES + (long) dims * capacity * Float.BYTES;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    int dims() {
+        return dims;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /** Write {@code vector} (exactly {@code dims} floats) into {@code slot}. Callers serialize writes. */
+    void put(int slot, float[] vector) {
+        int base = slot * dims;
+        for (int i = 0; i < dims; i++) {
+            floats.put(base + i, vector[i]);
+        }
+    }
+
+    float[] read(int slot) {
+        float[] out = new float[dims];
+        read(slot, 1, out);
+        return out;
+    }
+
+    /**
+     * Bulk-copy {@code count} consecutive rows starting at {@code slot} into {@code dst}. Safe for concurrent
+     * readers: each call works on its own buffer view.
+     */
+    void read(int slot, int count, float[] dst) {
+        FloatBuffer view = floats.duplicate();
+        view.position(slot * dims);
+        view.get(dst, 0, count * dims);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -1,23 +1,51 @@
 package com.oceanbase.powermem.sdk.storage.memory;
 
+import com.oceanbase.powermem.sdk.json.JacksonJsonCodec;
+import com.oceanbase.powermem.sdk.json.JsonCodec;
 import com.oceanbase.powermem.sdk.storage.base.GraphStore;
+import com.oceanbase.powermem.sdk.util.Bm25Index;
+import com.oceanbase.powermem.sdk.util.LongHashSet;
+import com.oceanbase.powermem.sdk.util.TextTokenizer;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
- * In-memory graph store for offline usage and tests.
+ * In-process graph store for offline usage, tests and single-node deployments.
  *
- * <p>This implementation is NOT intended for production. It exists to:
- * - provide Python-like return shapes for {@code relations}
- * - enable unit/integration tests without a real graph database</p>
+ * <p>Each {@code user_id|agent_id|run_id} scope is a small graph: entity names are interned to int ids (matched
+ * case-insensitively), relationships are edges in primitive arrays with per-entity adjacency lists, and an incremental
+ * {@link Bm25Index} holds the tokens of every edge's {@code "source relationship destination"}. A search:
+ * - takes the best-scoring edges containing a query token from the scope's index (hop 0)
+ * - expands along the adjacency lists of their endpoints for up to {@code maxHops - 1} more hops, stopping at
+ *   {@code searchLimit} candidates
+ * - reranks the candidates with BM25 exactly like {@code OceanBaseGraphStore}
+ * so its cost depends on the matched neighborhood, not the scope size. Adds only touch the new edges; identical
+ * triples are stored once. Scopes are independent and each has its own read/write lock.</p>
+ *
+ * <p>With {@code snapshotPath} set, the graph is loaded from that JSON file on construction and written back
+ * (atomically) by {@link #snapshot()} and on {@link #close()}; changes since the last snapshot are lost on a
+ * crash. Entity/relation extraction is a small heuristic ({@code "a -- rel -- b"} lines and
+ * {@code "User likes/prefers/hates X"}); use {@code OceanBaseGraphStore} for LLM-based extraction.</p>
  */
 public class InMemoryGraphStore implements GraphStore {
+    private static final Logger LOG = Logger.getLogger(InMemoryGraphStore.class.getName());
+    private static final int SNAPSHOT_VERSION = 1;
 
     private static final class Triple {
         final String source;
@@ -31,38 +59,134 @@ public class InMemoryGraphStore implements GraphStore {
         }
     }
 
-    // scopeKey -> triples
-    private final Map<String, List<Triple>> store = new ConcurrentHashMap<>();
+    /** Growable int array (adjacency lists, candidate lists). */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int v) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = v;
+        }
+    }
+
+    /** One scope's graph; all fields guarded by {@link #lock}. */
+    private static final class ScopeGraph {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // lower-cased name -> entity id; names[id] keeps the first spelling seen
+        final Map<String, Integer> entityIds = new HashMap<>();
+        final List<String> names = new ArrayList<>();
+        final List<IntList> adjacency = new ArrayList<>();
+        // edge id -> endpoints / relationship / tokens
+        int[] edgeSource = new int[16];
+        int[] edgeDestination = new int[16];
+        String[] edgeRelationship = new String[16];
+        final List<List<String>> edgeTokens = new ArrayList<>();
+        int edgeCount;
+        final Bm25Index keywords = new Bm25Index();
+
+        int intern(String name) {
+            String key = name.toLowerCase(Locale.ROOT);
+            Integer id = entityIds.get(key);
+            if (id != null) {
+                return id;
+            }
+            int next = names.size();
+            entityIds.put(key, next);
+            names.add(name);
+            adjacency.add(new IntList());
+            return next;
+        }
+
+        /** Adds the edge unless the same triple exists; O(degree of the source). */
+        boolean addEdge(Triple t) {
+            int src = intern(t.source);
+            int dst = intern(t.destination);
+            IntList out = adjacency.get(src);
+            for (int i = 0; i < out.size; i++) {
+                int e = out.values[i];
+                if (edgeSource[e] == src && edgeDestination[e] == dst && edgeRelationship[e].equals(t.relationship)) {
+                    return false;
+                }
+            }
+            if (edgeCount == edgeSource.length) {
+                int cap = edgeCount * 2;
+                edgeSource = Arrays.copyOf(edgeSource, cap);
+                edgeDestination = Arrays.copyOf(edgeDestination, cap);
+                edgeRelationship = Arrays.copyOf(edgeRelationship, cap);
+            }
+            int e = edgeCount++;
+            edgeSource[e] = src;
+            edgeDestination[e] = dst;
+            edgeRelationship[e] = t.relationship;
+            out.add(e);
+            if (dst != src) {
+                adjacency.get(dst).add(e);
+            }
+            List<String> tokens = TextTokenizer.tokenize(t.source + " " + t.relationship + " " + t.destination);
+            edgeTokens.add(tokens);
+            keywords.add(e, tokens);
+            return true;
+        }
+
+        Map<String, Object> edge(int e, String destinationKey) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("source", names.get(edgeSource[e]));
+            m.put("relationship", edgeRelationship[e]);
+            m.put(destinationKey, names.get(edgeDestination[e]));
+            return m;
+        }
+    }
+
+    private final JsonCodec json = new JacksonJsonCodec();
+    // scopeKey -> graph
+    private final Map<String, ScopeGraph> store = new ConcurrentHashMap<>();
+    private final int maxHops;
+    private final int searchLimit;
+    private final Path snapshotPath;
+
+    public InMemoryGraphStore() {
+        this(null);
+    }
+
+    public InMemoryGraphStore(com.oceanbase.powermem.sdk.config.GraphStoreConfig config) {
+        this.maxHops = config == null || config.getMaxHops() <= 0 ? 3 : config.getMaxHops();
+        this.searchLimit = config == null || config.getSearchLimit() <= 0 ? 100 : config.getSearchLimit();
+        String path = config == null ? null : config.getSnapshotPath();
+        this.snapshotPath = path == null || path.isBlank() ? null : Paths.get(path);
+        if (snapshotPath != null) {
+            load();
+        }
+    }
 
     @Override
     public Map<String, Object> add(String data, Map<String, Object> filters) {
         if (data == null || data.isBlank()) {
             return Collections.emptyMap();
         }
-        String scopeKey = scopeKey(filters);
-
         List<Triple> newTriples = extractTriples(data);
-        if (newTriples.isEmpty()) {
-            Map<String, Object> out = new HashMap<>();
-            out.put("deleted_entities", Collections.emptyList());
-            out.put("added_entities", Collections.emptyList());
-            return out;
-        }
-
-        store.compute(scopeKey, (k, existing) -> {
-            List<Triple> next = existing == null ? new ArrayList<>() : new ArrayList<>(existing);
-            next.addAll(newTriples);
-            return next;
-        });
-
-        // Python parity: {"deleted_entities":[...], "added_entities":[{"source":..,"relationship":..,"target":..}]}
         List<Map<String, Object>> added = new ArrayList<>();
-        for (Triple t : newTriples) {
-            Map<String, Object> m = new HashMap<>();
-            m.put("source", t.source);
-            m.put("relationship", t.relationship);
-            m.put("target", t.destination);
-            added.add(m);
+        if (!newTriples.isEmpty()) {
+            String key = scopeKey(filters);
+            while (true) {
+                ScopeGraph g = store.computeIfAbsent(key, k -> new ScopeGraph());
+                g.lock.writeLock().lock();
+                try {
+                    // deleteAll/reset may have dropped the graph before we locked it; add to the current one instead
+                    if (store.get(key) != g) continue;
+                    for (Triple t : newTriples) {
+                        if (g.addEdge(t)) {
+                            // Python parity: {"deleted_entities":[...], "added_entities":[{"source":..,"relationship":..,"target":..}]}
+                            added.add(g.edge(g.edgeCount - 1, "target"));
+                        }
+                    }
+                    break;
+                } finally {
+                    g.lock.writeLock().unlock();
+                }
+            }
         }
         Map<String, Object> out = new HashMap<>();
         out.put("deleted_entities", Collections.emptyList());
@@ -72,34 +196,64 @@ public class InMemoryGraphStore implements GraphStore {
 
     @Override
     public List<Map<String, Object>> search(String query, Map<String, Object> filters, int limit) {
-        if (query == null) {
-            query = "";
+        List<String> queryTokens = TextTokenizer.tokenize(query == null ? "" : query);
+        if (queryTokens.isEmpty()) {
+            return getAll(filters, limit);
         }
         int top = limit > 0 ? limit : 100;
-        String q = query.trim().toLowerCase(Locale.ROOT);
-        String scopeKey = scopeKey(filters);
-
-        List<Triple> triples = store.getOrDefault(scopeKey, Collections.emptyList());
-        if (triples.isEmpty()) {
+        ScopeGraph g = store.get(scopeKey(filters));
+        if (g == null) {
             return Collections.emptyList();
         }
 
-        List<Map<String, Object>> out = new ArrayList<>();
-        for (Triple t : triples) {
-            if (!q.isEmpty()) {
-                String combined = (t.source + " " + t.relationship + " " + t.destination).toLowerCase(Locale.ROOT);
-                if (!combined.contains(q)) {
-                    continue;
+        g.lock.readLock().lock();
+        try {
+            IntList candidates = new IntList();
+            LongHashSet seenEdges = new LongHashSet();
+            LongHashSet visited = new LongHashSet();
+            IntList frontier = new IntList();
+
+            // hop 0: best-matching edges containing a query token
+            for (Bm25Index.Hit hit : g.keywords.search(queryTokens, searchLimit)) {
+                int e = (int) hit.getId();
+                seenEdges.add(e);
+                candidates.add(e);
+                if (visited.add(g.edgeSource[e])) frontier.add(g.edgeSource[e]);
+                if (visited.add(g.edgeDestination[e])) frontier.add(g.edgeDestination[e]);
+            }
+            // further hops along the adjacency lists
+            for (int hop = 1; hop < maxHops && frontier.size > 0 && candidates.size < searchLimit; hop++) {
+                IntList next = new IntList();
+                for (int f = 0; f < frontier.size && candidates.size < searchLimit; f++) {
+                    IntList adj = g.adjacency.get(frontier.values[f]);
+                    for (int i = 0; i < adj.size && candidates.size < searchLimit; i++) {
+                        int e = adj.values[i];
+                        if (!seenEdges.add(e)) continue;
+                        candidates.add(e);
+                        if (visited.add(g.edgeSource[e])) next.add(g.edgeSource[e]);
+                        if (visited.add(g.edgeDestination[e])) next.add(g.edgeDestination[e]);
+                    }
                 }
+                frontier = next;
             }
-            Map<String, Object> m = new HashMap<>();
-            m.put("source", t.source);
-            m.put("relationship", t.relationship);
-            m.put("destination", t.destination);
-            out.add(m);
-            if (out.size() >= top) {
-                break;
+            if (candidates.size == 0) {
+                return Collections.emptyList();
             }
+            return bm25Rerank(g, queryTokens, candidates, top);
+        } finally {
+            g.lock.readLock().unlock();
+        }
+    }
+
+    /** BM25 over the candidate edges only, as in {@code OceanBaseGraphStore.bm25Rerank}. */
+    private static List<Map<String, Object>> bm25Rerank(ScopeGraph g, List<String> queryTokens, IntList candidates, int top) {
+        List<List<String>> corpus = new ArrayList<>(candidates.size);
+        for (int i = 0; i < candidates.size; i++) {
+            corpus.add(g.edgeTokens.get(candidates.values[i]));
+        }
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (int i : Bm25Index.rank(corpus, queryTokens, top)) {
+            out.add(g.edge(candidates.values[i], "destination"));
         }
         return out;
     }
@@ -111,7 +265,21 @@ public class InMemoryGraphStore implements GraphStore {
 
     @Override
     public List<Map<String, Object>> getAll(Map<String, Object> filters, int limit) {
-        return search("", filters, limit);
+        int top = limit > 0 ? limit : 100;
+        ScopeGraph g = store.get(scopeKey(filters));
+        if (g == null) {
+            return Collections.emptyList();
+        }
+        g.lock.readLock().lock();
+        try {
+            List<Map<String, Object>> out = new ArrayList<>();
+            for (int e = 0; e < g.edgeCount && out.size() < top; e++) {
+                out.add(g.edge(e, "destination"));
+            }
+            return out;
+        } finally {
+            g.lock.readLock().unlock();
+        }
     }
 
     @Override
@@ -119,6 +287,80 @@ public class InMemoryGraphStore implements GraphStore {
         store.clear();
     }
 
+    /**
+     * Write all scopes to {@code snapshotPath} (via a temp file and an atomic rename). No-op without a path.
+     */
+    public void snapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        Map<String, Object> scopes = new LinkedHashMap<>();
+        for (Map.Entry<String, ScopeGraph> entry : store.entrySet()) {
+            ScopeGraph g = entry.getValue();
+            List<List<String>> triples = new ArrayList<>();
+            g.lock.readLock().lock();
+            try {
+                for (int e = 0; e < g.edgeCount; e++) {
+                    triples.add(Arrays.asList(g.names.get(g.edgeSource[e]), g.edgeRelationship[e], g.names.get(g.edgeDestination[e])));
+                }
+            } finally {
+                g.lock.readLock().unlock();
+            }
+            scopes.put(entry.getKey(), triples);
+        }
+        Map<String, Object> doc = new LinkedHashMap<>();
+        doc.put("version", SNAPSHOT_VERSION);
+        doc.put("scopes", scopes);
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            Files.write(tmp, json.toJson(doc).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception ex) {
+            throw new RuntimeException("InMemoryGraphStore snapshot failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (snapshotPath == null) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, ex.getMessage(), ex);
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(snapshotPath)) {
+            return;
+        }
+        try {
+            Map<String, Object> doc = json.fromJsonToMap(new String(Files.readAllBytes(snapshotPath), StandardCharsets.UTF_8));
+            Object scopes = doc == null ? null : doc.get("scopes");
+            if (!(scopes instanceof Map)) {
+                return;
+            }
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) scopes).entrySet()) {
+                if (!(entry.getValue() instanceof List)) continue;
+                ScopeGraph g = new ScopeGraph();
+                for (Object row : (List<?>) entry.getValue()) {
+                    if (!(row instanceof List) || ((List<?>) row).size() != 3) continue;
+                    List<?> r = (List<?>) row;
+                    g.addEdge(new Triple(String.valueOf(r.get(0)), String.valueOf(r.get(1)), String.valueOf(r.get(2))));
+                }
+                store.put(String.valueOf(entry.getKey()), g);
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException("InMemoryGraphStore snapshot load failed: " + ex.getMessage(), ex);
+        }
+    }
+
     private static String scopeKey(Map<String, Object> filters) {
         String userId = valueAsString(filters == null ? null : filters.get("user_id"));
         String agentId = valueAsString(filters == null ? null : filters.get("agent_id"));
@@ -143,7 +385,7 @@ public class InMemoryGraphStore implements GraphStore {
      * Extremely small heuristic triple extractor.
      *
      * <p>Goal: enable tests and provide a reasonable default behavior offline.
-     * For production, use a real graph store (OceanBaseGraphStore) with LLM-based extraction.</p>
+     * For LLM-based extraction, use OceanBaseGraphStore.</p>
      */
     private static List<Triple> extractTriples(String data) {
         List<Triple> out = new ArrayList<>();
@@ -209,4 +451,3 @@ public class InMemoryGraphStore implements GraphStore {
         return new Triple("User", rel, obj);
     }
 }
-
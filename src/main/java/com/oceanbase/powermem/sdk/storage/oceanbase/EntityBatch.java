@@ -0,0 +1,107 @@
+package com.oceanbase.powermem.sdk.storage.oceanbase;
+
+import com.oceanbase.powermem.sdk.exception.ApiException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Entity resolution for one graph {@code add}: the distinct entity names of its triples, each resolved either to
+ * an existing scope entity or to a new one.
+ *
+ * <p>Names are resolved against the scope first ({@link #matchExisting}). The rest go through
+ * {@link #createMissing}, which matches each against the entities created earlier in the same batch, using the
+ * metric and threshold of the scope lookup ({@link EntityVectorCache.Scope#nearest}), so near-duplicate names
+ * introduced together share one new entity. Not thread-safe.</p>
+ *
+ * <p>No direct Python equivalent.</p>
+ */
+public final class EntityBatch {
+
+    /** A resolved entity; {@link #vector} is set only for entities created by this batch. */
+    public static final class Entity {
+        public final long id;
+        public final String name;
+        public final String entityType;
+        public final float[] vector;
+
+        Entity(long id, String name, String entityType, float[] vector) {
+            this.id = id;
+            this.name = name;
+            this.entityType = entityType;
+            this.vector = vector;
+        }
+
+        public boolean isCreated() {
+            return vector != null;
+        }
+    }
+
+    // distinct names in first-seen order, with the first type given for each
+    private final Map<String, String> types = new LinkedHashMap<>();
+    private final Map<String, Entity> byName = new HashMap<>();
+    private final List<Entity> created = new ArrayList<>();
+
+    /** Add an (already normalised) entity name; the first type given for a name wins. */
+    public void add(String name, String entityType) {
+        types.putIfAbsent(name, entityType == null ? "entity" : entityType);
+    }
+
+    /** Distinct names in the order they were first added. */
+    public List<String> names() {
+        return new ArrayList<>(types.keySet());
+    }
+
+    /** Resolve {@code name} to an existing scope entity. */
+    public void matchExisting(String name, long id, String entityName, String entityType) {
+        if (types.containsKey(name)) {
+            byName.put(name, new Entity(id, entityName, entityType, null));
+        }
+    }
+
+    /**
+     * Resolve every name not matched by {@link #matchExisting}: to the nearest entity created earlier in this
+     * batch when one is within {@code threshold} under {@code metric}, otherwise to a new entity with an id from
+     * {@code newId}.
+     *
+     * @param vectors one embedding per {@link #names()}, in the same order
+     */
+    public void createMissing(List<float[]> vectors, String metric, double threshold, LongSupplier newId) {
+        List<String> names = names();
+        if (vectors == null || vectors.size() != names.size()) {
+            throw new ApiException("expected " + names.size() + " vectors, got "
+                    + (vectors == null ? 0 : vectors.size()));
+        }
+        EntityVectorCache.Scope batch = EntityVectorCache.Scope.empty();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            if (byName.containsKey(name)) continue;
+            EntityVectorCache.Match m = batch.nearest(vectors.get(i), metric, threshold);
+            if (m != null) {
+                byName.put(name, byName.get(m.name));
+                continue;
+            }
+            Entity e = new Entity(newId.getAsLong(), name, types.get(name),
+                    vectors.get(i) == null ? new float[0] : vectors.get(i));
+            byName.put(name, e);
+            created.add(e);
+            batch = batch.append(Collections.singletonList(e.id), Collections.singletonList(name),
+                    Collections.singletonList(e.entityType), Collections.singletonList(e.vector));
+        }
+    }
+
+    /** The entity {@code name} resolved to, or null if it has not been resolved. */
+    public Entity get(String name) {
+        return byName.get(name);
+    }
+
+    /** Entities created by {@link #createMissing}, in creation order. */
+    public List<Entity> created() {
+        return Collections.unmodifiableList(created);
+    }
+}
@@ -0,0 +1,325 @@
+package com.oceanbase.powermem.sdk.storage.oceanbase;
+
+import com.oceanbase.powermem.sdk.util.VectorMath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * In-process cache of graph entity vectors per {@code (user_id, agent_id, run_id)} scope, so entity resolution is
+ * a nearest-neighbour scan over primitive arrays instead of a distance query per name.
+ *
+ * <p>A cached scope holds exactly what the store's scope query returns (a null {@code agent_id}/{@code run_id}
+ * matches any value): entity ids, names, types, the vectors in one contiguous {@code float[]} and their norms.
+ * Whole scopes are evicted least-recently-used once the total estimated size exceeds {@code maxBytes}; a scope
+ * larger than the budget is not cached. New entities are written through to every cached scope they belong to,
+ * and deletes invalidate the affected scopes. Writes by other processes are not seen, so the cache is meant for
+ * deployments where this store is the only graph writer.</p>
+ *
+ * <p>No direct Python equivalent.</p>
+ */
+public final class EntityVectorCache {
+    private static final long ENTRY_OVERHEAD_BYTES = 64;
+    private static final long ROW_OVERHEAD_BYTES = 8 + 8 + 48 * 2;
+    private static final int MAX_OVERSIZED_KEYS = 4096;
+
+    private final long maxBytes;
+    // access-ordered for LRU; guarded by this
+    private final LinkedHashMap<ScopeKey, Scope> scopes = new LinkedHashMap<>(16, 0.75f, true);
+    // scopes found larger than the whole budget; callers skip loading them until they are invalidated
+    private final Set<ScopeKey> oversized = new HashSet<>();
+    private long totalBytes;
+    // bumped by every write-through and invalidation, so a load that raced with a write is not stored
+    private long version;
+
+    /** An entity matched by {@link Scope#nearest}. */
+    public static final class Match {
+        public final long id;
+        public final String name;
+        public final String entityType;
+        public final double distance;
+
+        Match(long id, String name, String entityType, double distance) {
+            this.id = id;
+            this.name = name;
+            this.entityType = entityType;
+            this.distance = distance;
+        }
+    }
+
+    /** Immutable snapshot of one scope's entities; appends replace the snapshot. */
+    public static final class Scope {
+        private final long[] ids;
+        private final String[] names;
+        private final String[] types;
+        private final int[] offsets;
+        private final int[] lengths;
+        private final float[] vectors;
+        private final double[] norms;
+        private final long bytes;
+
+        private Scope(long[] ids, String[] names, String[] types, int[] offsets, int[] lengths, float[] vectors, double[] norms) {
+            this.ids = ids;
+            this.names = names;
+            this.types = types;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.vectors = vectors;
+            this.norms = norms;
+            long b = ENTRY_OVERHEAD_BYTES + (long) vectors.length * Float.BYTES;
+            for (int i = 0; i < ids.length; i++) {
+                b += ROW_OVERHEAD_BYTES + 2L * (length(names[i]) + length(types[i]));
+            }
+            this.bytes = b;
+        }
+
+        private static int length(String s) {
+            return s == null ? 0 : s.length();
+        }
+
+        static Scope of(List<Long> ids, List<String> names, List<String> types, List<float[]> vectors) {
+            return empty().append(ids, names, types, vectors);
+        }
+
+        static Scope empty() {
+            return new Scope(new long[0], new String[0], new String[0], new int[0], new int[0], new float[0], new double[0]);
+        }
+
+        Scope append(List<Long> newIds, List<String> newNames, List<String> newTypes, List<float[]> newVectors) {
+            int n = ids.length;
+            int m = newIds.size();
+            int floats = vectors.length;
+            for (float[] v : newVectors) {
+                floats += v == null ? 0 : v.length;
+            }
+            long[] i2 = Arrays.copyOf(ids, n + m);
+            String[] n2 = Arrays.copyOf(names, n + m);
+            String[] t2 = Arrays.copyOf(types, n + m);
+            int[] o2 = Arrays.copyOf(offsets, n + m);
+            int[] l2 = Arrays.copyOf(lengths, n + m);
+            float[] v2 = Arrays.copyOf(vectors, floats);
+            double[] norm2 = Arrays.copyOf(norms, n + m);
+            int pos = vectors.length;
+            for (int j = 0; j < m; j++) {
+                float[] v = newVectors.get(j) == null ? new float[0] : newVectors.get(j);
+                i2[n + j] = newIds.get(j);
+                n2[n + j] = newNames.get(j);
+                t2[n + j] = newTypes.get(j);
+                o2[n + j] = pos;
+                l2[n + j] = v.length;
+                System.arraycopy(v, 0, v2, pos, v.length);
+                norm2[n + j] = VectorMath.norm(v);
+                pos += v.length;
+            }
+            return new Scope(i2, n2, t2, o2, l2, v2, norm2);
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        public long bytes() {
+            return bytes;
+        }
+
+        /**
+         * Nearest entity to {@code query} under {@code metric} ({@code l2}, {@code cosine} distance or
+         * {@code inner_product}, matching the SQL distance functions), or null if none is below {@code threshold}
+         * ({@code threshold <= 0} disables the cut-off).
+         */
+        public Match nearest(float[] query, String metric, double threshold) {
+            if (query == null || query.length == 0) {
+                return null;
+            }
+            double queryNorm = VectorMath.norm(query);
+            int best = -1;
+            double bestDistance = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < ids.length; i++) {
+                int len = lengths[i];
+                if (len == 0) {
+                    continue;
+                }
+                int n = Math.min(len, query.length);
+                double d;
+                if ("cosine".equals(metric)) {
+                    double denominator = queryNorm * norms[i];
+                    d = denominator == 0.0 ? 1.0 : 1.0 - VectorMath.dot(vectors, offsets[i], query, n) / denominator;
+                } else if ("inner_product".equals(metric) || "ip".equals(metric)) {
+                    d = VectorMath.dot(vectors, offsets[i], query, n);
+                } else if (len == query.length) {
+                    // |a - b|^2 = |a|^2 + |b|^2 - 2 a.b, one dot product per row
+                    double sq = queryNorm * queryNorm + norms[i] * norms[i] - 2.0 * VectorMath.dot(vectors, offsets[i], query, n);
+                    d = Math.sqrt(Math.max(0.0, sq));
+                } else {
+                    d = VectorMath.l2Distance(query, Arrays.copyOfRange(vectors, offsets[i], offsets[i] + len));
+                }
+                if (threshold > 0 && d >= threshold) {
+                    continue;
+                }
+                if (d < bestDistance) {
+                    best = i;
+                    bestDistance = d;
+                }
+            }
+            return best < 0 ? null : new Match(ids[best], names[best], types[best], bestDistance);
+        }
+    }
+
+    public EntityVectorCache(long maxBytes) {
+        this.maxBytes = Math.max(0L, maxBytes);
+    }
+
+    /** Cached scope (marking it recently used), or null. */
+    public synchronized Scope get(String userId, String agentId, String runId) {
+        return scopes.get(new ScopeKey(userId, agentId, runId));
+    }
+
+    /** True if the scope was too large to cache when last loaded. */
+    public synchronized boolean isOversized(String userId, String agentId, String runId) {
+        return oversized.contains(new ScopeKey(userId, agentId, runId));
+    }
+
+    /** Current version; pass it to {@link #put} after loading a scope. */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Cache a scope loaded from the database. Ignored when a write or invalidation happened since
+     * {@code loadedAtVersion}, or when the scope alone exceeds the budget.
+     *
+     * @return the snapshot to use for this lookup (cached or not)
+     */
+    public Scope put(String userId, String agentId, String runId, long loadedAtVersion,
+                     List<Long> ids, List<String> names, List<String> types, List<float[]> vectors) {
+        Scope scope = Scope.of(ids, names, types, vectors);
+        synchronized (this) {
+            if (scope.bytes > maxBytes) {
+                if (oversized.size() >= MAX_OVERSIZED_KEYS) {
+                    oversized.clear();
+                }
+                oversized.add(new ScopeKey(userId, agentId, runId));
+                return scope;
+            }
+            if (loadedAtVersion != version) {
+                return scope;
+            }
+            Scope prev = scopes.put(new ScopeKey(userId, agentId, runId), scope);
+            totalBytes += scope.bytes - (prev == null ? 0 : prev.bytes);
+            evict();
+        }
+        return scope;
+    }
+
+    /**
+     * Write new entities (created in scope {@code userId/agentId/runId}) through to every cached scope whose
+     * filter they match.
+     */
+    public synchronized void append(String userId, String agentId, String runId,
+                                    List<Long> ids, List<String> names, List<String> types, List<float[]> vectors) {
+        version++;
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<ScopeKey> matching = new ArrayList<>();
+        for (ScopeKey key : scopes.keySet()) {
+            if (key.contains(userId, agentId, runId)) {
+                matching.add(key);
+            }
+        }
+        for (ScopeKey key : matching) {
+            Scope prev = scopes.get(key);
+            Scope next = prev.append(ids, names, types, vectors);
+            scopes.put(key, next);
+            totalBytes += next.bytes - prev.bytes;
+        }
+        evict();
+    }
+
+    /**
+     * Drop every cached scope that may contain entities of {@code userId/agentId/runId}, where a null
+     * {@code agentId}/{@code runId} matches any value (as in {@code deleteAll}).
+     */
+    public synchronized void invalidate(String userId, String agentId, String runId) {
+        version++;
+        Iterator<Map.Entry<ScopeKey, Scope>> it = scopes.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<ScopeKey, Scope> e = it.next();
+            if (e.getKey().overlaps(userId, agentId, runId)) {
+                totalBytes -= e.getValue().bytes;
+                it.remove();
+            }
+        }
+        oversized.removeIf(k -> k.overlaps(userId, agentId, runId));
+    }
+
+    public synchronized void clear() {
+        version++;
+        scopes.clear();
+        oversized.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int scopeCount() {
+        return scopes.size();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<ScopeKey, Scope>> it = scopes.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            totalBytes -= it.next().getValue().bytes;
+            it.remove();
+        }
+    }
+
+    private static final class ScopeKey {
+        final String userId;
+        final String agentId;
+        final String runId;
+
+        ScopeKey(String userId, String agentId, String runId) {
+            this.userId = userId;
+            this.agentId = agentId;
+            this.runId = runId;
+        }
+
+        /** Would this scope's query return a row written with the given scope? */
+        boolean contains(String user, String agent, String run) {
+            return Objects.equals(userId, user)
+                    && (agentId == null || agentId.equals(agent))
+                    && (runId == null || runId.equals(run));
+        }
+
+        /** Could this scope share rows with a scope filter (nulls match anything on either side)? */
+        boolean overlaps(String user, String agent, String run) {
+            return Objects.equals(userId, user)
+                    && (agentId == null || agent == null || agentId.equals(agent))
+                    && (runId == null || run == null || runId.equals(run));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ScopeKey)) {
+                return false;
+            }
+            ScopeKey k = (ScopeKey) o;
+            return Objects.equals(userId, k.userId) && Objects.equals(agentId, k.agentId) && Objects.equals(runId, k.runId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, agentId, runId);
+        }
+    }
+}
@@ -10,13 +10,16 @@ import com.oceanbase.powermem.sdk.model.Message;
 import com.oceanbase.powermem.sdk.prompts.graph.GraphPrompts;
 import com.oceanbase.powermem.sdk.prompts.graph.GraphToolsPrompts;
 import com.oceanbase.powermem.sdk.storage.base.GraphStore;
-import com.oceanbase.powermem.sdk.util.Bm25;
+import com.oceanbase.powermem.sdk.storage.pool.PooledDataSource;
+import com.oceanbase.powermem.sdk.util.Bm25Index;
 import com.oceanbase.powermem.sdk.util.LlmJsonUtils;
+import com.oceanbase.powermem.sdk.util.LongHashSet;
 import com.oceanbase.powermem.sdk.util.SnowflakeIdGenerator;
+import com.oceanbase.powermem.sdk.util.SqlErrors;
 import com.oceanbase.powermem.sdk.util.TextTokenizer;
+import com.oceanbase.powermem.sdk.util.VectorMath;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
@@ -25,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -40,30 +44,52 @@ import java.util.logging.Logger;
  * <p>Implements:
  * - entities + relationships tables (graph_entities / graph_relationships)
  * - LLM tools based extraction (extract_entities + establish_relationships + delete_graph_memory)
- * - ANN-style entity resolution via VECTOR distance (best-effort) with embedding_json brute-force fallback
+ * - ANN-style entity resolution via VECTOR distance (best-effort) with embedding_json brute-force fallback,
+ *   batched per call: embedBatch calls of up to 10 names and one resolution query for all entity names
+ * - bulk ingestion: new entities and relationships are inserted in batches within one transaction
  * - BM25 rerank of candidate relationships
- * - multi-hop expansion</p>
+ * - multi-hop expansion, as one recursive CTE where supported (per-hop queries otherwise)</p>
  */
 public class OceanBaseGraphStore implements GraphStore {
     private static final Logger LOG = Logger.getLogger(OceanBaseGraphStore.class.getName());
+    private static final int RESOLVE_QUERIES_PER_STATEMENT = 32;
+    private static final int EMBED_NAMES_PER_BATCH = 10;
 
     private final com.oceanbase.powermem.sdk.config.GraphStoreConfig config;
     private final Embedder embedder;
     private final LLM llm;
+    private final boolean closeEmbedder;
     private final JsonCodec json = new JacksonJsonCodec();
     private final SnowflakeIdGenerator idGenerator = SnowflakeIdGenerator.defaultGenerator();
+    private volatile PooledDataSource dataSource;
+    private final EntityVectorCache entityCache;
 
     private volatile boolean initialized;
     private volatile boolean hasVectorColumn;
+    // set once the server rejects WITH RECURSIVE; multi-hop search then stays on per-hop queries
+    private volatile boolean recursiveTraversalUnsupported;
 
     public OceanBaseGraphStore(com.oceanbase.powermem.sdk.config.GraphStoreConfig config) {
         this(config, null, null);
     }
 
     public OceanBaseGraphStore(com.oceanbase.powermem.sdk.config.GraphStoreConfig config, Embedder embedder, LLM llm) {
+        this(config, embedder, llm, false);
+    }
+
+    /**
+     * @param closeEmbedder close {@code embedder} (if it holds resources) in {@link #close()}; set when the
+     *                      embedder was created for this store rather than shared with the caller
+     */
+    public OceanBaseGraphStore(com.oceanbase.powermem.sdk.config.GraphStoreConfig config, Embedder embedder, LLM llm,
+                               boolean closeEmbedder) {
         this.config = config;
         this.embedder = embedder;
         this.llm = llm;
+        this.closeEmbedder = closeEmbedder;
+        this.entityCache = config != null && config.getEntityCacheMaxBytes() > 0
+                ? new EntityVectorCache(config.getEntityCacheMaxBytes())
+                : null;
         ensureInitialized();
     }
 
@@ -175,6 +201,11 @@ public class OceanBaseGraphStore implements GraphStore {
             }
         } catch (Exception ex) {
             LOG.log(Level.WARNING, "OceanBaseGraphStore.deleteAll failed: " + ex.getMessage(), ex);
+        } finally {
+            if (entityCache != null) {
+                entityCache.invalidate(String.valueOf(scope.get("user_id")),
+                        asNullableString(scope.get("agent_id")), asNullableString(scope.get("run_id")));
+            }
         }
     }
 
@@ -222,6 +253,8 @@ public class OceanBaseGraphStore implements GraphStore {
             st.execute("TRUNCATE TABLE " + entitiesTable());
         } catch (Exception ex) {
             LOG.log(Level.WARNING, "OceanBaseGraphStore.reset failed: " + ex.getMessage(), ex);
+        } finally {
+            if (entityCache != null) entityCache.clear();
         }
     }
 
@@ -468,133 +501,180 @@ public class OceanBaseGraphStore implements GraphStore {
         }
     }
 
+    /**
+     * Bulk path: distinct entity names are embedded in batches of {@value #EMBED_NAMES_PER_BATCH}, resolved
+     * against the scope in one query (then against each other, see {@link EntityBatch}), and new entities plus
+     * relationships are written with batched INSERTs in a single transaction. Existing relationships are found
+     * with one SELECT over the involved entity ids.
+     */
     private List<Map<String, Object>> addEntitiesAndRelationships(List<RelationTriple> triples, Map<String, String> entityTypeMap, Map<String, Object> scope) {
         if (triples == null || triples.isEmpty()) return Collections.emptyList();
         if (embedder == null) throw new ApiException("OceanBaseGraphStore requires an embedder");
 
-        List<Map<String, Object>> out = new ArrayList<>();
+        EntityBatch batch = new EntityBatch();
         for (RelationTriple t : triples) {
-            long srcId = getOrCreateEntity(t.source, entityTypeMap.getOrDefault(t.source, "entity"), scope);
-            long dstId = getOrCreateEntity(t.destination, entityTypeMap.getOrDefault(t.destination, "entity"), scope);
-            Map<String, Object> rel = createRelationshipIfNotExists(srcId, dstId, t.relationship, scope);
-            if (rel != null && !rel.isEmpty()) out.add(rel);
+            batch.add(normalizeName(t.source), entityTypeMap.getOrDefault(t.source, "entity"));
+            batch.add(normalizeName(t.destination), entityTypeMap.getOrDefault(t.destination, "entity"));
         }
-        return out;
-    }
-
-    private long getOrCreateEntity(String name, String type, Map<String, Object> scope) {
-        String n = normalizeName(name);
-        float[] vec = embedder.embed(n, "search");
-        EntityRow hit = searchSimilarEntity(vec, scope, similarityThreshold(), 1);
-        if (hit != null) return hit.id;
-        return createEntity(n, type, vec, scope);
-    }
+        List<String> names = batch.names();
+        List<float[]> vectors = embedNames(names);
+        List<EntityRow> resolved = searchSimilarEntities(vectors, scope, similarityThreshold());
+        for (int i = 0; i < names.size(); i++) {
+            EntityRow row = resolved.get(i);
+            if (row != null) batch.matchExisting(names.get(i), row.id, row.name, row.entityType);
+        }
+        batch.createMissing(vectors, entityMetric(), similarityThreshold(), () -> parseLongOrZero(idGenerator.nextId()));
+        List<EntityBatch.Entity> created = batch.created();
 
-    private long createEntity(String name, String type, float[] embedding, Map<String, Object> scope) {
-        long id = parseLongOrZero(idGenerator.nextId());
         Instant now = Instant.now();
-        String embeddingJson = json.toJson(embedding == null ? new float[0] : embedding);
-
-        List<String> cols = new ArrayList<>();
-        cols.add("id");
-        cols.add("user_id");
-        cols.add("agent_id");
-        cols.add("run_id");
-        cols.add("name");
-        cols.add("entity_type");
-        cols.add("embedding_json");
-        cols.add("created_at");
-        cols.add("updated_at");
-        if (hasVectorColumn) cols.add("embedding");
-
-        StringBuilder sql = new StringBuilder("INSERT INTO ").append(entitiesTable()).append(" (");
-        for (int i = 0; i < cols.size(); i++) {
-            if (i > 0) sql.append(", ");
-            sql.append(cols.get(i));
-        }
-        sql.append(") VALUES (");
-        for (int i = 0; i < cols.size(); i++) {
-            if (i > 0) sql.append(", ");
-            sql.append("?");
-        }
-        sql.append(")");
+        List<Map<String, Object>> out = new ArrayList<>();
+        try (Connection c = openConnection()) {
+            c.setAutoCommit(false);
+            try {
+                insertEntities(c, created, scope, now);
 
-        try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql.toString())) {
-            int p = 1;
-            ps.setLong(p++, id);
-            ps.setString(p++, String.valueOf(scope.get("user_id")));
-            ps.setString(p++, asNullableString(scope.get("agent_id")));
-            ps.setString(p++, asNullableString(scope.get("run_id")));
-            ps.setString(p++, name);
-            ps.setString(p++, type);
-            ps.setString(p++, embeddingJson);
-            ps.setTimestamp(p++, java.sql.Timestamp.from(now));
-            ps.setTimestamp(p++, java.sql.Timestamp.from(now));
-            if (hasVectorColumn) ps.setString(p, embeddingJson);
-            ps.executeUpdate();
-            return id;
+                Set<Long> existingIds = new HashSet<>();
+                for (String name : names) {
+                    EntityBatch.Entity e = batch.get(name);
+                    if (!e.isCreated()) existingIds.add(e.id);
+                }
+                Set<String> edges = existingRelationKeys(c, existingIds, scope);
+
+                List<long[]> newEdges = new ArrayList<>();
+                List<String> newTypes = new ArrayList<>();
+                for (RelationTriple t : triples) {
+                    EntityBatch.Entity src = batch.get(normalizeName(t.source));
+                    EntityBatch.Entity dst = batch.get(normalizeName(t.destination));
+                    if (!edges.add(relationKey(src.id, dst.id, t.relationship))) continue;
+                    newEdges.add(new long[] {src.id, dst.id});
+                    newTypes.add(t.relationship);
+                    Map<String, Object> rel = new HashMap<>();
+                    rel.put("source", src.name);
+                    rel.put("relationship", t.relationship);
+                    rel.put("target", dst.name);
+                    out.add(rel);
+                }
+                insertRelationships(c, newEdges, newTypes, scope, now);
+                c.commit();
+                if (entityCache != null) {
+                    List<Long> ids = new ArrayList<>();
+                    List<String> entityNames = new ArrayList<>();
+                    List<String> entityTypes = new ArrayList<>();
+                    List<float[]> createdVectors = new ArrayList<>();
+                    for (EntityBatch.Entity e : created) {
+                        ids.add(e.id);
+                        entityNames.add(e.name);
+                        entityTypes.add(e.entityType);
+                        createdVectors.add(e.vector);
+                    }
+                    entityCache.append(String.valueOf(scope.get("user_id")), asNullableString(scope.get("agent_id")),
+                            asNullableString(scope.get("run_id")), ids, entityNames, entityTypes, createdVectors);
+                }
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (ApiException ex) {
+            throw ex;
         } catch (Exception ex) {
-            throw new ApiException("createEntity failed: " + ex.getMessage(), ex);
+            throw new ApiException("addEntitiesAndRelationships failed: " + ex.getMessage(), ex);
         }
+        return out;
     }
 
-    private Map<String, Object> createRelationshipIfNotExists(long srcId, long dstId, String relType, Map<String, Object> scope) {
-        long id = parseLongOrZero(idGenerator.nextId());
-        Instant now = Instant.now();
-
-        try (Connection c = openConnection()) {
-            String exists = "SELECT 1 FROM " + relationshipsTable() + " WHERE user_id=?"
-                    + (asNullableString(scope.get("agent_id")) != null ? " AND agent_id=?" : "")
-                    + (asNullableString(scope.get("run_id")) != null ? " AND run_id=?" : "")
-                    + " AND source_entity_id=? AND destination_entity_id=? AND relationship_type=? LIMIT 1";
-            try (PreparedStatement ps = c.prepareStatement(exists)) {
-                int p = 1;
-                ps.setString(p++, String.valueOf(scope.get("user_id")));
-                if (asNullableString(scope.get("agent_id")) != null) ps.setString(p++, asNullableString(scope.get("agent_id")));
-                if (asNullableString(scope.get("run_id")) != null) ps.setString(p++, asNullableString(scope.get("run_id")));
-                ps.setLong(p++, srcId);
-                ps.setLong(p++, dstId);
-                ps.setString(p, relType);
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) return Collections.emptyMap();
-                }
+    private List<float[]> embedNames(List<String> names) {
+        if (names.isEmpty()) return Collections.emptyList();
+        List<float[]> vectors = new ArrayList<>(names.size());
+        for (int from = 0; from < names.size(); from += EMBED_NAMES_PER_BATCH) {
+            List<String> chunk = names.subList(from, Math.min(names.size(), from + EMBED_NAMES_PER_BATCH));
+            List<float[]> part = embedder.embedBatch(chunk, "search");
+            if (part == null || part.size() != chunk.size()) {
+                throw new ApiException("embedBatch returned " + (part == null ? 0 : part.size())
+                        + " vectors for " + chunk.size() + " entity names");
             }
+            vectors.addAll(part);
+        }
+        return vectors;
+    }
 
-            String insert = "INSERT INTO " + relationshipsTable()
-                    + " (id, user_id, agent_id, run_id, source_entity_id, relationship_type, destination_entity_id, created_at, updated_at) "
-                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement ps = c.prepareStatement(insert)) {
+    private void insertEntities(Connection c, List<EntityBatch.Entity> rows, Map<String, Object> scope, Instant now) throws Exception {
+        if (rows.isEmpty()) return;
+        String sql = "INSERT INTO " + entitiesTable()
+                + " (id, user_id, agent_id, run_id, name, entity_type, embedding_json, created_at, updated_at"
+                + (hasVectorColumn ? ", embedding" : "") + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?"
+                + (hasVectorColumn ? ", ?" : "") + ")";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int i = 0; i < rows.size(); i++) {
+                EntityBatch.Entity row = rows.get(i);
+                String embeddingJson = json.toJson(row.vector);
                 int p = 1;
-                ps.setLong(p++, id);
+                ps.setLong(p++, row.id);
                 ps.setString(p++, String.valueOf(scope.get("user_id")));
                 ps.setString(p++, asNullableString(scope.get("agent_id")));
                 ps.setString(p++, asNullableString(scope.get("run_id")));
-                ps.setLong(p++, srcId);
-                ps.setString(p++, relType);
-                ps.setLong(p++, dstId);
+                ps.setString(p++, row.name);
+                ps.setString(p++, row.entityType);
+                ps.setString(p++, embeddingJson);
                 ps.setTimestamp(p++, java.sql.Timestamp.from(now));
-                ps.setTimestamp(p, java.sql.Timestamp.from(now));
-                ps.executeUpdate();
+                ps.setTimestamp(p++, java.sql.Timestamp.from(now));
+                if (hasVectorColumn) ps.setString(p, embeddingJson);
+                ps.addBatch();
             }
-
-            Map<String, Object> out = new HashMap<>();
-            out.put("source", getEntityNameById(c, srcId));
-            out.put("relationship", relType);
-            out.put("target", getEntityNameById(c, dstId));
-            return out;
-        } catch (Exception ex) {
-            throw new ApiException("createRelationship failed: " + ex.getMessage(), ex);
+            ps.executeBatch();
         }
     }
 
-    private String getEntityNameById(Connection c, long id) throws Exception {
-        try (PreparedStatement ps = c.prepareStatement("SELECT name FROM " + entitiesTable() + " WHERE id=? LIMIT 1")) {
-            ps.setLong(1, id);
+    /** Keys of the scope's relationships whose both ends are among {@code ids}. */
+    private Set<String> existingRelationKeys(Connection c, Set<Long> ids, Map<String, Object> scope) throws Exception {
+        Set<String> out = new HashSet<>();
+        if (ids.isEmpty()) return out;
+        String in = placeholders(ids.size());
+        String sql = "SELECT source_entity_id, destination_entity_id, relationship_type FROM " + relationshipsTable()
+                + " WHERE user_id=?"
+                + (asNullableString(scope.get("agent_id")) != null ? " AND agent_id=?" : "")
+                + (asNullableString(scope.get("run_id")) != null ? " AND run_id=?" : "")
+                + " AND source_entity_id IN (" + in + ") AND destination_entity_id IN (" + in + ")";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            int p = 1;
+            ps.setString(p++, String.valueOf(scope.get("user_id")));
+            if (asNullableString(scope.get("agent_id")) != null) ps.setString(p++, asNullableString(scope.get("agent_id")));
+            if (asNullableString(scope.get("run_id")) != null) ps.setString(p++, asNullableString(scope.get("run_id")));
+            for (Long id : ids) ps.setLong(p++, id);
+            for (Long id : ids) ps.setLong(p++, id);
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) return rs.getString(1);
+                while (rs.next()) out.add(relationKey(rs.getLong(1), rs.getLong(2), rs.getString(3)));
             }
         }
-        return null;
+        return out;
+    }
+
+    private static String relationKey(long srcId, long dstId, String relType) {
+        return srcId + ":" + dstId + ":" + relType;
+    }
+
+    private void insertRelationships(Connection c, List<long[]> edges, List<String> relTypes, Map<String, Object> scope, Instant now) throws Exception {
+        if (edges.isEmpty()) return;
+        String insert = "INSERT INTO " + relationshipsTable()
+                + " (id, user_id, agent_id, run_id, source_entity_id, relationship_type, destination_entity_id, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = c.prepareStatement(insert)) {
+            for (int i = 0; i < edges.size(); i++) {
+                int p = 1;
+                ps.setLong(p++, parseLongOrZero(idGenerator.nextId()));
+                ps.setString(p++, String.valueOf(scope.get("user_id")));
+                ps.setString(p++, asNullableString(scope.get("agent_id")));
+                ps.setString(p++, asNullableString(scope.get("run_id")));
+                ps.setLong(p++, edges.get(i)[0]);
+                ps.setString(p++, relTypes.get(i));
+                ps.setLong(p++, edges.get(i)[1]);
+                ps.setTimestamp(p++, java.sql.Timestamp.from(now));
+                ps.setTimestamp(p, java.sql.Timestamp.from(now));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
     }
 
     private List<Long> findEntityIdsByName(Connection c, String name, Map<String, Object> scope) throws Exception {
@@ -618,40 +698,87 @@ public class OceanBaseGraphStore implements GraphStore {
 
     // ---------------- ANN lookup ----------------
 
-    private EntityRow searchSimilarEntity(float[] queryEmbedding, Map<String, Object> scope, double threshold, int limit) {
-        if (queryEmbedding == null || queryEmbedding.length == 0) return null;
-        int k = Math.max(1, limit);
+    /**
+     * Resolve entity names to the ids of their nearest entities in the scope (names without a match within the
+     * similarity threshold are skipped).
+     */
+    private LongHashSet resolveEntityIds(Set<String> names, Map<String, Object> scope) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String n : names) {
+            if (n != null && !n.isBlank()) distinct.add(n);
+        }
+        LongHashSet ids = new LongHashSet(distinct.size());
+        if (distinct.isEmpty()) return ids;
+        for (EntityRow hit : searchSimilarEntities(embedNames(new ArrayList<>(distinct)), scope, similarityThreshold())) {
+            if (hit != null) ids.add(hit.id);
+        }
+        return ids;
+    }
+
+    /**
+     * Nearest scope entity for each query vector (null where none is within {@code threshold}). A scope held by
+     * the entity cache is matched in process. Otherwise, with a VECTOR column all queries go out as one
+     * {@code UNION ALL} statement per {@value #RESOLVE_QUERIES_PER_STATEMENT}; without it the scope's
+     * {@code embedding_json} rows are read once and matched in memory.
+     */
+    private List<EntityRow> searchSimilarEntities(List<float[]> queries, Map<String, Object> scope, double threshold) {
+        List<EntityRow> out = new ArrayList<>(Collections.nCopies(queries.size(), (EntityRow) null));
+        if (queries.isEmpty()) return out;
+
+        EntityVectorCache.Scope cached = cachedScope(scope);
+        if (cached != null) {
+            String metric = entityMetric();
+            for (int i = 0; i < queries.size(); i++) {
+                EntityVectorCache.Match m = cached.nearest(queries.get(i), metric, threshold);
+                if (m != null) out.set(i, new EntityRow(m.id, m.name, m.entityType, m.distance));
+            }
+            return out;
+        }
 
         if (hasVectorColumn) {
-            String metricType = config.getMetricType() == null ? OceanBaseConstants.DEFAULT_OCEANBASE_VECTOR_METRIC_TYPE : config.getMetricType().trim().toLowerCase(Locale.ROOT);
+            String metricType = metricType();
             String distFunc = "l2_distance";
             if ("cosine".equals(metricType)) distFunc = "cosine_distance";
             if ("inner_product".equals(metricType) || "ip".equals(metricType)) distFunc = "inner_product";
 
-            String sql = "SELECT id, name, entity_type, " + distFunc + "(embedding, ?) AS d FROM " + entitiesTable()
-                    + " WHERE user_id=?"
+            String branchWhere = " WHERE user_id=?"
                     + (asNullableString(scope.get("agent_id")) != null ? " AND agent_id=?" : "")
-                    + (asNullableString(scope.get("run_id")) != null ? " AND run_id=?" : "")
-                    + " ORDER BY d ASC LIMIT " + k;
-            try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
-                int p = 1;
-                ps.setString(p++, json.toJson(queryEmbedding));
-                ps.setString(p++, String.valueOf(scope.get("user_id")));
-                if (asNullableString(scope.get("agent_id")) != null) ps.setString(p++, asNullableString(scope.get("agent_id")));
-                if (asNullableString(scope.get("run_id")) != null) ps.setString(p++, asNullableString(scope.get("run_id")));
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        double d = rs.getDouble("d");
-                        if (threshold > 0 && d >= threshold) return null;
-                        return new EntityRow(rs.getLong("id"), rs.getString("name"), rs.getString("entity_type"), d);
+                    + (asNullableString(scope.get("run_id")) != null ? " AND run_id=?" : "");
+            try (Connection c = openConnection()) {
+                for (int from = 0; from < queries.size(); from += RESOLVE_QUERIES_PER_STATEMENT) {
+                    int to = Math.min(queries.size(), from + RESOLVE_QUERIES_PER_STATEMENT);
+                    StringBuilder sql = new StringBuilder();
+                    for (int i = from; i < to; i++) {
+                        if (i > from) sql.append(" UNION ALL ");
+                        sql.append("(SELECT ").append(i).append(" AS qi, id, name, entity_type, ")
+                                .append(distFunc).append("(embedding, ?) AS d FROM ").append(entitiesTable())
+                                .append(branchWhere).append(" ORDER BY d ASC LIMIT 1)");
+                    }
+                    try (PreparedStatement ps = c.prepareStatement(sql.toString())) {
+                        int p = 1;
+                        for (int i = from; i < to; i++) {
+                            ps.setString(p++, json.toJson(queries.get(i)));
+                            ps.setString(p++, String.valueOf(scope.get("user_id")));
+                            if (asNullableString(scope.get("agent_id")) != null) ps.setString(p++, asNullableString(scope.get("agent_id")));
+                            if (asNullableString(scope.get("run_id")) != null) ps.setString(p++, asNullableString(scope.get("run_id")));
+                        }
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                double d = rs.getDouble("d");
+                                if (threshold > 0 && d >= threshold) continue;
+                                out.set(rs.getInt("qi"), new EntityRow(rs.getLong("id"), rs.getString("name"), rs.getString("entity_type"), d));
+                            }
+                        }
                     }
                 }
+                return out;
             } catch (Exception ex) {
                 LOG.log(Level.WARNING, "Graph SQL distance failed; fallback to brute-force. cause=" + ex.getMessage(), ex);
+                Collections.fill(out, null);
             }
         }
 
-        // Brute-force fallback via embedding_json
+        // Brute-force fallback via embedding_json: one read of the scope for all queries
         try (Connection c = openConnection()) {
             String sql = "SELECT id, name, entity_type, embedding_json FROM " + entitiesTable()
                     + " WHERE user_id=?"
@@ -663,98 +790,195 @@ public class OceanBaseGraphStore implements GraphStore {
                 ps.setString(p++, String.valueOf(scope.get("user_id")));
                 if (asNullableString(scope.get("agent_id")) != null) ps.setString(p++, asNullableString(scope.get("agent_id")));
                 if (asNullableString(scope.get("run_id")) != null) ps.setString(p++, asNullableString(scope.get("run_id")));
-                EntityRow best = null;
                 try (ResultSet rs = ps.executeQuery()) {
                     while (rs.next()) {
                         float[] vec = json.fromJson(rs.getString("embedding_json"), float[].class);
                         if (vec == null || vec.length == 0) continue;
-                        double d = l2Distance(queryEmbedding, vec);
-                        if (threshold > 0 && d >= threshold) continue;
-                        if (best == null || d < best.distance) {
-                            best = new EntityRow(rs.getLong("id"), rs.getString("name"), rs.getString("entity_type"), d);
+                        for (int i = 0; i < queries.size(); i++) {
+                            float[] q = queries.get(i);
+                            if (q == null || q.length == 0) continue;
+                            double d = VectorMath.l2Distance(q, vec);
+                            if (threshold > 0 && d >= threshold) continue;
+                            EntityRow best = out.get(i);
+                            if (best == null || d < best.distance) {
+                                out.set(i, new EntityRow(rs.getLong("id"), rs.getString("name"), rs.getString("entity_type"), d));
+                            }
                         }
                     }
                 }
-                return best;
             }
         } catch (Exception ex) {
             LOG.log(Level.WARNING, "Graph brute-force entity search failed: " + ex.getMessage(), ex);
-            return null;
         }
+        return out;
     }
 
-    private static double l2Distance(float[] a, float[] b) {
-        if (a == null || b == null) return Double.POSITIVE_INFINITY;
-        int n = Math.min(a.length, b.length);
-        double s = 0.0;
-        for (int i = 0; i < n; i++) {
-            double d = (double) a[i] - (double) b[i];
-            s += d * d;
+    /**
+     * Distance used to match entities in process, the same as the SQL path: the configured metric with a VECTOR
+     * column, l2 on {@code embedding_json}.
+     */
+    private String entityMetric() {
+        return hasVectorColumn ? metricType() : "l2";
+    }
+
+    private String metricType() {
+        return config.getMetricType() == null ? OceanBaseConstants.DEFAULT_OCEANBASE_VECTOR_METRIC_TYPE : config.getMetricType().trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The scope's entities from the entity cache, loading the whole scope on a miss; null when the cache is
+     * disabled or the load fails.
+     */
+    private EntityVectorCache.Scope cachedScope(Map<String, Object> scope) {
+        if (entityCache == null) return null;
+        String userId = String.valueOf(scope.get("user_id"));
+        String agentId = asNullableString(scope.get("agent_id"));
+        String runId = asNullableString(scope.get("run_id"));
+        EntityVectorCache.Scope hit = entityCache.get(userId, agentId, runId);
+        if (hit != null) return hit;
+        if (entityCache.isOversized(userId, agentId, runId)) return null;
+
+        long version = entityCache.version();
+        String sql = "SELECT id, name, entity_type, embedding_json FROM " + entitiesTable()
+                + " WHERE user_id=?"
+                + (agentId != null ? " AND agent_id=?" : "")
+                + (runId != null ? " AND run_id=?" : "");
+        List<Long> ids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<String> types = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+        try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+            int p = 1;
+            ps.setString(p++, userId);
+            if (agentId != null) ps.setString(p++, agentId);
+            if (runId != null) ps.setString(p++, runId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong("id"));
+                    names.add(rs.getString("name"));
+                    types.add(rs.getString("entity_type"));
+                    vectors.add(json.fromJson(rs.getString("embedding_json"), float[].class));
+                }
+            }
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, "Graph entity cache load failed: " + ex.getMessage(), ex);
+            return null;
         }
-        return Math.sqrt(s);
+        return entityCache.put(userId, agentId, runId, version, ids, names, types, vectors);
     }
 
     // ---------------- neighborhood + BM25 + multi-hop ----------------
 
     private List<Map<String, Object>> searchGraphNeighborhood(Set<String> seedNames, Map<String, Object> scope, int limit) {
         if (seedNames == null || seedNames.isEmpty() || embedder == null) return Collections.emptyList();
-        Set<Long> ids = new HashSet<>();
-        for (String n : seedNames) {
-            if (n == null || n.isBlank()) continue;
-            float[] vec = embedder.embed(n, "search");
-            EntityRow hit = searchSimilarEntity(vec, scope, similarityThreshold(), 1);
-            if (hit != null) ids.add(hit.id);
-        }
+        LongHashSet ids = resolveEntityIds(seedNames, scope);
         if (ids.isEmpty()) return Collections.emptyList();
-        return fetchRelationsByEntityIds(ids, scope, limit);
+        return fetchRelationsByEntityIds(ids.toArray(), scope, limit);
     }
 
+    /**
+     * Relationships reachable from the seed entities within {@code maxHops} (closest hops first, at most
+     * {@code limit}). Runs as one {@code WITH RECURSIVE} statement when enabled and supported, otherwise one query
+     * per hop.
+     */
     private List<Map<String, Object>> multiHopNeighborhood(Set<String> seedNames, Map<String, Object> scope, int maxHops, int limit) {
         if (seedNames == null || seedNames.isEmpty() || embedder == null) return Collections.emptyList();
         int hops = Math.max(1, maxHops);
         int cap = Math.max(1, limit);
 
-        Set<Long> frontier = new HashSet<>();
-        Set<Long> visitedNodes = new HashSet<>();
-        for (String s : seedNames) {
-            if (s == null || s.isBlank()) continue;
-            float[] vec = embedder.embed(s, "search");
-            EntityRow hit = searchSimilarEntity(vec, scope, similarityThreshold(), 1);
-            if (hit != null) {
-                frontier.add(hit.id);
-                visitedNodes.add(hit.id);
-            }
+        LongHashSet seeds = resolveEntityIds(seedNames, scope);
+        if (seeds.isEmpty()) return Collections.emptyList();
+
+        if (config != null && config.isRecursiveTraversal() && !recursiveTraversalUnsupported) {
+            List<Map<String, Object>> edges = fetchRelationsRecursive(seeds.toArray(), scope, hops, cap);
+            if (edges != null) return edges;
         }
-        if (frontier.isEmpty()) return Collections.emptyList();
 
+        LongHashSet visitedNodes = new LongHashSet(cap);
+        long[] frontier = seeds.toArray();
+        for (long id : frontier) visitedNodes.add(id);
         List<Map<String, Object>> edges = new ArrayList<>();
-        Set<String> dedup = new HashSet<>();
+        LongHashSet seenEdges = new LongHashSet(cap);
 
-        for (int hop = 0; hop < hops && !frontier.isEmpty() && edges.size() < cap; hop++) {
+        for (int hop = 0; hop < hops && frontier.length > 0 && edges.size() < cap; hop++) {
             List<Map<String, Object>> batch = fetchRelationsByEntityIds(frontier, scope, cap - edges.size());
-            Set<Long> next = new HashSet<>();
+            LongHashSet next = new LongHashSet();
             for (Map<String, Object> e : batch) {
                 if (e == null) continue;
-                String key = String.valueOf(e.get("source")) + "|" + String.valueOf(e.get("relationship")) + "|" + String.valueOf(e.get("destination"));
-                if (dedup.add(key)) edges.add(e);
+                if (seenEdges.add((Long) e.get("_rel_id"))) edges.add(e);
                 // Prefer id-based traversal for parity (avoid name->id roundtrip).
-                Object sid = e.get("_src_id");
-                Object did = e.get("_dst_id");
-                if (sid instanceof Number) next.add(((Number) sid).longValue());
-                if (did instanceof Number) next.add(((Number) did).longValue());
+                long sid = (Long) e.get("_src_id");
+                long did = (Long) e.get("_dst_id");
+                if (visitedNodes.add(sid)) next.add(sid);
+                if (visitedNodes.add(did)) next.add(did);
             }
-            next.removeAll(visitedNodes);
-            visitedNodes.addAll(next);
-            frontier = next;
+            frontier = next.toArray();
         }
         return edges;
     }
 
-    private List<Map<String, Object>> fetchRelationsByEntityIds(Set<Long> ids, Map<String, Object> scope, int limit) {
-        if (ids == null || ids.isEmpty()) return Collections.emptyList();
+    /**
+     * Bounded BFS in a single statement: the recursive CTE collects entities within {@code hops - 1} steps of the
+     * seeds (with their smallest depth), then every in-scope relationship touching one of them is returned, ordered
+     * by that depth and recency. Returns null (and disables the mode for this store) if the server rejects the query.
+     */
+    private List<Map<String, Object>> fetchRelationsRecursive(long[] seeds, Map<String, Object> scope, int hops, int limit) {
+        String agentId = asNullableString(scope.get("agent_id"));
+        String runId = asNullableString(scope.get("run_id"));
+        String scopeWhere = "r.user_id=?"
+                + (agentId != null ? " AND r.agent_id=?" : "")
+                + (runId != null ? " AND r.run_id=?" : "");
+        String sql = "WITH RECURSIVE reach (entity_id, depth) AS ("
+                + "SELECT id, 0 FROM " + entitiesTable() + " WHERE id IN (" + placeholders(seeds.length) + ")"
+                + " UNION "
+                + "SELECT CASE WHEN r.source_entity_id = reach.entity_id THEN r.destination_entity_id ELSE r.source_entity_id END, reach.depth + 1"
+                + " FROM reach JOIN " + relationshipsTable() + " r"
+                + " ON (r.source_entity_id = reach.entity_id OR r.destination_entity_id = reach.entity_id)"
+                + " WHERE reach.depth < ? AND " + scopeWhere
+                + "), nodes AS (SELECT entity_id, MIN(depth) AS depth FROM reach GROUP BY entity_id) "
+                + "SELECT r.id AS rel_id, r.source_entity_id AS src_id, r.destination_entity_id AS dst_id, "
+                + "se.name AS source, r.relationship_type AS relationship, de.name AS destination, MIN(n.depth) AS hop "
+                + "FROM " + relationshipsTable() + " r "
+                + "JOIN nodes n ON (r.source_entity_id = n.entity_id OR r.destination_entity_id = n.entity_id) "
+                + "JOIN " + entitiesTable() + " se ON se.id = r.source_entity_id "
+                + "JOIN " + entitiesTable() + " de ON de.id = r.destination_entity_id "
+                + "WHERE " + scopeWhere
+                + " GROUP BY r.id, r.source_entity_id, r.destination_entity_id, se.name, r.relationship_type, de.name, r.updated_at"
+                + " ORDER BY hop ASC, r.updated_at DESC LIMIT " + Math.max(1, limit);
+
+        List<Map<String, Object>> out = new ArrayList<>();
+        try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+            int p = 1;
+            for (long id : seeds) ps.setLong(p++, id);
+            ps.setInt(p++, hops - 1);
+            for (int i = 0; i < 2; i++) {
+                ps.setString(p++, String.valueOf(scope.get("user_id")));
+                if (agentId != null) ps.setString(p++, agentId);
+                if (runId != null) ps.setString(p++, runId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(relationRow(rs));
+            }
+        } catch (Exception ex) {
+            // stay on per-hop queries only when the server rejects the CTE; a transient failure retries next call
+            if (SqlErrors.isUnsupportedStatement(ex)) {
+                recursiveTraversalUnsupported = true;
+                LOG.log(Level.WARNING, "Recursive graph traversal is not supported; using per-hop queries from now on."
+                        + " cause=" + ex.getMessage(), ex);
+            } else {
+                LOG.log(Level.WARNING, "Recursive graph traversal failed; falling back to per-hop queries for this"
+                        + " search. cause=" + ex.getMessage(), ex);
+            }
+            return null;
+        }
+        return out;
+    }
+
+    private List<Map<String, Object>> fetchRelationsByEntityIds(long[] ids, Map<String, Object> scope, int limit) {
+        if (ids == null || ids.length == 0) return Collections.emptyList();
         int top = Math.max(1, limit);
-        String in = placeholders(ids.size());
-        String sql = "SELECT r.source_entity_id AS src_id, r.destination_entity_id AS dst_id, "
+        String in = placeholders(ids.length);
+        String sql = "SELECT r.id AS rel_id, r.source_entity_id AS src_id, r.destination_entity_id AS dst_id, "
                 + "se.name AS source, r.relationship_type AS relationship, de.name AS destination "
                 + "FROM " + relationshipsTable() + " r "
                 + "JOIN " + entitiesTable() + " se ON se.id = r.source_entity_id "
@@ -771,18 +995,10 @@ public class OceanBaseGraphStore implements GraphStore {
             ps.setString(p++, String.valueOf(scope.get("user_id")));
             if (asNullableString(scope.get("agent_id")) != null) ps.setString(p++, asNullableString(scope.get("agent_id")));
             if (asNullableString(scope.get("run_id")) != null) ps.setString(p++, asNullableString(scope.get("run_id")));
-            for (Long id : ids) ps.setLong(p++, id);
-            for (Long id : ids) ps.setLong(p++, id);
+            for (long id : ids) ps.setLong(p++, id);
+            for (long id : ids) ps.setLong(p++, id);
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Map<String, Object> m = new HashMap<>();
-                    m.put("_src_id", rs.getLong("src_id"));
-                    m.put("_dst_id", rs.getLong("dst_id"));
-                    m.put("source", rs.getString("source"));
-                    m.put("relationship", rs.getString("relationship"));
-                    m.put("destination", rs.getString("destination"));
-                    out.add(m);
-                }
+                while (rs.next()) out.add(relationRow(rs));
             }
         } catch (Exception ex) {
             LOG.log(Level.WARNING, "fetchRelationsByEntityIds failed: " + ex.getMessage(), ex);
@@ -790,6 +1006,17 @@ public class OceanBaseGraphStore implements GraphStore {
         return out;
     }
 
+    private static Map<String, Object> relationRow(ResultSet rs) throws java.sql.SQLException {
+        Map<String, Object> m = new HashMap<>();
+        m.put("_rel_id", rs.getLong("rel_id"));
+        m.put("_src_id", rs.getLong("src_id"));
+        m.put("_dst_id", rs.getLong("dst_id"));
+        m.put("source", rs.getString("source"));
+        m.put("relationship", rs.getString("relationship"));
+        m.put("destination", rs.getString("destination"));
+        return m;
+    }
+
     private List<Map<String, Object>> bm25Rerank(String query, List<Map<String, Object>> candidates, int topN) {
         if (candidates == null || candidates.isEmpty()) return Collections.emptyList();
         int top = Math.max(1, topN);
@@ -799,17 +1026,9 @@ public class OceanBaseGraphStore implements GraphStore {
             String combined = String.valueOf(r.get("source")) + " " + String.valueOf(r.get("relationship")) + " " + String.valueOf(r.get("destination"));
             corpus.add(TextTokenizer.tokenize(combined));
         }
-        Bm25 bm25 = new Bm25(corpus);
-        double[] scores = bm25.getScores(TextTokenizer.tokenize(query == null ? "" : query));
-
-        List<Integer> idx = new ArrayList<>();
-        for (int i = 0; i < candidates.size(); i++) idx.add(i);
-        idx.sort((a, b) -> Double.compare(scores[b], scores[a]));
-
         List<Map<String, Object>> out = new ArrayList<>();
-        for (int i : idx) {
+        for (int i : Bm25Index.rank(corpus, TextTokenizer.tokenize(query == null ? "" : query), top)) {
             out.add(candidates.get(i));
-            if (out.size() >= top) break;
         }
         return out;
     }
@@ -1077,7 +1296,46 @@ public class OceanBaseGraphStore implements GraphStore {
             throw new ApiException("OceanBase user is required (graph_store.user)");
         }
         if (pass == null) pass = "";
-        return DriverManager.getConnection(jdbcUrl(), user, pass);
+        return dataSource(user, pass).getConnection();
+    }
+
+    private PooledDataSource dataSource(String user, String pass) {
+        PooledDataSource ds = dataSource;
+        if (ds != null) return ds;
+        synchronized (this) {
+            if (dataSource == null) {
+                java.util.Properties props = new java.util.Properties();
+                props.setProperty("user", user);
+                props.setProperty("password", pass);
+                int waitSeconds = config.getPoolTimeoutSeconds() <= 0 ? 30 : config.getPoolTimeoutSeconds();
+                dataSource = new PooledDataSource(jdbcUrl(), props, config.getPoolSize(), config.getMaxOverflow(),
+                        config.getPoolIdleTimeoutSeconds() * 1000L, waitSeconds * 1000L);
+            }
+            return dataSource;
+        }
+    }
+
+    /**
+     * Connection pool metrics (active/idle connections, wait time, timeouts); null before first use.
+     */
+    public PooledDataSource.PoolStats getPoolStats() {
+        PooledDataSource ds = dataSource;
+        return ds == null ? null : ds.getStats();
+    }
+
+    @Override
+    public void close() {
+        PooledDataSource ds = dataSource;
+        if (ds != null) {
+            ds.close();
+        }
+        if (closeEmbedder && embedder instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) embedder).close();
+            } catch (Exception ignored) {
+                // best-effort
+            }
+        }
     }
 
     private static Map<String, Object> normalizeScope(Map<String, Object> filters) {
@@ -1128,9 +1386,7 @@ public class OceanBaseGraphStore implements GraphStore {
 
     private static final class EntityRow {
         final long id;
-        @SuppressWarnings("unused")
         final String name;
-        @SuppressWarnings("unused")
         final String entityType;
         final double distance;
         EntityRow(long id, String name, String entityType, double distance) {
@@ -5,17 +5,19 @@ import com.oceanbase.powermem.sdk.json.JsonCodec;
 import com.oceanbase.powermem.sdk.model.MemoryRecord;
 import com.oceanbase.powermem.sdk.storage.base.OutputData;
 import com.oceanbase.powermem.sdk.storage.base.VectorStore;
+import com.oceanbase.powermem.sdk.util.PowermemUtils;
 import com.oceanbase.powermem.sdk.util.SnowflakeIdGenerator;
+import com.oceanbase.powermem.sdk.util.SqlErrors;
 import com.oceanbase.powermem.sdk.util.VectorMath;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -30,6 +32,14 @@ import java.util.logging.Logger;
 public class OceanBaseVectorStore implements VectorStore {
     private static final String DEFAULT_TABLE = "memories";
     private static final String TABLE_HISTORY = "history";
+    /** Max ids per {@code IN (...)} lookup. */
+    private static final int ID_LOOKUP_CHUNK = 500;
+    /** Max cached filter-scope row counts used for ANN planning. */
+    private static final int SCOPE_COUNT_CACHE_MAX = 4096;
+    /** Width of a promoted metadata column; longer values are stored truncated. */
+    private static final int PROMOTED_COLUMN_CHARS = 255;
+    /** MySQL/OceanBase limit on identifier length (index names included). */
+    private static final int MAX_IDENTIFIER_CHARS = 64;
     private static final Logger LOG = Logger.getLogger(OceanBaseVectorStore.class.getName());
     private static final java.util.Set<String> SUPPORTED_FULLTEXT_PARSERS = java.util.Set.of(
             "ik", "ngram", "ngram2", "beng", "space"
@@ -38,6 +48,9 @@ public class OceanBaseVectorStore implements VectorStore {
     private final com.oceanbase.powermem.sdk.config.VectorStoreConfig config;
     private final JsonCodec json = new JacksonJsonCodec();
     private final SnowflakeIdGenerator historyIdGenerator = SnowflakeIdGenerator.defaultGenerator();
+    private volatile com.oceanbase.powermem.sdk.storage.pool.PooledDataSource dataSource;
+    private final com.oceanbase.powermem.sdk.storage.base.AccessTracker accessTracker;
+    private final com.oceanbase.powermem.sdk.storage.pool.QueryExecutor queryExecutor;
 
     private volatile boolean initialized;
     private volatile boolean hasVectorColumn;
@@ -54,6 +67,12 @@ public class OceanBaseVectorStore implements VectorStore {
     private volatile boolean hasFulltextColumn;
     private volatile boolean fulltextIndexChecked;
     private volatile boolean fulltextIndexReady;
+    // Promoted metadata key -> generated column holding its unquoted value (only keys whose column exists)
+    private volatile Map<String, String> promotedColumns = Collections.emptyMap();
+    // ANN planning: cached filter row counts; set once APPROXIMATE ordering turns out to be unsupported
+    private final java.util.concurrent.ConcurrentHashMap<String, CachedCount> scopeCounts =
+            new java.util.concurrent.ConcurrentHashMap<>();
+    private volatile boolean approximateUnsupported;
     private String tableName;
 
     public OceanBaseVectorStore() {
@@ -65,6 +84,10 @@ public class OceanBaseVectorStore implements VectorStore {
         this.tableName = (this.config.getCollectionName() == null || this.config.getCollectionName().isBlank())
                 ? DEFAULT_TABLE
                 : this.config.getCollectionName();
+        this.accessTracker = new com.oceanbase.powermem.sdk.storage.base.AccessTracker(this::flushLastAccessedAt,
+                this.config.getAccessFlushMaxPending(), this.config.getAccessFlushIntervalMillis());
+        this.queryExecutor = new com.oceanbase.powermem.sdk.storage.pool.QueryExecutor("powermem-ob-query",
+                this.config.getQueryThreads(), this.config.getQueryQueueCapacity());
         ensureInitialized();
     }
 
@@ -79,6 +102,7 @@ public class OceanBaseVectorStore implements VectorStore {
         sb.append("&useSSL=false");
         sb.append("&allowPublicKeyRetrieval=true");
         sb.append("&serverTimezone=UTC");
+        sb.append("&rewriteBatchedStatements=true");
         sb.append("&connectTimeout=").append(Math.max(1, config.getTimeoutSeconds()) * 1000);
         sb.append("&socketTimeout=").append(Math.max(1, config.getTimeoutSeconds()) * 1000);
         return sb.toString();
@@ -93,7 +117,54 @@ public class OceanBaseVectorStore implements VectorStore {
         if (pass == null) {
             pass = "";
         }
-        return DriverManager.getConnection(jdbcUrl(), user, pass);
+        return dataSource(user, pass).getConnection();
+    }
+
+    private com.oceanbase.powermem.sdk.storage.pool.PooledDataSource dataSource(String user, String pass) {
+        com.oceanbase.powermem.sdk.storage.pool.PooledDataSource ds = dataSource;
+        if (ds != null) {
+            return ds;
+        }
+        synchronized (this) {
+            if (dataSource == null) {
+                java.util.Properties props = new java.util.Properties();
+                props.setProperty("user", user);
+                props.setProperty("password", pass);
+                int waitSeconds = config.getPoolTimeoutSeconds() <= 0 ? 30 : config.getPoolTimeoutSeconds();
+                dataSource = new com.oceanbase.powermem.sdk.storage.pool.PooledDataSource(jdbcUrl(), props,
+                        config.getPoolSize(), config.getMaxOverflow(),
+                        config.getPoolIdleTimeoutSeconds() * 1000L, waitSeconds * 1000L);
+            }
+            return dataSource;
+        }
+    }
+
+    /**
+     * Connection pool metrics (active/idle connections, wait time, timeouts); null before first use.
+     */
+    public com.oceanbase.powermem.sdk.storage.pool.PooledDataSource.PoolStats getPoolStats() {
+        com.oceanbase.powermem.sdk.storage.pool.PooledDataSource ds = dataSource;
+        return ds == null ? null : ds.getStats();
+    }
+
+    /**
+     * Metrics of the executor running hybrid search branches (queue waits, caller-runs, missed deadlines).
+     */
+    public com.oceanbase.powermem.sdk.storage.pool.QueryExecutor.QueryExecutorStats getQueryExecutorStats() {
+        return queryExecutor.getStats();
+    }
+
+    /**
+     * Drain pending {@code last_accessed_at} touches and close pooled connections.
+     */
+    @Override
+    public void close() {
+        accessTracker.close();
+        queryExecutor.close();
+        com.oceanbase.powermem.sdk.storage.pool.PooledDataSource ds = dataSource;
+        if (ds != null) {
+            ds.close();
+        }
     }
 
     private synchronized void ensureInitialized() {
@@ -148,6 +219,7 @@ public class OceanBaseVectorStore implements VectorStore {
             hasCreatedAtColumn = ensureColumn(c, tableName, "created_at", "VARCHAR(128)");
             hasUpdatedAtColumn = ensureColumn(c, tableName, "updated_at", "VARCHAR(128)");
             hasFulltextColumn = ensureColumn(c, tableName, "fulltext_content", "LONGTEXT");
+            promotedColumns = ensurePromotedColumns(c);
 
             // Try to enable native VECTOR column for ANN search.
             // OceanBase version requirement: 4.3.5.1+ (vector index + fulltext in same table).
@@ -244,43 +316,169 @@ public class OceanBaseVectorStore implements VectorStore {
 
         Instant now = Instant.now();
 
-        // 1) vector candidates (no last_accessed update yet)
-        CompletableFuture<java.util.List<OutputData>> vectorFuture =
-                CompletableFuture.supplyAsync(() -> vectorSearchInternal(queryEmbedding, candidateLimit, userId, agentId, runId, filters, false))
-                        .exceptionally(ex -> {
-                            LOG.log(Level.WARNING, "OceanBase hybrid: vector branch failed; continuing with FTS only. cause=" + ex.getMessage(), ex);
-                            return java.util.Collections.emptyList();
-                        });
-
-        // 2) full-text candidates
-        CompletableFuture<java.util.List<OutputData>> ftsFuture =
-                CompletableFuture.supplyAsync(() -> fulltextSearchInternal(q, candidateLimit, userId, agentId, runId, filters))
-                        .exceptionally(ex -> {
-                            LOG.log(Level.WARNING, "OceanBase hybrid: FTS branch failed; continuing with vector only. cause=" + ex.getMessage(), ex);
-                            return java.util.Collections.emptyList();
-                        });
-
-        java.util.List<OutputData> vectorResults = vectorFuture.join();
-        java.util.List<OutputData> ftsResults = ftsFuture.join();
+        // 1) vector and 2) full-text candidates, run in parallel on the store's query executor
+        // (no last_accessed update yet). Each branch has its own deadline, measured from the start of the search;
+        // a branch that fails or misses it is dropped and the other branch's results are used alone.
+        // The deadline also goes to the task: a branch still queued at it is skipped, and its statements time out
+        // with it, so a stalled branch does not hold a worker after the search has moved on.
+        long startNanos = System.nanoTime();
+        long vectorDeadline = deadlineNanos(startNanos, config.getHybridVectorTimeoutMillis());
+        long ftsDeadline = deadlineNanos(startNanos, config.getHybridFtsTimeoutMillis());
+        CompletableFuture<java.util.List<OutputData>> vectorFuture = queryExecutor.submit(
+                () -> vectorSearchInternal(queryEmbedding, candidateLimit, userId, agentId, runId, filters, false),
+                vectorDeadline);
+        CompletableFuture<java.util.List<OutputData>> ftsFuture = queryExecutor.submit(
+                () -> fulltextSearchInternal(q, candidateLimit, userId, agentId, runId, filters), ftsDeadline);
+
+        java.util.List<OutputData> vectorResults = awaitBranch("vector", vectorFuture, vectorDeadline, "FTS only");
+        java.util.List<OutputData> ftsResults = awaitBranch("FTS", ftsFuture, ftsDeadline, "vector only");
 
         // 3) fuse
         String method = config.getFusionMethod() == null ? "rrf" : config.getFusionMethod().trim().toLowerCase();
         java.util.List<OutputData> fused;
         if ("weighted".equals(method)) {
-            fused = weightedFusion(vectorResults, ftsResults, candidateLimit, config.getVectorWeight(), config.getFtsWeight());
+            fused = com.oceanbase.powermem.sdk.storage.base.HybridFusion.weighted(vectorResults, ftsResults, candidateLimit,
+                    config.getVectorWeight(), config.getFtsWeight());
         } else {
-            fused = rrfFusion(vectorResults, ftsResults, candidateLimit, config.getRrfK(), config.getVectorWeight(), config.getFtsWeight());
+            fused = com.oceanbase.powermem.sdk.storage.base.HybridFusion.rrf(vectorResults, ftsResults, candidateLimit,
+                    config.getRrfK(), config.getVectorWeight(), config.getFtsWeight());
         }
 
-        // 4) update last_accessed for final results
+        // 4) update last_accessed for final results (written behind in batches)
+        List<String> touched = new ArrayList<>(fused.size());
         for (OutputData d : fused) {
             if (d == null || d.getRecord() == null) continue;
             d.getRecord().setLastAccessedAt(now);
-            updateLastAccessedAt(d.getRecord().getId(), now);
+            touched.add(d.getRecord().getId());
         }
+        accessTracker.touch(touched, now);
         return fused;
     }
 
+    /**
+     * Materialize each promoted metadata key as a STORED generated column with a secondary index, so filters on it
+     * can use the index instead of evaluating {@code json_extract} per row. Adding a stored generated column
+     * computes it for existing rows, and the database keeps it current on every write. The column holds the first
+     * {@value #PROMOTED_COLUMN_CHARS} characters, so a longer value never fails the write; filters whose operands
+     * could be affected by the cut use {@code json_extract} instead (see {@link #fitsPromotedColumn}). Best-effort
+     * per key: a key whose column cannot be created keeps filtering through {@code json_extract}; a column whose
+     * index cannot be created is still used, with a warning.
+     */
+    private Map<String, String> ensurePromotedColumns(Connection c) {
+        Map<String, String> out = new LinkedHashMap<>();
+        for (Map.Entry<String, String> e : promotedColumnNames(config.getPromotedMetadataKeys()).entrySet()) {
+            String col = e.getValue();
+            String ddl = "VARCHAR(" + PROMOTED_COLUMN_CHARS + ") GENERATED ALWAYS AS (LEFT(JSON_UNQUOTE(JSON_EXTRACT("
+                    + "payload, '$.metadata." + e.getKey() + "')), " + PROMOTED_COLUMN_CHARS + ")) STORED";
+            if (!ensureColumn(c, tableName, col, ddl)) {
+                LOG.warning("OceanBase: could not add generated column " + col + " for metadata." + e.getKey()
+                        + "; filters on it use json_extract");
+                continue;
+            }
+            if (!indexExists(c, tableName, col)) {
+                String index = promotedIndexName(tableName, col);
+                Exception failure = null;
+                try (PreparedStatement ps = c.prepareStatement(
+                        "CREATE INDEX " + index + " ON " + tableName + " (" + col + ")")) {
+                    ps.execute();
+                } catch (Exception ex) {
+                    failure = ex;
+                }
+                // a concurrent init may have created it under the same name
+                if (failure != null && !indexExists(c, tableName, col)) {
+                    LOG.log(Level.WARNING, "OceanBase: could not create index " + index + " on " + col
+                            + "; filters on metadata." + e.getKey() + " scan the column. cause="
+                            + failure.getMessage(), failure);
+                }
+            }
+            out.put(e.getKey(), col);
+        }
+        return out;
+    }
+
+    /**
+     * Promoted metadata key -> column name ({@code meta_<key>}). Keys must be lower-case ASCII letters, digits and
+     * '_' so they are safe both as JSON path members and inside an identifier, and so the (case-insensitive) column
+     * name maps back to exactly one JSON path; others are ignored.
+     */
+    private static Map<String, String> promotedColumnNames(List<String> keys) {
+        Map<String, String> out = new LinkedHashMap<>();
+        if (keys == null) {
+            return out;
+        }
+        java.util.Set<String> columns = new java.util.HashSet<>();
+        for (String raw : keys) {
+            String k = raw == null ? "" : raw.trim();
+            if (k.isEmpty() || k.length() > 48
+                    || !k.chars().allMatch(ch -> ch == '_' || (ch >= 'a' && ch <= 'z') || (ch >= '0' && ch <= '9'))) {
+                if (!k.isEmpty()) {
+                    LOG.warning("OceanBase: metadata key '" + k + "' cannot be promoted (use lower-case letters, digits"
+                            + " and '_'); filters on it use json_extract");
+                }
+                continue;
+            }
+            String col = "meta_" + k;
+            if (columns.add(col)) {
+                out.put(k, col);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * {@code idx_<table>_<col>}, or when that exceeds the 64-character identifier limit, its first 55 characters
+     * plus {@code _} and 8 hex digits of its MD5, so distinct long names stay distinct.
+     */
+    private static String promotedIndexName(String table, String col) {
+        String name = "idx_" + table + "_" + col;
+        if (name.length() <= MAX_IDENTIFIER_CHARS) {
+            return name;
+        }
+        return name.substring(0, MAX_IDENTIFIER_CHARS - 9) + "_" + PowermemUtils.md5Hex(name).substring(0, 8);
+    }
+
+    /** True if some index of {@code table} starts with {@code col}, whatever its name. */
+    private static boolean indexExists(Connection c, String table, String col) {
+        try (PreparedStatement ps = c.prepareStatement(
+                "SELECT 1 FROM INFORMATION_SCHEMA.STATISTICS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME=? "
+                        + "AND COLUMN_NAME=? AND SEQ_IN_INDEX=1")) {
+            ps.setString(1, table);
+            ps.setString(2, col);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        } catch (Exception ignored) {
+            return false;
+        }
+    }
+
+    private static long deadlineNanos(long startNanos, int timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            return 0L;
+        }
+        long deadline = startNanos + java.util.concurrent.TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        // 0 means "no deadline" to QueryExecutor.await
+        return deadline == 0L ? 1L : deadline;
+    }
+
+    private java.util.List<OutputData> awaitBranch(String branch,
+                                                   CompletableFuture<java.util.List<OutputData>> future,
+                                                   long deadlineNanos,
+                                                   String continuingWith) {
+        try {
+            java.util.List<OutputData> out = queryExecutor.await(future, deadlineNanos);
+            return out == null ? java.util.Collections.emptyList() : out;
+        } catch (java.util.concurrent.TimeoutException ex) {
+            LOG.warning("OceanBase hybrid: " + branch + " branch missed its deadline; continuing with " + continuingWith
+                    + ". executor=" + queryExecutor.getStats());
+        } catch (Exception ex) {
+            Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+            LOG.log(Level.WARNING, "OceanBase hybrid: " + branch + " branch failed; continuing with " + continuingWith
+                    + ". cause=" + cause.getMessage(), cause);
+        }
+        return java.util.Collections.emptyList();
+    }
+
     private static boolean ensureColumn(Connection c, String table, String col, String ddlType) {
         if (c == null || table == null || table.isBlank() || col == null || col.isBlank() || ddlType == null || ddlType.isBlank()) {
             return false;
@@ -342,14 +540,41 @@ public class OceanBaseVectorStore implements VectorStore {
 
     @Override
     public void upsert(com.oceanbase.powermem.sdk.model.MemoryRecord record, float[] embedding) {
-        if (record == null || record.getId() == null || record.getId().isBlank()) {
-            throw new com.oceanbase.powermem.sdk.exception.ApiException("memory.id is required");
+        upsertBatch(Collections.singletonList(record), Collections.singletonList(embedding));
+    }
+
+    /**
+     * Upsert all records in one transaction. The JDBC URL enables {@code rewriteBatchedStatements}, so the
+     * batch is sent as multi-row {@code INSERT ... ON DUPLICATE KEY UPDATE} statements.
+     */
+    @Override
+    public void upsertBatch(java.util.List<com.oceanbase.powermem.sdk.model.MemoryRecord> records,
+                            java.util.List<float[]> embeddings) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        applyBatch(records, embeddings, Collections.emptyList());
+    }
+
+    /**
+     * Upsert and delete in one transaction. The old content of deleted rows (for history) is read with one
+     * {@code IN} query per chunk before the transaction starts.
+     */
+    @Override
+    public int applyBatch(java.util.List<com.oceanbase.powermem.sdk.model.MemoryRecord> upserts,
+                          java.util.List<float[]> embeddings,
+                          java.util.Collection<String> deleteIds) {
+        java.util.List<com.oceanbase.powermem.sdk.model.MemoryRecord> records =
+                upserts == null ? Collections.<MemoryRecord>emptyList() : upserts;
+        if (embeddings == null ? !records.isEmpty() : embeddings.size() != records.size()) {
+            throw new com.oceanbase.powermem.sdk.exception.ApiException("embeddings must align with records");
+        }
+        for (com.oceanbase.powermem.sdk.model.MemoryRecord record : records) {
+            if (record == null || record.getId() == null || record.getId().isBlank()) {
+                throw new com.oceanbase.powermem.sdk.exception.ApiException("memory.id is required");
+            }
         }
         ensureInitialized();
-        long id = Long.parseLong(record.getId().trim());
-        Map<String, Object> payload = toPayload(record);
-        String vectorJson = json.toJson(embedding == null ? new float[0] : embedding);
-        String payloadJson = json.toJson(payload);
 
         // Upsert: MySQL syntax works in OceanBase MySQL mode.
         // Also populate denormalized columns (user_id/agent_id/run_id/...) when present for faster filtering.
@@ -385,33 +610,78 @@ public class OceanBaseVectorStore implements VectorStore {
             sql.append(cn).append("=VALUES(").append(cn).append(")");
         }
 
-        try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql.toString())) {
-            int p = 1;
-            ps.setLong(p++, id);
-            ps.setString(p++, vectorJson);
-            ps.setString(p++, payloadJson);
-            if (hasUserIdColumn) ps.setString(p++, asString(payload.get("user_id")));
-            if (hasAgentIdColumn) ps.setString(p++, asString(payload.get("agent_id")));
-            if (hasRunIdColumn) ps.setString(p++, asString(payload.get("run_id")));
-            if (hasHashColumn) ps.setString(p++, asString(payload.get("hash")));
-            if (hasCategoryColumn) ps.setString(p++, asString(payload.get("category")));
-            if (hasCreatedAtColumn) ps.setString(p++, asString(payload.get("created_at")));
-            if (hasUpdatedAtColumn) ps.setString(p++, asString(payload.get("updated_at")));
-            if (hasFulltextColumn) ps.setString(p++, asString(payload.get("fulltext_content")));
-            if (hasVectorColumn) {
-                // Best-effort: rely on OceanBase to cast from JSON string to VECTOR type if supported.
-                ps.setString(p, vectorJson);
+        Map<String, MemoryRecord> toDelete = getBatch(deleteIds, null, null);
+        if (records.isEmpty() && toDelete.isEmpty()) {
+            return 0;
+        }
+
+        List<HistoryEntry> history = new ArrayList<>(records.size() + toDelete.size());
+        int deleted = 0;
+        try (Connection c = openConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql.toString());
+                 PreparedStatement del = c.prepareStatement("DELETE FROM " + tableName + " WHERE id=?")) {
+                for (int i = 0; i < records.size(); i++) {
+                    com.oceanbase.powermem.sdk.model.MemoryRecord record = records.get(i);
+                    long id = Long.parseLong(record.getId().trim());
+                    Map<String, Object> payload = toPayload(record);
+                    float[] embedding = embeddings.get(i);
+                    String vectorJson = json.toJson(embedding == null ? new float[0] : embedding);
+                    int p = 1;
+                    ps.setLong(p++, id);
+                    ps.setString(p++, vectorJson);
+                    ps.setString(p++, json.toJson(payload));
+                    if (hasUserIdColumn) ps.setString(p++, asString(payload.get("user_id")));
+                    if (hasAgentIdColumn) ps.setString(p++, asString(payload.get("agent_id")));
+                    if (hasRunIdColumn) ps.setString(p++, asString(payload.get("run_id")));
+                    if (hasHashColumn) ps.setString(p++, asString(payload.get("hash")));
+                    if (hasCategoryColumn) ps.setString(p++, asString(payload.get("category")));
+                    if (hasCreatedAtColumn) ps.setString(p++, asString(payload.get("created_at")));
+                    if (hasUpdatedAtColumn) ps.setString(p++, asString(payload.get("updated_at")));
+                    if (hasFulltextColumn) ps.setString(p++, asString(payload.get("fulltext_content")));
+                    if (hasVectorColumn) {
+                        // Best-effort: rely on OceanBase to cast from JSON string to VECTOR type if supported.
+                        ps.setString(p, vectorJson);
+                    }
+                    ps.addBatch();
+
+                    // Write history best-effort based on whether record looks new or updated
+                    String event = record.getUpdatedAt() != null && record.getCreatedAt() != null
+                            && record.getUpdatedAt().isAfter(record.getCreatedAt())
+                            ? "UPDATE"
+                            : "ADD";
+                    history.add(new HistoryEntry(record.getId(), null, record.getContent(), event,
+                            record.getUserId(), record.getAgentId(), false));
+                }
+                if (!records.isEmpty()) {
+                    ps.executeBatch();
+                }
+                if (!toDelete.isEmpty()) {
+                    for (String id : toDelete.keySet()) {
+                        del.setLong(1, Long.parseLong(id.trim()));
+                        del.addBatch();
+                    }
+                    int[] changed = del.executeBatch();
+                    int i = 0;
+                    for (MemoryRecord r : toDelete.values()) {
+                        int n = i < changed.length ? changed[i++] : 0;
+                        if (n > 0 || n == java.sql.Statement.SUCCESS_NO_INFO) {
+                            deleted++;
+                            history.add(new HistoryEntry(r.getId(), r.getContent(), null, "DELETE",
+                                    r.getUserId(), r.getAgentId(), true));
+                        }
+                    }
+                }
+                c.commit();
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
             }
-            ps.executeUpdate();
-            // Write history best-effort based on whether record looks new or updated
-            String event = record.getUpdatedAt() != null && record.getCreatedAt() != null
-                    && record.getUpdatedAt().isAfter(record.getCreatedAt())
-                    ? "UPDATE"
-                    : "ADD";
-            writeHistory(record.getId(), null, record.getContent(), event, record.getUserId(), record.getAgentId(), false);
         } catch (Exception ex) {
             throw new RuntimeException("OceanBase upsert failed: " + ex.getMessage(), ex);
         }
+        writeHistory(history);
+        return deleted;
     }
 
     @Override
@@ -449,6 +719,59 @@ public class OceanBaseVectorStore implements VectorStore {
         }
     }
 
+    @Override
+    public Map<String, MemoryRecord> getBatch(java.util.Collection<String> memoryIds, String userId, String agentId) {
+        Map<String, MemoryRecord> out = new java.util.LinkedHashMap<>();
+        if (memoryIds == null || memoryIds.isEmpty()) {
+            return out;
+        }
+        ensureInitialized();
+        Map<Long, String> parsed = new java.util.LinkedHashMap<>();
+        for (String memoryId : memoryIds) {
+            if (memoryId == null || memoryId.isBlank()) {
+                continue;
+            }
+            try {
+                parsed.putIfAbsent(Long.parseLong(memoryId.trim()), memoryId);
+            } catch (Exception ignored) {
+                // not a stored id
+            }
+        }
+        List<Long> ids = new ArrayList<>(parsed.keySet());
+        Map<Long, MemoryRecord> found = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += ID_LOOKUP_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + ID_LOOKUP_CHUNK));
+            StringBuilder sql = new StringBuilder("SELECT id, payload FROM " + tableName + " WHERE id IN (");
+            List<Object> args = new ArrayList<>(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+            sql.append(buildJsonWhere(args, userId, agentId, null, null));
+            try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql.toString())) {
+                for (int i = 0; i < args.size(); i++) {
+                    ps.setObject(i + 1, args.get(i));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        long id = rs.getLong("id");
+                        Map<String, Object> payload = json.fromJsonToMap(rs.getString("payload"));
+                        found.put(id, fromPayload(Long.toString(id), payload));
+                    }
+                }
+            } catch (Exception ex) {
+                throw new RuntimeException("OceanBase get failed: " + ex.getMessage(), ex);
+            }
+        }
+        for (Map.Entry<Long, String> e : parsed.entrySet()) {
+            MemoryRecord r = found.get(e.getKey());
+            if (r != null) {
+                out.put(e.getValue(), r);
+            }
+        }
+        return out;
+    }
+
     @Override
     public boolean delete(String memoryId, String userId, String agentId) {
         MemoryRecord existing = get(memoryId, userId, agentId);
@@ -456,37 +779,101 @@ public class OceanBaseVectorStore implements VectorStore {
             return false;
         }
         long id = Long.parseLong(existing.getId());
+        boolean deleted;
         try (Connection c = openConnection();
              PreparedStatement ps = c.prepareStatement("DELETE FROM " + tableName + " WHERE id=?")) {
             ps.setLong(1, id);
-            int changed = ps.executeUpdate();
-            boolean deleted = changed > 0;
-            if (deleted) {
-                writeHistory(existing.getId(), existing.getContent(), null, "DELETE", userId, agentId, true);
-            }
-            return deleted;
+            deleted = ps.executeUpdate() > 0;
         } catch (Exception ex) {
             throw new RuntimeException("OceanBase delete failed: " + ex.getMessage(), ex);
         }
+        if (deleted) {
+            // after the delete connection is released: writeHistory borrows its own
+            writeHistory(existing.getId(), existing.getContent(), null, "DELETE", userId, agentId, true);
+        }
+        return deleted;
     }
 
     @Override
     public int deleteAll(String userId, String agentId, String runId) {
-        List<MemoryRecord> before = list(userId, agentId, runId, 0, Integer.MAX_VALUE);
+        return deleteAll(userId, agentId, runId, null);
+    }
 
-        StringBuilder sql = new StringBuilder("DELETE FROM " + tableName + " WHERE 1=1");
-        List<Object> args = new ArrayList<>();
-        sql.append(buildJsonWhere(args, userId, agentId, runId, null));
-        try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql.toString())) {
-            for (int i = 0; i < args.size(); i++) {
-                ps.setObject(i + 1, args.get(i));
-            }
-            int deleted = ps.executeUpdate();
-            for (MemoryRecord r : before) {
-                if (r != null) {
-                    writeHistory(r.getId(), r.getContent(), null, "DELETE", userId, agentId, true);
+    /**
+     * Delete in chunks of {@code deleteChunkSize} rows. Each chunk is one transaction that archives the rows to
+     * history server-side ({@code INSERT ... SELECT}) and then deletes them; only the chunk's ids reach the client.
+     */
+    @Override
+    public int deleteAll(String userId, String agentId, String runId, java.util.function.IntConsumer progress) {
+        ensureInitialized();
+        int chunkSize = config.getDeleteChunkSize() <= 0 ? 1000 : config.getDeleteChunkSize();
+        List<Object> whereArgs = new ArrayList<>();
+        String select = "SELECT id FROM " + tableName + " WHERE 1=1"
+                + buildJsonWhere(whereArgs, userId, agentId, runId, null) + " ORDER BY id LIMIT ?";
+        String actor = agentId != null && !agentId.isBlank() ? agentId : userId;
+        int deleted = 0;
+        try (Connection c = openConnection()) {
+            while (true) {
+                List<Long> ids = new ArrayList<>(chunkSize);
+                c.setAutoCommit(false);
+                try {
+                    try (PreparedStatement ps = c.prepareStatement(select)) {
+                        int p = 1;
+                        for (Object a : whereArgs) {
+                            ps.setObject(p++, a);
+                        }
+                        ps.setInt(p, chunkSize);
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                ids.add(rs.getLong(1));
+                            }
+                        }
+                    }
+                    if (ids.isEmpty()) {
+                        c.commit();
+                        break;
+                    }
+                    StringBuilder in = new StringBuilder(" WHERE id IN (");
+                    for (int i = 0; i < ids.size(); i++) {
+                        in.append(i == 0 ? "?" : ", ?");
+                    }
+                    in.append(")");
+                    long now = Instant.now().toEpochMilli();
+                    try (PreparedStatement ps = c.prepareStatement("INSERT INTO " + TABLE_HISTORY
+                            + " (id, memory_id, old_memory, new_memory, event, created_at, updated_at, is_deleted, actor_id, role)"
+                            + " SELECT CONCAT(?, '-', id), CAST(id AS CHAR), JSON_UNQUOTE(JSON_EXTRACT(payload, '$.data')),"
+                            + " NULL, 'DELETE', ?, ?, 1, ?, 'sdk' FROM " + tableName + in)) {
+                        int p = 1;
+                        ps.setString(p++, historyIdGenerator.nextId());
+                        ps.setLong(p++, now);
+                        ps.setLong(p++, now);
+                        ps.setString(p++, actor);
+                        for (Long id : ids) {
+                            ps.setLong(p++, id);
+                        }
+                        ps.executeUpdate();
+                    }
+                    try (PreparedStatement ps = c.prepareStatement("DELETE FROM " + tableName + in)) {
+                        for (int i = 0; i < ids.size(); i++) {
+                            ps.setLong(i + 1, ids.get(i));
+                        }
+                        deleted += ps.executeUpdate();
+                    }
+                    c.commit();
+                } catch (Exception ex) {
+                    c.rollback();
+                    throw ex;
+                } finally {
+                    c.setAutoCommit(true);
+                }
+                if (progress != null) {
+                    progress.accept(deleted);
+                }
+                if (ids.size() < chunkSize) {
+                    break;
                 }
             }
+            scopeCounts.clear();
             return deleted;
         } catch (Exception ex) {
             throw new RuntimeException("OceanBase deleteAll failed: " + ex.getMessage(), ex);
@@ -563,42 +950,59 @@ public class OceanBaseVectorStore implements VectorStore {
                 distFunc = "cosine_distance";
             }
 
-            StringBuilder sql = new StringBuilder("SELECT id, payload, " + distFunc + "(embedding, ?) AS d FROM " + tableName + " WHERE 1=1");
-            List<Object> args = new ArrayList<>();
-            sql.append(buildJsonWhere(args, userId, agentId, runId, filters));
-            sql.append(" ORDER BY d ").append(higherIsBetter ? "DESC" : "ASC").append(" LIMIT ?");
-
+            List<Object> whereArgs = new ArrayList<>();
+            String where = buildJsonWhere(whereArgs, userId, agentId, runId, filters);
             String queryVecJson = json.toJson(queryEmbedding);
-            List<OutputData> out = new ArrayList<>();
-            try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql.toString())) {
-                int idx = 1;
-                ps.setString(idx++, queryVecJson);
-                for (Object a : args) {
-                    ps.setObject(idx++, a);
-                }
-                ps.setInt(idx, k);
-                try (ResultSet rs = ps.executeQuery()) {
-                    while (rs.next()) {
-                        String idStr = Long.toString(rs.getLong("id"));
-                        Map<String, Object> payload = json.fromJsonToMap(rs.getString("payload"));
-                        MemoryRecord record = fromPayload(idStr, payload);
-                        double d = rs.getDouble("d");
-                        double score;
-                        if (higherIsBetter) {
-                            score = d;
+            try (Connection c = openConnection()) {
+                // ANN ordering is only issued for distance metrics; inner product always ranks exactly.
+                AnnPlan plan = planAnnSearch(c, where, whereArgs, k, higherIsBetter);
+                List<OutputData> out = null;
+                if (!plan.exact) {
+                    try {
+                        int fetch = plan.fetchLimit;
+                        while (true) {
+                            plan.rounds++;
+                            out = distanceQuery(c, distFunc, false, where, whereArgs, queryVecJson, fetch, true, now);
+                            if (out.size() >= k || fetch >= plan.maxFetch
+                                    || (plan.estimatedMatches >= 0 && out.size() >= plan.estimatedMatches)) {
+                                break;
+                            }
+                            // the index returned neighbours that the filter dropped: widen and refill
+                            fetch = Math.min(plan.maxFetch, fetch * 2);
+                        }
+                        plan.fetchLimit = fetch;
+                        if (out.size() < k && !where.isEmpty()) {
+                            out = null;
+                            plan.strategy = "ann_refill_exact";
+                        }
+                    } catch (Exception ex) {
+                        // only a server that rejects the statement disables APPROXIMATE for good; a transient
+                        // failure (timeout, lost connection) falls back for this query only
+                        if (SqlErrors.isUnsupportedStatement(ex)) {
+                            LOG.log(Level.WARNING, "OceanBase rejected APPROXIMATE vector search; using exact distance"
+                                    + " ordering from now on. cause=" + ex.getMessage(), ex);
+                            approximateUnsupported = true;
                         } else {
-                            // Convert distance to a "higher is better" score.
-                            score = 1.0 / (1.0 + Math.max(0.0, d));
+                            LOG.log(Level.WARNING, "OceanBase APPROXIMATE vector search failed; using exact distance"
+                                    + " ordering for this query. cause=" + ex.getMessage(), ex);
                         }
-                        record.setLastAccessedAt(now);
-                        out.add(new OutputData(record, score));
+                        out = null;
+                        plan.strategy = "exact";
                     }
                 }
+                if (out == null) {
+                    plan.rounds++;
+                    out = distanceQuery(c, distFunc, higherIsBetter, where, whereArgs, queryVecJson, k, false, now);
+                }
+                if (out.size() > k) {
+                    out = new ArrayList<>(out.subList(0, k));
+                }
+                java.util.Map<String, Object> info = plan.toInfo();
+                for (OutputData d : out) {
+                    attachAnnInfo(d.getRecord(), info);
+                }
                 if (updateAccess) {
-                    for (OutputData d : out) {
-                        if (d == null || d.getRecord() == null) continue;
-                        updateLastAccessedAt(d.getRecord().getId(), now);
-                    }
+                    touchAccessed(out, now);
                 }
                 return out;
             } catch (Exception ex) {
@@ -606,12 +1010,15 @@ public class OceanBaseVectorStore implements VectorStore {
             }
         }
 
-        // Fallback brute-force (compatibility path): scan JSON vector and compute cosine in Java.
+        // Fallback brute-force (compatibility path): scan JSON vector and compute cosine in Java. The query is
+        // normalized once; each row of the same dimension then costs one pass (dot product and row norm together).
+        float[] unitQuery = VectorMath.normalize(queryEmbedding);
         StringBuilder sql = new StringBuilder("SELECT id, vector, payload FROM " + tableName + " WHERE 1=1");
         List<Object> args = new ArrayList<>();
         sql.append(buildJsonWhere(args, userId, agentId, runId, filters));
         List<OutputData> scored = new ArrayList<>();
         try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            com.oceanbase.powermem.sdk.storage.pool.QueryExecutor.applyDeadline(ps);
             for (int i = 0; i < args.size(); i++) {
                 ps.setObject(i + 1, args.get(i));
             }
@@ -621,7 +1028,9 @@ public class OceanBaseVectorStore implements VectorStore {
                     float[] vec = json.fromJson(rs.getString("vector"), float[].class);
                     Map<String, Object> payload = json.fromJsonToMap(rs.getString("payload"));
                     MemoryRecord record = fromPayload(idStr, payload);
-                    double score = VectorMath.cosineSimilarity(queryEmbedding, vec);
+                    double score = unitQuery != null && vec != null && vec.length == unitQuery.length
+                            ? VectorMath.cosineToUnit(unitQuery, vec)
+                            : VectorMath.cosineSimilarity(queryEmbedding, vec);
                     record.setLastAccessedAt(now);
                     scored.add(new OutputData(record, score));
                 }
@@ -634,14 +1043,190 @@ public class OceanBaseVectorStore implements VectorStore {
             scored = new ArrayList<>(scored.subList(0, k));
         }
         if (updateAccess) {
-            for (OutputData d : scored) {
-                if (d == null || d.getRecord() == null) continue;
-                updateLastAccessedAt(d.getRecord().getId(), now);
-            }
+            touchAccessed(scored, now);
         }
         return scored;
     }
 
+    /**
+     * Choose how to run a filtered vector query:
+     * <ul>
+     *   <li>{@code ann}: no filter, plain ANN ordering;</li>
+     *   <li>{@code exact_prefilter}: the filter matches at most {@code annExactScanThreshold} rows, so rank that
+     *   subset exactly (the filter columns' indexes narrow it first) instead of letting the ANN index return
+     *   neighbours the filter then drops;</li>
+     *   <li>{@code ann_overfetch}: a broad filter; ask the index for {@code topK / selectivity} neighbours (at most
+     *   {@code annMaxOverfetch x topK}) and refill with a wider fetch if too few survive the filter.</li>
+     * </ul>
+     * Match counts are bounded ({@code LIMIT threshold + 1}) and cached per filter scope for
+     * {@code annStatsTtlSeconds}, so planning never scans more than the exact-scan threshold.
+     */
+    private AnnPlan planAnnSearch(Connection c, String where, List<Object> whereArgs, int k, boolean innerProduct) {
+        int maxOverfetch = Math.max(1, config.getAnnMaxOverfetch());
+        if (innerProduct || approximateUnsupported) {
+            return new AnnPlan("exact", true, k, k, -1L, -1L);
+        }
+        if (where == null || where.isEmpty()) {
+            return new AnnPlan("ann", false, k, k, -1L, -1L);
+        }
+        long threshold = Math.max(0, config.getAnnExactScanThreshold());
+        long matches = cachedCount(c, where, whereArgs, threshold + 1);
+        if (matches >= 0 && matches <= threshold) {
+            return new AnnPlan("exact_prefilter", true, k, k, matches, -1L);
+        }
+        long total = cachedCount(c, "", Collections.emptyList(), Long.MAX_VALUE);
+        // matches is a lower bound (capped count), so this over-estimates the fetch needed: good for recall
+        long factor = matches > 0 && total > 0 ? (total + matches - 1) / matches : maxOverfetch;
+        int fetch = (int) Math.min((long) k * maxOverfetch, Math.max(k, k * factor));
+        AnnPlan plan = new AnnPlan("ann_overfetch", false, fetch, k * maxOverfetch, -1L, total);
+        plan.matchesAtLeast = matches;
+        return plan;
+    }
+
+    /**
+     * {@code COUNT(*)} of rows matching {@code where}, counting at most {@code cap} rows. Cached per scope;
+     * returns -1 when the count query fails.
+     */
+    private long cachedCount(Connection c, String where, List<Object> whereArgs, long cap) {
+        String key = where + "|" + whereArgs + "|" + cap;
+        long nowMillis = System.currentTimeMillis();
+        CachedCount cached = scopeCounts.get(key);
+        if (cached != null && cached.expiresAtMillis > nowMillis) {
+            return cached.count;
+        }
+        String sql = cap == Long.MAX_VALUE
+                ? "SELECT COUNT(*) FROM " + tableName + " WHERE 1=1" + where
+                : "SELECT COUNT(*) FROM (SELECT 1 FROM " + tableName + " WHERE 1=1" + where + " LIMIT " + cap + ") t";
+        long count = -1L;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            com.oceanbase.powermem.sdk.storage.pool.QueryExecutor.applyDeadline(ps);
+            for (int i = 0; i < whereArgs.size(); i++) {
+                ps.setObject(i + 1, whereArgs.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    count = rs.getLong(1);
+                }
+            }
+        } catch (Exception ex) {
+            LOG.log(Level.FINE, "OceanBase ANN planning: count failed; cause=" + ex.getMessage(), ex);
+            return -1L;
+        }
+        if (scopeCounts.size() >= SCOPE_COUNT_CACHE_MAX) {
+            scopeCounts.clear();
+        }
+        long ttl = java.util.concurrent.TimeUnit.SECONDS.toMillis(Math.max(0, config.getAnnStatsTtlSeconds()));
+        scopeCounts.put(key, new CachedCount(count, nowMillis + ttl));
+        return count;
+    }
+
+    private List<OutputData> distanceQuery(Connection c,
+                                           String distFunc,
+                                           boolean higherIsBetter,
+                                           String where,
+                                           List<Object> whereArgs,
+                                           String queryVecJson,
+                                           int limit,
+                                           boolean approximate,
+                                           Instant now) throws Exception {
+        StringBuilder sql = new StringBuilder("SELECT id, payload, " + distFunc + "(embedding, ?) AS d FROM " + tableName + " WHERE 1=1");
+        sql.append(where);
+        if (approximate) {
+            // OceanBase only uses the vector index for "ORDER BY <distance expr> APPROXIMATE LIMIT n"
+            sql.append(" ORDER BY ").append(distFunc).append("(embedding, ?) APPROXIMATE LIMIT ?");
+        } else {
+            sql.append(" ORDER BY d ").append(higherIsBetter ? "DESC" : "ASC").append(" LIMIT ?");
+        }
+        List<OutputData> out = new ArrayList<>();
+        try (PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            com.oceanbase.powermem.sdk.storage.pool.QueryExecutor.applyDeadline(ps);
+            int idx = 1;
+            ps.setString(idx++, queryVecJson);
+            for (Object a : whereArgs) {
+                ps.setObject(idx++, a);
+            }
+            if (approximate) {
+                ps.setString(idx++, queryVecJson);
+            }
+            ps.setInt(idx, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String idStr = Long.toString(rs.getLong("id"));
+                    Map<String, Object> payload = json.fromJsonToMap(rs.getString("payload"));
+                    MemoryRecord record = fromPayload(idStr, payload);
+                    double d = rs.getDouble("d");
+                    double score;
+                    if (higherIsBetter) {
+                        score = d;
+                    } else {
+                        // Convert distance to a "higher is better" score.
+                        score = 1.0 / (1.0 + Math.max(0.0, d));
+                    }
+                    record.setLastAccessedAt(now);
+                    out.add(new OutputData(record, score));
+                }
+            }
+        }
+        return out;
+    }
+
+    private static void attachAnnInfo(MemoryRecord r, java.util.Map<String, Object> info) {
+        if (r == null) {
+            return;
+        }
+        java.util.Map<String, Object> attrs = r.getAttributes();
+        if (attrs == null) {
+            attrs = new java.util.HashMap<>();
+            r.setAttributes(attrs);
+        }
+        attrs.put("_ann_info", info);
+    }
+
+    /** Filtered vector search plan; see {@link #planAnnSearch}. */
+    private static final class AnnPlan {
+        String strategy;
+        final boolean exact;
+        int fetchLimit;
+        final int maxFetch;
+        final long estimatedMatches;
+        final long totalRows;
+        long matchesAtLeast = -1L;
+        int rounds;
+
+        AnnPlan(String strategy, boolean exact, int fetchLimit, int maxFetch, long estimatedMatches, long totalRows) {
+            this.strategy = strategy;
+            this.exact = exact;
+            this.fetchLimit = fetchLimit;
+            this.maxFetch = maxFetch;
+            this.estimatedMatches = estimatedMatches;
+            this.totalRows = totalRows;
+        }
+
+        java.util.Map<String, Object> toInfo() {
+            java.util.Map<String, Object> m = new java.util.HashMap<>();
+            m.put("strategy", strategy);
+            m.put("fetch_limit", fetchLimit);
+            m.put("rounds", rounds);
+            if (estimatedMatches >= 0) m.put("estimated_matches", estimatedMatches);
+            if (matchesAtLeast >= 0) m.put("matches_at_least", matchesAtLeast);
+            if (totalRows >= 0) m.put("total_rows", totalRows);
+            if (matchesAtLeast > 0 && totalRows > 0) {
+                m.put("selectivity", Math.min(1.0, (double) matchesAtLeast / totalRows));
+            }
+            return m;
+        }
+    }
+
+    private static final class CachedCount {
+        final long count;
+        final long expiresAtMillis;
+
+        CachedCount(long count, long expiresAtMillis) {
+            this.count = count;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
     private java.util.List<com.oceanbase.powermem.sdk.storage.base.OutputData> fulltextSearchInternal(
             String queryText,
             int topK,
@@ -672,6 +1257,7 @@ public class OceanBaseVectorStore implements VectorStore {
 
         List<OutputData> out = new ArrayList<>();
         try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            com.oceanbase.powermem.sdk.storage.pool.QueryExecutor.applyDeadline(ps);
             int p = 1;
             ps.setString(p++, q);
             for (Object a : args) {
@@ -700,6 +1286,7 @@ public class OceanBaseVectorStore implements VectorStore {
         sql.append(buildJsonWhere(args, userId, agentId, runId, filters));
         sql.append(" AND fulltext_content LIKE ? LIMIT ?");
         try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            com.oceanbase.powermem.sdk.storage.pool.QueryExecutor.applyDeadline(ps);
             int p = 1;
             for (Object a : args) {
                 ps.setObject(p++, a);
@@ -826,174 +1413,6 @@ public class OceanBaseVectorStore implements VectorStore {
         return p;
     }
 
-    private java.util.List<OutputData> rrfFusion(
-            java.util.List<OutputData> vectorResults,
-            java.util.List<OutputData> ftsResults,
-            int limit,
-            int k,
-            double vectorWeight,
-            double ftsWeight) {
-        int safeK = k <= 0 ? 60 : k;
-        double vw = vectorWeight <= 0 ? 0.5 : vectorWeight;
-        double tw = ftsWeight <= 0 ? 0.5 : ftsWeight;
-        java.util.Map<String, ScoreEntry> map = new java.util.HashMap<>();
-
-        java.util.List<OutputData> vr = vectorResults == null ? java.util.Collections.<OutputData>emptyList() : vectorResults;
-        java.util.List<OutputData> tr = ftsResults == null ? java.util.Collections.<OutputData>emptyList() : ftsResults;
-
-        int rank = 1;
-        for (OutputData r : vr) {
-            if (r == null || r.getRecord() == null || r.getRecord().getId() == null) continue;
-            String id = r.getRecord().getId();
-            ScoreEntry e = map.computeIfAbsent(id, x -> new ScoreEntry(r));
-            e.rrf += vw * (1.0 / (safeK + rank));
-            if (e.vectorRank == null) {
-                e.vectorRank = rank;
-                e.vectorScore = r.getScore();
-            }
-            rank++;
-        }
-        rank = 1;
-        for (OutputData r : tr) {
-            if (r == null || r.getRecord() == null || r.getRecord().getId() == null) continue;
-            String id = r.getRecord().getId();
-            ScoreEntry e = map.computeIfAbsent(id, x -> new ScoreEntry(r));
-            e.rrf += tw * (1.0 / (safeK + rank));
-            if (e.ftsRank == null) {
-                e.ftsRank = rank;
-                e.ftsScore = r.getScore();
-            }
-            rank++;
-        }
-
-        java.util.List<OutputData> out = new java.util.ArrayList<>();
-        for (java.util.Map.Entry<String, ScoreEntry> e : map.entrySet()) {
-            OutputData d = e.getValue().data;
-            attachFusionInfo(d.getRecord(), buildFusionInfo("rrf", vw, tw, safeK, e.getValue().vectorRank, e.getValue().ftsRank,
-                    e.getValue().vectorScore, e.getValue().ftsScore, e.getValue().rrf, null, null));
-            out.add(new OutputData(d.getRecord(), e.getValue().rrf));
-        }
-        out.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
-        if (out.size() > limit) {
-            out = new java.util.ArrayList<>(out.subList(0, limit));
-        }
-        return out;
-    }
-
-    private java.util.List<OutputData> weightedFusion(
-            java.util.List<OutputData> vectorResults,
-            java.util.List<OutputData> ftsResults,
-            int limit,
-            double vectorWeight,
-            double ftsWeight) {
-        double vw = vectorWeight <= 0 ? 0.5 : vectorWeight;
-        double tw = ftsWeight <= 0 ? 0.5 : ftsWeight;
-        java.util.Map<String, WeightedEntry> map = new java.util.HashMap<>();
-
-        java.util.List<OutputData> vr = vectorResults == null ? java.util.Collections.<OutputData>emptyList() : vectorResults;
-        java.util.List<OutputData> tr = ftsResults == null ? java.util.Collections.<OutputData>emptyList() : ftsResults;
-
-        for (OutputData r : vr) {
-            if (r == null || r.getRecord() == null || r.getRecord().getId() == null) continue;
-            String id = r.getRecord().getId();
-            WeightedEntry e = map.computeIfAbsent(id, x -> new WeightedEntry(r));
-            e.vectorScore = r.getScore();
-        }
-        for (OutputData r : tr) {
-            if (r == null || r.getRecord() == null || r.getRecord().getId() == null) continue;
-            String id = r.getRecord().getId();
-            WeightedEntry e = map.computeIfAbsent(id, x -> new WeightedEntry(r));
-            e.ftsScore = r.getScore();
-        }
-
-        // Normalize to 0..1 for stability (Python weighted fusion assumes normalized scores).
-        double vMin = Double.POSITIVE_INFINITY, vMax = Double.NEGATIVE_INFINITY;
-        double tMin = Double.POSITIVE_INFINITY, tMax = Double.NEGATIVE_INFINITY;
-        for (WeightedEntry e : map.values()) {
-            vMin = Math.min(vMin, e.vectorScore);
-            vMax = Math.max(vMax, e.vectorScore);
-            tMin = Math.min(tMin, e.ftsScore);
-            tMax = Math.max(tMax, e.ftsScore);
-        }
-        double vRange = (vMax > vMin) ? (vMax - vMin) : 0.0;
-        double tRange = (tMax > tMin) ? (tMax - tMin) : 0.0;
-
-        java.util.List<OutputData> out = new java.util.ArrayList<>();
-        for (WeightedEntry e : map.values()) {
-            double vNorm = vRange > 0 ? (e.vectorScore - vMin) / vRange : (map.size() > 0 ? 1.0 : 0.0);
-            double tNorm = tRange > 0 ? (e.ftsScore - tMin) / tRange : (map.size() > 0 ? 1.0 : 0.0);
-            double score = vw * vNorm + tw * tNorm;
-            attachFusionInfo(e.data.getRecord(), buildFusionInfo("weighted", vw, tw, null, null, null,
-                    e.vectorScore, e.ftsScore, score, vNorm, tNorm));
-            out.add(new OutputData(e.data.getRecord(), score));
-        }
-        out.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
-        if (out.size() > limit) {
-            out = new java.util.ArrayList<>(out.subList(0, limit));
-        }
-        return out;
-    }
-
-    private static final class ScoreEntry {
-        final OutputData data;
-        double rrf;
-        Integer vectorRank;
-        Integer ftsRank;
-        Double vectorScore;
-        Double ftsScore;
-        ScoreEntry(OutputData data) {
-            this.data = data;
-        }
-    }
-
-    private static final class WeightedEntry {
-        final OutputData data;
-        double vectorScore;
-        double ftsScore;
-        WeightedEntry(OutputData data) {
-            this.data = data;
-        }
-    }
-
-    private static void attachFusionInfo(MemoryRecord r, java.util.Map<String, Object> info) {
-        if (r == null || info == null || info.isEmpty()) {
-            return;
-        }
-        java.util.Map<String, Object> attrs = r.getAttributes();
-        if (attrs == null) {
-            attrs = new java.util.HashMap<>();
-            r.setAttributes(attrs);
-        }
-        attrs.put("_fusion_info", info);
-    }
-
-    private static java.util.Map<String, Object> buildFusionInfo(
-            String method,
-            double vectorWeight,
-            double ftsWeight,
-            Integer rrfK,
-            Integer vectorRank,
-            Integer ftsRank,
-            Double vectorScore,
-            Double ftsScore,
-            Double fusionScore,
-            Double vectorScoreNorm,
-            Double ftsScoreNorm) {
-        java.util.Map<String, Object> m = new java.util.HashMap<>();
-        m.put("fusion_method", method);
-        m.put("vector_weight", vectorWeight);
-        m.put("fts_weight", ftsWeight);
-        if (rrfK != null) m.put("rrf_k", rrfK);
-        if (vectorRank != null) m.put("vector_rank", vectorRank);
-        if (ftsRank != null) m.put("fts_rank", ftsRank);
-        if (vectorScore != null) m.put("vector_score", vectorScore);
-        if (ftsScore != null) m.put("fts_score", ftsScore);
-        if (vectorScoreNorm != null) m.put("vector_score_norm", vectorScoreNorm);
-        if (ftsScoreNorm != null) m.put("fts_score_norm", ftsScoreNorm);
-        if (fusionScore != null) m.put("fusion_score", fusionScore);
-        return m;
-    }
-
     private String buildJsonWhere(List<Object> args,
                                   String userId,
                                   String agentId,
@@ -1090,7 +1509,7 @@ public class OceanBaseVectorStore implements VectorStore {
     }
 
     private String buildFieldCondition(String key, Object value, List<Object> args) {
-        String colExpr = columnExprForKey(key);
+        String colExpr = columnExprForKey(key, value);
         if (colExpr == null) {
             return null;
         }
@@ -1179,7 +1598,10 @@ public class OceanBaseVectorStore implements VectorStore {
         return in.toString();
     }
 
-    private String columnExprForKey(String key) {
+    /**
+     * @param value the filter operand(s); a promoted column is only used when {@link #fitsPromotedColumn} holds
+     */
+    private String columnExprForKey(String key, Object value) {
         if (key == null || key.isBlank()) return null;
         String k = key.trim();
 
@@ -1190,7 +1612,8 @@ public class OceanBaseVectorStore implements VectorStore {
         }
         if (k.startsWith("metadata.")) {
             String mk = k.substring("metadata.".length()).trim();
-            return metadataJsonExtractExpr(mk);
+            String promoted = promotedColumns.get(mk);
+            return promoted != null && fitsPromotedColumn(value) ? promoted : metadataJsonExtractExpr(mk);
         }
 
         // Denormalized columns first (Python parity)
@@ -1209,7 +1632,34 @@ public class OceanBaseVectorStore implements VectorStore {
         }
 
         // Default: treat as user metadata key (Python behavior)
-        return metadataJsonExtractExpr(k);
+        String promoted = promotedColumns.get(k);
+        return promoted != null && fitsPromotedColumn(value) ? promoted : metadataJsonExtractExpr(k);
+    }
+
+    /**
+     * True if comparing the truncated promoted column gives the same answer as the full value: every operand is
+     * shorter than the column, so equality, IN and range comparisons are decided within the kept prefix. LIKE
+     * patterns may match past the cut and always use {@code json_extract}.
+     */
+    private static boolean fitsPromotedColumn(Object value) {
+        if (value == null) {
+            return true;
+        }
+        if (value instanceof List) {
+            for (Object v : (List<?>) value) {
+                if (!fitsPromotedColumn(v)) return false;
+            }
+            return true;
+        }
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                String op = String.valueOf(e.getKey()).trim();
+                if (op.startsWith("$")) op = op.substring(1);
+                if ("like".equals(op) || "ilike".equals(op) || !fitsPromotedColumn(e.getValue())) return false;
+            }
+            return true;
+        }
+        return String.valueOf(value).length() < PROMOTED_COLUMN_CHARS;
     }
 
     private String payloadJsonExtractExpr(String key) {
@@ -1239,6 +1689,9 @@ public class OceanBaseVectorStore implements VectorStore {
 
     /**
      * Best-effort partial update: merges provided fields into payload JSON without recomputing embedding.
+     *
+     * <p>Runs as a single {@code UPDATE ... SET payload = JSON_SET(payload, '$."k"', CAST(? AS JSON), ...)}
+     * statement that also sets only the denormalized columns named in {@code fieldUpdates}.</p>
      */
     public void updatePayloadFields(String memoryId, Map<String, Object> fieldUpdates) {
         if (memoryId == null || memoryId.isBlank() || fieldUpdates == null || fieldUpdates.isEmpty()) {
@@ -1250,6 +1703,79 @@ public class OceanBaseVectorStore implements VectorStore {
         } catch (Exception ex) {
             return;
         }
+        Map<String, Object> updates = new java.util.LinkedHashMap<>();
+        for (Map.Entry<String, Object> e : fieldUpdates.entrySet()) {
+            if (e.getKey() == null || e.getKey().isBlank()) {
+                continue;
+            }
+            if (!isSafeJsonKey(e.getKey())) {
+                updatePayloadFieldsFull(id, fieldUpdates);
+                return;
+            }
+            updates.put(e.getKey(), e.getValue());
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        ensureInitialized();
+        if (!updates.containsKey("updated_at")) {
+            updates.put("updated_at", Instant.now().toString());
+        }
+
+        // One statement: JSON_SET only the given keys (concurrent updates of other keys are not lost) and
+        // refresh only the denormalized columns whose keys changed.
+        StringBuilder sql = new StringBuilder("UPDATE ").append(tableName).append(" SET payload = JSON_SET(payload");
+        List<Object> args = new ArrayList<>();
+        for (Map.Entry<String, Object> e : updates.entrySet()) {
+            sql.append(", '$.\"").append(e.getKey()).append("\"', CAST(? AS JSON)");
+            args.add(json.toJson(e.getValue()));
+        }
+        sql.append(")");
+        for (Map.Entry<String, Object> e : updates.entrySet()) {
+            if (hasDenormalizedColumn(e.getKey())) {
+                sql.append(", ").append(e.getKey()).append("=?");
+                args.add(asString(e.getValue()));
+            }
+        }
+        sql.append(" WHERE id=?");
+        args.add(id);
+        try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            ps.executeUpdate();
+        } catch (Exception ignored) {
+            // best-effort
+        }
+    }
+
+    private boolean hasDenormalizedColumn(String key) {
+        switch (key) {
+            case "user_id":
+                return hasUserIdColumn;
+            case "agent_id":
+                return hasAgentIdColumn;
+            case "run_id":
+                return hasRunIdColumn;
+            case "hash":
+                return hasHashColumn;
+            case "category":
+                return hasCategoryColumn;
+            case "created_at":
+                return hasCreatedAtColumn;
+            case "updated_at":
+                return hasUpdatedAtColumn;
+            case "fulltext_content":
+                return hasFulltextColumn;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Read-modify-write of the whole payload, for keys that cannot be written as a JSON path.
+     */
+    private void updatePayloadFieldsFull(long id, Map<String, Object> fieldUpdates) {
         try {
             Map<String, Object> payload = readPayloadById(id);
             if (payload == null) {
@@ -1306,13 +1832,45 @@ public class OceanBaseVectorStore implements VectorStore {
         }
     }
 
-    private void updateLastAccessedAt(String memoryId, Instant at) {
-        if (memoryId == null || memoryId.isBlank()) {
-            return;
+    private void touchAccessed(List<OutputData> results, Instant at) {
+        List<String> ids = new ArrayList<>(results.size());
+        for (OutputData d : results) {
+            if (d == null || d.getRecord() == null) continue;
+            ids.add(d.getRecord().getId());
+        }
+        accessTracker.touch(ids, at);
+    }
+
+    private void flushLastAccessedAt(Map<String, Instant> touches) throws Exception {
+        // Only payload.last_accessed_at changes: no read-modify-write, no updated_at bump, no column rewrite.
+        // Monotonic: never move the value backwards if a newer touch was written meanwhile.
+        String sql = "UPDATE " + tableName + " SET payload = JSON_SET(payload, '$.last_accessed_at', ?)"
+                + " WHERE id = ? AND (JSON_EXTRACT(payload, '$.last_accessed_at') IS NULL"
+                + " OR JSON_TYPE(JSON_EXTRACT(payload, '$.last_accessed_at')) = 'NULL'"
+                + " OR JSON_UNQUOTE(JSON_EXTRACT(payload, '$.last_accessed_at')) < ?)";
+        try (Connection c = openConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                for (Map.Entry<String, Instant> e : touches.entrySet()) {
+                    long id;
+                    try {
+                        id = Long.parseLong(e.getKey().trim());
+                    } catch (Exception ex) {
+                        continue;
+                    }
+                    String at = e.getValue().toString();
+                    ps.setString(1, at);
+                    ps.setLong(2, id);
+                    ps.setString(3, at);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                c.commit();
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
+            }
         }
-        Map<String, Object> update = new HashMap<>();
-        update.put("last_accessed_at", at == null ? null : at.toString());
-        updatePayloadFields(memoryId, update);
     }
 
     private Map<String, Object> readPayloadById(long id) throws Exception {
@@ -1382,7 +1940,9 @@ public class OceanBaseVectorStore implements VectorStore {
         }
         r.setCreatedAt(parseInstant(payload.get("created_at")));
         r.setUpdatedAt(parseInstant(payload.get("updated_at")));
-        r.setLastAccessedAt(parseInstant(payload.get("last_accessed_at")));
+        r.setLastAccessedAt(accessTracker == null
+                ? parseInstant(payload.get("last_accessed_at"))
+                : accessTracker.overlay(id, parseInstant(payload.get("last_accessed_at"))));
 
         java.util.Set<String> reserved = new java.util.HashSet<>();
         Collections.addAll(reserved,
@@ -1421,7 +1981,12 @@ public class OceanBaseVectorStore implements VectorStore {
                               String userId,
                               String agentId,
                               boolean isDeleted) {
-        if (memoryId == null || event == null) {
+        writeHistory(Collections.singletonList(
+                new HistoryEntry(memoryId, oldMemory, newMemory, event, userId, agentId, isDeleted)));
+    }
+
+    private void writeHistory(List<HistoryEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
             return;
         }
         String sql = "INSERT INTO " + TABLE_HISTORY
@@ -1429,20 +1994,50 @@ public class OceanBaseVectorStore implements VectorStore {
                 + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         Instant now = Instant.now();
         try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setString(1, historyIdGenerator.nextId());
-            ps.setString(2, memoryId);
-            ps.setString(3, oldMemory);
-            ps.setString(4, newMemory);
-            ps.setString(5, event);
-            ps.setLong(6, now.toEpochMilli());
-            ps.setLong(7, now.toEpochMilli());
-            ps.setInt(8, isDeleted ? 1 : 0);
-            ps.setString(9, agentId != null && !agentId.isBlank() ? agentId : userId);
-            ps.setString(10, "sdk");
-            ps.executeUpdate();
+            int n = 0;
+            for (HistoryEntry h : entries) {
+                if (h == null || h.memoryId == null || h.event == null) {
+                    continue;
+                }
+                ps.setString(1, historyIdGenerator.nextId());
+                ps.setString(2, h.memoryId);
+                ps.setString(3, h.oldMemory);
+                ps.setString(4, h.newMemory);
+                ps.setString(5, h.event);
+                ps.setLong(6, now.toEpochMilli());
+                ps.setLong(7, now.toEpochMilli());
+                ps.setInt(8, h.isDeleted ? 1 : 0);
+                ps.setString(9, h.agentId != null && !h.agentId.isBlank() ? h.agentId : h.userId);
+                ps.setString(10, "sdk");
+                ps.addBatch();
+                n++;
+            }
+            if (n > 0) {
+                ps.executeBatch();
+            }
         } catch (Exception ignored) {
             // best-effort
         }
     }
-}
 
+    private static final class HistoryEntry {
+        final String memoryId;
+        final String oldMemory;
+        final String newMemory;
+        final String event;
+        final String userId;
+        final String agentId;
+        final boolean isDeleted;
+
+        HistoryEntry(String memoryId, String oldMemory, String newMemory, String event,
+                     String userId, String agentId, boolean isDeleted) {
+            this.memoryId = memoryId;
+            this.oldMemory = oldMemory;
+            this.newMemory = newMemory;
+            this.event = event;
+            this.userId = userId;
+            this.agentId = agentId;
+            this.isDeleted = isDeleted;
+        }
+    }
+}
@@ -1,47 +1,1146 @@
 package com.oceanbase.powermem.sdk.storage.pgvector;
 
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.exception.ApiException;
+import com.oceanbase.powermem.sdk.json.JacksonJsonCodec;
+import com.oceanbase.powermem.sdk.json.JsonCodec;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.base.AccessTracker;
+import com.oceanbase.powermem.sdk.storage.base.HybridFusion;
+import com.oceanbase.powermem.sdk.storage.base.OutputData;
 import com.oceanbase.powermem.sdk.storage.base.VectorStore;
+import com.oceanbase.powermem.sdk.storage.pool.PooledDataSource;
+import com.oceanbase.powermem.sdk.storage.pool.QueryExecutor;
+import com.oceanbase.powermem.sdk.util.SnowflakeIdGenerator;
+
+import java.io.ByteArrayInputStream;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * pgvector/Postgres vector store implementation (Java migration target).
  *
+ * <p>Rows keep the Python payload JSON in a {@code jsonb} column next to a {@code vector(dims)} column;
+ * {@code user_id}/{@code agent_id}/{@code run_id} and a {@code tsvector} over the content are generated columns,
+ * so no write path has to maintain them. The vector index is HNSW ({@code m}, {@code ef_construction}; per-query
+ * {@code hnsw.ef_search}) or IVFFlat ({@code lists}; per-query {@code ivfflat.probes}).</p>
+ *
+ * <p>Vectors are sent as binary {@code float4[]} parameters (cast to {@code vector} server-side), and batches of
+ * {@value #COPY_MIN_ROWS}+ records are bulk-loaded with binary {@code COPY} into a staging table and merged with
+ * one {@code INSERT ... ON CONFLICT}.</p>
+ *
  * <p>Python reference: {@code src/powermem/storage/pgvector/pgvector.py} (PGVectorStore)</p>
  */
 public class PGVectorStore implements VectorStore {
+    private static final String DEFAULT_TABLE = "memories";
+    private static final String TABLE_HISTORY = "history";
+    /** Batches at least this large are loaded with {@code COPY}; smaller ones use batched inserts. */
+    static final int COPY_MIN_ROWS = 32;
+    private static final Logger LOG = Logger.getLogger(PGVectorStore.class.getName());
+
+    private final VectorStoreConfig config;
+    private final String tableName;
+    private final String textSearchConfig;
+    private final JsonCodec json = new JacksonJsonCodec();
+    private final SnowflakeIdGenerator historyIdGenerator = SnowflakeIdGenerator.defaultGenerator();
+    private final AccessTracker accessTracker;
+    private final QueryExecutor queryExecutor;
+    private volatile PooledDataSource dataSource;
+    private volatile boolean initialized;
+    private volatile String indexMethod = "";
+
+    public PGVectorStore() {
+        this(new VectorStoreConfig());
+    }
+
+    public PGVectorStore(VectorStoreConfig config) {
+        this.config = config == null ? new VectorStoreConfig() : config;
+        String table = this.config.getCollectionName();
+        this.tableName = table == null || table.isBlank() ? DEFAULT_TABLE : table.trim();
+        if (!isSafeIdentifier(tableName)) {
+            throw new ApiException("Invalid pgvector collection name: " + tableName);
+        }
+        String tsConfig = this.config.getTextSearchConfig();
+        this.textSearchConfig = tsConfig == null || !isSafeIdentifier(tsConfig.trim()) ? "simple" : tsConfig.trim();
+        this.accessTracker = new AccessTracker(this::flushLastAccessedAt,
+                this.config.getAccessFlushMaxPending(), this.config.getAccessFlushIntervalMillis());
+        this.queryExecutor = new QueryExecutor("powermem-pg-query",
+                this.config.getQueryThreads(), this.config.getQueryQueueCapacity());
+    }
+
+    private String jdbcUrl() {
+        String host = config.getHost() == null || config.getHost().isBlank() ? "127.0.0.1" : config.getHost();
+        int port = config.getPort() > 0 ? config.getPort() : 5432;
+        String db = config.getDatabase() == null || config.getDatabase().isBlank() ? "postgres" : config.getDatabase();
+        String sslmode = config.getSslmode() == null || config.getSslmode().isBlank() ? "prefer" : config.getSslmode().trim();
+        int timeoutSeconds = Math.max(1, config.getTimeoutSeconds());
+        return "jdbc:postgresql://" + host + ":" + port + "/" + db
+                + "?sslmode=" + sslmode
+                + "&connectTimeout=" + timeoutSeconds
+                + "&socketTimeout=" + timeoutSeconds
+                + "&ApplicationName=powermem-java";
+    }
+
+    private Connection openConnection() throws Exception {
+        String user = config.getUser();
+        if (user == null || user.isBlank()) {
+            throw new ApiException("Postgres user is required (vector_store.user)");
+        }
+        PooledDataSource ds = dataSource;
+        if (ds == null) {
+            synchronized (this) {
+                if (dataSource == null) {
+                    try {
+                        Class.forName("org.postgresql.Driver");
+                    } catch (ClassNotFoundException ignored) {
+                        // DriverManager.getConnection reports the missing driver
+                    }
+                    Properties props = new Properties();
+                    props.setProperty("user", user);
+                    props.setProperty("password", config.getPassword() == null ? "" : config.getPassword());
+                    int waitSeconds = config.getPoolTimeoutSeconds() <= 0 ? 30 : config.getPoolTimeoutSeconds();
+                    dataSource = new PooledDataSource(jdbcUrl(), props, config.getPoolSize(), config.getMaxOverflow(),
+                            config.getPoolIdleTimeoutSeconds() * 1000L, waitSeconds * 1000L);
+                }
+                ds = dataSource;
+            }
+        }
+        return ds.getConnection();
+    }
+
+    /**
+     * Connection pool metrics (active/idle connections, wait time, timeouts); null before first use.
+     */
+    public PooledDataSource.PoolStats getPoolStats() {
+        PooledDataSource ds = dataSource;
+        return ds == null ? null : ds.getStats();
+    }
+
+    /**
+     * Metrics of the executor running hybrid search branches (queue waits, caller-runs, missed deadlines).
+     */
+    public QueryExecutor.QueryExecutorStats getQueryExecutorStats() {
+        return queryExecutor.getStats();
+    }
+
+    /**
+     * Drain pending {@code last_accessed_at} touches and close pooled connections.
+     */
+    @Override
+    public void close() {
+        accessTracker.close();
+        queryExecutor.close();
+        PooledDataSource ds = dataSource;
+        if (ds != null) {
+            ds.close();
+        }
+    }
+
+    private synchronized void ensureInitialized() {
+        if (initialized) {
+            return;
+        }
+        int dims = config.getEmbeddingModelDims() > 0 ? config.getEmbeddingModelDims() : 1536;
+        try (Connection c = openConnection(); Statement st = c.createStatement()) {
+            st.execute("CREATE EXTENSION IF NOT EXISTS vector");
+            st.execute("CREATE TABLE IF NOT EXISTS " + tableName + " ("
+                    + "id BIGINT PRIMARY KEY,"
+                    + "embedding vector(" + dims + ") NOT NULL,"
+                    + "payload JSONB NOT NULL,"
+                    + "user_id TEXT GENERATED ALWAYS AS (payload->>'user_id') STORED,"
+                    + "agent_id TEXT GENERATED ALWAYS AS (payload->>'agent_id') STORED,"
+                    + "run_id TEXT GENERATED ALWAYS AS (payload->>'run_id') STORED,"
+                    + "fts tsvector GENERATED ALWAYS AS (to_tsvector('" + textSearchConfig
+                    + "'::regconfig, coalesce(payload->>'fulltext_content', payload->>'data', ''))) STORED"
+                    + ")");
+            st.execute("CREATE INDEX IF NOT EXISTS " + tableName + "_user_id_idx ON " + tableName + " (user_id)");
+            st.execute("CREATE INDEX IF NOT EXISTS " + tableName + "_agent_id_idx ON " + tableName + " (agent_id)");
+            st.execute("CREATE INDEX IF NOT EXISTS " + tableName + "_run_id_idx ON " + tableName + " (run_id)");
+            st.execute("CREATE INDEX IF NOT EXISTS " + tableName + "_fts_idx ON " + tableName + " USING gin (fts)");
+            st.execute("CREATE INDEX IF NOT EXISTS " + tableName + "_payload_idx ON " + tableName
+                    + " USING gin (payload jsonb_path_ops)");
+            st.execute("CREATE TABLE IF NOT EXISTS " + TABLE_HISTORY + " ("
+                    + "id VARCHAR(64) PRIMARY KEY,"
+                    + "memory_id VARCHAR(64),"
+                    + "old_memory TEXT,"
+                    + "new_memory TEXT,"
+                    + "event VARCHAR(10),"
+                    + "created_at BIGINT,"
+                    + "updated_at BIGINT,"
+                    + "is_deleted INT,"
+                    + "actor_id VARCHAR(64),"
+                    + "role VARCHAR(32)"
+                    + ")");
+            st.execute("CREATE INDEX IF NOT EXISTS " + TABLE_HISTORY + "_memory_id_idx ON " + TABLE_HISTORY + " (memory_id)");
+            indexMethod = ensureVectorIndex(st);
+            initialized = true;
+        } catch (Exception ex) {
+            throw new RuntimeException("Failed to initialize pgvector schema: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Create the ANN index named by {@code indexType} (best-effort) and return its access method
+     * ({@code hnsw}, {@code ivfflat} or "" for exact search).
+     */
+    private String ensureVectorIndex(Statement st) {
+        String type = config.getIndexType() == null ? "" : config.getIndexType().trim().toUpperCase();
+        String ops = metric().opclass;
+        String ddl;
+        String method;
+        if ("HNSW".equals(type)) {
+            method = "hnsw";
+            ddl = "CREATE INDEX IF NOT EXISTS " + tableName + "_embedding_hnsw_idx ON " + tableName
+                    + " USING hnsw (embedding " + ops + ") WITH (m = " + Math.max(2, config.getHnswM())
+                    + ", ef_construction = " + Math.max(4, config.getHnswEfConstruction()) + ")";
+        } else if ("IVF_FLAT".equals(type) || "IVFFLAT".equals(type)) {
+            method = "ivfflat";
+            ddl = "CREATE INDEX IF NOT EXISTS " + tableName + "_embedding_ivfflat_idx ON " + tableName
+                    + " USING ivfflat (embedding " + ops + ") WITH (lists = " + Math.max(1, config.getIvfLists()) + ")";
+        } else {
+            return "";
+        }
+        try {
+            st.execute(ddl);
+            return method;
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, "pgvector: could not create " + method + " index; searches scan exactly. cause="
+                    + ex.getMessage(), ex);
+            return "";
+        }
+    }
+
+    @Override
+    public void upsert(MemoryRecord record, float[] embedding) {
+        upsertBatch(Collections.singletonList(record), Collections.singletonList(embedding));
+    }
+
+    @Override
+    public void upsertBatch(List<MemoryRecord> records, List<float[]> embeddings) {
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        applyBatch(records, embeddings, Collections.emptyList());
+    }
+
+    /**
+     * Upsert and delete in one transaction. Large upsert batches go through binary {@code COPY}; deletes use one
+     * {@code DELETE ... WHERE id = ANY(?)}. The old content of deleted rows (for history) is read before the
+     * transaction starts.
+     */
+    @Override
+    public int applyBatch(List<MemoryRecord> upserts, List<float[]> embeddings, Collection<String> deleteIds) {
+        List<MemoryRecord> records = upserts == null ? Collections.<MemoryRecord>emptyList() : upserts;
+        if (embeddings == null ? !records.isEmpty() : embeddings.size() != records.size()) {
+            throw new ApiException("embeddings must align with records");
+        }
+        for (MemoryRecord record : records) {
+            if (record == null || record.getId() == null || record.getId().isBlank()) {
+                throw new ApiException("memory.id is required");
+            }
+        }
+        ensureInitialized();
+        Map<String, MemoryRecord> toDelete = getBatch(deleteIds, null, null);
+        if (records.isEmpty() && toDelete.isEmpty()) {
+            return 0;
+        }
+
+        List<HistoryEntry> history = new ArrayList<>(records.size() + toDelete.size());
+        int deleted = 0;
+        try (Connection c = openConnection()) {
+            c.setAutoCommit(false);
+            try {
+                if (records.size() >= COPY_MIN_ROWS) {
+                    copyUpsert(c, records, embeddings);
+                } else if (!records.isEmpty()) {
+                    batchUpsert(c, records, embeddings);
+                }
+                for (MemoryRecord record : records) {
+                    String event = record.getUpdatedAt() != null && record.getCreatedAt() != null
+                            && record.getUpdatedAt().isAfter(record.getCreatedAt())
+                            ? "UPDATE"
+                            : "ADD";
+                    history.add(new HistoryEntry(record.getId(), null, record.getContent(), event,
+                            record.getUserId(), record.getAgentId(), false));
+                }
+                if (!toDelete.isEmpty()) {
+                    Set<String> gone = new HashSet<>();
+                    try (PreparedStatement ps = c.prepareStatement(
+                            "DELETE FROM " + tableName + " WHERE id = ANY(?) RETURNING id")) {
+                        ps.setArray(1, idArray(c, toDelete.keySet()));
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                gone.add(Long.toString(rs.getLong(1)));
+                            }
+                        }
+                    }
+                    for (Map.Entry<String, MemoryRecord> e : toDelete.entrySet()) {
+                        if (gone.contains(e.getKey().trim())) {
+                            deleted++;
+                            MemoryRecord r = e.getValue();
+                            history.add(new HistoryEntry(r.getId(), r.getContent(), null, "DELETE",
+                                    r.getUserId(), r.getAgentId(), true));
+                        }
+                    }
+                }
+                c.commit();
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException("pgvector upsert failed: " + ex.getMessage(), ex);
+        }
+        writeHistory(history);
+        return deleted;
+    }
+
+    private void batchUpsert(Connection c, List<MemoryRecord> records, List<float[]> embeddings) throws Exception {
+        String sql = "INSERT INTO " + tableName + " (id, embedding, payload) VALUES (?, ?::real[]::vector, ?::jsonb)"
+                + " ON CONFLICT (id) DO UPDATE SET embedding = EXCLUDED.embedding, payload = EXCLUDED.payload";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int i = 0; i < records.size(); i++) {
+                MemoryRecord record = records.get(i);
+                ps.setLong(1, Long.parseLong(record.getId().trim()));
+                ps.setObject(2, vectorParam(embeddings.get(i)));
+                ps.setString(3, json.toJson(toPayload(record)));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Binary {@code COPY} into a per-session staging table, then one merge statement. The staging table is
+     * emptied at commit.
+     */
+    private void copyUpsert(Connection c, List<MemoryRecord> records, List<float[]> embeddings) throws Exception {
+        String stage = "powermem_stage_" + tableName;
+        try (Statement st = c.createStatement()) {
+            st.execute("CREATE TEMP TABLE IF NOT EXISTS " + stage
+                    + " (id BIGINT, embedding vector, payload JSONB) ON COMMIT DELETE ROWS");
+        }
+        PgBinaryCopyWriter w = new PgBinaryCopyWriter();
+        for (int i = 0; i < records.size(); i++) {
+            MemoryRecord record = records.get(i);
+            float[] v = embeddings.get(i);
+            w.startRow(3)
+                    .int8(Long.parseLong(record.getId().trim()))
+                    .vector(v == null ? new float[0] : v)
+                    .jsonb(json.toJson(toPayload(record)));
+        }
+        org.postgresql.PGConnection pg = c.unwrap(org.postgresql.PGConnection.class);
+        pg.getCopyAPI().copyIn("COPY " + stage + " (id, embedding, payload) FROM STDIN (FORMAT binary)",
+                new ByteArrayInputStream(w.finish()));
+        try (Statement st = c.createStatement()) {
+            // DISTINCT ON: the last occurrence of a repeated id wins, like sequential upserts
+            st.executeUpdate("INSERT INTO " + tableName + " (id, embedding, payload)"
+                    + " SELECT DISTINCT ON (id) id, embedding, payload FROM"
+                    + " (SELECT id, embedding, payload, ctid AS pos FROM " + stage + ") s ORDER BY id, pos DESC"
+                    + " ON CONFLICT (id) DO UPDATE SET embedding = EXCLUDED.embedding, payload = EXCLUDED.payload");
+        }
+    }
+
     @Override
-    public void upsert(com.oceanbase.powermem.sdk.model.MemoryRecord record, float[] embedding) {
-        throw new UnsupportedOperationException("PGVectorStore is not implemented yet.");
+    public MemoryRecord get(String memoryId, String userId, String agentId) {
+        if (memoryId == null || memoryId.isBlank()) {
+            return null;
+        }
+        return getBatch(Collections.singletonList(memoryId), userId, agentId).get(memoryId);
     }
 
     @Override
-    public com.oceanbase.powermem.sdk.model.MemoryRecord get(String memoryId, String userId, String agentId) {
-        throw new UnsupportedOperationException("PGVectorStore is not implemented yet.");
+    public Map<String, MemoryRecord> getBatch(Collection<String> memoryIds, String userId, String agentId) {
+        Map<String, MemoryRecord> out = new LinkedHashMap<>();
+        if (memoryIds == null || memoryIds.isEmpty()) {
+            return out;
+        }
+        Map<Long, String> parsed = new LinkedHashMap<>();
+        for (String memoryId : memoryIds) {
+            if (memoryId == null || memoryId.isBlank()) {
+                continue;
+            }
+            try {
+                parsed.putIfAbsent(Long.parseLong(memoryId.trim()), memoryId);
+            } catch (Exception ignored) {
+                // not a stored id
+            }
+        }
+        if (parsed.isEmpty()) {
+            return out;
+        }
+        ensureInitialized();
+        List<Object> args = new ArrayList<>();
+        String where = buildWhere(args, userId, agentId, null, null);
+        Map<Long, MemoryRecord> found = new HashMap<>();
+        try (Connection c = openConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT id, payload FROM " + tableName
+                     + " WHERE id = ANY(?)" + where)) {
+            ps.setArray(1, c.createArrayOf("bigint", parsed.keySet().toArray()));
+            bind(ps, 2, args);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong(1);
+                    found.put(id, fromPayload(Long.toString(id), json.fromJsonToMap(rs.getString(2))));
+                }
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException("pgvector get failed: " + ex.getMessage(), ex);
+        }
+        for (Map.Entry<Long, String> e : parsed.entrySet()) {
+            MemoryRecord r = found.get(e.getKey());
+            if (r != null) {
+                out.put(e.getValue(), r);
+            }
+        }
+        return out;
     }
 
     @Override
     public boolean delete(String memoryId, String userId, String agentId) {
-        throw new UnsupportedOperationException("PGVectorStore is not implemented yet.");
+        MemoryRecord existing = get(memoryId, userId, agentId);
+        if (existing == null) {
+            return false;
+        }
+        boolean deleted;
+        try (Connection c = openConnection();
+             PreparedStatement ps = c.prepareStatement("DELETE FROM " + tableName + " WHERE id = ?")) {
+            ps.setLong(1, Long.parseLong(existing.getId()));
+            deleted = ps.executeUpdate() > 0;
+        } catch (Exception ex) {
+            throw new RuntimeException("pgvector delete failed: " + ex.getMessage(), ex);
+        }
+        if (deleted) {
+            // after the delete connection is released: writeHistory borrows its own
+            writeHistory(Collections.singletonList(new HistoryEntry(existing.getId(), existing.getContent(), null,
+                    "DELETE", userId, agentId, true)));
+        }
+        return deleted;
     }
 
     @Override
     public int deleteAll(String userId, String agentId, String runId) {
-        throw new UnsupportedOperationException("PGVectorStore is not implemented yet.");
+        return deleteAll(userId, agentId, runId, null);
     }
 
+    /**
+     * Delete in chunks of {@code deleteChunkSize} rows. Each chunk is a single statement that deletes the rows and
+     * archives them to history from {@code DELETE ... RETURNING}; no row data reaches the client.
+     */
     @Override
-    public java.util.List<com.oceanbase.powermem.sdk.model.MemoryRecord> list(String userId, String agentId, String runId, int offset, int limit) {
-        throw new UnsupportedOperationException("PGVectorStore is not implemented yet.");
+    public int deleteAll(String userId, String agentId, String runId, java.util.function.IntConsumer progress) {
+        ensureInitialized();
+        int chunkSize = config.getDeleteChunkSize() <= 0 ? 1000 : config.getDeleteChunkSize();
+        List<Object> whereArgs = new ArrayList<>();
+        String where = buildWhere(whereArgs, userId, agentId, runId, null);
+        String sql = "WITH gone AS (DELETE FROM " + tableName + " WHERE id IN ("
+                + "SELECT id FROM " + tableName + " WHERE TRUE" + where + " ORDER BY id LIMIT ?)"
+                + " RETURNING id, payload->>'data' AS data)"
+                + " INSERT INTO " + TABLE_HISTORY
+                + " (id, memory_id, old_memory, new_memory, event, created_at, updated_at, is_deleted, actor_id, role)"
+                + " SELECT ? || '-' || id, id::text, data, NULL, 'DELETE', ?, ?, 1, ?, 'sdk' FROM gone";
+        String actor = agentId != null && !agentId.isBlank() ? agentId : userId;
+        int deleted = 0;
+        try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+            while (true) {
+                long now = Instant.now().toEpochMilli();
+                int p = bind(ps, 1, whereArgs);
+                ps.setInt(p++, chunkSize);
+                ps.setString(p++, historyIdGenerator.nextId());
+                ps.setLong(p++, now);
+                ps.setLong(p++, now);
+                ps.setString(p, actor);
+                int n = ps.executeUpdate();
+                deleted += n;
+                if (n > 0 && progress != null) {
+                    progress.accept(deleted);
+                }
+                if (n < chunkSize) {
+                    break;
+                }
+            }
+            return deleted;
+        } catch (Exception ex) {
+            throw new RuntimeException("pgvector deleteAll failed: " + ex.getMessage(), ex);
+        }
     }
 
     @Override
-    public java.util.List<com.oceanbase.powermem.sdk.storage.base.OutputData> search(
-            float[] queryEmbedding,
-            int topK,
-            String userId,
-            String agentId,
-            String runId,
-            java.util.Map<String, Object> filters) {
-        throw new UnsupportedOperationException("PGVectorStore is not implemented yet.");
+    public List<MemoryRecord> list(String userId, String agentId, String runId, int offset, int limit) {
+        ensureInitialized();
+        List<Object> args = new ArrayList<>();
+        String where = buildWhere(args, userId, agentId, runId, null);
+        List<MemoryRecord> out = new ArrayList<>();
+        try (Connection c = openConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT id, payload FROM " + tableName + " WHERE TRUE" + where
+                     + " ORDER BY id DESC LIMIT ? OFFSET ?")) {
+            int p = bind(ps, 1, args);
+            ps.setInt(p++, limit <= 0 ? 100 : limit);
+            ps.setInt(p, Math.max(0, offset));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(fromPayload(Long.toString(rs.getLong(1)), json.fromJsonToMap(rs.getString(2))));
+                }
+            }
+            return out;
+        } catch (Exception ex) {
+            throw new RuntimeException("pgvector list failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public List<OutputData> search(float[] queryEmbedding,
+                                   int topK,
+                                   String userId,
+                                   String agentId,
+                                   String runId,
+                                   Map<String, Object> filters) {
+        ensureInitialized();
+        List<OutputData> out = vectorSearchInternal(queryEmbedding, topK <= 0 ? 5 : topK, userId, agentId, runId, filters);
+        touchAccessed(out, Instant.now());
+        return out;
     }
-}
 
+    /**
+     * Hybrid search (vector + {@code tsvector} full-text), fused with the configured RRF/weighted method like
+     * OceanBase. Both branches run on the store's query executor with per-branch deadlines; a branch that fails
+     * or misses its deadline is dropped.
+     */
+    public List<OutputData> searchHybrid(String queryText,
+                                         float[] queryEmbedding,
+                                         int topK,
+                                         String userId,
+                                         String agentId,
+                                         String runId,
+                                         Map<String, Object> filters) {
+        ensureInitialized();
+        int limit = topK <= 0 ? 5 : topK;
+        String q = queryText == null ? "" : queryText.trim();
+        if (q.isEmpty() || !config.isHybridSearch()) {
+            return search(queryEmbedding, limit, userId, agentId, runId, filters);
+        }
+        // each branch's deadline bounds its task too (skipped if still queued, statements time out with it)
+        long startNanos = System.nanoTime();
+        long vectorDeadline = deadlineNanos(startNanos, config.getHybridVectorTimeoutMillis());
+        long ftsDeadline = deadlineNanos(startNanos, config.getHybridFtsTimeoutMillis());
+        CompletableFuture<List<OutputData>> vectorFuture = queryExecutor.submit(
+                () -> vectorSearchInternal(queryEmbedding, limit, userId, agentId, runId, filters), vectorDeadline);
+        CompletableFuture<List<OutputData>> ftsFuture = queryExecutor.submit(
+                () -> fulltextSearchInternal(q, limit, userId, agentId, runId, filters), ftsDeadline);
+        List<OutputData> vectorResults = awaitBranch("vector", vectorFuture, vectorDeadline, "FTS only");
+        List<OutputData> ftsResults = awaitBranch("FTS", ftsFuture, ftsDeadline, "vector only");
+
+        String method = config.getFusionMethod() == null ? "rrf" : config.getFusionMethod().trim().toLowerCase();
+        List<OutputData> fused = "weighted".equals(method)
+                ? HybridFusion.weighted(vectorResults, ftsResults, limit, config.getVectorWeight(), config.getFtsWeight())
+                : HybridFusion.rrf(vectorResults, ftsResults, limit, config.getRrfK(), config.getVectorWeight(), config.getFtsWeight());
+        touchAccessed(fused, Instant.now());
+        return fused;
+    }
+
+    private List<OutputData> vectorSearchInternal(float[] queryEmbedding,
+                                                  int k,
+                                                  String userId,
+                                                  String agentId,
+                                                  String runId,
+                                                  Map<String, Object> filters) {
+        if (queryEmbedding == null || queryEmbedding.length == 0) {
+            return new ArrayList<>();
+        }
+        Metric metric = metric();
+        List<Object> args = new ArrayList<>();
+        String where = buildWhere(args, userId, agentId, runId, filters);
+        String sql = "SELECT id, payload, embedding " + metric.operator + " ?::real[]::vector AS d FROM " + tableName
+                + " WHERE TRUE" + where + " ORDER BY d LIMIT ?";
+        List<OutputData> out = new ArrayList<>();
+        Instant now = Instant.now();
+        try (Connection c = openConnection()) {
+            c.setAutoCommit(false);
+            try {
+                // set_config(..., true) is transaction-local, like SET LOCAL
+                String method = indexMethod;
+                if ("hnsw".equals(method) || "ivfflat".equals(method)) {
+                    boolean hnsw = "hnsw".equals(method);
+                    try (PreparedStatement ps = c.prepareStatement("SELECT set_config(?, ?, true)")) {
+                        ps.setString(1, hnsw ? "hnsw.ef_search" : "ivfflat.probes");
+                        ps.setString(2, Integer.toString(hnsw
+                                ? Math.max(k, config.getHnswEfSearch() <= 0 ? 40 : config.getHnswEfSearch())
+                                : Math.max(1, config.getIvfProbes())));
+                        ps.execute();
+                    }
+                }
+                try (PreparedStatement ps = c.prepareStatement(sql)) {
+                    QueryExecutor.applyDeadline(ps);
+                    ps.setObject(1, vectorParam(queryEmbedding));
+                    int p = bind(ps, 2, args);
+                    ps.setInt(p, k);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            MemoryRecord record = fromPayload(Long.toString(rs.getLong(1)), json.fromJsonToMap(rs.getString(2)));
+                            record.setLastAccessedAt(now);
+                            out.add(new OutputData(record, metric.score(rs.getDouble(3))));
+                        }
+                    }
+                }
+                c.commit();
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+            return out;
+        } catch (Exception ex) {
+            throw new RuntimeException("pgvector search failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    private List<OutputData> fulltextSearchInternal(String queryText,
+                                                    int k,
+                                                    String userId,
+                                                    String agentId,
+                                                    String runId,
+                                                    Map<String, Object> filters) {
+        List<Object> args = new ArrayList<>();
+        String where = buildWhere(args, userId, agentId, runId, filters);
+        String sql = "SELECT id, payload, ts_rank_cd(fts, q) AS s FROM " + tableName + ", plainto_tsquery('"
+                + textSearchConfig + "'::regconfig, ?) q WHERE fts @@ q" + where + " ORDER BY s DESC LIMIT ?";
+        List<OutputData> out = new ArrayList<>();
+        try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+            QueryExecutor.applyDeadline(ps);
+            ps.setString(1, queryText);
+            int p = bind(ps, 2, args);
+            ps.setInt(p, k);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    MemoryRecord record = fromPayload(Long.toString(rs.getLong(1)), json.fromJsonToMap(rs.getString(2)));
+                    out.add(new OutputData(record, rs.getDouble(3)));
+                }
+            }
+            return out;
+        } catch (Exception ex) {
+            throw new RuntimeException("pgvector full-text search failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    private List<OutputData> awaitBranch(String branch, CompletableFuture<List<OutputData>> future,
+                                         long deadlineNanos, String continuingWith) {
+        try {
+            List<OutputData> out = queryExecutor.await(future, deadlineNanos);
+            return out == null ? Collections.<OutputData>emptyList() : out;
+        } catch (TimeoutException ex) {
+            LOG.warning("pgvector hybrid: " + branch + " branch missed its deadline; continuing with " + continuingWith
+                    + ". executor=" + queryExecutor.getStats());
+        } catch (Exception ex) {
+            Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+            LOG.log(Level.WARNING, "pgvector hybrid: " + branch + " branch failed; continuing with " + continuingWith
+                    + ". cause=" + cause.getMessage(), cause);
+        }
+        return Collections.emptyList();
+    }
+
+    private static long deadlineNanos(long startNanos, int timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            return 0L;
+        }
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        // 0 means "no deadline" to QueryExecutor.await
+        return deadline == 0L ? 1L : deadline;
+    }
+
+    /**
+     * Update payload fields in place: {@code payload || patch} replaces only the given top-level keys, so
+     * concurrent updates of other keys are not lost. The generated columns follow automatically.
+     */
+    public void updatePayloadFields(String memoryId, Map<String, Object> fieldUpdates) {
+        if (memoryId == null || memoryId.isBlank() || fieldUpdates == null || fieldUpdates.isEmpty()) {
+            return;
+        }
+        long id;
+        try {
+            id = Long.parseLong(memoryId.trim());
+        } catch (Exception ex) {
+            return;
+        }
+        Map<String, Object> patch = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> e : fieldUpdates.entrySet()) {
+            if (e.getKey() != null && !e.getKey().isBlank()) {
+                patch.put(e.getKey(), e.getValue());
+            }
+        }
+        if (patch.isEmpty()) {
+            return;
+        }
+        patch.putIfAbsent("updated_at", Instant.now().toString());
+        ensureInitialized();
+        try (Connection c = openConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "UPDATE " + tableName + " SET payload = payload || ?::jsonb WHERE id = ?")) {
+            ps.setString(1, json.toJson(patch));
+            ps.setLong(2, id);
+            ps.executeUpdate();
+        } catch (Exception ignored) {
+            // best-effort
+        }
+    }
+
+    private void touchAccessed(List<OutputData> results, Instant at) {
+        List<String> ids = new ArrayList<>(results.size());
+        for (OutputData d : results) {
+            if (d == null || d.getRecord() == null) continue;
+            d.getRecord().setLastAccessedAt(at);
+            ids.add(d.getRecord().getId());
+        }
+        accessTracker.touch(ids, at);
+    }
+
+    private void flushLastAccessedAt(Map<String, Instant> touches) throws Exception {
+        // Only payload.last_accessed_at changes; monotonic (ISO-8601 UTC strings sort chronologically).
+        String sql = "UPDATE " + tableName + " SET payload = jsonb_set(payload, '{last_accessed_at}', to_jsonb(?::text))"
+                + " WHERE id = ? AND (payload->>'last_accessed_at' IS NULL OR payload->>'last_accessed_at' < ?)";
+        try (Connection c = openConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                for (Map.Entry<String, Instant> e : touches.entrySet()) {
+                    long id;
+                    try {
+                        id = Long.parseLong(e.getKey().trim());
+                    } catch (Exception ex) {
+                        continue;
+                    }
+                    String at = e.getValue().toString();
+                    ps.setString(1, at);
+                    ps.setLong(2, id);
+                    ps.setString(3, at);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                c.commit();
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static float[] vectorParam(float[] v) {
+        // bound as a binary float4[] parameter and cast to vector in SQL
+        return v == null ? new float[0] : v;
+    }
+
+    private static Array idArray(Connection c, Collection<String> ids) throws Exception {
+        List<Long> parsed = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            parsed.add(Long.parseLong(id.trim()));
+        }
+        return c.createArrayOf("bigint", parsed.toArray());
+    }
+
+    private static int bind(PreparedStatement ps, int start, List<Object> args) throws Exception {
+        int p = start;
+        for (Object a : args) {
+            ps.setObject(p++, a);
+        }
+        return p;
+    }
+
+    // ---------------------------------------------------------------- filters
+
+    private String buildWhere(List<Object> args, String userId, String agentId, String runId, Map<String, Object> filters) {
+        // Python parity: merge user_id/agent_id/run_id into filters and allow complex filter syntax.
+        Map<String, Object> eff = new HashMap<>();
+        if (filters != null) {
+            eff.putAll(filters);
+        }
+        if (userId != null && !userId.isBlank()) {
+            eff.put("user_id", userId);
+        }
+        if (agentId != null && !agentId.isBlank()) {
+            eff.put("agent_id", agentId);
+        }
+        if (runId != null && !runId.isBlank()) {
+            eff.put("run_id", runId);
+        }
+        String clause = buildCondition(eff, args);
+        return clause == null || clause.isBlank() ? "" : " AND " + clause;
+    }
+
+    /**
+     * Same filter syntax as OceanBase: {@code {"field": value}}, lists as {@code IN}, operator maps
+     * ({@code eq/ne/gt/gte/lt/lte/in/nin/like/ilike}) and {@code AND}/{@code OR} lists. Numeric and boolean values
+     * compare as such; everything else compares as text.
+     */
+    private String buildCondition(Object filterObj, List<Object> args) {
+        if (filterObj instanceof List) {
+            return joinLogical("AND", filterObj, args);
+        }
+        if (!(filterObj instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> m = (Map<?, ?>) filterObj;
+        if (m.containsKey("AND")) {
+            return joinLogical("AND", m.get("AND"), args);
+        }
+        if (m.containsKey("OR")) {
+            return joinLogical("OR", m.get("OR"), args);
+        }
+        List<String> parts = new ArrayList<>();
+        for (Map.Entry<?, ?> e : m.entrySet()) {
+            if (e.getKey() == null || String.valueOf(e.getKey()).isBlank()) continue;
+            String cond = buildFieldCondition(String.valueOf(e.getKey()).trim(), e.getValue(), args);
+            if (cond != null && !cond.isBlank()) {
+                parts.add(cond);
+            }
+        }
+        return parts.isEmpty() ? null : String.join(" AND ", parts);
+    }
+
+    private String joinLogical(String op, Object v, List<Object> args) {
+        List<?> list = v instanceof List ? (List<?>) v : Collections.singletonList(v);
+        List<String> parts = new ArrayList<>();
+        for (Object o : list) {
+            String p = buildCondition(o, args);
+            if (p != null && !p.isBlank()) {
+                parts.add("(" + p + ")");
+            }
+        }
+        return parts.isEmpty() ? null : String.join(" " + op + " ", parts);
+    }
+
+    private String buildFieldCondition(String key, Object value, List<Object> args) {
+        String textExpr = textExprForKey(key);
+        if (textExpr == null) {
+            return null;
+        }
+        if (value == null) {
+            return textExpr + " IS NULL";
+        }
+        if (value instanceof List) {
+            return buildInList(textExpr, (List<?>) value, args, false);
+        }
+        if (value instanceof Map) {
+            List<String> parts = new ArrayList<>();
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                if (e.getKey() == null) continue;
+                String op = String.valueOf(e.getKey()).trim();
+                if (op.startsWith("$")) op = op.substring(1);
+                String part = buildOpCondition(textExpr, op, e.getValue(), args);
+                if (part != null) {
+                    parts.add(part);
+                }
+            }
+            return parts.isEmpty() ? null : String.join(" AND ", parts);
+        }
+        return buildOpCondition(textExpr, "eq", value, args);
+    }
+
+    private String buildOpCondition(String textExpr, String op, Object v, List<Object> args) {
+        String sqlOp;
+        switch (op) {
+            case "eq": sqlOp = "="; break;
+            case "ne": sqlOp = "<>"; break;
+            case "gt": sqlOp = ">"; break;
+            case "gte": sqlOp = ">="; break;
+            case "lt": sqlOp = "<"; break;
+            case "lte": sqlOp = "<="; break;
+            case "in":
+                return v instanceof List ? buildInList(textExpr, (List<?>) v, args, false) : null;
+            case "nin":
+                return v instanceof List ? buildInList(textExpr, (List<?>) v, args, true) : null;
+            case "like":
+                args.add(v == null ? null : String.valueOf(v));
+                return textExpr + " LIKE ?";
+            case "ilike":
+                args.add(v == null ? null : String.valueOf(v));
+                return textExpr + " ILIKE ?";
+            default:
+                return null;
+        }
+        return typedExpr(textExpr, v) + " " + sqlOp + " " + typedParam(v, args);
+    }
+
+    private String buildInList(String textExpr, List<?> list, List<Object> args, boolean negate) {
+        if (list == null || list.isEmpty()) {
+            return null;
+        }
+        StringBuilder in = new StringBuilder(textExpr).append(negate ? " NOT IN (" : " IN (");
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) in.append(", ");
+            in.append("?");
+            Object o = list.get(i);
+            args.add(o == null ? null : String.valueOf(o));
+        }
+        return in.append(")").toString();
+    }
+
+    private static String typedExpr(String textExpr, Object v) {
+        if (v instanceof Number) {
+            return "(" + textExpr + ")::numeric";
+        }
+        if (v instanceof Boolean) {
+            return "(" + textExpr + ")::boolean";
+        }
+        return textExpr;
+    }
+
+    private static String typedParam(Object v, List<Object> args) {
+        if (v instanceof Number) {
+            args.add(new java.math.BigDecimal(String.valueOf(v)));
+            return "?";
+        }
+        if (v instanceof Boolean) {
+            args.add(v);
+            return "?";
+        }
+        args.add(String.valueOf(v));
+        return "?";
+    }
+
+    /**
+     * SQL expression yielding the key's value as text: generated columns for the scope ids, top-level payload
+     * keys for the fixed record fields and {@code payload.xxx}, metadata otherwise (Python behavior).
+     */
+    private static String textExprForKey(String key) {
+        if (key.startsWith("payload.")) {
+            String k = key.substring("payload.".length()).trim();
+            return isSafeJsonKey(k) ? "payload->>'" + k + "'" : null;
+        }
+        if (key.startsWith("metadata.")) {
+            String k = key.substring("metadata.".length()).trim();
+            return isSafeJsonKey(k) ? "payload->'metadata'->>'" + k + "'" : null;
+        }
+        switch (key) {
+            case "user_id":
+            case "agent_id":
+            case "run_id":
+                return key;
+            case "hash":
+            case "category":
+            case "scope":
+            case "created_at":
+            case "updated_at":
+                return "payload->>'" + key + "'";
+            default:
+                return isSafeJsonKey(key) ? "payload->'metadata'->>'" + key + "'" : null;
+        }
+    }
+
+    private static boolean isSafeJsonKey(String k) {
+        if (k == null || k.isBlank()) return false;
+        for (int i = 0; i < k.length(); i++) {
+            char c = k.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSafeIdentifier(String s) {
+        if (s == null || s.isEmpty() || s.length() > 48 || Character.isDigit(s.charAt(0))) return false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Metric metric() {
+        String m = config.getMetricType() == null ? "cosine" : config.getMetricType().trim().toLowerCase();
+        if ("l2".equals(m)) {
+            return Metric.L2;
+        }
+        if ("inner_product".equals(m) || "ip".equals(m)) {
+            return Metric.INNER_PRODUCT;
+        }
+        return Metric.COSINE;
+    }
+
+    private enum Metric {
+        COSINE("<=>", "vector_cosine_ops"),
+        L2("<->", "vector_l2_ops"),
+        // <#> is the negative inner product
+        INNER_PRODUCT("<#>", "vector_ip_ops");
+
+        final String operator;
+        final String opclass;
+
+        Metric(String operator, String opclass) {
+            this.operator = operator;
+            this.opclass = opclass;
+        }
+
+        /** Higher is better, on the same scale as the OceanBase store. */
+        double score(double d) {
+            return this == INNER_PRODUCT ? -d : 1.0 / (1.0 + Math.max(0.0, d));
+        }
+    }
+
+    // ---------------------------------------------------------------- payload
+
+    private Map<String, Object> toPayload(MemoryRecord r) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("data", r.getContent() == null ? "" : r.getContent());
+        payload.put("fulltext_content", r.getContent() == null ? "" : r.getContent());
+        payload.put("user_id", r.getUserId() == null ? "" : r.getUserId());
+        payload.put("agent_id", r.getAgentId() == null ? "" : r.getAgentId());
+        payload.put("run_id", r.getRunId() == null ? "" : r.getRunId());
+        payload.put("hash", r.getHash() == null ? "" : r.getHash());
+        payload.put("category", r.getCategory() == null ? "" : r.getCategory());
+        if (r.getScope() != null) {
+            payload.put("scope", r.getScope());
+        }
+        payload.put("created_at", r.getCreatedAt() == null ? null : r.getCreatedAt().toString());
+        payload.put("updated_at", r.getUpdatedAt() == null ? null : r.getUpdatedAt().toString());
+        payload.put("last_accessed_at", r.getLastAccessedAt() == null ? null : r.getLastAccessedAt().toString());
+        payload.put("metadata", r.getMetadata() == null ? Collections.emptyMap() : r.getMetadata());
+        if (r.getAttributes() != null) {
+            for (Map.Entry<String, Object> e : r.getAttributes().entrySet()) {
+                if (e.getKey() == null || e.getKey().isBlank()) continue;
+                String k = e.getKey();
+                if (payload.containsKey(k) || "metadata".equals(k)) continue;
+                payload.put(k, e.getValue());
+            }
+        }
+        return payload;
+    }
+
+    private MemoryRecord fromPayload(String id, Map<String, Object> payload) {
+        MemoryRecord r = new MemoryRecord();
+        r.setId(id);
+        if (payload == null) {
+            return r;
+        }
+        r.setContent(asString(payload.get("data")));
+        r.setUserId(asString(payload.get("user_id")));
+        r.setAgentId(asString(payload.get("agent_id")));
+        r.setRunId(asString(payload.get("run_id")));
+        r.setHash(asString(payload.get("hash")));
+        r.setCategory(asString(payload.get("category")));
+        r.setScope(asString(payload.get("scope")));
+        Object meta = payload.get("metadata");
+        Map<String, Object> safe = new HashMap<>();
+        if (meta instanceof Map) {
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) meta).entrySet()) {
+                if (e.getKey() == null) continue;
+                safe.put(String.valueOf(e.getKey()), e.getValue());
+            }
+        }
+        r.setMetadata(safe);
+        r.setCreatedAt(parseInstant(payload.get("created_at")));
+        r.setUpdatedAt(parseInstant(payload.get("updated_at")));
+        r.setLastAccessedAt(accessTracker.overlay(id, parseInstant(payload.get("last_accessed_at"))));
+
+        Set<String> reserved = new HashSet<>();
+        Collections.addAll(reserved,
+                "data", "fulltext_content", "user_id", "agent_id", "run_id", "hash", "category", "scope",
+                "created_at", "updated_at", "last_accessed_at", "metadata");
+        Map<String, Object> attrs = new HashMap<>();
+        for (Map.Entry<String, Object> e : payload.entrySet()) {
+            if (e.getKey() == null || reserved.contains(e.getKey())) continue;
+            attrs.put(e.getKey(), e.getValue());
+        }
+        r.setAttributes(attrs.isEmpty() ? null : attrs);
+        return r;
+    }
+
+    private static String asString(Object v) {
+        if (v == null) return null;
+        String s = String.valueOf(v);
+        return s.isBlank() ? null : s;
+    }
+
+    private static Instant parseInstant(Object v) {
+        if (!(v instanceof String)) return null;
+        String s = (String) v;
+        if (s.isBlank()) return null;
+        try {
+            return Instant.parse(s);
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    // ---------------------------------------------------------------- history
+
+    private void writeHistory(List<HistoryEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO " + TABLE_HISTORY
+                + " (id, memory_id, old_memory, new_memory, event, created_at, updated_at, is_deleted, actor_id, role)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        long now = Instant.now().toEpochMilli();
+        try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+            int n = 0;
+            for (HistoryEntry h : entries) {
+                if (h == null || h.memoryId == null || h.event == null) {
+                    continue;
+                }
+                ps.setString(1, historyIdGenerator.nextId());
+                ps.setString(2, h.memoryId);
+                ps.setString(3, h.oldMemory);
+                ps.setString(4, h.newMemory);
+                ps.setString(5, h.event);
+                ps.setLong(6, now);
+                ps.setLong(7, now);
+                ps.setInt(8, h.isDeleted ? 1 : 0);
+                ps.setString(9, h.agentId != null && !h.agentId.isBlank() ? h.agentId : h.userId);
+                ps.setString(10, "sdk");
+                ps.addBatch();
+                n++;
+            }
+            if (n > 0) {
+                ps.executeBatch();
+            }
+        } catch (Exception ignored) {
+            // best-effort
+        }
+    }
+
+    private static final class HistoryEntry {
+        final String memoryId;
+        final String oldMemory;
+        final String newMemory;
+        final String event;
+        final String userId;
+        final String agentId;
+        final boolean isDeleted;
+
+        HistoryEntry(String memoryId, String oldMemory, String newMemory, String event,
+                     String userId, String agentId, boolean isDeleted) {
+            this.memoryId = memoryId;
+            this.oldMemory = oldMemory;
+            this.newMemory = newMemory;
+            this.event = event;
+            this.userId = userId;
+            this.agentId = agentId;
+            this.isDeleted = isDeleted;
+        }
+    }
+}
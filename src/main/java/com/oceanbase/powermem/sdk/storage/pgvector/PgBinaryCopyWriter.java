@@ -0,0 +1,128 @@
+package com.oceanbase.powermem.sdk.storage.pgvector;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encoder for PostgreSQL {@code COPY ... FROM STDIN (FORMAT binary)} streams.
+ *
+ * <p>Vectors use pgvector's binary wire format ({@code vector_recv}: int16 dimensions, int16 unused, then
+ * big-endian float4 values), so bulk loads never format or parse vectors as text.</p>
+ *
+ * <p>No direct Python equivalent.</p>
+ */
+public final class PgBinaryCopyWriter {
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final int JSONB_VERSION = 1;
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(bytes);
+    private int rows;
+
+    public PgBinaryCopyWriter() {
+        try {
+            out.write(SIGNATURE);
+            out.writeInt(0); // flags
+            out.writeInt(0); // header extension length
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public PgBinaryCopyWriter startRow(int fieldCount) {
+        try {
+            out.writeShort(fieldCount);
+            rows++;
+            return this;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public PgBinaryCopyWriter int8(long value) {
+        try {
+            out.writeInt(8);
+            out.writeLong(value);
+            return this;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public PgBinaryCopyWriter vector(float[] value) {
+        if (value == null) {
+            return nullValue();
+        }
+        if (value.length > 0xFFFF) {
+            throw new IllegalArgumentException("vector has too many dimensions: " + value.length);
+        }
+        try {
+            out.writeInt(4 + 4 * value.length);
+            out.writeShort(value.length);
+            out.writeShort(0);
+            for (float f : value) {
+                out.writeFloat(f);
+            }
+            return this;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public PgBinaryCopyWriter jsonb(String json) {
+        if (json == null) {
+            return nullValue();
+        }
+        byte[] b = json.getBytes(StandardCharsets.UTF_8);
+        try {
+            out.writeInt(1 + b.length);
+            out.writeByte(JSONB_VERSION);
+            out.write(b);
+            return this;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public PgBinaryCopyWriter text(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        byte[] b = value.getBytes(StandardCharsets.UTF_8);
+        try {
+            out.writeInt(b.length);
+            out.write(b);
+            return this;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public PgBinaryCopyWriter nullValue() {
+        try {
+            out.writeInt(-1);
+            return this;
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    /**
+     * The complete stream: header, rows and trailer. The writer must not be used afterwards.
+     */
+    public byte[] finish() {
+        try {
+            out.writeShort(-1);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,560 @@
+package com.oceanbase.powermem.sdk.storage.pool;
+
+import java.io.PrintWriter;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Minimal bounded JDBC connection pool used by the built-in stores.
+ *
+ * <p>Sizing follows the Python (SQLAlchemy) semantics of {@code pool_size} / {@code max_overflow}: up to
+ * {@code poolSize} connections are kept idle for reuse, and up to {@code poolSize + maxOverflow} may be open
+ * at once; overflow connections are closed when returned. Borrowers wait up to {@code waitTimeoutMillis}
+ * for a free connection. Connections idle longer than {@code idleTimeoutMillis} are evicted in the
+ * background, and connections that sat idle for a while are validated before being handed out.</p>
+ *
+ * <p>Python reference: SQLAlchemy engine pooling used by {@code src/powermem/storage/oceanbase/oceanbase.py}
+ * and {@code src/powermem/storage/pgvector/pgvector.py}.</p>
+ */
+public class PooledDataSource implements javax.sql.DataSource, AutoCloseable {
+    private static final Logger LOG = Logger.getLogger(PooledDataSource.class.getName());
+    private static final long VALIDATE_AFTER_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+    private static final long EVICTION_INTERVAL_MILLIS = 30_000L;
+    private static final AtomicReference<ScheduledExecutorService> EVICTOR = new AtomicReference<>();
+
+    private final String jdbcUrl;
+    private final Properties properties;
+    private final int poolSize;
+    private final int maxTotal;
+    private final long idleTimeoutNanos;
+    private final long waitTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private int total;
+    private int active;
+    private boolean closed;
+    private final ScheduledFuture<?> evictionTask;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+
+    /**
+     * @param jdbcUrl           JDBC URL passed to {@link DriverManager}
+     * @param properties        driver properties (user/password, driver pragmas, ...)
+     * @param poolSize          connections kept open for reuse (at least 1)
+     * @param maxOverflow       extra connections allowed under load (closed on return)
+     * @param idleTimeoutMillis idle connections older than this are closed ({@code <= 0} disables eviction)
+     * @param waitTimeoutMillis how long {@link #getConnection()} waits when the pool is exhausted
+     */
+    public PooledDataSource(String jdbcUrl,
+                            Properties properties,
+                            int poolSize,
+                            int maxOverflow,
+                            long idleTimeoutMillis,
+                            long waitTimeoutMillis) {
+        this.jdbcUrl = jdbcUrl;
+        this.properties = properties == null ? new Properties() : properties;
+        this.poolSize = Math.max(1, poolSize);
+        this.maxTotal = this.poolSize + Math.max(0, maxOverflow);
+        this.idleTimeoutNanos = idleTimeoutMillis <= 0 ? 0L : TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.waitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, waitTimeoutMillis));
+        this.evictionTask = this.idleTimeoutNanos > 0 ? scheduleEviction(this) : null;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + waitTimeoutNanos;
+        boolean waited = false;
+        while (true) {
+            PooledConnection pc;
+            boolean create = false;
+            lock.lock();
+            try {
+                if (closed) {
+                    throw new SQLException("Connection pool is closed");
+                }
+                pc = idle.pollFirst();
+                if (pc == null) {
+                    if (total < maxTotal) {
+                        total++;
+                        create = true;
+                    } else {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            timeoutCount.increment();
+                            throw new SQLTransientConnectionException("Connection pool exhausted: " + maxTotal
+                                    + " connections in use, waited " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+                        }
+                        waited = true;
+                        try {
+                            released.awaitNanos(remaining);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Interrupted while waiting for a pooled connection", ex);
+                        }
+                        continue;
+                    }
+                }
+                active++;
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    pc = new PooledConnection(DriverManager.getConnection(jdbcUrl, properties));
+                    createdCount.increment();
+                } catch (SQLException | RuntimeException ex) {
+                    lock.lock();
+                    try {
+                        total--;
+                        active--;
+                        released.signal();
+                    } finally {
+                        lock.unlock();
+                    }
+                    throw ex;
+                }
+            } else if (!isUsable(pc)) {
+                discard(pc, true);
+                continue;
+            }
+
+            recordBorrow(start, waited);
+            return pc.lease();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections use the configured credentials");
+    }
+
+    /**
+     * Point-in-time pool metrics.
+     */
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            long borrows = borrowCount.sum();
+            return new PoolStats(active, idle.size(), total, maxTotal, borrows, waitCount.sum(),
+                    TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum()),
+                    TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()),
+                    timeoutCount.sum(), createdCount.sum(), destroyedCount.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close idle connections and refuse new borrows. Connections currently in use are closed when returned.
+     */
+    @Override
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            total -= idle.size();
+            idle.clear();
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (evictionTask != null) {
+            evictionTask.cancel(false);
+        }
+        for (PooledConnection pc : toClose) {
+            closeQuietly(pc);
+        }
+    }
+
+    /**
+     * Close connections that have been idle longer than the configured idle timeout.
+     */
+    void evictIdle() {
+        if (idleTimeoutNanos <= 0) {
+            return;
+        }
+        List<PooledConnection> expired = new ArrayList<>();
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            // idle is LIFO: the oldest connections sit at the tail
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastReturnedNanos < idleTimeoutNanos) {
+                    break;
+                }
+                it.remove();
+                total--;
+                expired.add(pc);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pc : expired) {
+            closeQuietly(pc);
+        }
+    }
+
+    private void release(PooledConnection pc) {
+        boolean reusable = resetForReuse(pc.raw);
+        boolean keep = false;
+        lock.lock();
+        try {
+            active--;
+            if (!closed && reusable && idle.size() < poolSize) {
+                pc.lastReturnedNanos = System.nanoTime();
+                idle.addFirst(pc);
+                keep = true;
+            } else {
+                total--;
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (!keep) {
+            closeQuietly(pc);
+        }
+    }
+
+    private void discard(PooledConnection pc, boolean wasActive) {
+        lock.lock();
+        try {
+            total--;
+            if (wasActive) {
+                active--;
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(pc);
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        try {
+            if (pc.raw.isClosed()) {
+                return false;
+            }
+            if (System.nanoTime() - pc.lastReturnedNanos < VALIDATE_AFTER_IDLE_NANOS) {
+                return true;
+            }
+            return pc.raw.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    private static boolean resetForReuse(Connection raw) {
+        try {
+            if (raw.isClosed()) {
+                return false;
+            }
+            if (!raw.getAutoCommit()) {
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+            return true;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    private void closeQuietly(PooledConnection pc) {
+        destroyedCount.increment();
+        try {
+            pc.raw.close();
+        } catch (Exception ex) {
+            LOG.log(Level.FINE, "Failed to close pooled connection: " + ex.getMessage(), ex);
+        }
+    }
+
+    private void recordBorrow(long startNanos, boolean waited) {
+        borrowCount.increment();
+        if (!waited) {
+            return;
+        }
+        long w = System.nanoTime() - startNanos;
+        waitCount.increment();
+        totalWaitNanos.add(w);
+        maxWaitNanos.accumulateAndGet(w, Math::max);
+    }
+
+    private static ScheduledFuture<?> scheduleEviction(PooledDataSource pool) {
+        // Weak reference: an abandoned (never closed) pool must not be kept alive by its eviction task.
+        WeakReference<PooledDataSource> ref = new WeakReference<>(pool);
+        AtomicReference<ScheduledFuture<?>> self = new AtomicReference<>();
+        ScheduledFuture<?> f = evictor().scheduleWithFixedDelay(() -> {
+            PooledDataSource p = ref.get();
+            if (p == null) {
+                ScheduledFuture<?> s = self.get();
+                if (s != null) {
+                    s.cancel(false);
+                }
+                return;
+            }
+            try {
+                p.evictIdle();
+            } catch (Exception ex) {
+                LOG.log(Level.FINE, "Idle eviction failed: " + ex.getMessage(), ex);
+            }
+        }, EVICTION_INTERVAL_MILLIS, EVICTION_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        self.set(f);
+        return f;
+    }
+
+    private static ScheduledExecutorService evictor() {
+        ScheduledExecutorService s = EVICTOR.get();
+        if (s != null) {
+            return s;
+        }
+        ScheduledThreadPoolExecutor created = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "powermem-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        created.setRemoveOnCancelPolicy(true);
+        if (EVICTOR.compareAndSet(null, created)) {
+            return created;
+        }
+        created.shutdown();
+        return EVICTOR.get();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // not supported
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        // not supported: use the driver's connectTimeout
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return LOG;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    private final class PooledConnection {
+        private final Connection raw;
+        private volatile long lastReturnedNanos = System.nanoTime();
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    PooledDataSource.class.getClassLoader(),
+                    new Class<?>[] {Connection.class},
+                    new Lease(this));
+        }
+    }
+
+    /**
+     * Per-borrow handle: {@code close()} returns the physical connection to the pool exactly once, and a
+     * stale handle cannot touch a connection that has since been lent to someone else.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pc;
+        private boolean returned;
+
+        Lease(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    synchronized (this) {
+                        if (returned) {
+                            return null;
+                        }
+                        returned = true;
+                    }
+                    release(pc);
+                    return null;
+                case "isClosed":
+                    synchronized (this) {
+                        if (returned) {
+                            return true;
+                        }
+                    }
+                    return pc.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pc.raw + "]";
+                default:
+                    break;
+            }
+            synchronized (this) {
+                if (returned) {
+                    throw new SQLException("Connection is closed");
+                }
+            }
+            try {
+                return method.invoke(pc.raw, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+
+    /**
+     * Immutable snapshot of pool metrics.
+     */
+    public static final class PoolStats {
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int maxTotal;
+        private final long borrowCount;
+        private final long waitCount;
+        private final long totalWaitMillis;
+        private final long maxWaitMillis;
+        private final long timeoutCount;
+        private final long createdCount;
+        private final long destroyedCount;
+
+        PoolStats(int active, int idle, int total, int maxTotal, long borrowCount, long waitCount,
+                  long totalWaitMillis, long maxWaitMillis, long timeoutCount, long createdCount, long destroyedCount) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.maxTotal = maxTotal;
+            this.borrowCount = borrowCount;
+            this.waitCount = waitCount;
+            this.totalWaitMillis = totalWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.timeoutCount = timeoutCount;
+            this.createdCount = createdCount;
+            this.destroyedCount = destroyedCount;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getMaxTotal() {
+            return maxTotal;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        /**
+         * Number of borrows that had to wait for a connection to be returned.
+         */
+        public long getWaitCount() {
+            return waitCount;
+        }
+
+        public long getTotalWaitMillis() {
+            return totalWaitMillis;
+        }
+
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        public long getTimeoutCount() {
+            return timeoutCount;
+        }
+
+        public long getCreatedCount() {
+            return createdCount;
+        }
+
+        public long getDestroyedCount() {
+            return destroyedCount;
+        }
+
+        @Override
+        public String toString() {
+            return "PoolStats{active=" + active + ", idle=" + idle + ", total=" + total + "/" + maxTotal
+                    + ", borrows=" + borrowCount + ", waits=" + waitCount + ", totalWaitMs=" + totalWaitMillis
+                    + ", maxWaitMs=" + maxWaitMillis + ", timeouts=" + timeoutCount
+                    + ", created=" + createdCount + ", destroyed=" + destroyedCount + "}";
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.oceanbase.powermem.sdk.storage.pool;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor for blocking store queries (JDBC), used instead of the common ForkJoinPool.
+ *
+ * <p>{@code threads} daemon workers take tasks from a queue of {@code queueCapacity}. When the queue is full
+ * the task runs on the submitting thread, so callers slow down instead of failing; {@link #getStats()}
+ * reports how often that happens together with queue waits and missed deadlines, which shows when the
+ * executor (rather than the database) is the bottleneck.</p>
+ *
+ * <p>A task may carry a deadline (the caller's {@link #await} deadline). A task still queued at its deadline is
+ * dropped without running, and statements the task prepares through {@link #applyDeadline} get a query timeout
+ * of the remaining time, so a branch the caller already gave up on does not keep a worker (and a connection)
+ * busy.</p>
+ *
+ * <p>No direct Python equivalent.</p>
+ */
+public class QueryExecutor implements AutoCloseable {
+    private static final AtomicInteger POOL_SEQ = new AtomicInteger();
+    // deadline (System.nanoTime) of the task running on the current thread; absent without a deadline
+    private static final ThreadLocal<Long> TASK_DEADLINE = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder deadlineMisses = new LongAdder();
+    private final LongAdder expiredInQueue = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final AtomicInteger maxQueued = new AtomicInteger();
+
+    /**
+     * @param name          thread name prefix
+     * @param threads       worker threads (at least 1)
+     * @param queueCapacity tasks waiting for a worker before callers run them inline (at least 1)
+     */
+    public QueryExecutor(String name, int threads, int queueCapacity) {
+        int n = Math.max(1, threads);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        String prefix = (name == null || name.isBlank() ? "powermem-query" : name) + "-" + POOL_SEQ.incrementAndGet() + "-";
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(n, n, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, prefix + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Run {@code task} on a worker (or on the caller when the queue is full).
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return submit(task, 0L);
+    }
+
+    /**
+     * Run {@code task} on a worker (or on the caller when the queue is full) with a deadline
+     * ({@link System#nanoTime()} based; {@code <= 0} for none). If the deadline passes before a worker picks the
+     * task up, it is not run and the future fails with {@link TimeoutException}; while it runs,
+     * {@link #applyDeadline} bounds its statements by the time left.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task, long deadlineNanos) {
+        submitted.increment();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        Runnable run = () -> {
+            long startedAt = System.nanoTime();
+            long waited = startedAt - queuedAt;
+            totalQueueWaitNanos.add(waited);
+            maxQueueWaitNanos.accumulateAndGet(waited, Math::max);
+            if (deadlineNanos > 0 && startedAt - deadlineNanos >= 0) {
+                expiredInQueue.increment();
+                completed.increment();
+                future.completeExceptionally(new TimeoutException("deadline passed while queued"));
+                return;
+            }
+            T result;
+            Long outer = TASK_DEADLINE.get();
+            if (deadlineNanos > 0) {
+                TASK_DEADLINE.set(deadlineNanos);
+            } else {
+                TASK_DEADLINE.remove();
+            }
+            try {
+                result = task.get();
+            } catch (Throwable t) {
+                completed.increment();
+                future.completeExceptionally(t);
+                return;
+            } finally {
+                // a task run inline restores the deadline of the caller's own task, if any
+                if (outer != null) {
+                    TASK_DEADLINE.set(outer);
+                } else {
+                    TASK_DEADLINE.remove();
+                }
+            }
+            // counted before completing so a caller that saw the result also sees the count
+            completed.increment();
+            future.complete(result);
+        };
+        try {
+            executor.execute(run);
+            maxQueued.accumulateAndGet(executor.getQueue().size(), Math::max);
+        } catch (RejectedExecutionException ex) {
+            callerRuns.increment();
+            run.run();
+        }
+        return future;
+    }
+
+    /**
+     * Set {@code statement}'s query timeout to the time left before the deadline of the task running on this
+     * thread (rounded up to whole seconds, as JDBC requires). No-op outside a task with a deadline.
+     *
+     * @throws SQLTimeoutException if the deadline has already passed
+     */
+    public static void applyDeadline(Statement statement) throws SQLException {
+        Long deadline = TASK_DEADLINE.get();
+        if (deadline == null || statement == null) {
+            return;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new SQLTimeoutException("query deadline passed");
+        }
+        long seconds = (remaining + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        statement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE, seconds));
+    }
+
+    /**
+     * Wait for {@code future} until {@code deadlineNanos} ({@link System#nanoTime()} based; {@code <= 0} waits
+     * without a deadline). A missed deadline is counted and surfaces as {@link TimeoutException}; a query still
+     * running is bounded by its own deadline (see {@link #submit(Supplier, long)}) and its result is discarded.
+     */
+    public <T> T await(CompletableFuture<T> future, long deadlineNanos) throws TimeoutException, ExecutionException {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    if (deadlineNanos <= 0) {
+                        return future.get();
+                    }
+                    return future.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException ex) {
+                    deadlineMisses.increment();
+                    throw ex;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Point-in-time executor metrics.
+     */
+    public QueryExecutorStats getStats() {
+        return new QueryExecutorStats(executor.getMaximumPoolSize(), executor.getActiveCount(),
+                executor.getQueue().size(), queueCapacity, maxQueued.get(), submitted.sum(), completed.sum(),
+                callerRuns.sum(), deadlineMisses.sum(), expiredInQueue.sum(),
+                TimeUnit.NANOSECONDS.toMillis(totalQueueWaitNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos.get()));
+    }
+
+    /**
+     * Stop accepting tasks; queued and running queries finish on their workers.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Immutable snapshot of executor metrics.
+     */
+    public static final class QueryExecutorStats {
+        private final int threads;
+        private final int active;
+        private final int queued;
+        private final int queueCapacity;
+        private final int maxQueued;
+        private final long submittedCount;
+        private final long completedCount;
+        private final long callerRunsCount;
+        private final long deadlineMissCount;
+        private final long expiredInQueueCount;
+        private final long totalQueueWaitMillis;
+        private final long maxQueueWaitMillis;
+
+        QueryExecutorStats(int threads, int active, int queued, int queueCapacity, int maxQueued,
+                           long submittedCount, long completedCount, long callerRunsCount, long deadlineMissCount,
+                           long expiredInQueueCount, long totalQueueWaitMillis, long maxQueueWaitMillis) {
+            this.threads = threads;
+            this.active = active;
+            this.queued = queued;
+            this.queueCapacity = queueCapacity;
+            this.maxQueued = maxQueued;
+            this.submittedCount = submittedCount;
+            this.completedCount = completedCount;
+            this.callerRunsCount = callerRunsCount;
+            this.deadlineMissCount = deadlineMissCount;
+            this.expiredInQueueCount = expiredInQueueCount;
+            this.totalQueueWaitMillis = totalQueueWaitMillis;
+            this.maxQueueWaitMillis = maxQueueWaitMillis;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * Highest queue depth seen right after a submit.
+         */
+        public int getMaxQueued() {
+            return maxQueued;
+        }
+
+        public long getSubmittedCount() {
+            return submittedCount;
+        }
+
+        public long getCompletedCount() {
+            return completedCount;
+        }
+
+        /**
+         * Tasks run on the submitting thread because the queue was full.
+         */
+        public long getCallerRunsCount() {
+            return callerRunsCount;
+        }
+
+        /**
+         * {@link #await} calls that gave up at their deadline.
+         */
+        public long getDeadlineMissCount() {
+            return deadlineMissCount;
+        }
+
+        /**
+         * Tasks dropped because their deadline passed before a worker picked them up.
+         */
+        public long getExpiredInQueueCount() {
+            return expiredInQueueCount;
+        }
+
+        public long getTotalQueueWaitMillis() {
+            return totalQueueWaitMillis;
+        }
+
+        public long getMaxQueueWaitMillis() {
+            return maxQueueWaitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "QueryExecutorStats{threads=" + threads + ", active=" + active + ", queued=" + queued + "/" + queueCapacity
+                    + ", maxQueued=" + maxQueued + ", submitted=" + submittedCount + ", completed=" + completedCount
+                    + ", callerRuns=" + callerRunsCount + ", deadlineMisses=" + deadlineMissCount
+                    + ", expiredInQueue=" + expiredInQueueCount
+                    + ", totalQueueWaitMs=" + totalQueueWaitMillis + ", maxQueueWaitMs=" + maxQueueWaitMillis + "}";
+        }
+    }
+}
@@ -1,28 +1,45 @@
 package com.oceanbase.powermem.sdk.storage.sqlite;
 
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.exception.ApiException;
 import com.oceanbase.powermem.sdk.json.JacksonJsonCodec;
 import com.oceanbase.powermem.sdk.json.JsonCodec;
 import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.base.AccessTracker;
+import com.oceanbase.powermem.sdk.storage.base.HybridFusion;
 import com.oceanbase.powermem.sdk.storage.base.OutputData;
 import com.oceanbase.powermem.sdk.storage.base.VectorStore;
+import com.oceanbase.powermem.sdk.storage.pool.PooledDataSource;
+import com.oceanbase.powermem.sdk.util.Bm25Index;
+import com.oceanbase.powermem.sdk.util.HnswIndex;
 import com.oceanbase.powermem.sdk.util.PowermemUtils;
+import com.oceanbase.powermem.sdk.util.ScalarQuantizer;
+import com.oceanbase.powermem.sdk.util.ScoredIdHeap;
 import com.oceanbase.powermem.sdk.util.SnowflakeIdGenerator;
+import com.oceanbase.powermem.sdk.util.TextTokenizer;
+import com.oceanbase.powermem.sdk.util.VectorCodec;
 import com.oceanbase.powermem.sdk.util.VectorMath;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * SQLite vector store implementation (Python-compatible schema).
@@ -35,14 +52,45 @@ import java.util.Map;
  *   id INTEGER PRIMARY KEY,
  *   vector TEXT,    -- JSON array
  *   payload TEXT,   -- JSON object
- *   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+ *   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+ *   vector_blob BLOB -- Java-only: float32 little-endian copy of vector
+ *   vector_q8 BLOB   -- Java-only, optional: int8 scalar-quantized copy (see ScalarQuantizer)
+ *   vector_norm REAL -- Java-only: L2 norm of vector
  * )
  * </pre>
  *
+ * <p>{@code vector} stays the source of truth for Python parity; {@code vector_blob} is what the Java read
+ * paths decode. Rows without a blob (Python-written or pre-existing) are backfilled lazily when read, and a
+ * trigger clears the blob whenever {@code vector} is rewritten without it. {@code vector_norm} is kept the same way,
+ * so brute-force scoring normalizes the query once and needs a single dot product per row.</p>
+ *
+ * <p>With {@code vectorQuantization=int8}, brute-force search reads only {@code id, vector_q8} for the filtered
+ * rows, keeps the best {@code topK * quantizationOversample} by approximate score and re-ranks those with the
+ * exact vectors. Codes are maintained the same way as {@code vector_blob} (written on upsert, reset by trigger,
+ * backfilled lazily).</p>
+ *
  * <p>History table follows the plan and Python {@code storage/sqlite/sqlite.py}.</p>
+ *
+ * <p>When {@link VectorStoreConfig#isHnswEnabled()} is set, an in-process {@link HnswIndex} is kept next to
+ * the database file ({@code <db>.<collection>.hnsw}). It is maintained on upsert/delete, persisted
+ * periodically, reconciled against the table on open, and used by {@link #search} so only the top
+ * candidates (plus their payloads) are read. Selective filters that the index cannot satisfy fall back to
+ * the full scan.</p>
+ *
+ * <p>When {@link VectorStoreConfig#isKeywordSearch()} is set, an in-process {@link Bm25Index} over each memory's
+ * {@code fulltext_content} (tokenized like the graph stores) is built on open and maintained on every write.
+ * {@link #searchHybrid} then fuses the vector results with the best keyword matches that pass the scope and
+ * filters, using the configured RRF/weighted fusion like the OceanBase and pgvector stores.</p>
  */
 public class SQLiteVectorStore implements VectorStore {
     private static final String TABLE_HISTORY = "history";
+    private static final int HNSW_PERSIST_EVERY = 256;
+    private static final int HNSW_MAX_ROUNDS = 3;
+    private static final int HNSW_RECONCILE_CHUNK = 500;
+    private static final int ID_LOOKUP_CHUNK = 500;
+    private static final int KEYWORD_OVERFETCH = 4;
+    // only pull the JSON text when the binary copy is missing
+    private static final String VECTOR_SELECT = "vector_blob, vector_norm, CASE WHEN vector_blob IS NULL THEN vector END AS vector";
 
     private final String databasePath;
     private final String tableName;
@@ -52,17 +100,72 @@ public class SQLiteVectorStore implements VectorStore {
     private final JsonCodec json = new JacksonJsonCodec();
     private final SnowflakeIdGenerator historyIdGenerator = SnowflakeIdGenerator.defaultGenerator();
     private final SnowflakeIdGenerator idGenerator = SnowflakeIdGenerator.defaultGenerator();
+    private final PooledDataSource dataSource;
+
+    private final Path hnswIndexPath;
+    private final int hnswEfSearch;
+    private final AtomicInteger hnswPendingWrites = new AtomicInteger();
+    private final HnswIndex hnswIndex;
+    private final AccessTracker accessTracker;
+    private final int deleteChunkSize;
+    // Promoted metadata key -> indexed generated column (only keys whose column exists)
+    private final Map<String, String> promotedColumns;
+    private final boolean quantized;
+    private final int quantizationOversample;
+    private final Bm25Index keywordIndex;
+    private final String fusionMethod;
+    private final int rrfK;
+    private final double vectorWeight;
+    private final double ftsWeight;
 
     public SQLiteVectorStore() {
         this("./data/powermem_dev.db", "memories", true, 30);
     }
 
     public SQLiteVectorStore(String databasePath, String tableName, boolean enableWal, int busyTimeoutSeconds) {
+        this(databasePath, tableName, enableWal, busyTimeoutSeconds, null);
+    }
+
+    public SQLiteVectorStore(VectorStoreConfig config) {
+        this(config == null ? null : config.getDatabasePath(),
+                config == null ? null : config.getCollectionName(),
+                config != null && config.isEnableWal(),
+                config == null ? 30 : config.getTimeoutSeconds(),
+                config);
+    }
+
+    private SQLiteVectorStore(String databasePath,
+                              String tableName,
+                              boolean enableWal,
+                              int busyTimeoutSeconds,
+                              VectorStoreConfig config) {
         this.databasePath = (databasePath == null || databasePath.isBlank()) ? "./data/powermem_dev.db" : databasePath;
         this.tableName = (tableName == null || tableName.isBlank()) ? "memories" : tableName;
         this.enableWal = enableWal;
         this.busyTimeoutSeconds = busyTimeoutSeconds <= 0 ? 30 : busyTimeoutSeconds;
+        this.hnswIndexPath = isInMemoryDatabase(this.databasePath)
+                ? null
+                : Paths.get(this.databasePath + "." + this.tableName + ".hnsw");
+        this.hnswEfSearch = config == null || config.getHnswEfSearch() <= 0 ? 64 : config.getHnswEfSearch();
+        VectorStoreConfig cfg = config == null ? new VectorStoreConfig() : config;
+        this.quantized = cfg.getVectorQuantization() != null && "int8".equalsIgnoreCase(cfg.getVectorQuantization().trim());
+        this.quantizationOversample = Math.max(1, cfg.getQuantizationOversample());
+        this.dataSource = createDataSource(cfg);
         ensureInitialized();
+        this.promotedColumns = ensurePromotedColumns(cfg.getPromotedMetadataKeys());
+        this.hnswIndex = openHnswIndex(config);
+        this.accessTracker = new AccessTracker(this::flushLastAccessedAt,
+                cfg.getAccessFlushMaxPending(), cfg.getAccessFlushIntervalMillis());
+        this.deleteChunkSize = cfg.getDeleteChunkSize() <= 0 ? 1000 : cfg.getDeleteChunkSize();
+        this.keywordIndex = cfg.isKeywordSearch() ? buildKeywordIndex() : null;
+        this.fusionMethod = cfg.getFusionMethod() == null ? "rrf" : cfg.getFusionMethod().trim().toLowerCase(java.util.Locale.ROOT);
+        this.rrfK = cfg.getRrfK();
+        this.vectorWeight = cfg.getVectorWeight();
+        this.ftsWeight = cfg.getFtsWeight();
+    }
+
+    private static boolean isInMemoryDatabase(String path) {
+        return ":memory:".equals(path) || path.startsWith("file::memory:");
     }
 
     private void ensureInitialized() {
@@ -84,19 +187,238 @@ public class SQLiteVectorStore implements VectorStore {
             st.execute("PRAGMA busy_timeout=" + (busyTimeoutSeconds * 1000) + ";");
 
             ensureMemoriesTableCompatible(c);
+            ensureVectorBlobColumn(c);
             ensureHistoryTable(c);
         } catch (Exception ex) {
             throw new RuntimeException("Failed to initialize SQLite schema: " + ex.getMessage(), ex);
         }
     }
 
-    private Connection openConnection() throws Exception {
+    private PooledDataSource createDataSource(VectorStoreConfig config) {
         try {
             Class.forName("org.sqlite.JDBC");
         } catch (ClassNotFoundException ignored) {
             // If dependency isn't on classpath, DriverManager.getConnection will fail.
         }
-        return DriverManager.getConnection("jdbc:sqlite:" + databasePath);
+        // busy_timeout / foreign_keys are per-connection pragmas: apply them to every pooled connection.
+        Properties props = new Properties();
+        props.setProperty("busy_timeout", Integer.toString(busyTimeoutSeconds * 1000));
+        props.setProperty("foreign_keys", "true");
+        int waitSeconds = config.getPoolTimeoutSeconds() <= 0 ? 30 : config.getPoolTimeoutSeconds();
+        return new PooledDataSource("jdbc:sqlite:" + databasePath, props,
+                config.getPoolSize(), config.getMaxOverflow(),
+                config.getPoolIdleTimeoutSeconds() * 1000L, waitSeconds * 1000L);
+    }
+
+    private Connection openConnection() throws Exception {
+        return dataSource.getConnection();
+    }
+
+    /**
+     * Connection pool metrics (active/idle connections, wait time, timeouts).
+     */
+    public PooledDataSource.PoolStats getPoolStats() {
+        return dataSource.getStats();
+    }
+
+    /**
+     * Drain pending {@code last_accessed_at} touches, persist the HNSW index (if enabled) and close pooled
+     * connections.
+     */
+    @Override
+    public void close() {
+        accessTracker.close();
+        persistHnswIndex(hnswIndex);
+        dataSource.close();
+    }
+
+    private HnswIndex openHnswIndex(VectorStoreConfig config) {
+        if (config == null || !config.isHnswEnabled()) {
+            return null;
+        }
+        HnswIndex idx = HnswIndex.load(hnswIndexPath, config.getHnswM(), config.getHnswEfConstruction());
+        Instant savedAt = null;
+        if (idx != null) {
+            try {
+                savedAt = Files.getLastModifiedTime(hnswIndexPath).toInstant();
+            } catch (Exception ignored) {
+                // treat as unknown: only add/remove reconciliation
+            }
+        } else {
+            idx = new HnswIndex(config.getHnswM(), config.getHnswEfConstruction());
+        }
+        try {
+            if (reconcileHnswIndex(idx, savedAt)) {
+                persistHnswIndex(idx);
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException("Failed to build SQLite HNSW index: " + ex.getMessage(), ex);
+        }
+        return idx;
+    }
+
+    /**
+     * Bring a loaded (or empty) index in line with the table: drop ids that no longer exist, index rows
+     * that are missing, and re-index rows rewritten after the index file was saved.
+     *
+     * @return true if the index changed
+     */
+    private boolean reconcileHnswIndex(HnswIndex idx, Instant savedAt) throws Exception {
+        Set<Long> tableIds = new HashSet<>();
+        List<Long> pending = new ArrayList<>();
+        try (Connection c = openConnection()) {
+            try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("SELECT id FROM " + tableName)) {
+                while (rs.next()) {
+                    tableIds.add(rs.getLong(1));
+                }
+            }
+            if (savedAt != null) {
+                // payload timestamps are ISO-8601 strings; one second of slack covers sub-second formatting
+                String since = savedAt.minusSeconds(1).truncatedTo(java.time.temporal.ChronoUnit.SECONDS).toString();
+                try (PreparedStatement ps = c.prepareStatement(
+                        "SELECT id FROM " + tableName + " WHERE json_extract(payload, '$.updated_at') >= ?")) {
+                    ps.setString(1, since);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            pending.add(rs.getLong(1));
+                        }
+                    }
+                }
+            }
+        }
+
+        boolean changed = false;
+        for (long id : idx.ids()) {
+            if (!tableIds.contains(id)) {
+                changed |= idx.remove(id);
+            }
+        }
+        Set<Long> seen = new HashSet<>(pending);
+        for (Long id : tableIds) {
+            if (!idx.contains(id) && seen.add(id)) {
+                pending.add(id);
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += HNSW_RECONCILE_CHUNK) {
+            List<Long> chunk = pending.subList(from, Math.min(pending.size(), from + HNSW_RECONCILE_CHUNK));
+            String sql = "SELECT id, " + VECTOR_SELECT + " FROM " + tableName
+                    + " WHERE id IN (" + placeholders(chunk.size()) + ")";
+            Map<Long, float[]> missingBlobs = new HashMap<>();
+            try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setLong(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        long id = rs.getLong("id");
+                        float[] vec = readVector(rs, id, missingBlobs);
+                        changed |= idx.add(id, vec);
+                    }
+                }
+            }
+            backfillVectorBlobs(missingBlobs);
+        }
+        return changed;
+    }
+
+    private void persistHnswIndex(HnswIndex idx) {
+        if (idx == null || hnswIndexPath == null) {
+            return;
+        }
+        try {
+            idx.save(hnswIndexPath);
+        } catch (Exception ignored) {
+            // best-effort: the index is reconciled against the table on next open
+        }
+    }
+
+    private void hnswIndexWrite(long id, float[] embedding) {
+        if (hnswIndex == null) {
+            return;
+        }
+        if (!hnswIndex.add(id, embedding)) {
+            // empty/zero/mismatched vector: make sure a stale entry does not linger
+            hnswIndex.remove(id);
+        }
+        hnswMutated();
+    }
+
+    private void hnswIndexRemove(long id) {
+        if (hnswIndex == null) {
+            return;
+        }
+        hnswIndex.remove(id);
+        hnswMutated();
+    }
+
+    private void hnswMutated() {
+        if (hnswPendingWrites.incrementAndGet() >= HNSW_PERSIST_EVERY) {
+            hnswPendingWrites.set(0);
+            persistHnswIndex(hnswIndex);
+        }
+    }
+
+    private Bm25Index buildKeywordIndex() {
+        Bm25Index idx = new Bm25Index();
+        String sql = "SELECT id, COALESCE(json_extract(payload, '$.fulltext_content'), json_extract(payload, '$.data')) FROM "
+                + tableName;
+        try (Connection c = openConnection(); Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                idx.add(rs.getLong(1), TextTokenizer.tokenize(rs.getString(2)));
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException("Failed to build SQLite keyword index: " + ex.getMessage(), ex);
+        }
+        return idx;
+    }
+
+    private static String keywordText(Map<String, Object> payload) {
+        Object text = payload.get("fulltext_content");
+        if (text == null) {
+            text = payload.get("data");
+        }
+        return text == null ? null : String.valueOf(text);
+    }
+
+    private void keywordIndexWrite(long id, String text) {
+        if (keywordIndex != null) {
+            keywordIndex.add(id, TextTokenizer.tokenize(text));
+        }
+    }
+
+    private void keywordIndexRemove(long id) {
+        if (keywordIndex != null) {
+            keywordIndex.remove(id);
+        }
+    }
+
+    /** Re-index a row after a payload patch that touched its text. */
+    private void keywordIndexRefresh(long id, Map<String, Object> fieldUpdates) {
+        if (keywordIndex == null || !(fieldUpdates.containsKey("data") || fieldUpdates.containsKey("fulltext_content"))) {
+            return;
+        }
+        try {
+            Map<String, Object> payload = readPayloadById(id);
+            if (payload == null) {
+                keywordIndex.remove(id);
+            } else {
+                keywordIndex.add(id, TextTokenizer.tokenize(keywordText(payload)));
+            }
+        } catch (Exception ignored) {
+            // best-effort: the index is rebuilt from the table on next open
+        }
+    }
+
+    private static String placeholders(int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append("?");
+        }
+        return sb.toString();
     }
 
     private void ensureHistoryTable(Connection c) throws Exception {
@@ -142,6 +464,43 @@ public class SQLiteVectorStore implements VectorStore {
         migrateToPythonSchema(c, cols);
     }
 
+    private void ensureVectorBlobColumn(Connection c) throws Exception {
+        if (!getColumns(c, tableName).contains("vector_blob")) {
+            try (Statement st = c.createStatement()) {
+                st.execute("ALTER TABLE " + tableName + " ADD COLUMN vector_blob BLOB");
+            }
+        }
+        // Writers that only know the JSON column (e.g. Python) must not leave a stale binary copy behind.
+        try (Statement st = c.createStatement()) {
+            st.execute("CREATE TRIGGER IF NOT EXISTS " + tableName + "_vector_blob_reset"
+                    + " AFTER UPDATE OF vector ON " + tableName
+                    + " WHEN NEW.vector IS NOT OLD.vector AND NEW.vector_blob IS OLD.vector_blob"
+                    + " BEGIN UPDATE " + tableName + " SET vector_blob = NULL WHERE id = NEW.id; END;");
+        }
+        if (!getColumns(c, tableName).contains("vector_norm")) {
+            try (Statement st = c.createStatement()) {
+                st.execute("ALTER TABLE " + tableName + " ADD COLUMN vector_norm REAL");
+            }
+        }
+        try (Statement st = c.createStatement()) {
+            st.execute("CREATE TRIGGER IF NOT EXISTS " + tableName + "_vector_norm_reset"
+                    + " AFTER UPDATE OF vector ON " + tableName
+                    + " WHEN NEW.vector IS NOT OLD.vector AND NEW.vector_norm IS OLD.vector_norm"
+                    + " BEGIN UPDATE " + tableName + " SET vector_norm = NULL WHERE id = NEW.id; END;");
+        }
+        if (!getColumns(c, tableName).contains("vector_q8")) {
+            try (Statement st = c.createStatement()) {
+                st.execute("ALTER TABLE " + tableName + " ADD COLUMN vector_q8 BLOB");
+            }
+        }
+        try (Statement st = c.createStatement()) {
+            st.execute("CREATE TRIGGER IF NOT EXISTS " + tableName + "_vector_q8_reset"
+                    + " AFTER UPDATE OF vector ON " + tableName
+                    + " WHEN NEW.vector IS NOT OLD.vector AND NEW.vector_q8 IS OLD.vector_q8"
+                    + " BEGIN UPDATE " + tableName + " SET vector_q8 = NULL WHERE id = NEW.id; END;");
+        }
+    }
+
     private boolean tableExists(Connection c, String name) throws Exception {
         try (PreparedStatement ps = c.prepareStatement("SELECT name FROM sqlite_master WHERE type='table' AND name=?")) {
             ps.setString(1, name);
@@ -151,6 +510,57 @@ public class SQLiteVectorStore implements VectorStore {
         }
     }
 
+    /**
+     * Materialize each promoted metadata key as a VIRTUAL generated column with an index. Creating the index
+     * computes the column for existing rows and SQLite maintains it on every write, so {@code metadata.<key>}
+     * filters become index lookups. Best-effort per key: a key whose column or index cannot be created keeps
+     * filtering through {@code json_extract}.
+     */
+    private Map<String, String> ensurePromotedColumns(List<String> keys) {
+        Map<String, String> out = new LinkedHashMap<>();
+        if (keys == null || keys.isEmpty()) {
+            return out;
+        }
+        Set<String> columns = new HashSet<>();
+        try (Connection c = openConnection(); Statement st = c.createStatement()) {
+            Set<String> existing = new HashSet<>();
+            // table_info hides generated columns; table_xinfo lists them
+            try (ResultSet rs = st.executeQuery("PRAGMA table_xinfo(" + tableName + ")")) {
+                while (rs.next()) {
+                    String col = rs.getString(2);
+                    if (col != null) {
+                        existing.add(col.toLowerCase());
+                    }
+                }
+            }
+            for (String raw : keys) {
+                String k = raw == null ? "" : raw.trim();
+                // lower-case ASCII only: SQLite column names are case-insensitive, JSON paths are not
+                if (k.isEmpty() || k.length() > 48
+                        || !k.chars().allMatch(ch -> ch == '_' || (ch >= 'a' && ch <= 'z') || (ch >= '0' && ch <= '9'))) {
+                    continue;
+                }
+                String col = "meta_" + k;
+                if (!columns.add(col)) {
+                    continue;
+                }
+                try {
+                    if (!existing.contains(col)) {
+                        st.execute("ALTER TABLE " + tableName + " ADD COLUMN " + col
+                                + " GENERATED ALWAYS AS (json_extract(payload, '$.metadata." + k + "')) VIRTUAL");
+                    }
+                    st.execute("CREATE INDEX IF NOT EXISTS idx_" + tableName + "_" + col + " ON " + tableName + " (" + col + ")");
+                    out.put(k, col);
+                } catch (Exception ignored) {
+                    // best-effort: this key stays on json_extract
+                }
+            }
+        } catch (Exception ignored) {
+            // best-effort
+        }
+        return out;
+    }
+
     private List<String> getColumns(Connection c, String name) throws Exception {
         List<String> cols = new ArrayList<>();
         try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery("PRAGMA table_info(" + name + ")")) {
@@ -170,7 +580,8 @@ public class SQLiteVectorStore implements VectorStore {
                     + "id INTEGER PRIMARY KEY,"
                     + "vector TEXT,"
                     + "payload TEXT,"
-                    + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP"
+                    + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,"
+                    + "vector_blob BLOB"
                     + ");");
         }
     }
@@ -211,7 +622,8 @@ public class SQLiteVectorStore implements VectorStore {
                     payload.put("metadata", decodeLegacyMetadata(metaLegacy));
 
                     float[] vec = decodeLegacyEmbeddingCsv(embeddingCsv);
-                    insertRaw(c, newTable, id, json.toJson(vec == null ? new float[0] : vec), json.toJson(payload));
+                    float[] safeVec = vec == null ? new float[0] : vec;
+                    insertRaw(c, newTable, id, json.toJson(safeVec), VectorCodec.toFloat32LE(safeVec), json.toJson(payload));
                 }
             } catch (Exception ignored) {
                 // Best-effort; if anything fails, users can rebuild data.
@@ -224,11 +636,14 @@ public class SQLiteVectorStore implements VectorStore {
         }
     }
 
-    private void insertRaw(Connection c, String tbl, long id, String vectorJson, String payloadJson) throws Exception {
-        try (PreparedStatement ps = c.prepareStatement("INSERT INTO " + tbl + " (id, vector, payload) VALUES (?, ?, ?)")) {
+    private void insertRaw(Connection c, String tbl, long id, String vectorJson, byte[] vectorBlob, String payloadJson)
+            throws Exception {
+        try (PreparedStatement ps = c.prepareStatement(
+                "INSERT INTO " + tbl + " (id, vector, vector_blob, payload) VALUES (?, ?, ?, ?)")) {
             ps.setLong(1, id);
             ps.setString(2, vectorJson);
-            ps.setString(3, payloadJson);
+            ps.setBytes(3, vectorBlob);
+            ps.setString(4, payloadJson);
             ps.executeUpdate();
         }
     }
@@ -294,48 +709,153 @@ public class SQLiteVectorStore implements VectorStore {
         if (record == null || record.getId() == null || record.getId().isBlank()) {
             return;
         }
-        long id = parseLongOrGenerate(record.getId());
+        upsertBatch(Collections.singletonList(record), Collections.singletonList(embedding));
+    }
 
-        Map<String, Object> oldPayload = null;
-        String oldMemory = null;
-        try {
-            oldPayload = readPayloadById(id);
-            if (oldPayload != null) {
-                Object data = oldPayload.get("data");
-                oldMemory = data == null ? null : String.valueOf(data);
-            }
-        } catch (Exception ignored) {
+    /**
+     * Upsert all records in one transaction (JDBC batch). Existing payloads are read with one {@code IN} query
+     * per chunk so history events still distinguish ADD from UPDATE.
+     */
+    @Override
+    public void upsertBatch(List<MemoryRecord> records, List<float[]> embeddings) {
+        if (records == null || records.isEmpty()) {
+            return;
         }
+        applyBatch(records, embeddings, Collections.emptyList());
+    }
 
-        Instant now = Instant.now();
-        if (record.getCreatedAt() == null) {
-            record.setCreatedAt(oldPayload != null ? parseInstant(oldPayload.get("created_at")) : now);
+    /**
+     * Upsert and delete in one transaction. Payloads of both the upserted and the deleted ids are read with
+     * one {@code IN} query per chunk, for ADD/UPDATE history events and the old content of deleted rows.
+     */
+    @Override
+    public int applyBatch(List<MemoryRecord> upserts, List<float[]> embeddings, Collection<String> deleteIds) {
+        List<MemoryRecord> records = upserts == null ? Collections.emptyList() : upserts;
+        if (embeddings == null ? !records.isEmpty() : embeddings.size() != records.size()) {
+            throw new ApiException("embeddings must align with records");
+        }
+        List<Long> ids = new ArrayList<>(records.size());
+        for (MemoryRecord r : records) {
+            if (r == null || r.getId() == null || r.getId().isBlank()) {
+                throw new ApiException("memory.id is required");
+            }
+            ids.add(parseLongOrGenerate(r.getId()));
+        }
+        List<Long> deletes = new ArrayList<>();
+        if (deleteIds != null) {
+            for (String d : new LinkedHashSet<>(deleteIds)) {
+                if (d == null || d.isBlank()) {
+                    continue;
+                }
+                try {
+                    deletes.add(Long.parseLong(d.trim()));
+                } catch (Exception ignored) {
+                    // not a stored id
+                }
+            }
         }
-        record.setUpdatedAt(now);
-        if (record.getLastAccessedAt() == null) {
-            record.setLastAccessedAt(now);
+        if (records.isEmpty() && deletes.isEmpty()) {
+            return 0;
         }
-        if (record.getHash() == null || record.getHash().isBlank()) {
-            record.setHash(PowermemUtils.md5Hex(record.getContent() == null ? "" : record.getContent()));
+        List<Long> lookup = new ArrayList<>(ids);
+        lookup.addAll(deletes);
+        Map<Long, Map<String, Object>> oldPayloads;
+        try {
+            oldPayloads = readPayloadsById(lookup);
+        } catch (Exception ignored) {
+            oldPayloads = new HashMap<>();
         }
 
-        Map<String, Object> payload = toPayload(record);
-        String vectorJson = json.toJson(embedding == null ? new float[0] : embedding);
-        String payloadJson = json.toJson(payload);
+        Instant now = Instant.now();
+        List<HistoryEntry> history = new ArrayList<>(records.size() + deletes.size());
+        List<Long> deleted = new ArrayList<>();
+        Map<Long, String> keywordTexts = new HashMap<>();
+        String sql = "INSERT INTO " + tableName + " (id, vector, vector_blob, vector_q8, vector_norm, payload) "
+                + "VALUES (?, ?, ?, ?, ?, ?) "
+                + "ON CONFLICT(id) DO UPDATE SET vector=excluded.vector, vector_blob=excluded.vector_blob, "
+                + "vector_q8=excluded.vector_q8, vector_norm=excluded.vector_norm, payload=excluded.payload";
+        try (Connection c = openConnection()) {
+            c.setAutoCommit(false);
+            try {
+                if (!records.isEmpty()) {
+                    try (PreparedStatement ps = c.prepareStatement(sql)) {
+                        for (int i = 0; i < records.size(); i++) {
+                            MemoryRecord record = records.get(i);
+                            long id = ids.get(i);
+                            Map<String, Object> oldPayload = oldPayloads.get(id);
+                            String oldMemory = null;
+                            if (oldPayload != null) {
+                                Object data = oldPayload.get("data");
+                                oldMemory = data == null ? null : String.valueOf(data);
+                            }
+                            if (record.getCreatedAt() == null) {
+                                record.setCreatedAt(oldPayload != null ? parseInstant(oldPayload.get("created_at")) : now);
+                            }
+                            record.setUpdatedAt(now);
+                            if (record.getLastAccessedAt() == null) {
+                                record.setLastAccessedAt(now);
+                            }
+                            if (record.getHash() == null || record.getHash().isBlank()) {
+                                record.setHash(PowermemUtils.md5Hex(record.getContent() == null ? "" : record.getContent()));
+                            }
 
-        String sql = "INSERT INTO " + tableName + " (id, vector, payload) VALUES (?, ?, ?) "
-                + "ON CONFLICT(id) DO UPDATE SET vector=excluded.vector, payload=excluded.payload";
-        try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setLong(1, id);
-            ps.setString(2, vectorJson);
-            ps.setString(3, payloadJson);
-            ps.executeUpdate();
+                            Map<String, Object> payload = toPayload(record);
+                            float[] safeEmbedding = embeddings.get(i) == null ? new float[0] : embeddings.get(i);
+                            ps.setLong(1, id);
+                            ps.setString(2, json.toJson(safeEmbedding));
+                            ps.setBytes(3, VectorCodec.toFloat32LE(safeEmbedding));
+                            ps.setBytes(4, quantized && safeEmbedding.length > 0 ? ScalarQuantizer.encode(safeEmbedding) : null);
+                            ps.setDouble(5, VectorMath.norm(safeEmbedding));
+                            ps.setString(6, json.toJson(payload));
+                            ps.addBatch();
+
+                            history.add(new HistoryEntry(Long.toString(id), oldMemory, record.getContent(),
+                                    oldPayload == null ? "ADD" : "UPDATE", record.getUserId(), record.getAgentId(), false));
+                            // a later duplicate of the same id in this batch is an UPDATE of this row
+                            oldPayloads.put(id, payload);
+                            keywordTexts.put(id, keywordText(payload));
+                        }
+                        ps.executeBatch();
+                    }
+                }
+                if (!deletes.isEmpty()) {
+                    try (PreparedStatement ps = c.prepareStatement("DELETE FROM " + tableName + " WHERE id=?")) {
+                        for (Long id : deletes) {
+                            ps.setLong(1, id);
+                            ps.addBatch();
+                        }
+                        int[] changed = ps.executeBatch();
+                        for (int i = 0; i < changed.length; i++) {
+                            if (changed[i] > 0 || changed[i] == Statement.SUCCESS_NO_INFO) {
+                                deleted.add(deletes.get(i));
+                            }
+                        }
+                    }
+                }
+                c.commit();
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
+            }
         } catch (Exception ex) {
             throw new RuntimeException("SQLite upsert failed: " + ex.getMessage(), ex);
         }
-
-        writeHistory(Long.toString(id), oldMemory, record.getContent(), oldPayload == null ? "ADD" : "UPDATE",
-                record.getUserId(), record.getAgentId(), false);
+        for (int i = 0; i < records.size(); i++) {
+            hnswIndexWrite(ids.get(i), embeddings.get(i));
+        }
+        for (Map.Entry<Long, String> e : keywordTexts.entrySet()) {
+            keywordIndexWrite(e.getKey(), e.getValue());
+        }
+        for (Long id : deleted) {
+            hnswIndexRemove(id);
+            keywordIndexRemove(id);
+            Map<String, Object> old = oldPayloads.get(id);
+            history.add(new HistoryEntry(Long.toString(id), old == null ? null : asString(old.get("data")), null,
+                    "DELETE", old == null ? null : asString(old.get("user_id")),
+                    old == null ? null : asString(old.get("agent_id")), true));
+        }
+        writeHistory(history);
+        return deleted.size();
     }
 
     @Override
@@ -366,6 +886,45 @@ public class SQLiteVectorStore implements VectorStore {
         }
     }
 
+    @Override
+    public Map<String, MemoryRecord> getBatch(Collection<String> memoryIds, String userId, String agentId) {
+        Map<String, MemoryRecord> out = new LinkedHashMap<>();
+        if (memoryIds == null || memoryIds.isEmpty()) {
+            return out;
+        }
+        Map<String, Long> parsed = new LinkedHashMap<>();
+        for (String memoryId : memoryIds) {
+            if (memoryId == null || memoryId.isBlank()) {
+                continue;
+            }
+            try {
+                parsed.put(memoryId, Long.parseLong(memoryId.trim()));
+            } catch (Exception ignored) {
+                // not a stored id
+            }
+        }
+        Map<Long, Map<String, Object>> payloads;
+        try {
+            payloads = readPayloadsById(new ArrayList<>(parsed.values()));
+        } catch (Exception ex) {
+            return out;
+        }
+        for (Map.Entry<String, Long> e : parsed.entrySet()) {
+            Map<String, Object> payload = payloads.get(e.getValue());
+            if (payload == null) {
+                continue;
+            }
+            if (userId != null && !userId.isBlank() && !userId.equals(asString(payload.get("user_id")))) {
+                continue;
+            }
+            if (agentId != null && !agentId.isBlank() && !agentId.equals(asString(payload.get("agent_id")))) {
+                continue;
+            }
+            out.put(e.getKey(), fromPayload(e.getKey(), payload));
+        }
+        return out;
+    }
+
     @Override
     public boolean delete(String memoryId, String userId, String agentId) {
         MemoryRecord existing = get(memoryId, userId, agentId);
@@ -373,36 +932,101 @@ public class SQLiteVectorStore implements VectorStore {
             return false;
         }
         long id = Long.parseLong(existing.getId());
+        boolean deleted;
         try (Connection c = openConnection();
              PreparedStatement ps = c.prepareStatement("DELETE FROM " + tableName + " WHERE id=?")) {
             ps.setLong(1, id);
-            int changed = ps.executeUpdate();
-            boolean deleted = changed > 0;
-            if (deleted) {
-                writeHistory(existing.getId(), existing.getContent(), null, "DELETE", userId, agentId, true);
-            }
-            return deleted;
+            deleted = ps.executeUpdate() > 0;
         } catch (Exception ex) {
             throw new RuntimeException("SQLite delete failed: " + ex.getMessage(), ex);
         }
+        if (deleted) {
+            hnswIndexRemove(id);
+            keywordIndexRemove(id);
+            // after the delete connection is released: writeHistory borrows its own
+            writeHistory(existing.getId(), existing.getContent(), null, "DELETE", userId, agentId, true);
+        }
+        return deleted;
     }
 
     @Override
     public int deleteAll(String userId, String agentId, String runId) {
-        List<MemoryRecord> before = list(userId, agentId, runId, 0, Integer.MAX_VALUE);
-
-        StringBuilder sql = new StringBuilder("DELETE FROM " + tableName + " WHERE 1=1");
-        List<Object> args = new ArrayList<>();
-        sql.append(buildJsonWhere(args, userId, agentId, runId, null));
+        return deleteAll(userId, agentId, runId, null);
+    }
 
-        try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql.toString())) {
-            for (int i = 0; i < args.size(); i++) {
-                ps.setObject(i + 1, args.get(i));
-            }
-            int deleted = ps.executeUpdate();
-            for (MemoryRecord r : before) {
-                if (r != null) {
-                    writeHistory(r.getId(), r.getContent(), null, "DELETE", userId, agentId, true);
+    /**
+     * Delete in chunks of {@code deleteChunkSize} rows. Each chunk is one transaction that archives the rows to
+     * history with a single {@code INSERT ... SELECT} and then deletes them; only the chunk's ids are held in
+     * memory.
+     */
+    @Override
+    public int deleteAll(String userId, String agentId, String runId, java.util.function.IntConsumer progress) {
+        List<Object> whereArgs = new ArrayList<>();
+        String where = buildJsonWhere(whereArgs, userId, agentId, runId, null);
+        String select = "SELECT id FROM " + tableName + " WHERE 1=1" + where + " ORDER BY id LIMIT ?";
+        String actor = agentId != null && !agentId.isBlank() ? agentId : userId;
+        int deleted = 0;
+        try (Connection c = openConnection()) {
+            while (true) {
+                List<Long> ids = new ArrayList<>(deleteChunkSize);
+                c.setAutoCommit(false);
+                try {
+                    try (PreparedStatement ps = c.prepareStatement(select)) {
+                        int p = 1;
+                        for (Object a : whereArgs) {
+                            ps.setObject(p++, a);
+                        }
+                        ps.setInt(p, deleteChunkSize);
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                ids.add(rs.getLong(1));
+                            }
+                        }
+                    }
+                    if (ids.isEmpty()) {
+                        c.commit();
+                        break;
+                    }
+                    String in = " WHERE id IN (" + placeholders(ids.size()) + ")";
+                    long now = Instant.now().toEpochMilli();
+                    try (PreparedStatement ps = c.prepareStatement("INSERT INTO " + TABLE_HISTORY
+                            + " (id, memory_id, old_memory, new_memory, event, created_at, updated_at, is_deleted, actor_id, role)"
+                            + " SELECT ? || '-' || id, CAST(id AS TEXT), json_extract(payload, '$.data'), NULL, 'DELETE',"
+                            + " ?, ?, 1, ?, 'sdk' FROM " + tableName + in)) {
+                        int p = 1;
+                        ps.setString(p++, historyIdGenerator.nextId());
+                        ps.setLong(p++, now);
+                        ps.setLong(p++, now);
+                        ps.setString(p++, actor);
+                        for (Long id : ids) {
+                            ps.setLong(p++, id);
+                        }
+                        ps.executeUpdate();
+                    }
+                    int n;
+                    try (PreparedStatement ps = c.prepareStatement("DELETE FROM " + tableName + in)) {
+                        for (int i = 0; i < ids.size(); i++) {
+                            ps.setLong(i + 1, ids.get(i));
+                        }
+                        n = ps.executeUpdate();
+                    }
+                    c.commit();
+                    deleted += n;
+                } catch (Exception ex) {
+                    c.rollback();
+                    throw ex;
+                } finally {
+                    c.setAutoCommit(true);
+                }
+                for (Long id : ids) {
+                    hnswIndexRemove(id);
+                    keywordIndexRemove(id);
+                }
+                if (progress != null) {
+                    progress.accept(deleted);
+                }
+                if (ids.size() < deleteChunkSize) {
+                    break;
                 }
             }
             return deleted;
@@ -451,43 +1075,432 @@ public class SQLiteVectorStore implements VectorStore {
         int k = topK <= 0 ? 5 : topK;
         Instant now = Instant.now();
 
-        StringBuilder sql = new StringBuilder("SELECT id, vector, payload FROM " + tableName + " WHERE 1=1");
+        List<OutputData> scored = hnswIndex == null
+                ? null
+                : searchHnsw(queryEmbedding, k, userId, agentId, runId, filters);
+        if (scored == null) {
+            scored = searchScan(queryEmbedding, k, userId, agentId, runId, filters);
+        }
+        touchAccessed(scored, now);
+        return scored;
+    }
+
+    /**
+     * Hybrid search: the vector results fused (RRF or weighted, as configured) with the best BM25 matches of
+     * {@code queryText} from the in-process keyword index. Same as {@link #search} when the keyword index is
+     * disabled or the text has no tokens.
+     */
+    public List<OutputData> searchHybrid(String queryText,
+                                         float[] queryEmbedding,
+                                         int topK,
+                                         String userId,
+                                         String agentId,
+                                         String runId,
+                                         Map<String, Object> filters) {
+        int k = topK <= 0 ? 5 : topK;
+        List<String> tokens = keywordIndex == null ? Collections.<String>emptyList() : TextTokenizer.tokenize(queryText);
+        if (tokens.isEmpty()) {
+            return search(queryEmbedding, k, userId, agentId, runId, filters);
+        }
+        List<OutputData> vectorResults = hnswIndex == null
+                ? null
+                : searchHnsw(queryEmbedding, k, userId, agentId, runId, filters);
+        if (vectorResults == null) {
+            vectorResults = searchScan(queryEmbedding, k, userId, agentId, runId, filters);
+        }
+        List<OutputData> keywordResults = searchKeyword(tokens, k, userId, agentId, runId, filters);
+        List<OutputData> fused = "weighted".equals(fusionMethod)
+                ? HybridFusion.weighted(vectorResults, keywordResults, k, vectorWeight, ftsWeight)
+                : HybridFusion.rrf(vectorResults, keywordResults, k, rrfK, vectorWeight, ftsWeight);
+        touchAccessed(fused, Instant.now());
+        return fused;
+    }
+
+    /**
+     * Best keyword matches that pass the scope and filters: the index is asked for {@code k * KEYWORD_OVERFETCH}
+     * hits, growing like the HNSW path until {@code k} survive the filters or the matches run out.
+     */
+    private List<OutputData> searchKeyword(List<String> tokens,
+                                           int k,
+                                           String userId,
+                                           String agentId,
+                                           String runId,
+                                           Map<String, Object> filters) {
+        int live = keywordIndex.size();
+        int want = (int) Math.min(live, (long) k * KEYWORD_OVERFETCH);
+        List<OutputData> out = new ArrayList<>(k);
+        // ids already checked against the scope/filters; null when out of scope
+        Map<Long, Map<String, Object>> checked = new HashMap<>();
+        // The index is global across scopes: widen until k in-scope hits are found or every matching document
+        // has been checked, so a scope outside the global top hits still gets its keyword results.
+        while (want > 0) {
+            List<Bm25Index.Hit> hits = keywordIndex.search(tokens, want);
+            List<Long> unchecked = new ArrayList<>();
+            for (Bm25Index.Hit hit : hits) {
+                if (!checked.containsKey(hit.getId())) {
+                    unchecked.add(hit.getId());
+                }
+            }
+            Map<Long, Map<String, Object>> payloads = readPayloadsByIds(unchecked, userId, agentId, runId, filters);
+            for (Long id : unchecked) {
+                checked.put(id, payloads.get(id));
+            }
+            out.clear();
+            for (Bm25Index.Hit hit : hits) {
+                Map<String, Object> payload = checked.get(hit.getId());
+                if (payload == null) {
+                    continue;
+                }
+                out.add(new OutputData(fromPayload(Long.toString(hit.getId()), payload), hit.getScore()));
+                if (out.size() >= k) {
+                    break;
+                }
+            }
+            if (out.size() >= k || hits.size() < want || want >= live) {
+                break;
+            }
+            want = (int) Math.min(live, (long) want * 4);
+        }
+        return out;
+    }
+
+    /** Best-effort: last_accessed_at is written behind in batches (see AccessTracker). */
+    private void touchAccessed(List<OutputData> results, Instant now) {
+        List<String> touched = new ArrayList<>(results.size());
+        for (OutputData d : results) {
+            if (d == null || d.getRecord() == null) {
+                continue;
+            }
+            d.getRecord().setLastAccessedAt(now);
+            touched.add(d.getRecord().getId());
+        }
+        accessTracker.touch(touched, now);
+    }
+
+    private List<OutputData> searchScan(float[] queryEmbedding,
+                                        int k,
+                                        String userId,
+                                        String agentId,
+                                        String runId,
+                                        Map<String, Object> filters) {
+        if (quantized && queryEmbedding != null && queryEmbedding.length > 0) {
+            List<OutputData> out = searchQuantized(queryEmbedding, k, userId, agentId, runId, filters);
+            if (out != null) {
+                return out;
+            }
+        }
+        StringBuilder sql = new StringBuilder("SELECT id, " + VECTOR_SELECT + ", payload FROM " + tableName + " WHERE 1=1");
         List<Object> args = new ArrayList<>();
         sql.append(buildJsonWhere(args, userId, agentId, runId, filters));
 
+        float[] unit = VectorMath.normalize(queryEmbedding);
         List<OutputData> scored = new ArrayList<>();
+        Map<Long, float[]> missingBlobs = new HashMap<>();
+        Map<Long, Double> missingNorms = new HashMap<>();
         try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql.toString())) {
             for (int i = 0; i < args.size(); i++) {
                 ps.setObject(i + 1, args.get(i));
             }
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    String idStr = Long.toString(rs.getLong("id"));
-                    float[] vec = json.fromJson(rs.getString("vector"), float[].class);
+                    long id = rs.getLong("id");
+                    String idStr = Long.toString(id);
+                    float[] vec = readVector(rs, id, missingBlobs);
                     Map<String, Object> payload = json.fromJsonToMap(rs.getString("payload"));
                     MemoryRecord record = fromPayload(idStr, payload);
-                    double score = VectorMath.cosineSimilarity(queryEmbedding, vec);
-                    record.setLastAccessedAt(now);
+                    double score = cosine(queryEmbedding, unit, vec, readNorm(rs, id, vec, missingNorms));
                     scored.add(new OutputData(record, score));
                 }
             }
         } catch (Exception ex) {
             throw new RuntimeException("SQLite search failed: " + ex.getMessage(), ex);
         }
+        backfillVectorBlobs(missingBlobs);
+        backfillVectorNorms(missingNorms);
 
         scored.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
         if (scored.size() > k) {
             scored = new ArrayList<>(scored.subList(0, k));
         }
+        return scored;
+    }
 
-        // best-effort: persist last_accessed_at into payload JSON
-        for (OutputData d : scored) {
-            if (d == null || d.getRecord() == null) {
-                continue;
+    /**
+     * Two-phase scan: score the int8 codes of all filtered rows (no payloads or full vectors are read), then
+     * re-rank the best {@code k * quantizationOversample} plus any rows without codes with the exact cosine.
+     *
+     * @return results, or null for a zero query vector (the caller scans exactly)
+     */
+    private List<OutputData> searchQuantized(float[] queryEmbedding,
+                                             int k,
+                                             String userId,
+                                             String agentId,
+                                             String runId,
+                                             Map<String, Object> filters) {
+        float[] unit = VectorMath.normalize(queryEmbedding);
+        if (unit == null) {
+            return null;
+        }
+        StringBuilder sql = new StringBuilder("SELECT id, vector_q8 FROM " + tableName + " WHERE 1=1");
+        List<Object> args = new ArrayList<>();
+        sql.append(buildJsonWhere(args, userId, agentId, runId, filters));
+        ScoredIdHeap heap = new ScoredIdHeap((int) Math.min(Integer.MAX_VALUE, (long) k * quantizationOversample));
+        List<Long> uncoded = new ArrayList<>();
+        try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
             }
-            updateLastAccessedAt(d.getRecord().getId(), now);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong(1);
+                    byte[] code = rs.getBytes(2);
+                    if (code == null || ScalarQuantizer.dims(code.length) != unit.length) {
+                        uncoded.add(id);
+                    } else {
+                        heap.offer(id, ScalarQuantizer.dot(unit, code, 0));
+                    }
+                }
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException("SQLite search failed: " + ex.getMessage(), ex);
+        }
+
+        List<Long> candidates = new ArrayList<>(heap.size() + uncoded.size());
+        for (long id : heap.drainDescending()) {
+            candidates.add(id);
+        }
+        candidates.addAll(uncoded);
+        Set<Long> missingCodes = new HashSet<>(uncoded);
+        List<OutputData> scored = new ArrayList<>(candidates.size());
+        Map<Long, float[]> missingBlobs = new HashMap<>();
+        Map<Long, float[]> codesToWrite = new HashMap<>();
+        Map<Long, Double> missingNorms = new HashMap<>();
+        for (int from = 0; from < candidates.size(); from += ID_LOOKUP_CHUNK) {
+            List<Long> chunk = candidates.subList(from, Math.min(candidates.size(), from + ID_LOOKUP_CHUNK));
+            String rerank = "SELECT id, " + VECTOR_SELECT + ", payload FROM " + tableName
+                    + " WHERE id IN (" + placeholders(chunk.size()) + ")";
+            try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(rerank)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setLong(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        long id = rs.getLong("id");
+                        float[] vec = readVector(rs, id, missingBlobs);
+                        if (vec != null && vec.length > 0 && missingCodes.contains(id)) {
+                            codesToWrite.put(id, vec);
+                        }
+                        MemoryRecord record = fromPayload(Long.toString(id), json.fromJsonToMap(rs.getString("payload")));
+                        scored.add(new OutputData(record, cosine(queryEmbedding, unit, vec, readNorm(rs, id, vec, missingNorms))));
+                    }
+                }
+            } catch (Exception ex) {
+                throw new RuntimeException("SQLite search failed: " + ex.getMessage(), ex);
+            }
+        }
+        backfillVectorBlobs(missingBlobs);
+        backfillVectorNorms(missingNorms);
+        backfillVectorCodes(codesToWrite);
+
+        scored.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        return scored.size() > k ? new ArrayList<>(scored.subList(0, k)) : scored;
+    }
+
+    private void backfillVectorCodes(Map<Long, float[]> vectors) {
+        if (vectors == null || vectors.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE " + tableName + " SET vector_q8=? WHERE id=? AND vector_q8 IS NULL";
+        try (Connection c = openConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                for (Map.Entry<Long, float[]> e : vectors.entrySet()) {
+                    ps.setBytes(1, ScalarQuantizer.encode(e.getValue()));
+                    ps.setLong(2, e.getKey());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                c.commit();
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
+            }
+        } catch (Exception ignored) {
+            // best-effort: rows are re-ranked exactly until the next attempt
+        }
+    }
+
+    /**
+     * ANN search through the HNSW index. Candidates are widened (over-fetch and refill) when filters
+     * reject too many of them.
+     *
+     * @return results, or null if the index cannot answer and the caller should fall back to a full scan
+     */
+    private List<OutputData> searchHnsw(float[] queryEmbedding,
+                                        int k,
+                                        String userId,
+                                        String agentId,
+                                        String runId,
+                                        Map<String, Object> filters) {
+        int live = hnswIndex.size();
+        if (queryEmbedding == null || live == 0 || queryEmbedding.length != hnswIndex.dims()) {
+            return null;
+        }
+        int want = Math.min(live, Math.max(k, hnswEfSearch));
+        for (int round = 0; round < HNSW_MAX_ROUNDS; round++) {
+            List<HnswIndex.Neighbor> hits = hnswIndex.search(queryEmbedding, want, Math.max(want, hnswEfSearch));
+            List<Long> ids = new ArrayList<>(hits.size());
+            for (HnswIndex.Neighbor hit : hits) {
+                ids.add(hit.getId());
+            }
+            Map<Long, Map<String, Object>> payloads = readPayloadsByIds(ids, userId, agentId, runId, filters);
+            List<OutputData> out = new ArrayList<>(k);
+            for (HnswIndex.Neighbor hit : hits) {
+                Map<String, Object> payload = payloads.get(hit.getId());
+                if (payload == null) {
+                    continue;
+                }
+                out.add(new OutputData(fromPayload(Long.toString(hit.getId()), payload), hit.getScore()));
+                if (out.size() >= k) {
+                    break;
+                }
+            }
+            if (out.size() >= k || hits.size() >= live) {
+                return out;
+            }
+            if (want >= live) {
+                break;
+            }
+            want = (int) Math.min(live, (long) want * 4);
+        }
+        return null;
+    }
+
+    private Map<Long, Map<String, Object>> readPayloadsByIds(List<Long> ids,
+                                                             String userId,
+                                                             String agentId,
+                                                             String runId,
+                                                             Map<String, Object> filters) {
+        Map<Long, Map<String, Object>> out = new LinkedHashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return out;
+        }
+        try (Connection c = openConnection()) {
+            for (int from = 0; from < ids.size(); from += ID_LOOKUP_CHUNK) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + ID_LOOKUP_CHUNK));
+                StringBuilder sql = new StringBuilder("SELECT id, payload FROM " + tableName + " WHERE id IN (")
+                        .append(placeholders(chunk.size())).append(")");
+                List<Object> args = new ArrayList<>(chunk);
+                sql.append(buildJsonWhere(args, userId, agentId, runId, filters));
+                try (PreparedStatement ps = c.prepareStatement(sql.toString())) {
+                    for (int i = 0; i < args.size(); i++) {
+                        ps.setObject(i + 1, args.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            out.put(rs.getLong("id"), json.fromJsonToMap(rs.getString("payload")));
+                        }
+                    }
+                }
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException("SQLite search failed: " + ex.getMessage(), ex);
+        }
+        return out;
+    }
+
+    /**
+     * Decode a row selected with {@link #VECTOR_SELECT}: the float32 blob when present, otherwise the JSON
+     * text (collected into {@code missingBlobs} for a lazy backfill).
+     */
+    private float[] readVector(ResultSet rs, long id, Map<Long, float[]> missingBlobs) throws Exception {
+        byte[] blob = rs.getBytes("vector_blob");
+        if (blob != null) {
+            return VectorCodec.fromFloat32LE(blob);
+        }
+        float[] vec = json.fromJson(rs.getString("vector"), float[].class);
+        if (vec != null && missingBlobs != null) {
+            missingBlobs.put(id, vec);
+        }
+        return vec;
+    }
+
+    /**
+     * The row's persisted L2 norm; rows written before the column existed (or by Python) get it computed and
+     * collected into {@code missingNorms} for a lazy backfill.
+     */
+    private double readNorm(ResultSet rs, long id, float[] vec, Map<Long, Double> missingNorms) throws Exception {
+        double norm = rs.getDouble("vector_norm");
+        if (!rs.wasNull()) {
+            return norm;
+        }
+        norm = VectorMath.norm(vec);
+        if (vec != null && missingNorms != null) {
+            missingNorms.put(id, norm);
+        }
+        return norm;
+    }
+
+    /**
+     * Cosine similarity from a query normalized once per search and the row's stored norm: one dot product per row.
+     * Rows of another dimension keep the prefix semantics of {@link VectorMath#cosineSimilarity}.
+     */
+    private static double cosine(float[] query, float[] unitQuery, float[] vec, double norm) {
+        if (unitQuery == null || vec == null || norm == 0.0) {
+            return 0.0;
+        }
+        if (vec.length != unitQuery.length) {
+            return VectorMath.cosineSimilarity(query, vec);
+        }
+        return VectorMath.dot(unitQuery, vec) / norm;
+    }
+
+    private void backfillVectorNorms(Map<Long, Double> norms) {
+        if (norms == null || norms.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE " + tableName + " SET vector_norm=? WHERE id=? AND vector_norm IS NULL";
+        try (Connection c = openConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                for (Map.Entry<Long, Double> e : norms.entrySet()) {
+                    ps.setDouble(1, e.getValue());
+                    ps.setLong(2, e.getKey());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                c.commit();
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
+            }
+        } catch (Exception ignored) {
+            // best-effort: norms are recomputed until the next attempt
+        }
+    }
+
+    private void backfillVectorBlobs(Map<Long, float[]> vectors) {
+        if (vectors == null || vectors.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE " + tableName + " SET vector_blob=? WHERE id=? AND vector_blob IS NULL";
+        try (Connection c = openConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                for (Map.Entry<Long, float[]> e : vectors.entrySet()) {
+                    ps.setBytes(1, VectorCodec.toFloat32LE(e.getValue()));
+                    ps.setLong(2, e.getKey());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                c.commit();
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
+            }
+        } catch (Exception ignored) {
+            // best-effort: rows keep decoding from JSON until the next attempt
         }
-        return scored;
     }
 
     private String buildJsonWhere(List<Object> args,
@@ -514,37 +1527,69 @@ public class SQLiteVectorStore implements VectorStore {
             if (e.getKey() == null || e.getKey().isBlank() || e.getValue() == null) {
                 continue;
             }
-            where.append(" AND json_extract(payload, '$.").append(e.getKey()).append("') = ?");
+            String promoted = e.getKey().startsWith("metadata.")
+                    ? promotedColumns.get(e.getKey().substring("metadata.".length()))
+                    : null;
+            if (promoted != null) {
+                where.append(" AND ").append(promoted).append(" = ?");
+            } else {
+                where.append(" AND json_extract(payload, '$.").append(e.getKey()).append("') = ?");
+            }
             args.add(e.getValue());
         }
         return where.toString();
     }
 
-    private void updateLastAccessedAt(String memoryId, Instant at) {
-        if (memoryId == null || memoryId.isBlank()) {
-            return;
-        }
-        long id;
-        try {
-            id = Long.parseLong(memoryId.trim());
-        } catch (Exception ex) {
-            return;
-        }
-        try {
-            Map<String, Object> payload = readPayloadById(id);
-            if (payload == null) {
-                return;
+    private void flushLastAccessedAt(Map<String, Instant> touches) throws Exception {
+        // Monotonic: never move last_accessed_at backwards if a newer value was written meanwhile.
+        String sql = "UPDATE " + tableName + " SET payload = json_set(payload, '$.last_accessed_at', ?)"
+                + " WHERE id = ? AND (json_extract(payload, '$.last_accessed_at') IS NULL"
+                + " OR json_extract(payload, '$.last_accessed_at') < ?)";
+        try (Connection c = openConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                for (Map.Entry<String, Instant> e : touches.entrySet()) {
+                    long id;
+                    try {
+                        id = Long.parseLong(e.getKey().trim());
+                    } catch (Exception ex) {
+                        continue;
+                    }
+                    String at = e.getValue().toString();
+                    ps.setString(1, at);
+                    ps.setLong(2, id);
+                    ps.setString(3, at);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                c.commit();
+            } catch (Exception ex) {
+                c.rollback();
+                throw ex;
             }
-            payload.put("last_accessed_at", at == null ? null : at.toString());
+        }
+    }
+
+    private Map<Long, Map<String, Object>> readPayloadsById(List<Long> ids) throws Exception {
+        Map<Long, Map<String, Object>> out = new HashMap<>();
+        List<Long> distinct = new ArrayList<>(new HashSet<>(ids));
+        distinct.remove(null);
+        for (int from = 0; from < distinct.size(); from += ID_LOOKUP_CHUNK) {
+            List<Long> chunk = distinct.subList(from, Math.min(distinct.size(), from + ID_LOOKUP_CHUNK));
             try (Connection c = openConnection();
-                 PreparedStatement ps = c.prepareStatement("UPDATE " + tableName + " SET payload=? WHERE id=?")) {
-                ps.setString(1, json.toJson(payload));
-                ps.setLong(2, id);
-                ps.executeUpdate();
+                 PreparedStatement ps = c.prepareStatement("SELECT id, payload FROM " + tableName
+                         + " WHERE id IN (" + placeholders(chunk.size()) + ")")) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setLong(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        out.put(rs.getLong("id"), json.fromJsonToMap(rs.getString("payload")));
+                    }
+                }
             }
-        } catch (Exception ignored) {
-            // best-effort
         }
+        return out;
     }
 
     private Map<String, Object> readPayloadById(long id) throws Exception {
@@ -622,7 +1667,9 @@ public class SQLiteVectorStore implements VectorStore {
         }
         r.setCreatedAt(parseInstant(payload.get("created_at")));
         r.setUpdatedAt(parseInstant(payload.get("updated_at")));
-        r.setLastAccessedAt(parseInstant(payload.get("last_accessed_at")));
+        r.setLastAccessedAt(accessTracker == null
+                ? parseInstant(payload.get("last_accessed_at"))
+                : accessTracker.overlay(id, parseInstant(payload.get("last_accessed_at"))));
         // Capture extra fields (top-level keys not in reserved set) into MemoryRecord.attributes.
         java.util.Set<String> reserved = new java.util.HashSet<>();
         reserved.add("data");
@@ -651,6 +1698,9 @@ public class SQLiteVectorStore implements VectorStore {
     /**
      * Best-effort partial update: merges provided fields into payload JSON without recomputing embedding.
      * Used by intelligent memory lifecycle hooks (access_count/search_count/...).
+     *
+     * <p>Runs as one {@code UPDATE ... SET payload = json_set(payload, '$."k"', json(?), ...)} statement, so
+     * concurrent updates of different keys do not overwrite each other.</p>
      */
     public void updatePayloadFields(String memoryId, Map<String, Object> fieldUpdates) {
         if (memoryId == null || memoryId.isBlank() || fieldUpdates == null || fieldUpdates.isEmpty()) {
@@ -662,6 +1712,59 @@ public class SQLiteVectorStore implements VectorStore {
         } catch (Exception ex) {
             return;
         }
+        Map<String, Object> updates = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> e : fieldUpdates.entrySet()) {
+            if (e.getKey() == null || e.getKey().isBlank()) {
+                continue;
+            }
+            if (!isSafeJsonKey(e.getKey())) {
+                updatePayloadFieldsFull(id, fieldUpdates);
+                return;
+            }
+            updates.put(e.getKey(), e.getValue());
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        // keep updated_at consistent if caller didn't set it
+        if (!updates.containsKey("updated_at")) {
+            updates.put("updated_at", java.time.Instant.now().toString());
+        }
+        StringBuilder sql = new StringBuilder("UPDATE " + tableName + " SET payload = json_set(payload");
+        List<String> args = new ArrayList<>();
+        for (Map.Entry<String, Object> e : updates.entrySet()) {
+            sql.append(", '$.\"").append(e.getKey()).append("\"', json(?)");
+            args.add(json.toJson(e.getValue()));
+        }
+        sql.append(") WHERE id=?");
+        try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int p = 1;
+            for (String a : args) {
+                ps.setString(p++, a);
+            }
+            ps.setLong(p, id);
+            ps.executeUpdate();
+        } catch (Exception ignored) {
+            // best-effort
+        }
+        keywordIndexRefresh(id, updates);
+    }
+
+    private static boolean isSafeJsonKey(String k) {
+        if (k == null || k.isBlank()) return false;
+        for (int i = 0; i < k.length(); i++) {
+            char c = k.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read-modify-write of the whole payload, for keys that cannot be written as a JSON path.
+     */
+    private void updatePayloadFieldsFull(long id, Map<String, Object> fieldUpdates) {
         try {
             Map<String, Object> payload = readPayloadById(id);
             if (payload == null) {
@@ -690,6 +1793,7 @@ public class SQLiteVectorStore implements VectorStore {
         } catch (Exception ignored) {
             // best-effort
         }
+        keywordIndexRefresh(id, fieldUpdates);
     }
 
     private static String asString(Object v) {
@@ -725,7 +1829,12 @@ public class SQLiteVectorStore implements VectorStore {
                               String userId,
                               String agentId,
                               boolean isDeleted) {
-        if (memoryId == null || event == null) {
+        writeHistory(Collections.singletonList(
+                new HistoryEntry(memoryId, oldMemory, newMemory, event, userId, agentId, isDeleted)));
+    }
+
+    private void writeHistory(List<HistoryEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
             return;
         }
         String sql = "INSERT INTO " + TABLE_HISTORY
@@ -733,20 +1842,52 @@ public class SQLiteVectorStore implements VectorStore {
                 + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         Instant now = Instant.now();
         try (Connection c = openConnection(); PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setString(1, historyIdGenerator.nextId());
-            ps.setString(2, memoryId);
-            ps.setString(3, oldMemory);
-            ps.setString(4, newMemory);
-            ps.setString(5, event);
-            ps.setLong(6, now.toEpochMilli());
-            ps.setLong(7, now.toEpochMilli());
-            ps.setInt(8, isDeleted ? 1 : 0);
-            ps.setString(9, agentId != null && !agentId.isBlank() ? agentId : userId);
-            ps.setString(10, "sdk");
-            ps.executeUpdate();
+            c.setAutoCommit(false);
+            int n = 0;
+            for (HistoryEntry h : entries) {
+                if (h == null || h.memoryId == null || h.event == null) {
+                    continue;
+                }
+                ps.setString(1, historyIdGenerator.nextId());
+                ps.setString(2, h.memoryId);
+                ps.setString(3, h.oldMemory);
+                ps.setString(4, h.newMemory);
+                ps.setString(5, h.event);
+                ps.setLong(6, now.toEpochMilli());
+                ps.setLong(7, now.toEpochMilli());
+                ps.setInt(8, h.isDeleted ? 1 : 0);
+                ps.setString(9, h.agentId != null && !h.agentId.isBlank() ? h.agentId : h.userId);
+                ps.setString(10, "sdk");
+                ps.addBatch();
+                n++;
+            }
+            if (n > 0) {
+                ps.executeBatch();
+            }
+            c.commit();
         } catch (Exception ignored) {
             // best-effort
         }
     }
-}
 
+    private static final class HistoryEntry {
+        final String memoryId;
+        final String oldMemory;
+        final String newMemory;
+        final String event;
+        final String userId;
+        final String agentId;
+        final boolean isDeleted;
+
+        HistoryEntry(String memoryId, String oldMemory, String newMemory, String event,
+                     String userId, String agentId, boolean isDeleted) {
+            this.memoryId = memoryId;
+            this.oldMemory = oldMemory;
+            this.newMemory = newMemory;
+            this.event = event;
+            this.userId = userId;
+            this.agentId = agentId;
+            this.isDeleted = isDeleted;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.oceanbase.powermem.sdk.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Incremental Okapi BM25 index over tokenized documents keyed by {@code long} ids.
+ *
+ * <p>Terms are interned to int ids; each term keeps its postings as parallel primitive arrays of document slots
+ * and term frequencies. Document count, total length and document frequencies are updated on every add/remove,
+ * so the index never needs a rebuild. Scoring walks only the postings of the query terms, accumulating into a
+ * table sized by the documents touched, and keeps the top {@code k} in a {@link ScoredIdHeap}. Removed documents
+ * are skipped while scoring and purged from the postings once they outnumber the live ones. Scores use the same
+ * formula and defaults as {@link Bm25} ({@code k1=1.5, b=0.75}, smoothed IDF). Thread-safe (one read/write lock).</p>
+ *
+ * <p>Python reference: rank_bm25.BM25Okapi (graph rerank); the index itself has no direct Python equivalent.</p>
+ */
+public final class Bm25Index {
+    private static final int MIN_PURGE_SLOTS = 1024;
+
+    private final double k1;
+    private final double b;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term dictionary and postings (by term id)
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private int[] docFreq = new int[16];
+    private int[][] postingSlots = new int[16][];
+    private int[][] postingFreqs = new int[16][];
+    private int[] postingSize = new int[16];
+
+    // documents (by slot); a removed document keeps its slot with length -1 until the next purge
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private long[] slotIds = new long[16];
+    private int[] docLength = new int[16];
+    private int[][] docTerms = new int[16][];
+    private int slotCount;
+    private int liveDocs;
+    private int deadSlots;
+    private long totalLength;
+
+    /** A scored document. */
+    public static final class Hit {
+        private final long id;
+        private final double score;
+
+        Hit(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    public Bm25Index() {
+        this(1.5, 0.75);
+    }
+
+    public Bm25Index(double k1, double b) {
+        this.k1 = k1;
+        this.b = b;
+    }
+
+    /**
+     * Rank a candidate list the way {@code OceanBaseGraphStore} reranks graph triples: BM25 with statistics over
+     * the candidates only, highest score first (ties keep candidate order), then candidates without any query term
+     * in their original order, up to {@code top} indexes into {@code corpus}.
+     */
+    public static int[] rank(List<List<String>> corpus, List<String> queryTokens, int top) {
+        int n = corpus == null ? 0 : corpus.size();
+        int limit = Math.min(n, Math.max(0, top));
+        Bm25Index index = new Bm25Index();
+        for (int i = 0; i < n; i++) {
+            index.add(i, corpus.get(i));
+        }
+        int[] out = new int[limit];
+        boolean[] taken = new boolean[n];
+        int size = 0;
+        for (Hit hit : index.search(queryTokens, limit)) {
+            out[size++] = (int) hit.id;
+            taken[(int) hit.id] = true;
+        }
+        for (int i = 0; i < n && size < limit; i++) {
+            if (!taken[i]) {
+                out[size++] = i;
+            }
+        }
+        return out;
+    }
+
+    /** Index {@code tokens} under {@code id}, replacing any previous document with that id. */
+    public void add(long id, List<String> tokens) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            int[] terms = new int[tokens == null ? 0 : tokens.size()];
+            int length = 0;
+            if (tokens != null) {
+                for (String token : tokens) {
+                    if (token == null || token.isBlank()) continue;
+                    terms[length++] = intern(token);
+                }
+            }
+            // distinct terms with their frequencies: sort the term ids and count runs
+            Arrays.sort(terms, 0, length);
+            int distinct = 0;
+            int[] freqs = new int[length];
+            for (int i = 0; i < length; i++) {
+                if (distinct > 0 && terms[distinct - 1] == terms[i]) {
+                    freqs[distinct - 1]++;
+                } else {
+                    terms[distinct] = terms[i];
+                    freqs[distinct++] = 1;
+                }
+            }
+
+            int slot = newSlot(id, length, Arrays.copyOf(terms, distinct));
+            for (int i = 0; i < distinct; i++) {
+                int t = terms[i];
+                if (postingSize[t] == postingSlots[t].length) {
+                    int cap = Math.max(4, postingSize[t] * 2);
+                    postingSlots[t] = Arrays.copyOf(postingSlots[t], cap);
+                    postingFreqs[t] = Arrays.copyOf(postingFreqs[t], cap);
+                }
+                postingSlots[t][postingSize[t]] = slot;
+                postingFreqs[t][postingSize[t]] = freqs[i];
+                postingSize[t]++;
+                docFreq[t]++;
+            }
+            liveDocs++;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true if a document with {@code id} was indexed
+     */
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = removeLocked(id);
+            if (removed && deadSlots >= MIN_PURGE_SLOTS && deadSlots > liveDocs) {
+                purge();
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return slotById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Number of indexed documents. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            termIds.clear();
+            docFreq = new int[16];
+            postingSlots = new int[16][];
+            postingFreqs = new int[16][];
+            postingSize = new int[16];
+            slotById.clear();
+            slotIds = new long[16];
+            docLength = new int[16];
+            docTerms = new int[16][];
+            slotCount = 0;
+            liveDocs = 0;
+            deadSlots = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Top {@code k} documents containing at least one query token, by descending BM25 score (ties by ascending
+     * id). A token repeated in the query counts once per occurrence, as in {@link Bm25#getScores}.
+     */
+    public List<Hit> search(List<String> queryTokens, int k) {
+        List<Hit> out = new ArrayList<>();
+        if (queryTokens == null || queryTokens.isEmpty() || k <= 0) {
+            return out;
+        }
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return out;
+            }
+            double avgLength = (double) totalLength / liveDocs;
+            SlotScores acc = new SlotScores();
+            for (String token : queryTokens) {
+                Integer t = token == null ? null : termIds.get(token);
+                if (t == null || docFreq[t] == 0) continue;
+                int df = docFreq[t];
+                double idf = Math.log(1.0 + (liveDocs - df + 0.5) / (df + 0.5));
+                int[] slots = postingSlots[t];
+                int[] freqs = postingFreqs[t];
+                for (int i = 0, n = postingSize[t]; i < n; i++) {
+                    int slot = slots[i];
+                    int length = docLength[slot];
+                    if (length < 0) continue;
+                    double norm = (1.0 - b) + b * (avgLength > 0 ? length / avgLength : 1.0);
+                    int f = freqs[i];
+                    acc.add(slot, idf * (f * (k1 + 1.0)) / (f + k1 * norm));
+                }
+            }
+            ScoredIdHeap heap = new ScoredIdHeap(Math.min(k, Math.max(1, acc.size)));
+            for (int i = 0; i < acc.slots.length; i++) {
+                if (acc.slots[i] != 0) {
+                    heap.offer(acc.slots[i] - 1, acc.scores[i]);
+                }
+            }
+            for (long slot : heap.drainDescending()) {
+                out.add(new Hit(slotIds[(int) slot], acc.get((int) slot)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        out.sort((x, y) -> x.score != y.score ? Double.compare(y.score, x.score) : Long.compare(x.id, y.id));
+        return out;
+    }
+
+    /**
+     * Score accumulator keyed by document slot: open addressing with linear probing, sized by the documents
+     * a query touches rather than by the whole index.
+     */
+    private static final class SlotScores {
+        // slot + 1; 0 marks an empty cell
+        int[] slots = new int[32];
+        double[] scores = new double[32];
+        int size;
+
+        void add(int slot, double score) {
+            int i = cell(slots, slot);
+            if (slots[i] == 0) {
+                if ((size + 1) * 2 > slots.length) {
+                    grow();
+                    i = cell(slots, slot);
+                }
+                slots[i] = slot + 1;
+                size++;
+            }
+            scores[i] += score;
+        }
+
+        double get(int slot) {
+            int i = cell(slots, slot);
+            return slots[i] == 0 ? 0.0 : scores[i];
+        }
+
+        private static int cell(int[] table, int slot) {
+            int mask = table.length - 1;
+            int i = (slot * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(mask);
+            while (table[i] != 0 && table[i] != slot + 1) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        private void grow() {
+            int[] oldSlots = slots;
+            double[] oldScores = scores;
+            slots = new int[oldSlots.length * 2];
+            scores = new double[oldSlots.length * 2];
+            for (int i = 0; i < oldSlots.length; i++) {
+                if (oldSlots[i] != 0) {
+                    int j = cell(slots, oldSlots[i] - 1);
+                    slots[j] = oldSlots[i];
+                    scores[j] = oldScores[i];
+                }
+            }
+        }
+    }
+
+    private int intern(String term) {
+        Integer t = termIds.get(term);
+        if (t != null) {
+            return t;
+        }
+        int next = termIds.size();
+        if (next == docFreq.length) {
+            int cap = next * 2;
+            docFreq = Arrays.copyOf(docFreq, cap);
+            postingSlots = Arrays.copyOf(postingSlots, cap);
+            postingFreqs = Arrays.copyOf(postingFreqs, cap);
+            postingSize = Arrays.copyOf(postingSize, cap);
+        }
+        postingSlots[next] = new int[0];
+        postingFreqs[next] = new int[0];
+        termIds.put(term, next);
+        return next;
+    }
+
+    private int newSlot(long id, int length, int[] terms) {
+        if (slotCount == slotIds.length) {
+            int cap = slotCount * 2;
+            slotIds = Arrays.copyOf(slotIds, cap);
+            docLength = Arrays.copyOf(docLength, cap);
+            docTerms = Arrays.copyOf(docTerms, cap);
+        }
+        int slot = slotCount++;
+        slotIds[slot] = id;
+        docLength[slot] = length;
+        docTerms[slot] = terms;
+        slotById.put(id, slot);
+        return slot;
+    }
+
+    private boolean removeLocked(long id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        for (int t : docTerms[slot]) {
+            docFreq[t]--;
+        }
+        totalLength -= docLength[slot];
+        liveDocs--;
+        deadSlots++;
+        docLength[slot] = -1;
+        docTerms[slot] = null;
+        return true;
+    }
+
+    /** Drop removed documents: renumber the live slots and rewrite every posting list without the dead ones. */
+    private void purge() {
+        int[] remap = new int[slotCount];
+        int live = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (docLength[slot] < 0) {
+                remap[slot] = -1;
+                continue;
+            }
+            remap[slot] = live;
+            slotIds[live] = slotIds[slot];
+            docLength[live] = docLength[slot];
+            docTerms[live] = docTerms[slot];
+            slotById.put(slotIds[live], live);
+            live++;
+        }
+        Arrays.fill(docTerms, live, slotCount, null);
+        slotCount = live;
+        deadSlots = 0;
+        for (int t = 0, terms = termIds.size(); t < terms; t++) {
+            int[] slots = postingSlots[t];
+            int[] freqs = postingFreqs[t];
+            int n = 0;
+            for (int i = 0; i < postingSize[t]; i++) {
+                int mapped = remap[slots[i]];
+                if (mapped >= 0) {
+                    slots[n] = mapped;
+                    freqs[n] = freqs[i];
+                    n++;
+                }
+            }
+            postingSize[t] = n;
+        }
+    }
+}
@@ -0,0 +1,536 @@
+package com.oceanbase.powermem.sdk.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Minimal in-process HNSW (Hierarchical Navigable Small World) index over cosine similarity.
+ *
+ * <p>Used by local stores as an optional ANN accelerator in front of brute-force scans. Vectors are
+ * kept L2-normalized so similarity reduces to a dot product. Deletes are tombstones; the graph is
+ * rebuilt from live nodes once tombstones outnumber them.</p>
+ *
+ * <p>No direct Python equivalent (the Python SQLite store scans all rows).</p>
+ */
+public final class HnswIndex {
+    private static final int FILE_MAGIC = 0x484E5357; // "HNSW"
+    private static final int FILE_VERSION = 1;
+    private static final int MIN_TOMBSTONES_FOR_COMPACTION = 64;
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMult;
+    private final SplittableRandom random = new SplittableRandom(42L);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> nodeById = new HashMap<>();
+    private int dims = -1;
+    private long[] ids = new long[16];
+    private float[][] vectors = new float[16][];
+    private int[][][] links = new int[16][][];
+    private boolean[] deleted = new boolean[16];
+    private int nodeCount;
+    private int deletedCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswIndex(int m, int efConstruction) {
+        this.m = m <= 1 ? 16 : m;
+        this.maxM0 = this.m * 2;
+        this.efConstruction = Math.max(this.m, efConstruction <= 0 ? 200 : efConstruction);
+        this.levelMult = 1.0 / Math.log(this.m);
+    }
+
+    public int getM() {
+        return m;
+    }
+
+    public int getEfConstruction() {
+        return efConstruction;
+    }
+
+    /**
+     * Vector dimension accepted by this index, or {@code -1} when nothing has been indexed yet.
+     */
+    public int dims() {
+        lock.readLock().lock();
+        try {
+            return dims;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of live (non-deleted) vectors.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return nodeById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Snapshot of live ids (unordered).
+     */
+    public long[] ids() {
+        lock.readLock().lock();
+        try {
+            long[] out = new long[nodeById.size()];
+            int i = 0;
+            for (Long id : nodeById.keySet()) {
+                out[i++] = id;
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or replace the vector for {@code id}.
+     *
+     * @return false if the vector is empty, all-zero or has a different dimension than the index
+     */
+    public boolean add(long id, float[] vector) {
+        float[] v = normalize(vector);
+        if (v == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (dims > 0 && v.length != dims) {
+                return false;
+            }
+            dims = v.length;
+            Integer existing = nodeById.remove(id);
+            if (existing != null) {
+                markDeleted(existing);
+            }
+            insertNode(id, v);
+            maybeCompact();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodeById.remove(id);
+            if (node == null) {
+                return false;
+            }
+            markDeleted(node);
+            maybeCompact();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate top-k search by cosine similarity.
+     *
+     * @param efSearch size of the dynamic candidate list (clamped to at least {@code k})
+     * @return neighbors sorted by descending similarity (may be fewer than k)
+     */
+    public List<Neighbor> search(float[] query, int k, int efSearch) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+        float[] q = normalize(query);
+        if (q == null) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || q.length != dims || nodeById.isEmpty()) {
+                return Collections.emptyList();
+            }
+            int cur = entryPoint;
+            float curSim = dot(q, vectors[cur]);
+            for (int level = maxLevel; level > 0; level--) {
+                boolean changed = true;
+                while (changed) {
+                    changed = false;
+                    for (int nb : neighbors(cur, level)) {
+                        float sim = dot(q, vectors[nb]);
+                        if (sim > curSim) {
+                            curSim = sim;
+                            cur = nb;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+            int ef = Math.max(k, efSearch);
+            // tombstones still route the search; give the candidate list room for them
+            if (deletedCount > 0) {
+                ef = Math.min(nodeCount, ef + (int) ((long) ef * deletedCount / Math.max(1, nodeById.size())));
+            }
+            List<Scored> found = searchLayer(q, cur, ef, 0);
+            List<Neighbor> out = new ArrayList<>(Math.min(k, found.size()));
+            for (Scored s : found) {
+                if (deleted[s.node]) {
+                    continue;
+                }
+                out.add(new Neighbor(ids[s.node], s.sim));
+                if (out.size() >= k) {
+                    break;
+                }
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Persist the index to {@code file} (written to a temp file first, then moved into place).
+     */
+    public void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = file.resolveSibling(file.getFileName().toString() + ".tmp");
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(m);
+            out.writeInt(efConstruction);
+            out.writeInt(dims);
+            out.writeInt(nodeCount);
+            out.writeInt(entryPoint);
+            out.writeInt(maxLevel);
+            for (int i = 0; i < nodeCount; i++) {
+                out.writeLong(ids[i]);
+                out.writeBoolean(deleted[i]);
+                float[] v = vectors[i];
+                for (int d = 0; d < dims; d++) {
+                    out.writeFloat(v[d]);
+                }
+                int[][] nodeLinks = links[i];
+                out.writeInt(nodeLinks.length);
+                for (int[] level : nodeLinks) {
+                    out.writeInt(level.length);
+                    for (int nb : level) {
+                        out.writeInt(nb);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load an index previously written by {@link #save(Path)}.
+     *
+     * @return the index, or null if the file is missing, unreadable or was built with different parameters
+     */
+    public static HnswIndex load(Path file, int m, int efConstruction) {
+        if (file == null || !Files.isRegularFile(file)) {
+            return null;
+        }
+        HnswIndex idx = new HnswIndex(m, efConstruction);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                return null;
+            }
+            if (in.readInt() != idx.m || in.readInt() != idx.efConstruction) {
+                return null;
+            }
+            int dims = in.readInt();
+            int count = in.readInt();
+            idx.dims = dims;
+            idx.entryPoint = in.readInt();
+            idx.maxLevel = in.readInt();
+            idx.ensureCapacity(count);
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                boolean del = in.readBoolean();
+                float[] v = new float[Math.max(0, dims)];
+                for (int d = 0; d < v.length; d++) {
+                    v[d] = in.readFloat();
+                }
+                int levels = in.readInt();
+                int[][] nodeLinks = new int[levels][];
+                for (int l = 0; l < levels; l++) {
+                    int n = in.readInt();
+                    int[] nbs = new int[n];
+                    for (int j = 0; j < n; j++) {
+                        nbs[j] = in.readInt();
+                    }
+                    nodeLinks[l] = nbs;
+                }
+                idx.ids[i] = id;
+                idx.vectors[i] = v;
+                idx.links[i] = nodeLinks;
+                idx.deleted[i] = del;
+                if (del) {
+                    idx.deletedCount++;
+                } else {
+                    idx.nodeById.put(id, i);
+                }
+            }
+            idx.nodeCount = count;
+            return idx;
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    private void insertNode(long id, float[] v) {
+        int level = randomLevel();
+        int node = nodeCount;
+        ensureCapacity(node + 1);
+        ids[node] = id;
+        vectors[node] = v;
+        deleted[node] = false;
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeLinks[l] = new int[0];
+        }
+        links[node] = nodeLinks;
+        nodeCount++;
+        nodeById.put(id, node);
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        int cur = entryPoint;
+        float curSim = dot(v, vectors[cur]);
+        for (int l = maxLevel; l > level; l--) {
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (int nb : neighbors(cur, l)) {
+                    float sim = dot(v, vectors[nb]);
+                    if (sim > curSim) {
+                        curSim = sim;
+                        cur = nb;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Scored> candidates = searchLayer(v, cur, efConstruction, l);
+            int cap = l == 0 ? maxM0 : m;
+            int[] selected = selectNeighbors(candidates, node, cap);
+            links[node][l] = selected;
+            for (int nb : selected) {
+                connect(nb, node, l, l == 0 ? maxM0 : m);
+            }
+            if (!candidates.isEmpty()) {
+                cur = candidates.get(0).node;
+            }
+        }
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    private int[] selectNeighbors(List<Scored> candidates, int self, int cap) {
+        int[] out = new int[Math.min(cap, candidates.size())];
+        int n = 0;
+        for (Scored s : candidates) {
+            if (s.node == self) {
+                continue;
+            }
+            if (n >= out.length) {
+                break;
+            }
+            out[n++] = s.node;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private void connect(int from, int to, int level, int cap) {
+        int[][] fromLinks = links[from];
+        if (level >= fromLinks.length) {
+            return;
+        }
+        int[] cur = fromLinks[level];
+        int[] next = Arrays.copyOf(cur, cur.length + 1);
+        next[cur.length] = to;
+        if (next.length > cap) {
+            // keep the closest neighbors of `from`
+            List<Scored> scored = new ArrayList<>(next.length);
+            for (int nb : next) {
+                scored.add(new Scored(nb, dot(vectors[from], vectors[nb])));
+            }
+            scored.sort((a, b) -> Float.compare(b.sim, a.sim));
+            next = new int[cap];
+            for (int i = 0; i < cap; i++) {
+                next[i] = scored.get(i).node;
+            }
+        }
+        fromLinks[level] = next;
+    }
+
+    private List<Scored> searchLayer(float[] q, int entry, int ef, int level) {
+        BitSet visited = new BitSet(nodeCount);
+        PriorityQueue<Scored> candidates = new PriorityQueue<>((a, b) -> Float.compare(b.sim, a.sim));
+        PriorityQueue<Scored> results = new PriorityQueue<>((a, b) -> Float.compare(a.sim, b.sim));
+        Scored start = new Scored(entry, dot(q, vectors[entry]));
+        visited.set(entry);
+        candidates.add(start);
+        results.add(start);
+        while (!candidates.isEmpty()) {
+            Scored c = candidates.poll();
+            if (results.size() >= ef && c.sim < results.peek().sim) {
+                break;
+            }
+            for (int nb : neighbors(c.node, level)) {
+                if (visited.get(nb)) {
+                    continue;
+                }
+                visited.set(nb);
+                float sim = dot(q, vectors[nb]);
+                if (results.size() < ef || sim > results.peek().sim) {
+                    Scored s = new Scored(nb, sim);
+                    candidates.add(s);
+                    results.add(s);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        List<Scored> out = new ArrayList<>(results);
+        out.sort((a, b) -> Float.compare(b.sim, a.sim));
+        return out;
+    }
+
+    private int[] neighbors(int node, int level) {
+        int[][] nodeLinks = links[node];
+        return level < nodeLinks.length ? nodeLinks[level] : new int[0];
+    }
+
+    private void markDeleted(int node) {
+        if (!deleted[node]) {
+            deleted[node] = true;
+            deletedCount++;
+        }
+    }
+
+    private void maybeCompact() {
+        if (deletedCount < MIN_TOMBSTONES_FOR_COMPACTION || deletedCount <= nodeById.size()) {
+            return;
+        }
+        long[] oldIds = ids;
+        float[][] oldVectors = vectors;
+        boolean[] oldDeleted = deleted;
+        int oldCount = nodeCount;
+
+        int cap = Math.max(16, nodeById.size() * 2);
+        ids = new long[cap];
+        vectors = new float[cap][];
+        links = new int[cap][][];
+        deleted = new boolean[cap];
+        nodeById.clear();
+        nodeCount = 0;
+        deletedCount = 0;
+        entryPoint = -1;
+        maxLevel = -1;
+        for (int i = 0; i < oldCount; i++) {
+            if (!oldDeleted[i]) {
+                insertNode(oldIds[i], oldVectors[i]);
+            }
+        }
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= ids.length) {
+            return;
+        }
+        int cap = Math.max(n, ids.length * 2);
+        ids = Arrays.copyOf(ids, cap);
+        vectors = Arrays.copyOf(vectors, cap);
+        links = Arrays.copyOf(links, cap);
+        deleted = Arrays.copyOf(deleted, cap);
+    }
+
+    private int randomLevel() {
+        double r = 1.0 - random.nextDouble();
+        return (int) Math.floor(-Math.log(r) * levelMult);
+    }
+
+    private static float[] normalize(float[] v) {
+        return VectorMath.normalize(v);
+    }
+
+    private static float dot(float[] a, float[] b) {
+        return (float) VectorMath.dot(a, 0, b, a.length);
+    }
+
+    private static final class Scored {
+        final int node;
+        final float sim;
+
+        Scored(int node, float sim) {
+            this.node = node;
+            this.sim = sim;
+        }
+    }
+
+    /**
+     * Search hit: external id and cosine similarity.
+     */
+    public static final class Neighbor {
+        private final long id;
+        private final double score;
+
+        public Neighbor(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.oceanbase.powermem.sdk.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of primitive {@code long}s (linear probing, power-of-two table), for id sets on hot
+ * paths where {@code HashSet<Long>} would box every element.
+ *
+ * <p>No direct Python equivalent.</p>
+ */
+public final class LongHashSet {
+    private static final long EMPTY = 0L;
+
+    private long[] table;
+    private int size;
+    // 0 is the empty-slot marker, so it is tracked separately
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int cap = 16;
+        while (cap < (long) Math.max(1, expectedSize) * 2) {
+            cap <<= 1;
+        }
+        table = new long[cap];
+    }
+
+    /**
+     * @return true if {@code value} was not present
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int mask = table.length - 1;
+        int i = mix(value) & mask;
+        while (table[i] != EMPTY) {
+            if (table[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+        size++;
+        if (size * 2 > table.length) {
+            rehash(table.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return hasZero;
+        }
+        int mask = table.length - 1;
+        int i = mix(value) & mask;
+        while (table[i] != EMPTY) {
+            if (table[i] == value) {
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Elements in table order (unspecified, but stable for an unmodified set). */
+    public long[] toArray() {
+        long[] out = new long[size];
+        int n = 0;
+        if (hasZero) {
+            out[n++] = EMPTY;
+        }
+        for (long v : table) {
+            if (v != EMPTY) {
+                out[n++] = v;
+            }
+        }
+        return out;
+    }
+
+    public void clear() {
+        Arrays.fill(table, EMPTY);
+        size = 0;
+        hasZero = false;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        int mask = capacity - 1;
+        for (long v : old) {
+            if (v != EMPTY) {
+                int i = mix(v) & mask;
+                while (table[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = v;
+            }
+        }
+    }
+
+    private static int mix(long v) {
+        long h = v * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
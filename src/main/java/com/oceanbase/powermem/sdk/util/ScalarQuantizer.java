@@ -0,0 +1,88 @@
+package com.oceanbase.powermem.sdk.util;
+
+/**
+ * int8 scalar quantization of embeddings for compact candidate scoring.
+ *
+ * <p>A code is {@code 4 + dims} bytes: a little-endian float32 scale followed by one signed byte per
+ * dimension, encoding the L2-normalized vector ({@code value ~= code * scale}). The dot product of a unit query
+ * with a code approximates cosine similarity at a quarter of the float32 footprint; stores use it to pick
+ * candidates and re-rank those with the exact vectors.</p>
+ *
+ * <p>No direct Python equivalent.</p>
+ */
+public final class ScalarQuantizer {
+    private ScalarQuantizer() {}
+
+    public static int codeBytes(int dims) {
+        return Float.BYTES + dims;
+    }
+
+    public static byte[] encode(float[] vector) {
+        if (vector == null) {
+            return null;
+        }
+        byte[] out = new byte[codeBytes(vector.length)];
+        encodeInto(vector, out, 0);
+        return out;
+    }
+
+    /**
+     * Write the code of {@code vector} to {@code dst} at {@code offset}. A zero vector encodes as scale 0.
+     */
+    public static void encodeInto(float[] vector, byte[] dst, int offset) {
+        double sum = 0.0;
+        for (float f : vector) {
+            sum += (double) f * f;
+        }
+        double norm = Math.sqrt(sum);
+        float max = 0f;
+        for (float f : vector) {
+            max = Math.max(max, Math.abs(f));
+        }
+        float scale = norm == 0.0 || max == 0f ? 0f : (float) (max / norm / 127.0);
+        int bits = Float.floatToIntBits(scale);
+        dst[offset] = (byte) bits;
+        dst[offset + 1] = (byte) (bits >>> 8);
+        dst[offset + 2] = (byte) (bits >>> 16);
+        dst[offset + 3] = (byte) (bits >>> 24);
+        int base = offset + Float.BYTES;
+        double inv = scale == 0f ? 0.0 : 1.0 / (norm * scale);
+        for (int i = 0; i < vector.length; i++) {
+            long q = Math.round(vector[i] * inv);
+            dst[base + i] = (byte) Math.max(-127, Math.min(127, q));
+        }
+    }
+
+    /**
+     * Approximate dot product of {@code query} with the code at {@code offset}; with a unit-length query this is
+     * the approximate cosine similarity. Reads the code in place (no allocation).
+     */
+    public static double dot(float[] query, byte[] codes, int offset) {
+        float scale = Float.intBitsToFloat((codes[offset] & 0xFF)
+                | (codes[offset + 1] & 0xFF) << 8
+                | (codes[offset + 2] & 0xFF) << 16
+                | (codes[offset + 3] & 0xFF) << 24);
+        int base = offset + Float.BYTES;
+        int n = query.length;
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            s0 += query[i] * codes[base + i];
+            s1 += query[i + 1] * codes[base + i + 1];
+            s2 += query[i + 2] * codes[base + i + 2];
+            s3 += query[i + 3] * codes[base + i + 3];
+        }
+        for (; i < n; i++) {
+            s0 += query[i] * codes[base + i];
+        }
+        return ((s0 + s1) + (s2 + s3)) * (double) scale;
+    }
+
+    /** Dimensions of a code of {@code codeLength} bytes. */
+    public static int dims(int codeLength) {
+        return codeLength - Float.BYTES;
+    }
+}
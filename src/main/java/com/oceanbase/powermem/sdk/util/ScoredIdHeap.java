@@ -0,0 +1,100 @@
+package com.oceanbase.powermem.sdk.util;
+
+/**
+ * Bounded min-heap of {@code (long id, double score)} pairs on primitive arrays: keeps the {@code capacity}
+ * highest-scoring ids seen so far without allocating per offer.
+ *
+ * <p>No direct Python equivalent (Python sorts full candidate lists).</p>
+ */
+public final class ScoredIdHeap {
+    private final long[] ids;
+    private final double[] scores;
+    private int size;
+
+    public ScoredIdHeap(int capacity) {
+        int n = Math.max(1, capacity);
+        this.ids = new long[n];
+        this.scores = new double[n];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Lowest score kept, or negative infinity while the heap is not full. */
+    public double threshold() {
+        return size < ids.length ? Double.NEGATIVE_INFINITY : scores[0];
+    }
+
+    /**
+     * @return true if the pair was kept
+     */
+    public boolean offer(long id, double score) {
+        if (size < ids.length) {
+            int i = size++;
+            ids[i] = id;
+            scores[i] = score;
+            siftUp(i);
+            return true;
+        }
+        if (!(score > scores[0])) {
+            return false;
+        }
+        ids[0] = id;
+        scores[0] = score;
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * Ids ordered by descending score; the heap is emptied.
+     */
+    public long[] drainDescending() {
+        long[] out = new long[size];
+        for (int i = size - 1; i >= 0; i--) {
+            out[i] = ids[0];
+            size--;
+            ids[0] = ids[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+        return out;
+    }
+
+    private void siftUp(int i) {
+        long id = ids[i];
+        double s = scores[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= s) {
+                break;
+            }
+            ids[i] = ids[parent];
+            scores[i] = scores[parent];
+            i = parent;
+        }
+        ids[i] = id;
+        scores[i] = s;
+    }
+
+    private void siftDown(int i) {
+        long id = ids[i];
+        double s = scores[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && scores[right] < scores[child]) {
+                child = right;
+            }
+            if (s <= scores[child]) {
+                break;
+            }
+            ids[i] = ids[child];
+            scores[i] = scores[child];
+            i = child;
+        }
+        ids[i] = id;
+        scores[i] = s;
+    }
+}
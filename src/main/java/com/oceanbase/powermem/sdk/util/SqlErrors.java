@@ -0,0 +1,45 @@
+package com.oceanbase.powermem.sdk.util;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLSyntaxErrorException;
+
+/**
+ * Classification of JDBC failures for stores that fall back from an optional SQL feature (e.g. OceanBase's
+ * {@code APPROXIMATE} ordering or {@code WITH RECURSIVE}) to a portable query.
+ *
+ * <p>No direct Python equivalent.</p>
+ */
+public final class SqlErrors {
+    // MySQL-protocol error codes, also used by OceanBase: ER_PARSE_ERROR, ER_SYNTAX_ERROR, ER_NOT_SUPPORTED_YET
+    private static final int ER_PARSE_ERROR = 1064;
+    private static final int ER_SYNTAX_ERROR = 1149;
+    private static final int ER_NOT_SUPPORTED_YET = 1235;
+
+    private SqlErrors() {}
+
+    /**
+     * True if {@code t} (or a cause) is the server rejecting the statement itself: a syntax error or a feature it
+     * does not support. Such a failure repeats on every call, so a caller may stop issuing the statement; any
+     * other failure (timeouts, lost connections, lock waits) should only fall back for the call at hand.
+     */
+    public static boolean isUnsupportedStatement(Throwable t) {
+        for (Throwable c = t; c != null; c = c.getCause() == c ? null : c.getCause()) {
+            if (!(c instanceof SQLException)) {
+                continue;
+            }
+            if (c instanceof SQLFeatureNotSupportedException) {
+                return true;
+            }
+            int code = ((SQLException) c).getErrorCode();
+            if (code == ER_PARSE_ERROR || code == ER_SYNTAX_ERROR || code == ER_NOT_SUPPORTED_YET) {
+                return true;
+            }
+            // a syntax error raised without a vendor code (code 0), e.g. by the driver itself
+            if (c instanceof SQLSyntaxErrorException && code == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
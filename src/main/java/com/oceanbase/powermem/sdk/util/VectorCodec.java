@@ -0,0 +1,35 @@
+package com.oceanbase.powermem.sdk.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Binary vector encoding helpers (raw float32, little-endian).
+ *
+ * <p>Used for BLOB vector columns so hot read paths can decode embeddings without going through JSON.</p>
+ *
+ * <p>No direct Python equivalent; Python stores vectors as JSON text.</p>
+ */
+public final class VectorCodec {
+    private VectorCodec() {}
+
+    public static byte[] toFloat32LE(float[] vector) {
+        if (vector == null) {
+            return null;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buf.asFloatBuffer().put(vector);
+        return buf.array();
+    }
+
+    public static float[] fromFloat32LE(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        FloatBuffer fb = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        float[] out = new float[fb.remaining()];
+        fb.get(out);
+        return out;
+    }
+}
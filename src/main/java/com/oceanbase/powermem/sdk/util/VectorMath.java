@@ -1,7 +1,16 @@
 package com.oceanbase.powermem.sdk.util;
 
 /**
- * Simple vector math utilities (cosine similarity, norm).
+ * Simple vector math utilities (cosine similarity, dot product, L2 distance, norm).
+ *
+ * <p>The kernels run independent accumulators over several lanes, which breaks the loop-carried dependency of a
+ * single running sum; HotSpot then pipelines (and where it can, vectorizes) the loop. All kernels accumulate in
+ * {@code double}, so {@link #dot} on unit vectors gives the same score as {@link #cosineSimilarity}. Stores that
+ * keep vectors L2-normalized should prefer {@link #dot} / {@link #dotBatch}: they skip the per-row norms.</p>
+ *
+ * <p>There is no {@code jdk.incubator.vector} path: the library targets Java 11, and the incubator module needs
+ * JDK 16+ and {@code --add-modules} at compile and run time. For the same reason the batch kernel takes
+ * {@code float[]} blocks rather than {@code MemorySegment}s.</p>
  *
  * <p>Python reference: cosine similarity usage in vector store implementations and rerank logic.</p>
  */
@@ -16,20 +25,171 @@ public final class VectorMath {
         if (n == 0) {
             return 0.0;
         }
-        double dot = 0.0;
-        double na = 0.0;
-        double nb = 0.0;
-        for (int i = 0; i < n; i++) {
-            double da = a[i];
-            double db = b[i];
-            dot += da * db;
-            na += da * da;
-            nb += db * db;
+        double d0 = 0.0;
+        double d1 = 0.0;
+        double a0 = 0.0;
+        double a1 = 0.0;
+        double b0 = 0.0;
+        double b1 = 0.0;
+        int i = 0;
+        for (; i + 1 < n; i += 2) {
+            double x0 = a[i];
+            double y0 = b[i];
+            double x1 = a[i + 1];
+            double y1 = b[i + 1];
+            d0 += x0 * y0;
+            d1 += x1 * y1;
+            a0 += x0 * x0;
+            a1 += x1 * x1;
+            b0 += y0 * y0;
+            b1 += y1 * y1;
+        }
+        if (i < n) {
+            double x = a[i];
+            double y = b[i];
+            d0 += x * y;
+            a0 += x * x;
+            b0 += y * y;
         }
+        double na = a0 + a1;
+        double nb = b0 + b1;
         if (na == 0.0 || nb == 0.0) {
             return 0.0;
         }
-        return dot / (Math.sqrt(na) * Math.sqrt(nb));
+        return (d0 + d1) / (Math.sqrt(na) * Math.sqrt(nb));
+    }
+
+    /**
+     * Dot product (inner product) over the common prefix of {@code a} and {@code b}. Equals the cosine similarity
+     * when both are unit vectors.
+     */
+    public static double dot(float[] a, float[] b) {
+        if (a == null || b == null) {
+            return 0.0;
+        }
+        return dot(a, 0, b, Math.min(a.length, b.length));
+    }
+
+    /**
+     * Dot product of {@code q} (first {@code n} elements) with the {@code n} floats of {@code rows} starting at
+     * {@code offset}; for row-major matrices and bulk-copied scan blocks.
+     */
+    public static double dot(float[] rows, int offset, float[] q, int n) {
+        double s0 = 0.0;
+        double s1 = 0.0;
+        double s2 = 0.0;
+        double s3 = 0.0;
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            s0 += (double) rows[offset + i] * q[i];
+            s1 += (double) rows[offset + i + 1] * q[i + 1];
+            s2 += (double) rows[offset + i + 2] * q[i + 2];
+            s3 += (double) rows[offset + i + 3] * q[i + 3];
+        }
+        for (; i < n; i++) {
+            s0 += (double) rows[offset + i] * q[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Cosine similarity of a unit-length {@code unitQuery} (see {@link #normalize}) with {@code v} of the same
+     * length, in one pass that accumulates the dot product and {@code v}'s squared norm together; for scans over
+     * rows without a stored norm. Returns 0 for a null or zero {@code v}.
+     */
+    public static double cosineToUnit(float[] unitQuery, float[] v) {
+        if (unitQuery == null || v == null) {
+            return 0.0;
+        }
+        int n = Math.min(unitQuery.length, v.length);
+        double d0 = 0.0;
+        double d1 = 0.0;
+        double s0 = 0.0;
+        double s1 = 0.0;
+        int i = 0;
+        for (; i + 1 < n; i += 2) {
+            double y0 = v[i];
+            double y1 = v[i + 1];
+            d0 += unitQuery[i] * y0;
+            d1 += unitQuery[i + 1] * y1;
+            s0 += y0 * y0;
+            s1 += y1 * y1;
+        }
+        if (i < n) {
+            double y = v[i];
+            d0 += unitQuery[i] * y;
+            s0 += y * y;
+        }
+        double sq = s0 + s1;
+        return sq == 0.0 ? 0.0 : (d0 + d1) / Math.sqrt(sq);
     }
-}
 
+    /**
+     * One query against {@code count} consecutive rows of {@code q.length} floats in {@code rows}, starting at row
+     * {@code fromRow}; {@code out[i]} receives the dot product with row {@code fromRow + i}.
+     */
+    public static void dotBatch(float[] q, float[] rows, int fromRow, int count, double[] out) {
+        int dims = q.length;
+        int offset = fromRow * dims;
+        for (int r = 0; r < count; r++, offset += dims) {
+            out[r] = dot(rows, offset, q, dims);
+        }
+    }
+
+    /**
+     * Euclidean distance over the common prefix; {@code +Infinity} if either vector is null.
+     */
+    public static double l2Distance(float[] a, float[] b) {
+        if (a == null || b == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        int n = Math.min(a.length, b.length);
+        double s0 = 0.0;
+        double s1 = 0.0;
+        int i = 0;
+        for (; i + 1 < n; i += 2) {
+            double d0 = (double) a[i] - b[i];
+            double d1 = (double) a[i + 1] - b[i + 1];
+            s0 += d0 * d0;
+            s1 += d1 * d1;
+        }
+        if (i < n) {
+            double d = (double) a[i] - b[i];
+            s0 += d * d;
+        }
+        return Math.sqrt(s0 + s1);
+    }
+
+    public static double norm(float[] v) {
+        if (v == null) {
+            return 0.0;
+        }
+        double s0 = 0.0;
+        double s1 = 0.0;
+        int i = 0;
+        for (; i + 1 < v.length; i += 2) {
+            s0 += (double) v[i] * v[i];
+            s1 += (double) v[i + 1] * v[i + 1];
+        }
+        if (i < v.length) {
+            s0 += (double) v[i] * v[i];
+        }
+        return Math.sqrt(s0 + s1);
+    }
+
+    /**
+     * Unit-length copy of {@code v}, or null for a null, empty or zero vector.
+     */
+    public static float[] normalize(float[] v) {
+        double norm = norm(v);
+        if (norm == 0.0) {
+            return null;
+        }
+        float inv = (float) (1.0 / norm);
+        float[] out = new float[v.length];
+        for (int i = 0; i < v.length; i++) {
+            out[i] = v[i] * inv;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,101 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.json.JacksonJsonCodec;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.base.AccessTracker;
+import com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessTrackerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testTracker_coalescesTouchesIntoOneBatch() {
+        List<Map<String, Instant>> batches = new ArrayList<>();
+        AccessTracker tracker = new AccessTracker(b -> batches.add(new HashMap<>(b)), 1024, 60_000);
+        Instant t1 = Instant.parse("2026-01-01T00:00:00Z");
+        Instant t2 = Instant.parse("2026-01-01T00:00:05Z");
+        tracker.touch(List.of("1", "2"), t2);
+        tracker.touch(List.of("1", "3"), t1); // older touch must not win
+
+        assertEquals(3, tracker.pendingCount());
+        assertEquals(t2, tracker.pending("1"));
+        assertEquals(t2, tracker.overlay("1", t1));
+        assertEquals(t1, tracker.overlay("3", null));
+        assertTrue(batches.isEmpty());
+
+        tracker.close();
+        assertEquals(1, batches.size());
+        assertEquals(Map.of("1", t2, "2", t2, "3", t1), batches.get(0));
+        assertEquals(0, tracker.pendingCount());
+    }
+
+    @Test
+    void testTracker_synchronousWhenIntervalDisabled() {
+        List<Map<String, Instant>> batches = new ArrayList<>();
+        AccessTracker tracker = new AccessTracker(b -> batches.add(new HashMap<>(b)), 1024, 0);
+        tracker.touch(List.of("1", "2"), Instant.now());
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(0, tracker.pendingCount());
+    }
+
+    @Test
+    void testSqliteStore_lastAccessedWrittenBehind() throws Exception {
+        String db = tempDir.resolve("access.db").toString();
+        VectorStoreConfig cfg = VectorStoreConfig.sqlite(db);
+        cfg.setAccessFlushIntervalMillis(60_000);
+        SQLiteVectorStore store = new SQLiteVectorStore(cfg);
+        for (int i = 1; i <= 3; i++) {
+            MemoryRecord r = new MemoryRecord();
+            r.setId(Integer.toString(i));
+            r.setContent("m" + i);
+            r.setUserId("u1");
+            r.setLastAccessedAt(Instant.parse("2020-01-01T00:00:00Z"));
+            store.upsert(r, new float[] {i, 1f});
+        }
+
+        Instant before = Instant.now();
+        store.search(new float[] {1f, 1f}, 3, "u1", null, null, null);
+        assertEquals("2020-01-01T00:00:00Z", readLastAccessed(db, 1), "touches are not written inline");
+
+        // reads see the pending value before it is flushed
+        MemoryRecord got = store.get("1", "u1", null);
+        assertFalse(got.getLastAccessedAt().isBefore(before));
+
+        store.close();
+        for (int i = 1; i <= 3; i++) {
+            Instant flushed = Instant.parse(readLastAccessed(db, i));
+            assertFalse(flushed.isBefore(before), "close() drains pending touches");
+        }
+    }
+
+    private static String readLastAccessed(String db, long id) throws Exception {
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + db);
+             PreparedStatement ps = c.prepareStatement("SELECT payload FROM memories WHERE id=?")) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                Object v = new JacksonJsonCodec().fromJsonToMap(rs.getString(1)).get("last_accessed_at");
+                return v == null ? null : v.toString();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.AsyncConfig;
+import com.oceanbase.powermem.sdk.config.EmbedderConfig;
+import com.oceanbase.powermem.sdk.config.LlmConfig;
+import com.oceanbase.powermem.sdk.config.MemoryConfig;
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.core.AsyncMemory;
+import com.oceanbase.powermem.sdk.core.Memory;
+import com.oceanbase.powermem.sdk.model.AddMemoryRequest;
+import com.oceanbase.powermem.sdk.model.AddMemoryResponse;
+import com.oceanbase.powermem.sdk.model.GetAllMemoriesRequest;
+import com.oceanbase.powermem.sdk.model.GetMemoryRequest;
+import com.oceanbase.powermem.sdk.model.GetMemoryResponse;
+import com.oceanbase.powermem.sdk.model.SearchMemoriesRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncMemoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MemoryConfig config(String db) {
+        MemoryConfig cfg = new MemoryConfig();
+        cfg.setVectorStore(VectorStoreConfig.sqlite(tempDir.resolve(db).toString()));
+        EmbedderConfig emb = new EmbedderConfig();
+        emb.setProvider("mock");
+        cfg.setEmbedder(emb);
+        LlmConfig llm = new LlmConfig();
+        llm.setProvider("mock");
+        cfg.setLlm(llm);
+        return cfg;
+    }
+
+    @Test
+    void testAsync_fanOutAddAndSearch() {
+        try (AsyncMemory memory = new AsyncMemory(config("async.db"))) {
+            List<CompletableFuture<AddMemoryResponse>> adds = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                adds.add(memory.addAsync(AddMemoryRequest.ofText("async fact " + i, "u1")));
+            }
+            CompletableFuture.allOf(adds.toArray(new CompletableFuture<?>[0])).join();
+            for (CompletableFuture<AddMemoryResponse> f : adds) {
+                assertEquals(1, f.join().getResults().size());
+            }
+
+            GetAllMemoriesRequest all = new GetAllMemoriesRequest();
+            all.setUserId("u1");
+            all.setLimit(100);
+            assertEquals(20, memory.getAllAsync(all).join().getResults().size());
+
+            SearchMemoriesRequest search = SearchMemoriesRequest.ofQuery("async fact 3", "u1");
+            assertFalse(memory.searchAsync(search).join().getResults().isEmpty());
+            assertEquals(0, memory.getInFlight());
+        }
+    }
+
+    @Test
+    void testAsync_backpressureCancellationAndTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Memory blocking = new Memory(config("blocking.db")) {
+            @Override
+            public GetMemoryResponse get(GetMemoryRequest request) {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    interrupted.set(true);
+                    Thread.currentThread().interrupt();
+                }
+                return new GetMemoryResponse(null);
+            }
+        };
+        AsyncConfig asyncCfg = new AsyncConfig();
+        asyncCfg.setVirtualThreads(false);
+        asyncCfg.setThreadPoolSize(4);
+        asyncCfg.setMaxInFlight(2);
+        asyncCfg.setAcquireTimeoutMillis(0);
+
+        try (AsyncMemory memory = new AsyncMemory(blocking, asyncCfg, null)) {
+            CompletableFuture<GetMemoryResponse> first = memory.getAsync(new GetMemoryRequest());
+            CompletableFuture<GetMemoryResponse> second = memory.getAsync(new GetMemoryRequest());
+            assertEquals(2, memory.getInFlight());
+
+            CompletableFuture<GetMemoryResponse> rejected = memory.getAsync(new GetMemoryRequest());
+            CompletionException ex = assertThrows(CompletionException.class, rejected::join);
+            assertInstanceOf(RejectedExecutionException.class, ex.getCause());
+
+            // a timed-out operation is interrupted and frees its slot
+            first.orTimeout(50, TimeUnit.MILLISECONDS);
+            ex = assertThrows(CompletionException.class, first::join);
+            assertInstanceOf(TimeoutException.class, ex.getCause());
+            waitUntil(() -> interrupted.get() && memory.getInFlight() == 1);
+
+            second.cancel(true);
+            waitUntil(() -> memory.getInFlight() == 0);
+
+            release.countDown();
+            assertNotNull(memory.getAsync(new GetMemoryRequest()).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier cond) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!cond.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.base.OutputData;
+import com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore;
+import com.oceanbase.powermem.sdk.util.Bm25;
+import com.oceanbase.powermem.sdk.util.Bm25Index;
+import com.oceanbase.powermem.sdk.util.TextTokenizer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Bm25IndexTest {
+    private static final String[] WORDS = {"tea", "coffee", "green", "black", "morning", "likes", "hates", "user", "cake"};
+
+    private static List<String> randomDoc(Random rnd) {
+        List<String> doc = new ArrayList<>();
+        for (int i = 0, n = 1 + rnd.nextInt(6); i < n; i++) {
+            doc.add(WORDS[rnd.nextInt(WORDS.length)]);
+        }
+        return doc;
+    }
+
+    @Test
+    void testScores_matchBm25AfterAddsAndRemoves() {
+        Random rnd = new Random(3);
+        Bm25Index index = new Bm25Index();
+        List<List<String>> docs = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            docs.add(randomDoc(rnd));
+            index.add(i, docs.get(i));
+        }
+        // remove two thirds (forces a purge), then replace a few of the survivors
+        for (int i = 0; i < 3000; i++) {
+            if (i % 3 != 0) {
+                assertTrue(index.remove(i));
+            }
+        }
+        assertFalse(index.remove(1));
+        for (int i = 0; i < 30; i += 3) {
+            docs.set(i, randomDoc(rnd));
+            index.add(i, docs.get(i));
+        }
+
+        List<List<String>> live = new ArrayList<>();
+        for (int i = 0; i < 3000; i += 3) {
+            live.add(docs.get(i));
+        }
+        assertEquals(live.size(), index.size());
+        List<String> query = Arrays.asList("green", "tea", "tea", "unknown");
+        double[] expected = new Bm25(live).getScores(query);
+
+        List<Bm25Index.Hit> hits = index.search(query, live.size());
+        int matching = 0;
+        for (double s : expected) {
+            if (s > 0) matching++;
+        }
+        assertEquals(matching, hits.size(), "only documents containing a query term are scored");
+        for (int i = 0; i < hits.size(); i++) {
+            assertEquals(expected[(int) hits.get(i).getId() / 3], hits.get(i).getScore(), 1e-9);
+            if (i > 0) {
+                assertTrue(hits.get(i - 1).getScore() >= hits.get(i).getScore());
+            }
+        }
+        assertEquals(5, index.search(query, 5).size());
+    }
+
+    @Test
+    void testRank_keepsCandidateOrderForTiesAndNonMatches() {
+        List<List<String>> corpus = Arrays.asList(
+                TextTokenizer.tokenize("bob knows carol"),
+                TextTokenizer.tokenize("alice likes tea"),
+                TextTokenizer.tokenize("dave likes tea"),
+                TextTokenizer.tokenize("erin hates coffee"));
+        assertArrayEquals(new int[] {1, 2, 0}, Bm25Index.rank(corpus, TextTokenizer.tokenize("likes tea"), 3));
+        assertArrayEquals(new int[] {1, 0, 2, 3}, Bm25Index.rank(corpus, TextTokenizer.tokenize("alice"), 10));
+    }
+
+    @Test
+    void testSqliteHybrid_keywordChannel(@TempDir Path tmp) {
+        VectorStoreConfig cfg = new VectorStoreConfig();
+        cfg.setDatabasePath(tmp.resolve("kw.db").toString());
+        cfg.setKeywordSearch(true);
+        SQLiteVectorStore store = new SQLiteVectorStore(cfg);
+        String[] texts = {"User likes green tea", "User drinks espresso daily", "Meeting notes about the roadmap"};
+        List<MemoryRecord> records = new ArrayList<>();
+        List<float[]> embeddings = new ArrayList<>();
+        for (int i = 0; i < texts.length; i++) {
+            MemoryRecord r = new MemoryRecord();
+            r.setId(Long.toString(i + 1));
+            r.setContent(texts[i]);
+            r.setUserId(i == 2 ? "u2" : "u1");
+            records.add(r);
+            embeddings.add(new float[] {1f, i});
+        }
+        store.upsertBatch(records, embeddings);
+
+        // the vector alone prefers row 2; the keyword channel brings row 1 to the top
+        List<OutputData> hits = store.searchHybrid("green tea", new float[] {1f, 1f}, 2, "u1", null, null, null);
+        assertEquals("1", hits.get(0).getRecord().getId());
+        assertTrue(hits.stream().noneMatch(h -> "3".equals(h.getRecord().getId())), "scope applies to keyword hits");
+
+        // updates and deletes keep the index in step
+        store.updatePayloadFields("1", Map.of("data", "User likes coffee", "fulltext_content", "User likes coffee"));
+        store.delete("2", "u1", null);
+        List<OutputData> after = store.searchHybrid("green", new float[] {1f, 1f}, 2, "u1", null, null, null);
+        assertEquals(1, after.size());
+        assertEquals(0.5 / 61, after.get(0).getScore(), 1e-12, "vector rank only (RRF k=60): no keyword match left");
+        store.close();
+
+        // rebuilt from the table on open
+        SQLiteVectorStore reopened = new SQLiteVectorStore(cfg);
+        List<OutputData> again = reopened.searchHybrid("roadmap", new float[] {0f, 1f}, 1, "u2", null, null, null);
+        assertEquals("3", again.get(0).getRecord().getId());
+        reopened.close();
+    }
+
+    @Test
+    void testSqliteHybrid_keywordChannelReachesScopesOutsideTheGlobalTopHits(@TempDir Path tmp) {
+        VectorStoreConfig cfg = new VectorStoreConfig();
+        cfg.setDatabasePath(tmp.resolve("kw-scope.db").toString());
+        cfg.setKeywordSearch(true);
+        SQLiteVectorStore store = new SQLiteVectorStore(cfg);
+        List<MemoryRecord> records = new ArrayList<>();
+        List<float[]> embeddings = new ArrayList<>();
+        for (int i = 1; i <= 401; i++) {
+            MemoryRecord r = new MemoryRecord();
+            r.setId(Integer.toString(i));
+            // 400 short, better-scoring matches in u1; the only u2 match ranks last globally
+            r.setContent(i <= 400 ? "tea" : "tea and a long tail of unrelated words about the weekly planning");
+            r.setUserId(i <= 400 ? "u1" : "u2");
+            records.add(r);
+            embeddings.add(new float[] {1f, i});
+        }
+        store.upsertBatch(records, embeddings);
+
+        List<OutputData> hits = store.searchHybrid("tea", new float[] {1f, 0f}, 1, "u2", null, null, null);
+        assertEquals("401", hits.get(0).getRecord().getId());
+        assertEquals(1.0 / 61, hits.get(0).getScore(), 1e-12, "ranked first by both channels (RRF k=60)");
+        store.close();
+    }
+}
@@ -0,0 +1,139 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.integrations.embeddings.CachingEmbedder;
+import com.oceanbase.powermem.sdk.integrations.embeddings.Embedder;
+import com.oceanbase.powermem.sdk.storage.adapter.StorageAdapter;
+import com.oceanbase.powermem.sdk.storage.adapter.SubStorageAdapter;
+import com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingEmbedderTest {
+
+    @TempDir
+    Path tempDir;
+
+    /** Embeds "text" as [length, 1 for query / 0 for document] and records every provider request. */
+    private static class RecordingEmbedder implements Embedder {
+        final List<String> requests = new ArrayList<>();
+
+        @Override
+        public float[] embed(String text) {
+            return embed(text, null);
+        }
+
+        @Override
+        public List<float[]> embedBatch(List<String> texts) {
+            return embedBatch(texts, null);
+        }
+
+        @Override
+        public List<float[]> embedBatch(List<String> texts, String memoryAction) {
+            requests.add(memoryAction + ":" + String.join(",", texts));
+            List<float[]> out = new ArrayList<>();
+            for (String t : texts) {
+                out.add(new float[] {t.length(), "search".equals(memoryAction) ? 1f : 0f});
+            }
+            return out;
+        }
+    }
+
+    @Test
+    void testCache_keysByTextTypeAndOnlySendsMisses() {
+        RecordingEmbedder provider = new RecordingEmbedder();
+        CachingEmbedder cache = new CachingEmbedder(provider, "qwen", "text-embedding-v4", 2, 2, null);
+
+        float[] q = cache.embed("tea", "search");
+        assertArrayEquals(new float[] {3f, 1f}, q);
+        q[0] = 99f; // callers get copies
+        assertArrayEquals(new float[] {3f, 1f}, cache.embed("tea", "search"));
+
+        // add and update share the "document" entry, which differs from the query entry
+        assertArrayEquals(new float[] {3f, 0f}, cache.embed("tea", "add"));
+        assertArrayEquals(new float[] {3f, 0f}, cache.embed("tea", "update"));
+
+        List<float[]> batch = cache.embedBatch(Arrays.asList("tea", "coffee", "coffee"), "add");
+        assertEquals(3, batch.size());
+        assertArrayEquals(new float[] {6f, 0f}, batch.get(2));
+        assertEquals(Arrays.asList("search:tea", "add:tea", "add:coffee"), provider.requests);
+
+        CachingEmbedder.CacheStats stats = cache.getStats();
+        assertEquals(3, stats.getHits());
+        assertEquals(4, stats.getMisses());
+        assertEquals(1, stats.getEvictions(), "3 keys in a 2-entry cache");
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    void testCache_persistentTierSurvivesRestart() {
+        String file = tempDir.resolve("cache/embeddings.db").toString();
+        RecordingEmbedder first = new RecordingEmbedder();
+        try (CachingEmbedder cache = new CachingEmbedder(first, "openai", "m", 2, 100, file)) {
+            cache.embedBatch(Arrays.asList("alpha", "beta"), "add");
+        }
+
+        RecordingEmbedder second = new RecordingEmbedder();
+        try (CachingEmbedder cache = new CachingEmbedder(second, "openai", "m", 2, 100, file)) {
+            assertArrayEquals(new float[] {5f, 0f}, cache.embed("alpha", "add"));
+            assertArrayEquals(new float[] {4f, 0f}, cache.embed("beta", null));
+            assertTrue(second.requests.isEmpty());
+            assertEquals(2, cache.getStats().getDiskHits());
+
+            // different model => different key
+            try (CachingEmbedder other = new CachingEmbedder(second, "openai", "other-model", 2, 100, file)) {
+                other.embed("alpha", "add");
+            }
+            assertEquals(1, second.requests.size());
+        }
+    }
+
+    @Test
+    void testCache_keysByBaseUrl() {
+        String file = tempDir.resolve("cache/embeddings.db").toString();
+        RecordingEmbedder provider = new RecordingEmbedder();
+        try (CachingEmbedder a = new CachingEmbedder(provider, "openai", "m", 2, "http://a/v1", 100, file);
+             CachingEmbedder b = new CachingEmbedder(provider, "openai", "m", 2, "http://b/v1", 100, file)) {
+            a.embed("alpha", "add");
+            b.embed("alpha", "add");
+        }
+        assertEquals(2, provider.requests.size(), "same model behind another endpoint is another key");
+    }
+
+    /** Counts close() calls, like a cache holding a connection pool. */
+    private static final class CloseableEmbedder extends RecordingEmbedder implements AutoCloseable {
+        int closed;
+
+        @Override
+        public void close() {
+            closed++;
+        }
+    }
+
+    @Test
+    void testAdapters_closeTheirEmbedders() {
+        CloseableEmbedder main = new CloseableEmbedder();
+        new StorageAdapter(new SQLiteVectorStore(VectorStoreConfig.sqlite(tempDir.resolve("a.db").toString())), main).close();
+        assertEquals(1, main.closed);
+
+        CloseableEmbedder mainOfSubs = new CloseableEmbedder();
+        CloseableEmbedder sub = new CloseableEmbedder();
+        SubStorageAdapter adapter = new SubStorageAdapter(
+                new SQLiteVectorStore(VectorStoreConfig.sqlite(tempDir.resolve("main.db").toString())), mainOfSubs);
+        adapter.registerSubStore("s1", Map.of("category", "a"),
+                new SQLiteVectorStore(VectorStoreConfig.sqlite(tempDir.resolve("s1.db").toString())), sub);
+        adapter.registerSubStore("s2", Map.of("category", "b"),
+                new SQLiteVectorStore(VectorStoreConfig.sqlite(tempDir.resolve("s2.db").toString())), mainOfSubs);
+        adapter.close();
+        assertEquals(1, sub.closed);
+        assertEquals(1, mainOfSubs.closed, "a sub-store sharing the main embedder does not close it twice");
+    }
+}
@@ -0,0 +1,100 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.integrations.embeddings.CoalescingEmbedder;
+import com.oceanbase.powermem.sdk.integrations.embeddings.Embedder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoalescingEmbedderTest {
+
+    @Test
+    void testCoalesce_concurrentSinglesShareProviderRequestsPerAction() throws Exception {
+        List<String> requests = Collections.synchronizedList(new ArrayList<>());
+        Embedder provider = new Embedder() {
+            @Override
+            public float[] embed(String text) {
+                throw new AssertionError("single embed must not reach the provider");
+            }
+
+            @Override
+            public List<float[]> embedBatch(List<String> texts) {
+                return embedBatch(texts, null);
+            }
+
+            @Override
+            public List<float[]> embedBatch(List<String> texts, String memoryAction) {
+                requests.add(memoryAction + ":" + texts.size());
+                List<float[]> out = new ArrayList<>();
+                for (String t : texts) {
+                    out.add(new float[] {Float.parseFloat(t.substring(1)), "search".equals(memoryAction) ? 1f : 0f});
+                }
+                return out;
+            }
+        };
+        CoalescingEmbedder embedder = new CoalescingEmbedder(provider, 200, 8);
+
+        int n = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(n);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<float[]>> futures = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                final int idx = i;
+                final String action = i % 2 == 0 ? "search" : "add";
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return embedder.embed("t" + idx, action);
+                }));
+            }
+            start.countDown();
+            for (int i = 0; i < n; i++) {
+                float[] v = futures.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals(i, (int) v[0], "each caller gets its own vector");
+                assertEquals(i % 2 == 0 ? 1f : 0f, v[1]);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(n, embedder.getCoalescedRequests());
+        assertTrue(embedder.getBatchCalls() < n, "requests were coalesced: " + requests);
+        int texts = 0;
+        for (String r : requests) {
+            int size = Integer.parseInt(r.substring(r.indexOf(':') + 1));
+            assertTrue(size <= 8);
+            texts += size;
+        }
+        assertEquals(n, texts);
+    }
+
+    @Test
+    void testCoalesce_loneCallerIsSentAfterMaxWaitAndErrorsReachEveryCaller() {
+        Embedder failing = new Embedder() {
+            @Override
+            public float[] embed(String text) {
+                return new float[] {1f};
+            }
+
+            @Override
+            public List<float[]> embedBatch(List<String> texts) {
+                throw new IllegalStateException("provider down");
+            }
+        };
+        CoalescingEmbedder embedder = new CoalescingEmbedder(failing, 10, 4);
+        long t0 = System.nanoTime();
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> embedder.embed("x", "add"));
+        assertEquals("provider down", ex.getMessage());
+        assertTrue(System.nanoTime() - t0 < TimeUnit.SECONDS.toNanos(2));
+        assertEquals(1, embedder.getBatchCalls());
+    }
+}
@@ -0,0 +1,91 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.ConfigLoader;
+import com.oceanbase.powermem.sdk.config.MemoryConfig;
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConfigLoaderTest {
+
+    /** Both connection blocks set, as in .env.example. */
+    private static Map<String, String> bothDatabases(String provider) {
+        Map<String, String> m = new HashMap<>();
+        m.put("DATABASE_PROVIDER", provider);
+        m.put("OCEANBASE_HOST", "ob-host");
+        m.put("OCEANBASE_PORT", "2881");
+        m.put("OCEANBASE_USER", "root@sys");
+        m.put("OCEANBASE_DATABASE", "ai_work");
+        m.put("OCEANBASE_COLLECTION", "ob_memories");
+        m.put("OCEANBASE_VECTOR_METRIC_TYPE", "l2");
+        m.put("OCEANBASE_HYBRID_SEARCH", "false");
+        m.put("POSTGRES_HOST", "pg-host");
+        m.put("POSTGRES_PORT", "5432");
+        m.put("POSTGRES_USER", "postgres");
+        m.put("POSTGRES_DATABASE", "postgres");
+        m.put("POSTGRES_COLLECTION", "pg_memories");
+        m.put("POSTGRES_VECTOR_METRIC_TYPE", "cosine");
+        m.put("POSTGRES_HYBRID_SEARCH", "true");
+        return m;
+    }
+
+    @Test
+    void testFromMap_selectedProviderKeysWin() {
+        VectorStoreConfig pg = ConfigLoader.fromMap(bothDatabases("pgvector")).getVectorStore();
+        assertEquals("pg-host", pg.getHost());
+        assertEquals(5432, pg.getPort());
+        assertEquals("postgres", pg.getUser());
+        assertEquals("postgres", pg.getDatabase());
+        assertEquals("pg_memories", pg.getCollectionName());
+        assertEquals("cosine", pg.getMetricType());
+        assertTrue(pg.isHybridSearch());
+
+        VectorStoreConfig ob = ConfigLoader.fromMap(bothDatabases("oceanbase")).getVectorStore();
+        assertEquals("ob-host", ob.getHost());
+        assertEquals(2881, ob.getPort());
+        assertEquals("ob_memories", ob.getCollectionName());
+        assertEquals("l2", ob.getMetricType());
+        assertFalse(ob.isHybridSearch());
+
+        // the graph store keeps defaulting to the OceanBase connection
+        MemoryConfig cfg = ConfigLoader.fromMap(bothDatabases("pgvector"));
+        assertEquals("ob-host", cfg.getGraphStore().getHost());
+    }
+
+    @Test
+    void testFromMap_subStoreUsesItsOwnProviderKeys() {
+        Map<String, String> m = bothDatabases("oceanbase");
+        m.put("SUB_STORES_COUNT", "1");
+        m.put("SUB_STORE_0_ROUTE_CATEGORY", "pref");
+        m.put("SUB_STORE_0_DATABASE_PROVIDER", "postgres");
+        m.put("SUB_STORE_0_OCEANBASE_HOST", "sub-ob");
+        m.put("SUB_STORE_0_POSTGRES_HOST", "sub-pg");
+        m.put("SUB_STORE_0_POSTGRES_COLLECTION", "sub_pg_memories");
+
+        VectorStoreConfig sub = ConfigLoader.fromMap(m).getSubStores().get(0).getVectorStore();
+        assertEquals("sub-pg", sub.getHost());
+        assertEquals("sub_pg_memories", sub.getCollectionName());
+    }
+
+    @Test
+    void testFromMap_hnswKeysFollowProvider() {
+        Map<String, String> m = new HashMap<>();
+        m.put("DATABASE_PROVIDER", "local");
+        m.put("SQLITE_HNSW_ENABLED", "false");
+        m.put("SQLITE_HNSW_M", "16");
+        m.put("LOCAL_HNSW_ENABLED", "true");
+        m.put("LOCAL_HNSW_M", "32");
+        VectorStoreConfig local = ConfigLoader.fromMap(m).getVectorStore();
+        assertTrue(local.isHnswEnabled());
+        assertEquals(32, local.getHnswM());
+
+        m.put("DATABASE_PROVIDER", "sqlite");
+        VectorStoreConfig sqlite = ConfigLoader.fromMap(m).getVectorStore();
+        assertFalse(sqlite.isHnswEnabled());
+        assertEquals(16, sqlite.getHnswM());
+    }
+}
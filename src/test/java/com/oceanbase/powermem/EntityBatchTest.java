@@ -0,0 +1,70 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.storage.oceanbase.EntityBatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityBatchTest {
+
+    @Test
+    void testResolve_dedupsNamesAndKeepsFirstType() {
+        EntityBatch batch = new EntityBatch();
+        batch.add("alice", "person");
+        batch.add("acme", "company");
+        batch.add("alice", "entity");
+        assertEquals(Arrays.asList("alice", "acme"), batch.names());
+
+        AtomicLong ids = new AtomicLong(100);
+        batch.createMissing(Arrays.asList(new float[] {1f, 0f}, new float[] {0f, 1f}), "l2", 0.5, ids::incrementAndGet);
+        assertEquals(2, batch.created().size());
+        assertEquals("person", batch.get("alice").entityType);
+        assertEquals(101, batch.get("alice").id);
+        assertEquals(102, batch.get("acme").id);
+    }
+
+    @Test
+    void testResolve_newNamesMatchEachOtherUnderTheScopeMetric() {
+        // bob and robert are far apart in l2 but point the same way (cosine distance ~2e-4)
+        List<float[]> vectors = Arrays.asList(new float[] {1f, 0f}, new float[] {5f, 0.1f}, new float[] {0f, 1f});
+
+        EntityBatch cosine = new EntityBatch();
+        cosine.add("bob", "person");
+        cosine.add("robert", "person");
+        cosine.add("berlin", "city");
+        AtomicLong ids = new AtomicLong();
+        cosine.createMissing(vectors, "cosine", 0.1, ids::incrementAndGet);
+        assertEquals(2, cosine.created().size());
+        assertSame(cosine.get("bob"), cosine.get("robert"), "robert resolves to the entity created for bob");
+        assertNotSame(cosine.get("bob"), cosine.get("berlin"));
+
+        EntityBatch l2 = new EntityBatch();
+        l2.add("bob", "person");
+        l2.add("robert", "person");
+        l2.add("berlin", "city");
+        l2.createMissing(vectors, "l2", 0.1, ids::incrementAndGet);
+        assertEquals(3, l2.created().size(), "the same vectors are distinct under l2");
+    }
+
+    @Test
+    void testResolve_existingMatchesKeepTheStoredName() {
+        EntityBatch batch = new EntityBatch();
+        batch.add("alice_smith", "person");
+        batch.add("acme", "company");
+        batch.matchExisting("alice_smith", 7L, "alice", "person");
+
+        batch.createMissing(Arrays.asList(new float[] {1f, 0f}, new float[] {1f, 0f}), "l2", 0.5, () -> 42L);
+        EntityBatch.Entity alice = batch.get("alice_smith");
+        assertEquals(7L, alice.id);
+        assertEquals("alice", alice.name, "relationships are reported with the resolved entity's name");
+        assertFalse(alice.isCreated());
+        // acme sits on alice's vector but only entities created in this batch are candidates here
+        assertEquals(42L, batch.get("acme").id);
+        assertEquals("acme", batch.get("acme").name);
+        assertEquals(1, batch.created().size());
+    }
+}
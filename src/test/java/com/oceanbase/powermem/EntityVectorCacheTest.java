@@ -0,0 +1,83 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.storage.oceanbase.EntityVectorCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityVectorCacheTest {
+
+    private static EntityVectorCache.Scope load(EntityVectorCache cache, String user, String agent, String run, long... ids) {
+        List<Long> idList = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+        for (long id : ids) {
+            idList.add(id);
+            names.add("e" + id);
+            vectors.add(new float[] {id, 1f});
+        }
+        return cache.put(user, agent, run, cache.version(), idList, names, Collections.nCopies(ids.length, "entity"), vectors);
+    }
+
+    @Test
+    void testNearest_matchesSqlDistances() {
+        EntityVectorCache cache = new EntityVectorCache(1 << 20);
+        EntityVectorCache.Scope scope = load(cache, "u", null, null, 1, 2, 5);
+
+        EntityVectorCache.Match m = scope.nearest(new float[] {2.2f, 1f}, "l2", 0.7);
+        assertEquals(2, m.id);
+        assertEquals("e2", m.name);
+        assertEquals(0.2, m.distance, 1e-3);
+        assertNull(scope.nearest(new float[] {3.5f, 1f}, "l2", 0.7), "nothing within the threshold");
+        assertEquals(5, scope.nearest(new float[] {10f, 2f}, "cosine", 0).id);
+    }
+
+    @Test
+    void testWriteThroughInvalidationAndLru() {
+        EntityVectorCache cache = new EntityVectorCache(1 << 20);
+        load(cache, "u", null, null, 1);
+        load(cache, "u", "a1", null, 2);
+        load(cache, "u", "a2", null, 3);
+
+        // a new entity of (u, a1, r1) belongs to the u-wide and the a1 scopes only
+        cache.append("u", "a1", "r1", Arrays.asList(9L), Arrays.asList("e9"), Arrays.asList("entity"),
+                Collections.singletonList(new float[] {9f, 1f}));
+        assertEquals(2, cache.get("u", null, null).size());
+        assertEquals(2, cache.get("u", "a1", null).size());
+        assertEquals(1, cache.get("u", "a2", null).size());
+
+        // deleteAll(user=u, agent=a1) may remove rows seen by the u-wide scope as well
+        cache.invalidate("u", "a1", null);
+        assertNull(cache.get("u", null, null));
+        assertNull(cache.get("u", "a1", null));
+        assertNotNull(cache.get("u", "a2", null));
+
+        // a load that raced with a write is used once but not cached
+        long before = cache.version();
+        cache.invalidate("other", null, null);
+        cache.put("u", null, null, before, Arrays.asList(1L), Arrays.asList("e1"), Arrays.asList("entity"),
+                Collections.singletonList(new float[] {1f, 1f}));
+        assertNull(cache.get("u", null, null));
+
+        long budget = cache.get("u", "a2", null).bytes() * 2 + 1;
+        EntityVectorCache small = new EntityVectorCache(budget);
+        load(small, "u1", null, null, 1);
+        load(small, "u2", null, null, 2);
+        small.get("u1", null, null); // u1 becomes most recently used
+        load(small, "u3", null, null, 3);
+        assertNotNull(small.get("u1", null, null));
+        assertNull(small.get("u2", null, null));
+        assertTrue(small.totalBytes() <= budget);
+
+        load(small, "big", null, null, 1, 2, 3, 4, 5, 6);
+        assertNull(small.get("big", null, null));
+        assertTrue(small.isOversized("big", null, null));
+        small.invalidate("big", null, null);
+        assertFalse(small.isOversized("big", null, null));
+    }
+}
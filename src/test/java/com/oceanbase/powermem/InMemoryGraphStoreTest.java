@@ -0,0 +1,74 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.GraphStoreConfig;
+import com.oceanbase.powermem.sdk.storage.memory.InMemoryGraphStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryGraphStoreTest {
+
+    private static final Map<String, Object> SCOPE = Map.of("user_id", "u1");
+
+    @Test
+    void testSearch_expandsHopsAndRanksWithBm25() {
+        GraphStoreConfig cfg = new GraphStoreConfig();
+        cfg.setMaxHops(2);
+        InMemoryGraphStore g = new InMemoryGraphStore(cfg);
+        g.add("alice -- works_at -- acme\nacme -- located_in -- berlin\nberlin -- capital_of -- germany\n"
+                + "bob -- knows -- carol\nALICE -- works_at -- Acme", SCOPE);
+
+        assertEquals(4, g.getAll(SCOPE, 0).size(), "identical triples (case-insensitive entities) are stored once");
+
+        List<Map<String, Object>> hits = g.search("where does alice work", SCOPE, 10);
+        assertEquals("alice", hits.get(0).get("source"));
+        assertEquals("acme", hits.get(0).get("destination"));
+        // acme -> berlin is one hop away; berlin -> germany would need a third hop; bob is unrelated
+        assertEquals(2, hits.size());
+        assertEquals("located_in", hits.get(1).get("relationship"));
+
+        assertTrue(g.search("alice", Map.of("user_id", "u2"), 10).isEmpty());
+        assertTrue(g.search("unknown", SCOPE, 10).isEmpty());
+    }
+
+    @Test
+    void testSnapshot_reloadsOnStart(@TempDir Path tmp) {
+        GraphStoreConfig cfg = new GraphStoreConfig();
+        cfg.setSnapshotPath(tmp.resolve("graph/snapshot.json").toString());
+        try (InMemoryGraphStore g = new InMemoryGraphStore(cfg)) {
+            g.add("User likes green tea", SCOPE);
+            g.add("tea -- grown_in -- china", Map.of("user_id", "u1", "agent_id", "a1"));
+        }
+        assertTrue(Files.exists(tmp.resolve("graph/snapshot.json")));
+
+        InMemoryGraphStore reopened = new InMemoryGraphStore(cfg);
+        List<Map<String, Object>> hits = reopened.search("green tea", SCOPE, 5);
+        assertEquals(1, hits.size());
+        assertEquals("User", hits.get(0).get("source"));
+        assertEquals(1, reopened.getAll(Map.of("user_id", "u1", "agent_id", "a1"), 10).size());
+        // an add after reload extends the restored graph rather than duplicating it
+        assertTrue(((List<?>) reopened.add("User likes green tea", SCOPE).get("added_entities")).isEmpty());
+    }
+
+    @Test
+    void testSearch_defaultLimitAndAddAfterDeleteAll() {
+        InMemoryGraphStore g = new InMemoryGraphStore(new GraphStoreConfig());
+        StringBuilder triples = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            triples.append("alice -- knows -- person").append(i).append('\n');
+        }
+        g.add(triples.toString(), SCOPE);
+        assertEquals(40, g.search("alice", SCOPE, 0).size(), "limit <= 0 returns up to 100 relations");
+
+        g.deleteAll(SCOPE);
+        assertTrue(g.getAll(SCOPE, 0).isEmpty());
+        g.add("alice -- works_at -- acme", SCOPE);
+        assertEquals(1, g.getAll(SCOPE, 0).size());
+    }
+}
@@ -0,0 +1,219 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.base.OutputData;
+import com.oceanbase.powermem.sdk.storage.base.VectorStore;
+import com.oceanbase.powermem.sdk.storage.factory.VectorStoreFactory;
+import com.oceanbase.powermem.sdk.storage.local.LocalVectorStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalVectorStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private VectorStoreConfig config() {
+        VectorStoreConfig cfg = new VectorStoreConfig();
+        cfg.setProvider("local");
+        cfg.setLocalDataDir(tempDir.toString());
+        cfg.setLocalCompactionMinDeleted(8);
+        cfg.setDeleteChunkSize(10);
+        return cfg;
+    }
+
+    private static MemoryRecord record(long id, String userId, int rank) {
+        MemoryRecord r = new MemoryRecord();
+        r.setId(Long.toString(id));
+        r.setContent("fact " + id);
+        r.setUserId(userId);
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("rank", rank);
+        meta.put("topic", rank % 2 == 0 ? "even" : "odd");
+        r.setMetadata(meta);
+        return r;
+    }
+
+    private static float[] vector(long id) {
+        double a = id * 0.1;
+        return new float[] {(float) Math.cos(a), (float) Math.sin(a), 0.5f};
+    }
+
+    private static void load(VectorStore store, int from, int to, String userId) {
+        List<MemoryRecord> records = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            records.add(record(i, userId, i));
+            vectors.add(vector(i));
+        }
+        store.upsertBatch(records, vectors);
+    }
+
+    private static List<String> ids(List<OutputData> hits) {
+        return hits.stream().map(d -> d.getRecord().getId()).collect(Collectors.toList());
+    }
+
+    @Test
+    void testLocalStore_crudSearchFiltersAndReopen() {
+        VectorStore store = VectorStoreFactory.fromConfig(config());
+        assertTrue(store instanceof LocalVectorStore);
+        load(store, 1, 30, "u1");
+        load(store, 31, 40, "u2");
+
+        assertEquals("fact 7", store.get("7", "u1", null).getContent());
+        assertNull(store.get("7", "u2", null), "out of scope");
+        assertEquals(Arrays.asList("3", "4"), new ArrayList<>(store.getBatch(Arrays.asList("3", "35", "4"), "u1", null).keySet()));
+
+        List<OutputData> hits = store.search(vector(12), 3, "u1", null, null, null);
+        assertEquals("12", hits.get(0).getRecord().getId());
+        assertEquals(1.0, hits.get(0).getScore(), 1e-5);
+        assertEquals(3, hits.size());
+
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("rank", Collections.singletonMap("gte", 25));
+        filters.put("topic", "even");
+        assertEquals(Arrays.asList("26", "28", "30"),
+                ids(store.search(vector(1), 10, "u1", null, null, filters)).stream().sorted().collect(Collectors.toList()));
+        Map<String, Object> or = Collections.singletonMap("OR", Arrays.asList(
+                Collections.singletonMap("rank", 2), Collections.singletonMap("metadata.rank", Arrays.asList(33, 34))));
+        assertEquals(Arrays.asList("2", "33", "34"),
+                ids(store.search(vector(1), 10, null, null, null, or)).stream().sorted().collect(Collectors.toList()));
+
+        ((LocalVectorStore) store).updatePayloadFields("5", Collections.singletonMap("category", "pinned"));
+        assertEquals("pinned", store.get("5", null, null).getCategory());
+        assertEquals(Arrays.asList("40", "39"), store.list("u2", null, null, 0, 2).stream()
+                .map(MemoryRecord::getId).collect(Collectors.toList()));
+        store.close();
+
+        LocalVectorStore reopened = new LocalVectorStore(config());
+        assertEquals("pinned", reopened.get("5", null, null).getCategory());
+        assertEquals(30, reopened.list("u1", null, null, 0, 100).size());
+        assertEquals("12", reopened.search(vector(12), 1, "u1", null, null, null).get(0).getRecord().getId());
+        reopened.close();
+    }
+
+    @Test
+    void testLocalStore_deleteAllCompactsAndKeepsSurvivors() throws Exception {
+        LocalVectorStore store = new LocalVectorStore(config());
+        load(store, 1, 25, "gone");
+        load(store, 26, 30, "kept");
+        load(store, 26, 30, "kept"); // rewrites: 5 more dead slots
+
+        List<Integer> progress = new ArrayList<>();
+        assertEquals(25, store.deleteAll("gone", null, null, progress::add));
+        assertEquals(Arrays.asList(10, 20, 25), progress);
+        Path dir = tempDir.resolve("memories");
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!Files.exists(dir.resolve("CURRENT")) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(Files.exists(dir.resolve("CURRENT")), "background compaction switched generations");
+        store.compact();
+        assertEquals(5, store.list(null, null, null, 0, 100).size());
+        assertEquals("28", store.search(vector(28), 1, "kept", null, null, null).get(0).getRecord().getId());
+        store.close();
+
+        String gen = new String(Files.readAllBytes(dir.resolve("CURRENT"))).trim();
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.map(f -> f.getFileName().toString()).filter(n -> n.startsWith("gen-"))
+                    .allMatch(n -> n.startsWith("gen-" + gen + "-") || n.equals("gen-" + gen + ".log")),
+                    "only the current generation is left");
+        }
+
+        // a torn record at the log tail is dropped on open
+        try (RandomAccessFile f = new RandomAccessFile(dir.resolve("gen-" + gen + ".log").toFile(), "rw")) {
+            f.seek(f.length());
+            f.writeInt(1000);
+            f.writeInt(42);
+        }
+        LocalVectorStore reopened = new LocalVectorStore(config());
+        assertEquals(5, reopened.list(null, null, null, 0, 100).size());
+        load(reopened, 31, 31, "kept");
+        assertEquals("fact 31", reopened.get("31", null, null).getContent());
+        reopened.close();
+    }
+
+    @Test
+    void testLocalStore_touchesAreLoggedAsSmallRecords() throws Exception {
+        LocalVectorStore store = new LocalVectorStore(config());
+        load(store, 1, 20, "u1");
+        Path log = tempDir.resolve("memories").resolve("gen-0.log");
+        long before = Files.size(log);
+        java.time.Instant touched = store.search(vector(3), 3, "u1", null, null, null).get(0).getRecord().getLastAccessedAt();
+        store.close(); // drains the access tracker
+        assertTrue(Files.size(log) - before <= 3 * 40, "a touch is not a payload rewrite");
+
+        LocalVectorStore reopened = new LocalVectorStore(config());
+        assertEquals(touched, reopened.get("3", null, null).getLastAccessedAt());
+        reopened.updatePayloadFields("3", Collections.singletonMap("category", "pinned"));
+        reopened.compact();
+        reopened.close();
+
+        LocalVectorStore compacted = new LocalVectorStore(config());
+        assertEquals(touched, compacted.get("3", null, null).getLastAccessedAt());
+        assertEquals("pinned", compacted.get("3", null, null).getCategory());
+        assertNull(compacted.get("10", null, null).getLastAccessedAt());
+        assertEquals(20, compacted.list(null, null, null, 0, 100).size());
+        compacted.close();
+    }
+
+    @Test
+    void testLocalStore_compactionKeepsWritesMadeDuringTheCopy() throws Exception {
+        LocalVectorStore store = new LocalVectorStore(config());
+        load(store, 1, 2000, "u1");
+        Thread writer = new Thread(() -> {
+            for (int i = 1; i <= 400; i++) {
+                store.delete(Integer.toString(i), null, null);
+                store.updatePayloadFields(Integer.toString(1000 + i), Collections.singletonMap("category", "c" + i));
+                load(store, 3000 + i, 3000 + i, "u2");
+            }
+        });
+        writer.start();
+        for (int round = 0; round < 5; round++) {
+            store.compact();
+        }
+        writer.join();
+        store.compact();
+        store.close();
+
+        LocalVectorStore reopened = new LocalVectorStore(config());
+        assertEquals(1600, reopened.list("u1", null, null, 0, 5000).size());
+        assertEquals(400, reopened.list("u2", null, null, 0, 5000).size());
+        assertNull(reopened.get("400", null, null));
+        assertEquals("c400", reopened.get("1400", null, null).getCategory());
+        assertEquals("3400", reopened.search(vector(3400), 1, "u2", null, null, null).get(0).getRecord().getId());
+        reopened.close();
+    }
+
+    @Test
+    void testLocalStore_hnswMatchesScan() {
+        VectorStoreConfig cfg = config();
+        cfg.setHnswEnabled(true);
+        LocalVectorStore store = new LocalVectorStore(cfg);
+        load(store, 1, 200, "u1");
+        assertEquals("77", store.search(vector(77), 1, "u1", null, null, null).get(0).getRecord().getId());
+        assertEquals("14", store.search(vector(77), 1, "u1", null, null,
+                Collections.singletonMap("rank", Collections.singletonMap("lte", 40))).get(0).getRecord().getId());
+        store.close();
+        assertTrue(Files.exists(tempDir.resolve("memories").resolve("hnsw.idx")));
+
+        LocalVectorStore reopened = new LocalVectorStore(cfg);
+        assertEquals("150", reopened.search(vector(150), 1, null, null, null, null).get(0).getRecord().getId());
+        reopened.close();
+    }
+}
@@ -0,0 +1,38 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.util.LongHashSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongHashSetTest {
+
+    @Test
+    void testMatchesHashSetAcrossRehashes() {
+        Random rnd = new Random(5);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 5000; i++) {
+            long v = rnd.nextInt(3000) - 1000L;
+            assertEquals(expected.add(v), set.add(v));
+        }
+        assertEquals(expected.size(), set.size());
+        assertEquals(expected.contains(0L), set.contains(0L));
+        for (long v = -1200; v < 2200; v++) {
+            assertEquals(expected.contains(v), set.contains(v), "value " + v);
+        }
+        long[] arr = set.toArray();
+        Arrays.sort(arr);
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).sorted().toArray(), arr);
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0L));
+        assertEquals(0, set.toArray().length);
+    }
+}
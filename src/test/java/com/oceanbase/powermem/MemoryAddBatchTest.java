@@ -0,0 +1,144 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.EmbedderConfig;
+import com.oceanbase.powermem.sdk.config.LlmConfig;
+import com.oceanbase.powermem.sdk.config.MemoryConfig;
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.core.Memory;
+import com.oceanbase.powermem.sdk.exception.ApiException;
+import com.oceanbase.powermem.sdk.integrations.embeddings.Embedder;
+import com.oceanbase.powermem.sdk.model.AddMemoryBatchResponse;
+import com.oceanbase.powermem.sdk.model.AddMemoryRequest;
+import com.oceanbase.powermem.sdk.model.GetAllMemoriesRequest;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.adapter.StorageAdapter;
+import com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryAddBatchTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAddBatch_storesAllAndReportsPerItem() {
+        MemoryConfig cfg = new MemoryConfig();
+        cfg.setVectorStore(VectorStoreConfig.sqlite(tempDir.resolve("batch.db").toString()));
+        EmbedderConfig emb = new EmbedderConfig();
+        emb.setProvider("mock");
+        emb.setBatchSize(3);
+        cfg.setEmbedder(emb);
+        LlmConfig llm = new LlmConfig();
+        llm.setProvider("mock");
+        cfg.setLlm(llm);
+
+        try (Memory memory = new Memory(cfg)) {
+            List<AddMemoryRequest> requests = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                requests.add(AddMemoryRequest.ofText("fact number " + i, "u1"));
+            }
+            requests.add(null);
+            requests.add(AddMemoryRequest.ofText("   ", "u1"));
+
+            AddMemoryBatchResponse resp = memory.addBatch(requests);
+            assertEquals(9, resp.getItems().size());
+            assertEquals(8, resp.getSuccessCount());
+            assertEquals(1, resp.getErrorCount());
+            for (int i = 0; i < 7; i++) {
+                AddMemoryBatchResponse.Item item = resp.getItems().get(i);
+                assertEquals(i, item.getIndex());
+                assertEquals(1, item.getResults().size());
+                assertEquals("ADD", item.getResults().get(0).getEvent());
+                assertEquals("fact number " + i, item.getResults().get(0).getMemory());
+            }
+            assertNotNull(resp.getItems().get(7).getError());
+            assertTrue(resp.getItems().get(8).getResults().isEmpty());
+
+            GetAllMemoriesRequest all = new GetAllMemoriesRequest();
+            all.setUserId("u1");
+            all.setLimit(100);
+            assertEquals(7, memory.getAll(all).getResults().size());
+        }
+    }
+
+    @Test
+    void testAddMemories_chunksEmbeddingsAndIsolatesFailedRecords() {
+        AtomicInteger embedCalls = new AtomicInteger();
+        Embedder embedder = new Embedder() {
+            @Override
+            public float[] embed(String text) {
+                return new float[] {text.length(), 1f};
+            }
+
+            @Override
+            public List<float[]> embedBatch(List<String> texts) {
+                embedCalls.incrementAndGet();
+                assertTrue(texts.size() <= 4);
+                List<float[]> out = new ArrayList<>();
+                for (String t : texts) {
+                    out.add(embed(t));
+                }
+                return out;
+            }
+        };
+        SQLiteVectorStore store = new SQLiteVectorStore(tempDir.resolve("isolate.db").toString(), "memories", true, 30) {
+            @Override
+            public void upsertBatch(List<MemoryRecord> records, List<float[]> embeddings) {
+                for (MemoryRecord r : records) {
+                    if (r.getContent().startsWith("bad")) {
+                        throw new RuntimeException("rejected " + r.getContent());
+                    }
+                }
+                super.upsertBatch(records, embeddings);
+            }
+        };
+        StorageAdapter adapter = new StorageAdapter(store, embedder);
+
+        List<StorageAdapter.NewMemory> items = new ArrayList<>();
+        for (String text : Arrays.asList("a1", "a2", "bad3", "a4", "a5", "a6", "a7", "a8", "a9", "a10")) {
+            items.add(new StorageAdapter.NewMemory(text, "u1", null, null, null, null, null, null));
+        }
+        List<StorageAdapter.AddOutcome> outcomes = adapter.addMemories(items, 4);
+
+        assertEquals(3, embedCalls.get(), "10 texts in chunks of 4");
+        assertEquals(10, outcomes.size());
+        assertNull(outcomes.get(2).getRecord());
+        assertTrue(outcomes.get(2).getError().getMessage().contains("bad3"));
+        for (int i = 0; i < 10; i++) {
+            if (i == 2) {
+                continue;
+            }
+            MemoryRecord r = outcomes.get(i).getRecord();
+            assertNotNull(r, "item " + i);
+            assertNotNull(store.get(r.getId(), "u1", null));
+        }
+        assertEquals(9, store.list("u1", null, null, 0, 100).size());
+    }
+
+    @Test
+    void testSqliteUpsertBatch_rejectsRecordsWithoutId() {
+        SQLiteVectorStore store = new SQLiteVectorStore(
+                VectorStoreConfig.sqlite(tempDir.resolve("noid.db").toString()));
+        MemoryRecord ok = new MemoryRecord();
+        ok.setId("1");
+        ok.setContent("kept");
+        ok.setUserId("u1");
+        MemoryRecord noId = new MemoryRecord();
+        noId.setContent("no id");
+        noId.setUserId("u1");
+
+        assertThrows(ApiException.class, () -> store.upsertBatch(Arrays.asList(ok, noId),
+                Arrays.asList(new float[] {1f, 0f}, new float[] {0f, 1f})));
+        assertTrue(store.list("u1", null, null, 0, 100).isEmpty(), "nothing of a rejected batch is stored");
+        store.close();
+    }
+}
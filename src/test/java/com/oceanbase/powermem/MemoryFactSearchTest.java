@@ -0,0 +1,187 @@
+package com.oceanbase.powermem;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbase.powermem.sdk.config.EmbedderConfig;
+import com.oceanbase.powermem.sdk.config.LlmConfig;
+import com.oceanbase.powermem.sdk.config.MemoryConfig;
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.core.Memory;
+import com.oceanbase.powermem.sdk.model.AddMemoryRequest;
+import com.oceanbase.powermem.sdk.model.Message;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Intelligent add against a local OpenAI-compatible stub: facts are embedded in capped batches and searched in
+ * parallel, and the candidate memories reach the update prompt in fact order.
+ */
+public class MemoryFactSearchTest {
+    private static final int FACTS = 12;
+    private static final int EMBED_BATCH = 5;
+    private static final Pattern TOPIC = Pattern.compile("(memory|fact) on topic (\\d+)");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicInteger maxEmbedBatch = new AtomicInteger();
+    private final List<String> updatePrompts = Collections.synchronizedList(new ArrayList<>());
+    private HttpServer server;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/embeddings", this::embeddings);
+        server.createContext("/chat/completions", this::chat);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    /** Topic k sits at k*15 degrees; a fact sits 1 degree past its topic, so every ranking is strict. */
+    private static double angle(String text) {
+        Matcher m = TOPIC.matcher(text);
+        if (!m.find()) {
+            return 90.0;
+        }
+        return Integer.parseInt(m.group(2)) * 15.0 + ("fact".equals(m.group(1)) ? 1.0 : 0.0);
+    }
+
+    private void embeddings(HttpExchange ex) throws IOException {
+        List<?> input = (List<?>) mapper.readValue(ex.getRequestBody(), Map.class).get("input");
+        maxEmbedBatch.accumulateAndGet(input.size(), Math::max);
+        if (input.size() > EMBED_BATCH) {
+            respond(ex, 400, "{\"error\":{\"message\":\"batch size is invalid, it should not be larger than "
+                    + EMBED_BATCH + "\"}}");
+            return;
+        }
+        List<Object> data = new ArrayList<>();
+        for (Object text : input) {
+            double a = Math.toRadians(angle(String.valueOf(text)));
+            data.add(Map.of("embedding", Arrays.asList(Math.cos(a), Math.sin(a))));
+        }
+        respond(ex, 200, mapper.writeValueAsString(Map.of("data", data)));
+    }
+
+    private void chat(HttpExchange ex) throws IOException {
+        List<?> messages = (List<?>) mapper.readValue(ex.getRequestBody(), Map.class).get("messages");
+        String content;
+        if (messages.size() == 2) {
+            List<String> facts = new ArrayList<>();
+            for (int k = 0; k < FACTS; k++) {
+                facts.add("fact on topic " + k);
+            }
+            content = mapper.writeValueAsString(Map.of("facts", facts));
+        } else {
+            updatePrompts.add(String.valueOf(((Map<?, ?>) messages.get(0)).get("content")));
+            content = "{\"memory\":[]}";
+        }
+        respond(ex, 200, mapper.writeValueAsString(
+                Map.of("choices", List.of(Map.of("message", Map.of("role", "assistant", "content", content))))));
+    }
+
+    private static void respond(HttpExchange ex, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().add("Content-Type", "application/json");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /** Candidate topics in the order the update prompt lists them. */
+    private List<Integer> candidatesWithParallelism(int parallelism) {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        MemoryConfig cfg = new MemoryConfig();
+        cfg.setVectorStore(VectorStoreConfig.sqlite(tempDir.resolve("facts-" + parallelism + ".db").toString()));
+        EmbedderConfig emb = new EmbedderConfig();
+        emb.setProvider("openai");
+        emb.setApiKey("test");
+        emb.setBaseUrl(baseUrl);
+        emb.setEmbeddingDims(0);
+        emb.setBatchSize(EMBED_BATCH);
+        emb.setCacheEnabled(false);
+        cfg.setEmbedder(emb);
+        LlmConfig llm = new LlmConfig();
+        llm.setProvider("openai");
+        llm.setApiKey("test");
+        llm.setBaseUrl(baseUrl);
+        cfg.setLlm(llm);
+        cfg.getIntelligentMemory().setFactParallelism(parallelism);
+
+        try (Memory memory = new Memory(cfg)) {
+            List<AddMemoryRequest> seed = new ArrayList<>();
+            for (int k = 0; k < FACTS; k++) {
+                seed.add(AddMemoryRequest.ofText("memory on topic " + k, "u1"));
+            }
+            assertEquals(FACTS, memory.addBatch(seed).getSuccessCount());
+
+            updatePrompts.clear();
+            AddMemoryRequest req = new AddMemoryRequest();
+            req.setUserId("u1");
+            req.setInfer(true);
+            req.setMessages(List.of(new Message("user", "Tell me about every topic")));
+            memory.add(req);
+        }
+        assertEquals(1, updatePrompts.size());
+        List<Integer> topics = new ArrayList<>();
+        Matcher m = TOPIC.matcher(updatePrompts.get(0));
+        while (m.find()) {
+            if ("memory".equals(m.group(1))) {
+                topics.add(Integer.parseInt(m.group(2)));
+            }
+        }
+        return topics;
+    }
+
+    @Test
+    void testIntelligentAdd_embedsFactsInCappedBatchesAndMergesInFactOrder() {
+        List<Integer> sequential = candidatesWithParallelism(1);
+        assertTrue(maxEmbedBatch.get() <= EMBED_BATCH, "no embedding request exceeds the batch size");
+
+        // expected: each fact's 5 nearest topics, de-duplicated in fact order, capped as in Memory
+        Set<Integer> expected = new LinkedHashSet<>();
+        for (int f = 0; f < FACTS; f++) {
+            double fa = f * 15.0 + 1.0;
+            List<Integer> near = new ArrayList<>();
+            for (int k = 0; k < FACTS; k++) {
+                near.add(k);
+            }
+            near.sort((x, y) -> Double.compare(Math.abs(x * 15.0 - fa), Math.abs(y * 15.0 - fa)));
+            for (int k : near.subList(0, 5)) {
+                expected.add(k);
+                if (expected.size() >= 10) {
+                    break;
+                }
+            }
+        }
+        assertEquals(new ArrayList<>(expected), sequential);
+
+        assertEquals(sequential, candidatesWithParallelism(4), "parallel search merges in fact order");
+    }
+}
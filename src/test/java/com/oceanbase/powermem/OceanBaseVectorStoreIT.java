@@ -6,11 +6,15 @@ import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
 import com.oceanbase.powermem.sdk.core.Memory;
 import com.oceanbase.powermem.sdk.model.AddMemoryRequest;
 import com.oceanbase.powermem.sdk.model.DeleteAllMemoriesRequest;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
 import com.oceanbase.powermem.sdk.model.SearchMemoriesRequest;
+import com.oceanbase.powermem.sdk.storage.base.OutputData;
+import com.oceanbase.powermem.sdk.storage.oceanbase.OceanBaseVectorStore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -86,5 +90,47 @@ public class OceanBaseVectorStoreIT {
         assertNotNull(searchResp.getResults());
         assertFalse(searchResp.getResults().isEmpty());
     }
-}
 
+    @Test
+    void testFilteredSearch_selectiveScopeUsesExactPrefilter() {
+        int port = 2881;
+        try {
+            String p = System.getenv("OCEANBASE_PORT");
+            if (p != null && !p.isBlank()) port = Integer.parseInt(p);
+        } catch (Exception ignored) {}
+
+        VectorStoreConfig vs = new VectorStoreConfig();
+        vs.setProvider("oceanbase");
+        vs.setHost(System.getenv("OCEANBASE_HOST"));
+        vs.setPort(port);
+        vs.setUser(System.getenv("OCEANBASE_USER"));
+        vs.setPassword(System.getenv().getOrDefault("OCEANBASE_PASSWORD", ""));
+        vs.setDatabase(System.getenv("OCEANBASE_DATABASE"));
+        vs.setCollectionName("memories_java_ann_it");
+        vs.setEmbeddingModelDims(3);
+        vs.setTimeoutSeconds(10);
+
+        OceanBaseVectorStore store = new OceanBaseVectorStore(vs);
+        try {
+            store.deleteAll("ann_user", null, null);
+            for (int i = 1; i <= 3; i++) {
+                MemoryRecord r = new MemoryRecord();
+                r.setId(Integer.toString(1000 + i));
+                r.setContent("ann fact " + i);
+                r.setUserId("ann_user");
+                store.upsert(r, new float[] {1f, i, 0f});
+            }
+            List<OutputData> hits = store.search(new float[] {1f, 1f, 0f}, 2, "ann_user", null, null, null);
+            assertEquals(2, hits.size());
+            Object info = hits.get(0).getRecord().getAttributes().get("_ann_info");
+            if (info != null) {
+                // only present when the native VECTOR column is available
+                assertEquals("exact_prefilter", ((Map<?, ?>) info).get("strategy"));
+                assertEquals(3L, ((Number) ((Map<?, ?>) info).get("estimated_matches")).longValue());
+            }
+        } finally {
+            store.deleteAll("ann_user", null, null);
+            store.close();
+        }
+    }
+}
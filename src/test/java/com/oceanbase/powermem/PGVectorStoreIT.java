@@ -0,0 +1,104 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.base.OutputData;
+import com.oceanbase.powermem.sdk.storage.pgvector.PGVectorStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * pgvector integration test.
+ *
+ * <p>Runs only when required Postgres env vars are set (the server needs the {@code vector} extension).</p>
+ */
+@EnabledIfEnvironmentVariable(named = "POSTGRES_HOST", matches = ".+")
+@EnabledIfEnvironmentVariable(named = "POSTGRES_USER", matches = ".+")
+@EnabledIfEnvironmentVariable(named = "POSTGRES_DATABASE", matches = ".+")
+public class PGVectorStoreIT {
+
+    private static VectorStoreConfig itConfig(String collection, String indexType) {
+        int port = 5432;
+        try {
+            String p = System.getenv("POSTGRES_PORT");
+            if (p != null && !p.isBlank()) port = Integer.parseInt(p);
+        } catch (Exception ignored) {}
+
+        VectorStoreConfig vs = new VectorStoreConfig();
+        vs.setProvider("pgvector");
+        vs.setHost(System.getenv("POSTGRES_HOST"));
+        vs.setPort(port);
+        vs.setUser(System.getenv("POSTGRES_USER"));
+        vs.setPassword(System.getenv().getOrDefault("POSTGRES_PASSWORD", ""));
+        vs.setDatabase(System.getenv("POSTGRES_DATABASE"));
+        vs.setCollectionName(collection);
+        vs.setEmbeddingModelDims(4);
+        vs.setIndexType(indexType);
+        vs.setTimeoutSeconds(10);
+        return vs;
+    }
+
+    private static MemoryRecord record(long id, String content) {
+        MemoryRecord r = new MemoryRecord();
+        r.setId(Long.toString(id));
+        r.setContent(content);
+        r.setUserId("pg_it_user");
+        r.setMetadata(Collections.singletonMap("rank", (int) (id % 10)));
+        r.setCreatedAt(Instant.now());
+        r.setUpdatedAt(r.getCreatedAt());
+        return r;
+    }
+
+    @Test
+    void testCopyLoad_searchFiltersHybridAndDeleteAll() {
+        PGVectorStore store = new PGVectorStore(itConfig("memories_java_pg_it", "HNSW"));
+        try {
+            store.deleteAll("pg_it_user", null, null);
+            List<MemoryRecord> records = new ArrayList<>();
+            List<float[]> vectors = new ArrayList<>();
+            for (int i = 1; i <= 100; i++) {
+                records.add(record(i, i == 7 ? "the quick brown fox" : "memory number " + i));
+                vectors.add(new float[] {1f, i / 100f, 0f, 0f});
+            }
+            store.upsertBatch(records, vectors); // COPY path
+
+            assertEquals("the quick brown fox", store.get("7", "pg_it_user", null).getContent());
+            Map<String, MemoryRecord> batch = store.getBatch(List.of("1", "2", "999"), "pg_it_user", null);
+            assertEquals(List.of("1", "2"), new ArrayList<>(batch.keySet()));
+
+            List<OutputData> hits = store.search(new float[] {1f, 0.01f, 0f, 0f}, 3, "pg_it_user", null, null, null);
+            assertEquals(3, hits.size());
+            assertEquals("1", hits.get(0).getRecord().getId());
+
+            List<OutputData> filtered = store.search(new float[] {1f, 0f, 0f, 0f}, 100, "pg_it_user", null, null,
+                    Collections.singletonMap("rank", Collections.singletonMap("gte", 8)));
+            assertEquals(20, filtered.size());
+
+            List<OutputData> hybrid = store.searchHybrid("brown fox", new float[] {0f, 0f, 1f, 0f}, 5,
+                    "pg_it_user", null, null, null);
+            assertTrue(hybrid.stream().anyMatch(d -> "7".equals(d.getRecord().getId())));
+
+            store.updatePayloadFields("7", Collections.singletonMap("category", "animals"));
+            assertEquals("animals", store.get("7", null, null).getCategory());
+
+            assertEquals(2, store.applyBatch(List.of(record(101, "small batch")), List.<float[]>of(new float[] {1f, 1f, 1f, 1f}),
+                    List.of("1", "2")));
+            assertNull(store.get("1", null, null));
+
+            List<Integer> progress = new ArrayList<>();
+            assertEquals(99, store.deleteAll("pg_it_user", null, null, progress::add));
+            assertEquals(99, (int) progress.get(progress.size() - 1));
+            assertTrue(store.list("pg_it_user", null, null, 0, 10).isEmpty());
+        } finally {
+            store.close();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.storage.pgvector.PgBinaryCopyWriter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgBinaryCopyWriterTest {
+
+    @Test
+    void testCopyStream_headerRowsAndTrailerMatchTheWireFormat() {
+        PgBinaryCopyWriter w = new PgBinaryCopyWriter();
+        w.startRow(3).int8(42L).vector(new float[] {1.5f, -2f}).jsonb("{\"data\":\"é\"}");
+        w.startRow(3).int8(7L).nullValue().text("x");
+        assertEquals(2, w.getRowCount());
+        ByteBuffer buf = ByteBuffer.wrap(w.finish());
+
+        byte[] signature = new byte[11];
+        buf.get(signature);
+        assertArrayEquals(new byte[] {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0}, signature);
+        assertEquals(0, buf.getInt(), "flags");
+        assertEquals(0, buf.getInt(), "header extension");
+
+        assertEquals(3, buf.getShort());
+        assertEquals(8, buf.getInt());
+        assertEquals(42L, buf.getLong());
+        // pgvector vector_recv: int16 dims, int16 unused, float4 values
+        assertEquals(4 + 4 * 2, buf.getInt());
+        assertEquals(2, buf.getShort());
+        assertEquals(0, buf.getShort());
+        assertEquals(1.5f, buf.getFloat());
+        assertEquals(-2f, buf.getFloat());
+        byte[] json = "{\"data\":\"é\"}".getBytes(StandardCharsets.UTF_8);
+        assertEquals(1 + json.length, buf.getInt());
+        assertEquals(1, buf.get(), "jsonb version");
+        byte[] body = new byte[json.length];
+        buf.get(body);
+        assertArrayEquals(json, body);
+
+        assertEquals(3, buf.getShort());
+        assertEquals(8, buf.getInt());
+        assertEquals(7L, buf.getLong());
+        assertEquals(-1, buf.getInt(), "NULL field");
+        assertEquals(1, buf.getInt());
+        assertEquals('x', buf.get());
+
+        assertEquals(-1, buf.getShort(), "trailer");
+        assertFalse(buf.hasRemaining());
+    }
+}
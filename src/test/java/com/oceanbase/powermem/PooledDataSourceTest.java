@@ -0,0 +1,114 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.pool.PooledDataSource;
+import com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PooledDataSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPool_reuseOverflowAndExhaustion() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("pool.db");
+        try (PooledDataSource ds = new PooledDataSource(url, null, 1, 1, 60_000, 100)) {
+            for (int i = 0; i < 5; i++) {
+                try (Connection c = ds.getConnection(); Statement st = c.createStatement()) {
+                    st.execute("SELECT 1");
+                }
+            }
+            assertEquals(1, ds.getStats().getCreatedCount(), "sequential borrows must reuse one connection");
+            assertEquals(1, ds.getStats().getIdle());
+
+            Connection a = ds.getConnection();
+            Connection b = ds.getConnection(); // overflow
+            assertEquals(2, ds.getStats().getActive());
+            assertThrows(SQLTransientConnectionException.class, ds::getConnection);
+            assertEquals(1, ds.getStats().getTimeoutCount());
+
+            b.close();
+            a.close();
+            PooledDataSource.PoolStats stats = ds.getStats();
+            assertEquals(0, stats.getActive());
+            assertEquals(1, stats.getIdle(), "overflow connection must be closed on return");
+            assertEquals(1, stats.getTotal());
+
+            // a stale handle must not reach the connection after it went back to the pool
+            assertTrue(a.isClosed());
+            assertThrows(SQLException.class, a::createStatement);
+        }
+    }
+
+    @Test
+    void testPool_openTransactionIsRolledBackOnReturn() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("tx.db");
+        try (PooledDataSource ds = new PooledDataSource(url, null, 1, 0, 60_000, 1000)) {
+            try (Connection c = ds.getConnection(); Statement st = c.createStatement()) {
+                st.execute("CREATE TABLE t (x INTEGER)");
+            }
+            try (Connection c = ds.getConnection(); Statement st = c.createStatement()) {
+                c.setAutoCommit(false);
+                st.execute("INSERT INTO t VALUES (1)");
+                // returned without commit
+            }
+            try (Connection c = ds.getConnection(); Statement st = c.createStatement()) {
+                assertTrue(c.getAutoCommit());
+                try (java.sql.ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM t")) {
+                    rs.next();
+                    assertEquals(0, rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSqliteStore_usesPool() {
+        VectorStoreConfig cfg = VectorStoreConfig.sqlite(tempDir.resolve("store.db").toString());
+        cfg.setPoolSize(2);
+        cfg.setMaxOverflow(0);
+        SQLiteVectorStore store = new SQLiteVectorStore(cfg);
+        for (int i = 1; i <= 10; i++) {
+            MemoryRecord r = new MemoryRecord();
+            r.setId(Integer.toString(i));
+            r.setContent("m" + i);
+            r.setUserId("u1");
+            store.upsert(r, new float[] {i, 1f});
+        }
+        store.search(new float[] {1f, 1f}, 3, "u1", null, null, null);
+        PooledDataSource.PoolStats stats = store.getPoolStats();
+        assertTrue(stats.getBorrowCount() > 20);
+        assertTrue(stats.getCreatedCount() <= 2, stats.toString());
+        assertEquals(0, stats.getActive(), "no connection leaks");
+    }
+
+    @Test
+    void testSqliteStore_deleteWithHistoryOnPoolOfOne() {
+        VectorStoreConfig cfg = VectorStoreConfig.sqlite(tempDir.resolve("single.db").toString());
+        cfg.setPoolSize(1);
+        cfg.setMaxOverflow(0);
+        cfg.setPoolTimeoutSeconds(1);
+        SQLiteVectorStore store = new SQLiteVectorStore(cfg);
+        MemoryRecord r = new MemoryRecord();
+        r.setId("1");
+        r.setContent("m1");
+        r.setUserId("u1");
+        store.upsert(r, new float[] {1f, 1f});
+        assertTrue(store.delete("1", "u1", null));
+        PooledDataSource.PoolStats stats = store.getPoolStats();
+        assertEquals(0, stats.getTimeoutCount(), "history is written after the delete connection is returned");
+        assertEquals(0, stats.getActive(), "no connection leaks");
+        store.close();
+    }
+}
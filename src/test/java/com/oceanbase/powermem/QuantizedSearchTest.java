@@ -0,0 +1,165 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.base.OutputData;
+import com.oceanbase.powermem.sdk.storage.base.VectorStore;
+import com.oceanbase.powermem.sdk.storage.local.LocalVectorStore;
+import com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore;
+import com.oceanbase.powermem.sdk.util.ScalarQuantizer;
+import com.oceanbase.powermem.sdk.util.VectorMath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuantizedSearchTest {
+    private static final int DIMS = 64;
+    private static final int ROWS = 2000;
+    private static final int QUERIES = 20;
+    private static final int K = 10;
+
+    @TempDir
+    Path tempDir;
+
+    private static float[][] randomVectors(long seed, int n) {
+        Random rnd = new Random(seed);
+        float[][] out = new float[n][DIMS];
+        for (float[] v : out) {
+            for (int i = 0; i < DIMS; i++) {
+                v[i] = (float) rnd.nextGaussian();
+            }
+        }
+        return out;
+    }
+
+    private static void load(VectorStore store, float[][] vectors) {
+        List<MemoryRecord> records = new ArrayList<>();
+        List<float[]> embeddings = new ArrayList<>();
+        for (int i = 0; i < vectors.length; i++) {
+            MemoryRecord r = new MemoryRecord();
+            r.setId(Long.toString(i + 1));
+            r.setContent("row " + (i + 1));
+            r.setUserId("u1");
+            records.add(r);
+            embeddings.add(vectors[i]);
+        }
+        store.upsertBatch(records, embeddings);
+    }
+
+    /** Exact top-k ids by brute force. */
+    private static Set<String> truth(float[][] vectors, float[] q) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < vectors.length; i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> Double.compare(VectorMath.cosineSimilarity(q, vectors[b]), VectorMath.cosineSimilarity(q, vectors[a])));
+        return order.subList(0, K).stream().map(i -> Long.toString(i + 1)).collect(Collectors.toSet());
+    }
+
+    private static double recall(VectorStore store, float[][] vectors, float[][] queries) {
+        int found = 0;
+        for (float[] q : queries) {
+            Set<String> expected = truth(vectors, q);
+            List<OutputData> hits = store.search(q, K, "u1", null, null, null);
+            assertEquals(K, hits.size());
+            for (int i = 1; i < hits.size(); i++) {
+                assertTrue(hits.get(i - 1).getScore() >= hits.get(i).getScore(), "results are ordered by exact score");
+            }
+            for (OutputData d : hits) {
+                if (expected.contains(d.getRecord().getId())) {
+                    found++;
+                }
+            }
+        }
+        return found / (double) (queries.length * K);
+    }
+
+    @Test
+    void testScalarQuantizer_approximatesCosine() {
+        float[][] vectors = randomVectors(7, 50);
+        float[] q = vectors[0];
+        double norm = Math.sqrt(dot(q, q));
+        float[] unit = new float[DIMS];
+        for (int i = 0; i < DIMS; i++) {
+            unit[i] = (float) (q[i] / norm);
+        }
+        for (float[] v : vectors) {
+            byte[] code = ScalarQuantizer.encode(v);
+            assertEquals(ScalarQuantizer.codeBytes(DIMS), code.length);
+            assertEquals(VectorMath.cosineSimilarity(q, v), ScalarQuantizer.dot(unit, code, 0), 0.02);
+        }
+    }
+
+    @Test
+    void testSQLite_int8RecallAndCodeBackfill() throws Exception {
+        String db = tempDir.resolve("q8.db").toString();
+        VectorStoreConfig cfg = new VectorStoreConfig();
+        cfg.setDatabasePath(db);
+        cfg.setVectorQuantization("int8");
+        cfg.setQuantizationOversample(4);
+        SQLiteVectorStore store = new SQLiteVectorStore(cfg);
+        float[][] vectors = randomVectors(42, ROWS);
+        load(store, vectors);
+        assertEquals(ROWS, countCodes(db));
+
+        assertTrue(recall(store, vectors, randomVectors(99, QUERIES)) >= 0.9);
+
+        // rows written without codes are re-ranked exactly and backfilled
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + db); Statement st = c.createStatement()) {
+            st.executeUpdate("UPDATE memories SET vector_q8 = NULL WHERE id <= 100");
+        }
+        assertEquals(ROWS - 100, countCodes(db));
+        List<OutputData> hits = store.search(vectors[41], 1, "u1", null, null, null);
+        assertEquals("42", hits.get(0).getRecord().getId());
+        assertEquals(1.0, hits.get(0).getScore(), 1e-6);
+        assertEquals(ROWS, countCodes(db));
+    }
+
+    @Test
+    void testLocal_int8RecallSurvivesReopen() {
+        VectorStoreConfig cfg = new VectorStoreConfig();
+        cfg.setProvider("local");
+        cfg.setLocalDataDir(tempDir.toString());
+        cfg.setVectorQuantization("int8");
+        float[][] vectors = randomVectors(42, ROWS);
+        float[][] queries = randomVectors(99, QUERIES);
+        LocalVectorStore store = new LocalVectorStore(cfg);
+        load(store, vectors);
+        assertTrue(recall(store, vectors, queries) >= 0.9);
+        store.close();
+
+        LocalVectorStore reopened = new LocalVectorStore(cfg);
+        assertTrue(recall(reopened, vectors, queries) >= 0.9);
+        assertEquals("7", reopened.search(vectors[6], 1, null, null, null, null).get(0).getRecord().getId());
+        reopened.close();
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double s = 0;
+        for (int i = 0; i < a.length; i++) {
+            s += a[i] * b[i];
+        }
+        return s;
+    }
+
+    private static int countCodes(String db) throws Exception {
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + db);
+             PreparedStatement ps = c.prepareStatement("SELECT COUNT(*) FROM memories WHERE vector_q8 IS NOT NULL");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
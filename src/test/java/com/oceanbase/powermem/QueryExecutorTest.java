@@ -0,0 +1,123 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.storage.pool.QueryExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryExecutorTest {
+
+    @Test
+    void testExecutor_fullQueueRunsOnCallerAndIsReported() throws Exception {
+        try (QueryExecutor executor = new QueryExecutor("test-query", 1, 1)) {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch started = new CountDownLatch(1);
+            CompletableFuture<String> running = executor.submit(() -> {
+                started.countDown();
+                await(release);
+                return Thread.currentThread().getName();
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = executor.submit(() -> Thread.currentThread().getName());
+            CompletableFuture<String> inline = executor.submit(() -> Thread.currentThread().getName());
+
+            assertTrue(inline.isDone(), "queue full: ran on the caller");
+            assertEquals(Thread.currentThread().getName(), inline.get());
+            assertEquals(1, executor.getStats().getCallerRunsCount());
+            assertEquals(1, executor.getStats().getMaxQueued());
+
+            release.countDown();
+            assertTrue(executor.await(running, 0L).startsWith("test-query-"));
+            assertTrue(executor.await(queued, 0L).startsWith("test-query-"));
+            QueryExecutor.QueryExecutorStats stats = executor.getStats();
+            assertEquals(3, stats.getSubmittedCount());
+            assertEquals(3, stats.getCompletedCount());
+            assertEquals(0, stats.getDeadlineMissCount());
+        }
+    }
+
+    @Test
+    void testExecutor_deadlineMissAndFailuresSurfaceToTheCaller() throws Exception {
+        try (QueryExecutor executor = new QueryExecutor("test-query", 2, 4)) {
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Integer> slow = executor.submit(() -> {
+                await(release);
+                return 1;
+            });
+            long t0 = System.nanoTime();
+            assertThrows(TimeoutException.class,
+                    () -> executor.await(slow, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50)));
+            assertTrue(System.nanoTime() - t0 < TimeUnit.SECONDS.toNanos(2));
+            assertEquals(1, executor.getStats().getDeadlineMissCount());
+
+            CompletableFuture<Integer> failing = executor.submit(() -> {
+                throw new IllegalStateException("db down");
+            });
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> executor.await(failing, 0L));
+            assertEquals("db down", ex.getCause().getMessage());
+
+            release.countDown();
+            assertEquals(1, executor.await(slow, 0L));
+        }
+    }
+
+    @Test
+    void testExecutor_taskDeadlineSkipsStaleTasksAndBoundsStatements() throws Exception {
+        try (QueryExecutor executor = new QueryExecutor("test-query", 1, 4)) {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch started = new CountDownLatch(1);
+            CompletableFuture<Integer> blocker = executor.submit(() -> {
+                started.countDown();
+                await(release);
+                return 1;
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            AtomicBoolean ran = new AtomicBoolean();
+            CompletableFuture<Integer> stale = executor.submit(() -> {
+                ran.set(true);
+                return 2;
+            }, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20));
+            Thread.sleep(60);
+            release.countDown();
+            assertEquals(1, executor.await(blocker, 0L));
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> executor.await(stale, 0L));
+            assertTrue(ex.getCause() instanceof TimeoutException);
+            assertFalse(ran.get(), "a task queued past its deadline is not run");
+            assertEquals(1, executor.getStats().getExpiredInQueueCount());
+
+            try (Connection c = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+                CompletableFuture<Integer> bounded = executor.submit(() -> {
+                    try (Statement st = c.createStatement()) {
+                        QueryExecutor.applyDeadline(st);
+                        return st.getQueryTimeout();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2500));
+                assertEquals(3, executor.await(bounded, 0L), "remaining time rounded up to whole seconds");
+                try (Statement st = c.createStatement()) {
+                    QueryExecutor.applyDeadline(st);
+                    assertEquals(0, st.getQueryTimeout(), "no-op outside a task with a deadline");
+                }
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SQLiteDeleteAllTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testDeleteAll_chunkedWithProgressAndArchivedHistory() throws Exception {
+        String path = tempDir.resolve("delete.db").toString();
+        VectorStoreConfig cfg = VectorStoreConfig.sqlite(path);
+        cfg.setDeleteChunkSize(10);
+        SQLiteVectorStore store = new SQLiteVectorStore(cfg);
+        for (int i = 1; i <= 28; i++) {
+            MemoryRecord r = new MemoryRecord();
+            r.setId(Integer.toString(i));
+            r.setContent("fact " + i);
+            r.setUserId(i <= 25 ? "u1" : "u2");
+            store.upsert(r, new float[] {i, 1f});
+        }
+
+        List<Integer> progress = new ArrayList<>();
+        int deleted = store.deleteAll("u1", null, null, progress::add);
+
+        assertEquals(25, deleted);
+        assertEquals(Arrays.asList(10, 20, 25), progress);
+        assertTrue(store.list("u1", null, null, 0, 100).isEmpty());
+        assertEquals(3, store.list("u2", null, null, 0, 100).size());
+        assertEquals(0, store.deleteAll("u1", null, null));
+        store.close();
+
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + path);
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*), COUNT(DISTINCT id) FROM history"
+                     + " WHERE event = 'DELETE' AND is_deleted = 1 AND actor_id = 'u1'"
+                     + " AND old_memory LIKE 'fact %' AND new_memory IS NULL")) {
+            assertTrue(rs.next());
+            assertEquals(25, rs.getInt(1));
+            assertEquals(25, rs.getInt(2));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.base.OutputData;
+import com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore;
+import com.oceanbase.powermem.sdk.util.HnswIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SQLiteHnswIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testHnswIndex_recallAndPersistence() throws Exception {
+        Random rnd = new Random(7);
+        HnswIndex idx = new HnswIndex(16, 100);
+        float[][] data = new float[500][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = randomVector(rnd, 32);
+            assertTrue(idx.add(i, data[i]));
+        }
+        assertEquals(500, idx.size());
+
+        int hits = 0;
+        for (int q = 0; q < 20; q++) {
+            float[] query = data[rnd.nextInt(data.length)];
+            List<HnswIndex.Neighbor> res = idx.search(query, 5, 64);
+            assertFalse(res.isEmpty());
+            if (res.get(0).getScore() > 0.999) {
+                hits++;
+            }
+        }
+        assertTrue(hits >= 19, "self-recall too low: " + hits);
+
+        assertTrue(idx.remove(3));
+        assertFalse(idx.contains(3));
+        for (HnswIndex.Neighbor n : idx.search(data[3], 10, 64)) {
+            assertNotEquals(3L, n.getId());
+        }
+
+        Path file = tempDir.resolve("idx.hnsw");
+        idx.save(file);
+        HnswIndex loaded = HnswIndex.load(file, 16, 100);
+        assertNotNull(loaded);
+        assertEquals(499, loaded.size());
+        assertEquals(idx.search(data[10], 1, 64).get(0).getId(), loaded.search(data[10], 1, 64).get(0).getId());
+        assertNull(HnswIndex.load(file, 8, 100), "parameter mismatch must force a rebuild");
+    }
+
+    @Test
+    void testSqliteStore_searchUsesIndexWithFiltersAndReopen() {
+        Path db = tempDir.resolve("hnsw.db");
+        VectorStoreConfig cfg = VectorStoreConfig.sqlite(db.toString());
+        cfg.setHnswEnabled(true);
+        cfg.setHnswEfSearch(32);
+
+        Random rnd = new Random(11);
+        Map<String, float[]> vectors = new HashMap<>();
+        SQLiteVectorStore store = new SQLiteVectorStore(cfg);
+        for (int i = 1; i <= 120; i++) {
+            MemoryRecord r = new MemoryRecord();
+            r.setId(Long.toString(1000 + i));
+            r.setContent("memory " + i);
+            // user "u2" is rare: exercises over-fetch / exact fallback
+            r.setUserId(i % 20 == 0 ? "u2" : "u1");
+            float[] v = randomVector(rnd, 16);
+            vectors.put(r.getId(), v);
+            store.upsert(r, v);
+        }
+
+        List<OutputData> res = store.search(vectors.get("1050"), 3, "u1", null, null, null);
+        assertEquals(3, res.size());
+        assertEquals("1050", res.get(0).getRecord().getId());
+
+        List<OutputData> rare = store.search(vectors.get("1001"), 3, "u2", null, null, null);
+        assertEquals(3, rare.size());
+        for (OutputData d : rare) {
+            assertEquals("u2", d.getRecord().getUserId());
+        }
+
+        assertTrue(store.delete("1050", "u1", null));
+        List<OutputData> afterDelete = store.search(vectors.get("1050"), 3, "u1", null, null, null);
+        for (OutputData d : afterDelete) {
+            assertNotEquals("1050", d.getRecord().getId());
+        }
+
+        // reopen: index file is reconciled against the table
+        SQLiteVectorStore reopened = new SQLiteVectorStore(cfg);
+        assertTrue(Files.exists(tempDir.resolve("hnsw.db.memories.hnsw")));
+        List<OutputData> again = reopened.search(vectors.get("1077"), 1, null, null, null, null);
+        assertEquals("1077", again.get(0).getRecord().getId());
+        List<OutputData> deleted = reopened.search(vectors.get("1050"), 5, null, null, null, null);
+        for (OutputData d : deleted) {
+            assertNotEquals("1050", d.getRecord().getId());
+        }
+    }
+
+    private static float[] randomVector(Random rnd, int dims) {
+        float[] v = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            v[i] = (float) rnd.nextGaussian();
+        }
+        return v;
+    }
+}
@@ -0,0 +1,66 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SQLitePayloadUpdateTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testUpdatePayloadFields_setsOnlyGivenKeysWithJsonTypes() throws Exception {
+        SQLiteVectorStore store = new SQLiteVectorStore(tempDir.resolve("payload.db").toString(), "memories", true, 30);
+        MemoryRecord r = new MemoryRecord();
+        r.setId("42");
+        r.setContent("likes tea");
+        r.setUserId("u1");
+        r.setMetadata(Collections.singletonMap("source", "chat"));
+        store.upsert(r, new float[] {1f, 0f});
+
+        Map<String, Object> intelligence = new HashMap<>();
+        intelligence.put("importance_score", 0.5);
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("access_count", 3);
+        updates.put("memory_type", "working");
+        updates.put("intelligence", intelligence);
+        store.updatePayloadFields("42", updates);
+
+        MemoryRecord got = store.get("42", "u1", null);
+        assertEquals("likes tea", got.getContent());
+        assertEquals("chat", got.getMetadata().get("source"));
+        assertEquals(3, ((Number) got.getAttributes().get("access_count")).intValue());
+        assertEquals("working", got.getAttributes().get("memory_type"));
+        assertEquals(0.5, ((Number) ((Map<?, ?>) got.getAttributes().get("intelligence")).get("importance_score")).doubleValue(), 1e-9);
+        assertTrue(got.getUpdatedAt().compareTo(got.getCreatedAt()) >= 0);
+
+        // concurrent writers of different keys do not overwrite each other
+        Thread a = new Thread(() -> {
+            for (int i = 1; i <= 30; i++) {
+                store.updatePayloadFields("42", Collections.singletonMap("search_count", i));
+            }
+        });
+        Thread b = new Thread(() -> {
+            for (int i = 1; i <= 30; i++) {
+                store.updatePayloadFields("42", Collections.singletonMap("access_count", 100 + i));
+            }
+        });
+        a.start();
+        b.start();
+        a.join();
+        b.join();
+        got = store.get("42", "u1", null);
+        assertEquals(30, ((Number) got.getAttributes().get("search_count")).intValue());
+        assertEquals(130, ((Number) got.getAttributes().get("access_count")).intValue());
+        store.close();
+    }
+}
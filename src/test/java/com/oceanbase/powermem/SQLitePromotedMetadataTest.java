@@ -0,0 +1,112 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.config.VectorStoreConfig;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.base.OutputData;
+import com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SQLitePromotedMetadataTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static void put(SQLiteVectorStore store, String id, String tenant) {
+        MemoryRecord r = new MemoryRecord();
+        r.setId(id);
+        r.setContent("fact " + id);
+        r.setUserId("u1");
+        r.setMetadata(Collections.singletonMap("tenant", tenant));
+        store.upsert(r, new float[] {1f, Float.parseFloat(id)});
+    }
+
+    private static Set<String> idsForTenant(SQLiteVectorStore store, String tenant) {
+        List<OutputData> hits = store.search(new float[] {1f, 0f}, 10, "u1", null, null,
+                Collections.singletonMap("metadata.tenant", tenant));
+        Set<String> ids = new HashSet<>();
+        for (OutputData d : hits) {
+            ids.add(d.getRecord().getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void testPromotedKey_backfilledIndexedAndUsedByFilters() throws Exception {
+        String path = tempDir.resolve("promoted.db").toString();
+        SQLiteVectorStore plain = new SQLiteVectorStore(VectorStoreConfig.sqlite(path));
+        put(plain, "1", "acme");
+        put(plain, "2", "globex");
+        plain.close();
+
+        VectorStoreConfig cfg = VectorStoreConfig.sqlite(path);
+        cfg.setPromotedMetadataKeys(Arrays.asList(" tenant ", "bad.key", ""));
+        SQLiteVectorStore store = new SQLiteVectorStore(cfg);
+        put(store, "3", "acme");
+
+        assertEquals(new HashSet<>(Arrays.asList("1", "3")), idsForTenant(store, "acme"));
+        assertEquals(Collections.singleton("2"), idsForTenant(store, "globex"));
+
+        store.updatePayloadFields("2", Collections.singletonMap("metadata", Collections.singletonMap("tenant", "acme")));
+        assertEquals(new HashSet<>(Arrays.asList("1", "2", "3")), idsForTenant(store, "acme"));
+        store.close();
+
+        // reopening with the same key reuses the existing column
+        new SQLiteVectorStore(cfg).close();
+
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + path);
+             Statement st = c.createStatement()) {
+            try (ResultSet rs = st.executeQuery("EXPLAIN QUERY PLAN SELECT id FROM memories WHERE meta_tenant = 'acme'")) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString("detail")).append('\n');
+                }
+                assertTrue(plan.toString().contains("idx_memories_meta_tenant"), plan.toString());
+            }
+            try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM pragma_table_xinfo('memories') WHERE name LIKE 'meta_%'")) {
+                assertTrue(rs.next());
+                assertEquals(1, rs.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    void testMixedCaseKey_notPromotedAndStillFiltered() throws Exception {
+        String path = tempDir.resolve("mixed.db").toString();
+        VectorStoreConfig cfg = VectorStoreConfig.sqlite(path);
+        cfg.setPromotedMetadataKeys(Collections.singletonList("tenantId"));
+        SQLiteVectorStore store = new SQLiteVectorStore(cfg);
+        MemoryRecord r = new MemoryRecord();
+        r.setId("1");
+        r.setContent("fact 1");
+        r.setUserId("u1");
+        r.setMetadata(Collections.singletonMap("tenantId", "acme"));
+        store.upsert(r, new float[] {1f, 1f});
+
+        List<OutputData> hits = store.search(new float[] {1f, 0f}, 10, "u1", null, null,
+                Collections.singletonMap("metadata.tenantId", "acme"));
+        assertEquals(1, hits.size());
+        store.close();
+
+        // a meta_tenantid column would read '$.metadata.tenantId' yet look like the column for 'tenantid'
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + path);
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM pragma_table_xinfo('memories') WHERE name LIKE 'meta_%'")) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+}
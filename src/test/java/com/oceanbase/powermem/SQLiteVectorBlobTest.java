@@ -0,0 +1,108 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.base.OutputData;
+import com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore;
+import com.oceanbase.powermem.sdk.util.VectorCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SQLiteVectorBlobTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testVectorBlob_writtenOnUpsertAndBackfilledForJsonOnlyRows() throws Exception {
+        String db = tempDir.resolve("blob.db").toString();
+        SQLiteVectorStore store = new SQLiteVectorStore(db, "memories", true, 30);
+
+        MemoryRecord r = new MemoryRecord();
+        r.setId("1");
+        r.setContent("java written");
+        r.setUserId("u1");
+        store.upsert(r, new float[] {1f, 0f, 0f});
+        assertArrayEquals(new float[] {1f, 0f, 0f}, VectorCodec.fromFloat32LE(readBlob(db, 1)));
+
+        // Python-style row: JSON vector only
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + db);
+             PreparedStatement ps = c.prepareStatement("INSERT INTO memories (id, vector, payload) VALUES (?, ?, ?)")) {
+            ps.setLong(1, 2);
+            ps.setString(2, "[0.0, 1.0, 0.0]");
+            ps.setString(3, "{\"data\":\"python written\",\"user_id\":\"u1\"}");
+            ps.executeUpdate();
+        }
+        assertNull(readBlob(db, 2));
+
+        List<OutputData> res = store.search(new float[] {0f, 1f, 0f}, 1, "u1", null, null, null);
+        assertEquals("2", res.get(0).getRecord().getId());
+        assertEquals(1.0, res.get(0).getScore(), 1e-6);
+        assertArrayEquals(new float[] {0f, 1f, 0f}, VectorCodec.fromFloat32LE(readBlob(db, 2)));
+
+        // JSON-only rewrite must invalidate the binary copy
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + db);
+             PreparedStatement ps = c.prepareStatement("UPDATE memories SET vector=? WHERE id=?")) {
+            ps.setString(1, "[0.0, 0.0, 1.0]");
+            ps.setLong(2, 2);
+            ps.executeUpdate();
+        }
+        assertNull(readBlob(db, 2));
+        res = store.search(new float[] {0f, 0f, 1f}, 1, "u1", null, null, null);
+        assertEquals("2", res.get(0).getRecord().getId());
+        assertEquals(1.0, res.get(0).getScore(), 1e-6);
+    }
+
+    @Test
+    void testVectorNorm_persistedResetOnJsonRewriteAndBackfilled() throws Exception {
+        String db = tempDir.resolve("norm.db").toString();
+        SQLiteVectorStore store = new SQLiteVectorStore(db, "memories", true, 30);
+
+        MemoryRecord r = new MemoryRecord();
+        r.setId("1");
+        r.setContent("java written");
+        r.setUserId("u1");
+        store.upsert(r, new float[] {3f, 4f, 0f});
+        assertEquals(5.0, readNorm(db, 1), 1e-9);
+
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + db);
+             PreparedStatement ps = c.prepareStatement("UPDATE memories SET vector=?, vector_blob=NULL WHERE id=?")) {
+            ps.setString(1, "[0.0, 2.0, 0.0]");
+            ps.setLong(2, 1);
+            ps.executeUpdate();
+        }
+        assertNull(readNorm(db, 1));
+
+        List<OutputData> res = store.search(new float[] {0f, 1f, 1f}, 1, "u1", null, null, null);
+        assertEquals(Math.sqrt(0.5), res.get(0).getScore(), 1e-6);
+        assertEquals(2.0, readNorm(db, 1), 1e-9);
+    }
+
+    private static Double readNorm(String db, long id) throws Exception {
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + db);
+             PreparedStatement ps = c.prepareStatement("SELECT vector_norm FROM memories WHERE id=?")) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? (Double) rs.getObject(1) : null;
+            }
+        }
+    }
+
+    private static byte[] readBlob(String db, long id) throws Exception {
+        try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + db);
+             PreparedStatement ps = c.prepareStatement("SELECT vector_blob FROM memories WHERE id=?")) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getBytes(1) : null;
+            }
+        }
+    }
+}
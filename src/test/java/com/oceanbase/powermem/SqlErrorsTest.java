@@ -0,0 +1,31 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.util.SqlErrors;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlErrorsTest {
+
+    @Test
+    void testUnsupportedStatement_onlyForServerRejections() {
+        assertTrue(SqlErrors.isUnsupportedStatement(new SQLSyntaxErrorException("You have an error in your SQL syntax", "42000", 1064)));
+        assertTrue(SqlErrors.isUnsupportedStatement(new SQLException("Not supported feature or function", "0A000", 1235)));
+        assertTrue(SqlErrors.isUnsupportedStatement(new SQLFeatureNotSupportedException("no")));
+        assertTrue(SqlErrors.isUnsupportedStatement(new RuntimeException("wrapped",
+                new SQLSyntaxErrorException("near 'APPROXIMATE'", "42000", 1064))));
+
+        assertFalse(SqlErrors.isUnsupportedStatement(new SQLTimeoutException("Query execution was interrupted", "70100", 1317)));
+        assertFalse(SqlErrors.isUnsupportedStatement(new SQLTransientConnectionException("Communications link failure", "08S01")));
+        // a missing table is also a "syntax" SQLState, but not a statement the server cannot run
+        assertFalse(SqlErrors.isUnsupportedStatement(new SQLSyntaxErrorException("Table 't' doesn't exist", "42S02", 1146)));
+        assertFalse(SqlErrors.isUnsupportedStatement(new IllegalStateException("pool exhausted")));
+        assertFalse(SqlErrors.isUnsupportedStatement(null));
+    }
+}
@@ -0,0 +1,105 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.integrations.embeddings.Embedder;
+import com.oceanbase.powermem.sdk.model.MemoryRecord;
+import com.oceanbase.powermem.sdk.storage.adapter.StorageAdapter;
+import com.oceanbase.powermem.sdk.storage.sqlite.SQLiteVectorStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StorageAdapterApplyActionsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testApplyActions_batchesLookupsEmbeddingsAndWrites() {
+        List<String> batchCalls = new ArrayList<>();
+        AtomicInteger singleEmbeds = new AtomicInteger();
+        Embedder embedder = new Embedder() {
+            @Override
+            public float[] embed(String text) {
+                singleEmbeds.incrementAndGet();
+                return new float[] {text.length(), 1f};
+            }
+
+            @Override
+            public List<float[]> embedBatch(List<String> texts, String memoryAction) {
+                batchCalls.add(memoryAction + ":" + texts.size());
+                List<float[]> out = new ArrayList<>();
+                for (String t : texts) {
+                    out.add(new float[] {t.length(), 1f});
+                }
+                return out;
+            }
+
+            @Override
+            public List<float[]> embedBatch(List<String> texts) {
+                return embedBatch(texts, null);
+            }
+        };
+        AtomicInteger lookups = new AtomicInteger();
+        AtomicInteger transactions = new AtomicInteger();
+        SQLiteVectorStore store = new SQLiteVectorStore(tempDir.resolve("actions.db").toString(), "memories", true, 30) {
+            @Override
+            public Map<String, MemoryRecord> getBatch(Collection<String> memoryIds, String userId, String agentId) {
+                lookups.incrementAndGet();
+                return super.getBatch(memoryIds, userId, agentId);
+            }
+
+            @Override
+            public int applyBatch(List<MemoryRecord> upserts, List<float[]> embeddings, Collection<String> deleteIds) {
+                transactions.incrementAndGet();
+                return super.applyBatch(upserts, embeddings, deleteIds);
+            }
+        };
+        StorageAdapter adapter = new StorageAdapter(store, embedder);
+        MemoryRecord keep = adapter.addMemory("likes tea", "u1", null, null, null, null);
+        MemoryRecord drop = adapter.addMemory("lives in Paris", "u1", null, null, null, null);
+        MemoryRecord other = adapter.addMemory("other user", "u2", null, null, null, null);
+        singleEmbeds.set(0);
+        transactions.set(0);
+
+        List<StorageAdapter.MemoryAction> actions = Arrays.asList(
+                StorageAdapter.MemoryAction.add("likes coffee", Collections.singletonMap("importance_score", 0.7)),
+                StorageAdapter.MemoryAction.update(keep.getId(), "likes green tea", Collections.singletonMap("access_count", 0)),
+                StorageAdapter.MemoryAction.delete(drop.getId()),
+                StorageAdapter.MemoryAction.update(other.getId(), "not visible to u1", null),
+                StorageAdapter.MemoryAction.delete("12345"),
+                StorageAdapter.MemoryAction.add("works remotely", null));
+        List<MemoryRecord> applied = adapter.applyActions(actions, "u1", null, null, null, null, null, 10);
+
+        assertEquals(6, applied.size());
+        assertEquals("likes coffee", applied.get(0).getContent());
+        assertEquals("likes green tea", applied.get(1).getContent());
+        assertEquals("lives in Paris", applied.get(2).getContent());
+        assertNull(applied.get(3), "out-of-scope id is skipped");
+        assertNull(applied.get(4), "unknown id is skipped");
+        assertEquals("works remotely", applied.get(5).getContent());
+
+        assertEquals(1, lookups.get());
+        assertEquals(1, transactions.get());
+        assertEquals(Arrays.asList("add:2", "update:1"), batchCalls);
+        assertEquals(0, singleEmbeds.get());
+
+        MemoryRecord updated = store.get(keep.getId(), "u1", null);
+        assertEquals("likes green tea", updated.getContent());
+        assertEquals(0, ((Number) updated.getAttributes().get("access_count")).intValue());
+        assertNull(store.get(drop.getId(), "u1", null));
+        assertEquals("other user", store.get(other.getId(), "u2", null).getContent());
+        assertEquals(0.7, ((Number) store.get(applied.get(0).getId(), "u1", null)
+                .getAttributes().get("importance_score")).doubleValue(), 1e-9);
+        assertEquals(3, store.list("u1", null, null, 0, 100).size());
+    }
+}
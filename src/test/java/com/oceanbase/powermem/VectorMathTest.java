@@ -0,0 +1,62 @@
+package com.oceanbase.powermem;
+
+import com.oceanbase.powermem.sdk.util.VectorMath;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VectorMathTest {
+
+    @Test
+    void testKernels_matchNaiveLoopsForOddLengths() {
+        Random rnd = new Random(11);
+        for (int n : new int[] {1, 2, 3, 5, 7, 64, 1537}) {
+            float[] a = new float[n];
+            float[] b = new float[n];
+            for (int i = 0; i < n; i++) {
+                a[i] = (float) rnd.nextGaussian();
+                b[i] = (float) rnd.nextGaussian();
+            }
+            double dot = 0.0;
+            double na = 0.0;
+            double nb = 0.0;
+            double l2 = 0.0;
+            for (int i = 0; i < n; i++) {
+                dot += (double) a[i] * b[i];
+                na += (double) a[i] * a[i];
+                nb += (double) b[i] * b[i];
+                l2 += ((double) a[i] - b[i]) * ((double) a[i] - b[i]);
+            }
+            assertEquals(dot / Math.sqrt(na * nb), VectorMath.cosineSimilarity(a, b), 1e-9);
+            assertEquals(dot, VectorMath.dot(a, b), 1e-9);
+            assertEquals(Math.sqrt(l2), VectorMath.l2Distance(a, b), 1e-9);
+            assertEquals(Math.sqrt(na), VectorMath.norm(a), 1e-9);
+
+            float[] ua = VectorMath.normalize(a);
+            float[] ub = VectorMath.normalize(b);
+            assertEquals(VectorMath.cosineSimilarity(a, b), VectorMath.dot(ua, ub), 1e-6);
+            assertEquals(VectorMath.cosineSimilarity(a, b), VectorMath.cosineToUnit(ua, b), 1e-6);
+        }
+    }
+
+    @Test
+    void testDotBatch_scoresContiguousRows() {
+        float[] q = {1f, 2f, 3f};
+        float[] rows = {0f, 0f, 0f, 1f, 0f, 0f, 0f, 1f, 0f, 1f, 1f, 1f};
+        double[] out = new double[3];
+        VectorMath.dotBatch(q, rows, 1, 3, out);
+        assertArrayEquals(new double[] {1.0, 2.0, 6.0}, out, 1e-9);
+    }
+
+    @Test
+    void testEdgeCases() {
+        assertEquals(0.0, VectorMath.cosineSimilarity(new float[] {0f, 0f}, new float[] {1f, 0f}));
+        assertEquals(0.0, VectorMath.cosineSimilarity(null, new float[] {1f}));
+        assertEquals(Double.POSITIVE_INFINITY, VectorMath.l2Distance(null, new float[] {1f}));
+        assertNull(VectorMath.normalize(new float[] {0f, 0f}));
+        assertNull(VectorMath.normalize(new float[0]));
+        assertEquals(0.0, VectorMath.cosineToUnit(new float[] {1f, 0f}, new float[] {0f, 0f}));
+    }
+}